@@ -0,0 +1,176 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.wildfly.core.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.controller.AbstractControllerService;
+import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.CapabilityRegistry;
+import org.jboss.as.controller.CompositeOperationHandler;
+import org.jboss.as.controller.ControlledProcessState;
+import org.jboss.as.controller.ExpressionResolver;
+import org.jboss.as.controller.ManagementModel;
+import org.jboss.as.controller.ModelOnlyAddStepHandler;
+import org.jboss.as.controller.ModelOnlyRemoveStepHandler;
+import org.jboss.as.controller.ModelOnlyWriteAttributeHandler;
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.ProcessType;
+import org.jboss.as.controller.ResourceBuilder;
+import org.jboss.as.controller.RunningMode;
+import org.jboss.as.controller.RunningModeControl;
+import org.jboss.as.controller.SimpleAttributeDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.SimpleResourceDefinition;
+import org.jboss.as.controller.StringListAttributeDefinition;
+import org.jboss.as.controller.access.management.DelegatingConfigurableAuthorizer;
+import org.jboss.as.controller.access.management.ManagementSecurityIdentitySupplier;
+import org.jboss.as.controller.audit.AuditLogger;
+import org.jboss.as.controller.descriptions.NonResolvingResourceDescriptionResolver;
+import org.jboss.as.controller.descriptions.StandardResourceDescriptionResolver;
+import org.jboss.as.controller.operations.global.GlobalNotifications;
+import org.jboss.as.controller.operations.global.GlobalOperationHandlers;
+import org.jboss.as.controller.persistence.NullConfigurationPersister;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.as.controller.registry.Resource;
+import org.jboss.as.version.Stability;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+import org.jboss.msc.service.StartContext;
+import org.jboss.msc.service.StartException;
+
+/**
+ * An in-VM {@code Service<ModelController>} hosting a synthetic management model for the benchmarks.
+ * <p>
+ * The model consists of a configurable number of {@code child=*} resources, each with a handful of
+ * attributes and {@code grandchild=*} resources, so that read and write operations exercise the same
+ * {@code ModelControllerImpl} / {@code OperationContextImpl} code paths as a real server without any
+ * subsystem or persistence cost.
+ */
+public class BenchmarkControllerService extends AbstractControllerService {
+
+    static final String CHILD = "child";
+    static final String GRANDCHILD = "grandchild";
+
+    static final SimpleAttributeDefinition INT_ATTR = new SimpleAttributeDefinitionBuilder("int-attr", ModelType.INT, true)
+            .setAllowExpression(true)
+            .build();
+    static final SimpleAttributeDefinition STRING_ATTR = new SimpleAttributeDefinitionBuilder("string-attr", ModelType.STRING, true)
+            .setAllowExpression(true)
+            .build();
+    static final StringListAttributeDefinition LIST_ATTR = StringListAttributeDefinition.Builder.of("list-attr")
+            .setRequired(false)
+            .build();
+    static final SimpleAttributeDefinition VALUE = new SimpleAttributeDefinitionBuilder("value", ModelType.STRING, true)
+            .build();
+
+    private static final String RESOURCE_NAME = BenchmarkControllerService.class.getPackage().getName() + ".LocalDescriptions";
+
+    private final int childCount;
+    private final int grandchildCount;
+    private final CountDownLatch latch = new CountDownLatch(2);
+
+    /**
+     * Creates a new service.
+     *
+     * @param childCount      the number of {@code child=*} resources to create in the model
+     * @param grandchildCount the number of {@code grandchild=*} resources to create under each child
+     */
+    public BenchmarkControllerService(int childCount, int grandchildCount) {
+        super(null, null, ProcessType.EMBEDDED_SERVER, Stability.DEFAULT, new RunningModeControl(RunningMode.NORMAL),
+                new NullConfigurationPersister(), new ControlledProcessState(true),
+                ResourceBuilder.Factory.create(PathElement.pathElement("root"), NonResolvingResourceDescriptionResolver.INSTANCE).build(),
+                null, ExpressionResolver.TEST_RESOLVER, AuditLogger.NO_OP_LOGGER, new DelegatingConfigurableAuthorizer(),
+                new ManagementSecurityIdentitySupplier(), new CapabilityRegistry(true), null);
+        this.childCount = childCount;
+        this.grandchildCount = grandchildCount;
+    }
+
+    public void awaitStartup(long timeout, TimeUnit timeUnit) throws InterruptedException {
+        if (!latch.await(timeout, timeUnit)) {
+            throw new IllegalStateException("Failed to boot in timely fashion");
+        }
+    }
+
+    @Override
+    public void start(StartContext context) throws StartException {
+        super.start(context);
+        latch.countDown();
+    }
+
+    @Override
+    protected void bootThreadDone() {
+        super.bootThreadDone();
+        latch.countDown();
+    }
+
+    @Override
+    protected void initModel(ManagementModel managementModel, Resource modelControllerResource) {
+        ManagementResourceRegistration rootRegistration = managementModel.getRootResourceRegistration();
+        GlobalOperationHandlers.registerGlobalOperations(rootRegistration, ProcessType.EMBEDDED_SERVER);
+        GlobalNotifications.registerGlobalNotifications(rootRegistration, ProcessType.EMBEDDED_SERVER);
+        rootRegistration.registerOperationHandler(CompositeOperationHandler.DEFINITION, CompositeOperationHandler.INSTANCE);
+        rootRegistration.registerSubModel(new ChildResourceDefinition());
+
+        Resource root = managementModel.getRootResource();
+        for (int i = 0; i < childCount; i++) {
+            Resource child = Resource.Factory.create();
+            ModelNode model = child.getModel();
+            model.get(INT_ATTR.getName()).set(i);
+            model.get(STRING_ATTR.getName()).set("value-" + i);
+            model.get(LIST_ATTR.getName()).add("a").add("b").add("c");
+            for (int j = 0; j < grandchildCount; j++) {
+                Resource grandchild = Resource.Factory.create();
+                grandchild.getModel().get(VALUE.getName()).set(i + "-" + j);
+                child.registerChild(PathElement.pathElement(GRANDCHILD, GRANDCHILD + "-" + j), grandchild);
+            }
+            root.registerChild(PathElement.pathElement(CHILD, CHILD + "-" + i), child);
+        }
+    }
+
+    static StandardResourceDescriptionResolver getResolver(final String keyPrefix) {
+        return new StandardResourceDescriptionResolver(keyPrefix, RESOURCE_NAME, BenchmarkControllerService.class.getClassLoader(), true, false);
+    }
+
+    private static class ChildResourceDefinition extends SimpleResourceDefinition {
+
+        private static final List<AttributeDefinition> ATTRIBUTES = List.of(INT_ATTR, STRING_ATTR, LIST_ATTR);
+
+        ChildResourceDefinition() {
+            super(new Parameters(PathElement.pathElement(CHILD), getResolver("benchmark." + CHILD))
+                    .setAddHandler(ModelOnlyAddStepHandler.INSTANCE)
+                    .setRemoveHandler(ModelOnlyRemoveStepHandler.INSTANCE));
+        }
+
+        @Override
+        public void registerAttributes(ManagementResourceRegistration resourceRegistration) {
+            for (AttributeDefinition attribute : ATTRIBUTES) {
+                resourceRegistration.registerReadWriteAttribute(attribute, null, ModelOnlyWriteAttributeHandler.INSTANCE);
+            }
+        }
+
+        @Override
+        public void registerChildren(ManagementResourceRegistration resourceRegistration) {
+            resourceRegistration.registerSubModel(new GrandchildResourceDefinition());
+        }
+    }
+
+    private static class GrandchildResourceDefinition extends SimpleResourceDefinition {
+
+        GrandchildResourceDefinition() {
+            super(new Parameters(PathElement.pathElement(GRANDCHILD), getResolver("benchmark." + CHILD + "." + GRANDCHILD))
+                    .setAddHandler(ModelOnlyAddStepHandler.INSTANCE)
+                    .setRemoveHandler(ModelOnlyRemoveStepHandler.INSTANCE));
+        }
+
+        @Override
+        public void registerAttributes(ManagementResourceRegistration resourceRegistration) {
+            resourceRegistration.registerReadWriteAttribute(VALUE, null, ModelOnlyWriteAttributeHandler.INSTANCE);
+        }
+    }
+}
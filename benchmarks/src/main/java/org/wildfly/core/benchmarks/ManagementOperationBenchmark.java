@@ -0,0 +1,181 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.wildfly.core.benchmarks;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILURE_DESCRIPTION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.INCLUDE_RUNTIME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OPERATIONS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUTCOME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_RESOURCE_DESCRIPTION_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_RESOURCE_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RECURSIVE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUCCESS;
+import static org.wildfly.core.benchmarks.BenchmarkControllerService.CHILD;
+import static org.wildfly.core.benchmarks.BenchmarkControllerService.INT_ATTR;
+import static org.wildfly.core.benchmarks.BenchmarkControllerService.STRING_ATTR;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.controller.ModelController;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.operations.common.Util;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceContainer;
+import org.jboss.msc.service.ServiceName;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH benchmarks of the management operation pipeline, executed against an in-VM {@link ModelController}.
+ * <p>
+ * Both throughput and the latency distribution are reported. Results can be compared across commits by
+ * running {@code java -jar benchmarks/target/benchmarks.jar -rf json -rff results.json} on each of them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Djava.util.logging.manager=org.jboss.logmanager.LogManager")
+public class ManagementOperationBenchmark {
+
+    private static final ServiceName CONTROLLER_NAME = ServiceName.of("benchmark", "model-controller");
+
+    @Param({"100", "1000"})
+    int children;
+
+    @Param({"10"})
+    int grandchildren;
+
+    private ServiceContainer container;
+    private ModelController controller;
+
+    private ModelNode readResource;
+    private ModelNode readResourceRecursive;
+    private ModelNode readAttribute;
+    private ModelNode composite;
+    private ModelNode readResourceDescriptionRecursive;
+    private PathAddress writeAddress;
+
+    @Setup(Level.Trial)
+    public void setup() throws InterruptedException {
+        container = ServiceContainer.Factory.create("benchmark");
+        BenchmarkControllerService service = new BenchmarkControllerService(children, grandchildren);
+        container.subTarget().addService(CONTROLLER_NAME).setInstance(service).install();
+        service.awaitStartup(30, TimeUnit.SECONDS);
+        controller = service.getValue();
+
+        PathAddress middle = PathAddress.pathAddress(PathElement.pathElement(CHILD, CHILD + "-" + (children / 2)));
+        writeAddress = middle;
+
+        readResource = Util.getReadResourceOperation(middle);
+        readResource.get(INCLUDE_RUNTIME).set(true);
+
+        readResourceRecursive = Util.createEmptyOperation(READ_RESOURCE_OPERATION, PathAddress.EMPTY_ADDRESS);
+        readResourceRecursive.get(RECURSIVE).set(true);
+
+        readAttribute = Util.getReadAttributeOperation(middle, STRING_ATTR.getName());
+
+        composite = Util.createCompositeOperation(List.of(
+                Util.getReadAttributeOperation(middle, INT_ATTR.getName()),
+                Util.getReadAttributeOperation(middle, STRING_ATTR.getName()),
+                Util.getWriteAttributeOperation(middle, STRING_ATTR.getName(), "composite"),
+                Util.getReadResourceOperation(middle)));
+
+        readResourceDescriptionRecursive = Util.createEmptyOperation(READ_RESOURCE_DESCRIPTION_OPERATION, PathAddress.EMPTY_ADDRESS);
+        readResourceDescriptionRecursive.get(RECURSIVE).set(true);
+        readResourceDescriptionRecursive.get(OPERATIONS).set(true);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        if (container != null) {
+            container.shutdown();
+            container.awaitTermination(5, TimeUnit.SECONDS);
+            container = null;
+        }
+    }
+
+    @Benchmark
+    public ModelNode readResource() {
+        return execute(readResource);
+    }
+
+    @Benchmark
+    public ModelNode readResourceRecursive() {
+        return execute(readResourceRecursive);
+    }
+
+    @Benchmark
+    public ModelNode readAttribute() {
+        return execute(readAttribute);
+    }
+
+    @Benchmark
+    public ModelNode writeAttribute(WriteValue value) {
+        return execute(Util.getWriteAttributeOperation(writeAddress, INT_ATTR.getName(), value.next()));
+    }
+
+    @Benchmark
+    @Group("readWhileWriting")
+    @GroupThreads(3)
+    public ModelNode groupRead() {
+        return execute(readAttribute);
+    }
+
+    @Benchmark
+    @Group("readWhileWriting")
+    public ModelNode groupWrite(WriteValue value) {
+        return execute(Util.getWriteAttributeOperation(writeAddress, INT_ATTR.getName(), value.next()));
+    }
+
+    @Benchmark
+    public ModelNode composite() {
+        return execute(composite);
+    }
+
+    @Benchmark
+    public ModelNode readResourceDescriptionRecursive() {
+        return execute(readResourceDescriptionRecursive);
+    }
+
+    private ModelNode execute(ModelNode operation) {
+        // Handlers are free to modify the request, so never hand the shared instance to the controller
+        ModelNode response = controller.execute(operation.clone(), null, null, null);
+        if (!SUCCESS.equals(response.get(OUTCOME).asString())) {
+            throw new IllegalStateException(operation + " failed: " + response.get(FAILURE_DESCRIPTION));
+        }
+        return response;
+    }
+
+    /**
+     * Source of distinct attribute values, so that each write really changes the model.
+     */
+    @State(Scope.Thread)
+    public static class WriteValue {
+
+        private int value;
+
+        int next() {
+            return value++;
+        }
+    }
+}
@@ -343,6 +343,13 @@ public abstract class AbstractControllerService implements Service<ModelControll
             notifyRegistrySB.setInstance(new SimpleService(notifyRegistrySB.provides(notifyRegistrySN), controller.getNotificationRegistry()));
             notifyRegistrySB.install();
         }
+        // Expose the priority lanes of the operations, if any, to the services of the management interfaces
+        if (controller.getOperationLanes() != null) {
+            final ServiceName operationLanesSN = serviceController.getName().append(ManagementOperationLanes.SERVICE_NAME_SUFFIX);
+            final ServiceBuilder<?> operationLanesSB = target.addService(operationLanesSN);
+            operationLanesSB.setInstance(new SimpleService(operationLanesSB.provides(operationLanesSN), controller.getOperationLanes()));
+            operationLanesSB.install();
+        }
         capabilityRegistry.publish();  // These are visible immediately; no waiting for finishBoot
                                        // We publish even if we didn't register anything in case parent services did
 
@@ -523,6 +530,10 @@ public abstract class AbstractControllerService implements Service<ModelControll
             @Override
             public void run() {
                 try {
+                    // Make sure changes written behind reach the configuration before the process stops or reloads
+                    configurationPersister.flush();
+                    // Likewise for the audit log records queued for the handlers, which are configured again on reload
+                    auditLogger.shutdown();
                     stopAsynchronous(context);
                 } finally {
                     try {
@@ -15,6 +15,7 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.LEV
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OPERATION_HEADERS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OPERATION_PROFILE;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OPERATION_REQUIRES_RELOAD;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OPERATION_REQUIRES_RESTART;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
@@ -174,6 +175,8 @@ abstract class AbstractOperationContext implements OperationContext, AutoCloseab
      * If validation is to be skipped this will be {@code null}
      */
     private final Set<PathAddress> modifiedResourcesForModelValidation;
+    /** Where the time taken by the operation went, or {@code null} for boot and nested read-only contexts */
+    final OperationProfile profile;
 
 
     enum ContextFlag {
@@ -220,6 +223,8 @@ abstract class AbstractOperationContext implements OperationContext, AutoCloseab
         this.extraValidationStepHandler = extraValidationStepHandler;
         this.operationHeaders = operationHeaders == null ? OperationHeaders.forInternalCall() : operationHeaders;
         this.securityIdentitySupplier = securityIdentitySupplier;
+        this.profile = booting || operationHeaders == null ? null
+                : new OperationProfile(operationHeaders.isProfile() ? 0 : SlowOperationLog.INSTANCE.getStepsThreshold());
     }
 
     @Override
@@ -477,6 +482,13 @@ abstract class AbstractOperationContext implements OperationContext, AutoCloseab
             handleUncaughtException(e);
             ControllerLogger.MGMT_OP_LOGGER.unexpectedOperationExecutionException(e, controllerOperations);
         } finally {
+            if (profile != null && initialOperation != null) {
+                if (operationHeaders.isProfile()) {
+                    initialResponse.get(RESPONSE_HEADERS, OPERATION_PROFILE).set(profile.toModelNode());
+                }
+                OperationProfileStatistics.record(initialOperation.get(OP).asString(), profile);
+                logSlowOperation();
+            }
             // On failure close any attached response streams
             if (resultAction != ResultAction.KEEP && !isBooting()) {
                 synchronized (this) {
@@ -672,6 +684,15 @@ abstract class AbstractOperationContext implements OperationContext, AutoCloseab
         }
     }
 
+    private void logSlowOperation() {
+        try {
+            SlowOperationLog.INSTANCE.operationCompleted(initialOperation, isReadOnly(), resultAction == ResultAction.KEEP,
+                    getSecurityIdentity(), SecurityActions.currentAccessAuditContext(), profile);
+        } catch (Exception e) {
+            ControllerLogger.MGMT_OP_LOGGER.debugf(e, "Failed to log slow operation %s", initialOperation.get(OP));
+        }
+    }
+
     /**
      * Record an operation added before execution began (i.e. added by the controller and not by a step)
      * @param operation the operation
@@ -907,15 +928,22 @@ abstract class AbstractOperationContext implements OperationContext, AutoCloseab
 
     private void executeResultHandlerPhase(Throwable toThrow) {
         respectInterruption = false;
+        final long start = profile != null && profile.isRecordingSteps() ? System.nanoTime() : 0;
         try {
             logAuditRecord();
             emitNotifications();
         } finally {
-            if (resultAction != ResultAction.KEEP) {
-                operationRollingBack();
+            try {
+                if (resultAction != ResultAction.KEEP) {
+                    operationRollingBack();
+                }
+                // Execute the result handlers
+                activeStep.finalizeStep(toThrow);
+            } finally {
+                if (start != 0) {
+                    profile.stageTime(Stage.DONE, System.nanoTime() - start);
+                }
             }
-            // Execute the result handlers
-            activeStep.finalizeStep(toThrow);
         }
     }
 
@@ -1049,6 +1077,9 @@ abstract class AbstractOperationContext implements OperationContext, AutoCloseab
             this.activeStep.linkNextStep(step);
         }
         this.activeStep = step;
+        if (profile != null) {
+            profile.stepStarted();
+        }
 
         try {
             try {
@@ -1098,6 +1129,9 @@ abstract class AbstractOperationContext implements OperationContext, AutoCloseab
             }
         } finally {
             addBootFailureDescription();
+            if (profile != null) {
+                profile.stepCompleted(currentStage, step.handler, step.address);
+            }
         }
     }
 
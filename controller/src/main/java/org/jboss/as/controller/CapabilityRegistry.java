@@ -9,7 +9,6 @@ package org.jboss.as.controller;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.HOST;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUBSYSTEM;
 
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
@@ -20,8 +19,7 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.TreeSet;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.jboss.as.controller.capability.Capability;
 import org.jboss.as.controller.capability.RuntimeCapability;
@@ -48,24 +46,18 @@ import org.jboss.msc.service.ServiceName;
  */
 public final class CapabilityRegistry implements ImmutableCapabilityRegistry, PossibleCapabilityRegistry, RuntimeCapabilityRegistry {
 
-    private final Map<CapabilityId, RuntimeCapabilityRegistration> capabilities = new HashMap<>();
-    private final Map<CapabilityId, RuntimeCapabilityRegistration> pendingRemoveCapabilities = new HashMap<>();
-    private final Map<CapabilityId, Map<String, RuntimeRequirementRegistration>> requirements = new HashMap<>();
-    private final Map<CapabilityId, Map<String, RuntimeRequirementRegistration>> pendingRemoveRequirements = new HashMap<>();
-    private final Map<CapabilityId, Map<String, RuntimeRequirementRegistration>> runtimeOnlyRequirements = new HashMap<>();
     private final boolean forServer;
-    private final Set<CapabilityScope> knownContexts;
     private final ResolutionContextImpl resolutionContext = new ResolutionContextImpl();
-    private final Map<CapabilityId, CapabilityRegistration<?>> possibleCapabilities = new ConcurrentHashMap<>();
-    private final Set<CapabilityId> reloadCapabilities = new HashSet<>();
-    private final Set<CapabilityId> restartCapabilities = new HashSet<>();
 
-    private final ReentrantReadWriteLock reentrantReadWriteLock = new ReentrantReadWriteLock();
-    private final ReentrantReadWriteLock.ReadLock readLock = reentrantReadWriteLock.readLock();
-    private final ReentrantReadWriteLock.WriteLock writeLock = reentrantReadWriteLock.writeLock();
+    /**
+     * The current content of the registry. Readers use whatever state is current when they start, without locking;
+     * writers serialize on {@link #writeLock}, update a {@link State#State(State) copy} and then publish it here.
+     */
+    private volatile State state;
+    private final ReentrantLock writeLock = new ReentrantLock();
     //holds reference to parent published registry
     private final CapabilityRegistry publishedFullRegistry;
-    private boolean modified = false;
+    private volatile boolean modified = false;
 
     public CapabilityRegistry(boolean forServer) {
         this(forServer, null);
@@ -73,8 +65,8 @@ public final class CapabilityRegistry implements ImmutableCapabilityRegistry, Po
 
     private CapabilityRegistry(boolean forServer, CapabilityRegistry parent) {//for published view
         this.forServer = forServer;
-        this.knownContexts = forServer ? null : new HashSet<>();
         this.publishedFullRegistry = parent;
+        this.state = new State(forServer);
     }
 
     /**
@@ -85,40 +77,16 @@ public final class CapabilityRegistry implements ImmutableCapabilityRegistry, Po
      */
     CapabilityRegistry createShadowCopy() {
         CapabilityRegistry result = new CapabilityRegistry(forServer, this);
-        readLock.lock();
+        writeLock.lock();
         try {
-            try {
-                result.writeLock.lock();
-                copy(this, result);
-            } finally {
-                result.writeLock.unlock();
-            }
+            result.state = state;
+            result.resolutionContext.copy(resolutionContext);
         } finally {
-            readLock.unlock();
+            writeLock.unlock();
         }
         return result;
     }
 
-    private static void copyCapabilities(final Map<CapabilityId, RuntimeCapabilityRegistration> source,
-                                         final Map<CapabilityId, RuntimeCapabilityRegistration> dest) {
-        for (Map.Entry<CapabilityId, RuntimeCapabilityRegistration> entry : source.entrySet()) {
-            dest.put(entry.getKey(), new RuntimeCapabilityRegistration(entry.getValue()));
-        }
-    }
-
-    private static void copyRequirements(Map<CapabilityId, Map<String, RuntimeRequirementRegistration>> source,
-                                         Map<CapabilityId, Map<String, RuntimeRequirementRegistration>> dest) {
-        for (Map.Entry<CapabilityId, Map<String, RuntimeRequirementRegistration>> entry : source.entrySet()) {
-            Map<String, RuntimeRequirementRegistration> mapCopy = new HashMap<>();
-            for (Map.Entry<String, RuntimeRequirementRegistration> innerEntry : entry.getValue().entrySet()) {
-                mapCopy.put(innerEntry.getKey(), new RuntimeRequirementRegistration(innerEntry.getValue()));
-            }
-            dest.put(entry.getKey(), mapCopy);
-        }
-
-    }
-
-
     /**
      * Registers a capability with the system. Any
      * {@link org.jboss.as.controller.capability.Capability#getRequirements() requirements}
@@ -130,33 +98,37 @@ public final class CapabilityRegistry implements ImmutableCapabilityRegistry, Po
     public void registerCapability(RuntimeCapabilityRegistration capabilityRegistration) {
         writeLock.lock();
         try {
+            final State state = new State(this.state);
             CapabilityId capabilityId = capabilityRegistration.getCapabilityId();
             RegistrationPoint rp = capabilityRegistration.getOldestRegistrationPoint();
-            RuntimeCapabilityRegistration currentRegistration = capabilities.get(capabilityId);
+            RuntimeCapabilityRegistration currentRegistration = state.capabilities.get(capabilityId);
             if (currentRegistration != null) {
                 // The actual capability must be the same, the capability must allow multiple registrations
                 // and we must not already have a registration from this same resource
+                RuntimeCapabilityRegistration updatedRegistration = new RuntimeCapabilityRegistration(currentRegistration);
                 if (!Objects.equals(capabilityRegistration.getCapability(), currentRegistration.getCapability())
                         || !currentRegistration.getCapability().isAllowMultipleRegistrations()
-                        || !currentRegistration.addRegistrationPoint(rp)) {
+                        || !updatedRegistration.addRegistrationPoint(rp)) {
                     throw ControllerLogger.MGMT_OP_LOGGER.capabilityAlreadyRegisteredInContext(capabilityId.getName(),
                                 rp, capabilityId.getScope().getName(), currentRegistration.getRegistrationPoints());
                 }
                 // else it was ok, and we just recorded the additional registration point
+                state.capabilities = state.capabilities.plus(capabilityId, updatedRegistration);
             } else {
-                capabilities.put(capabilityId, capabilityRegistration);
+                state.capabilities = state.capabilities.plus(capabilityId, capabilityRegistration);
             }
 
             // Add any hard requirements
             for (String req : capabilityRegistration.getCapability().getRequirements()) {
-                registerRequirement(new RuntimeRequirementRegistration(req, capabilityId.getName(),
+                registerRequirement(state, new RuntimeRequirementRegistration(req, capabilityId.getName(),
                         capabilityId.getScope(), rp));
             }
 
             if (!forServer) {
                 CapabilityScope capContext = capabilityId.getScope();
-                knownContexts.add(capContext);
+                state.knownContexts = union(state.knownContexts, Collections.singleton(capContext));
             }
+            this.state = state;
             modified = true;
         } finally {
             writeLock.unlock();
@@ -178,7 +150,9 @@ public final class CapabilityRegistry implements ImmutableCapabilityRegistry, Po
     public void registerAdditionalCapabilityRequirement(RuntimeRequirementRegistration requirement) {
         writeLock.lock();
         try {
-            registerRequirement(requirement);
+            final State state = new State(this.state);
+            registerRequirement(state, requirement);
+            this.state = state;
         } finally {
             writeLock.unlock();
         }
@@ -186,29 +160,30 @@ public final class CapabilityRegistry implements ImmutableCapabilityRegistry, Po
 
     /**
      * This must be called with the write lock held.
+     * @param state the state to update
      * @param requirement the requirement
      */
-    private void registerRequirement(RuntimeRequirementRegistration requirement) {
+    private void registerRequirement(State state, RuntimeRequirementRegistration requirement) {
         assert writeLock.isHeldByCurrentThread();
         CapabilityId dependentId = requirement.getDependentId();
-        if (!capabilities.containsKey(dependentId)) {
+        if (!state.capabilities.containsKey(dependentId)) {
             throw ControllerLogger.MGMT_OP_LOGGER.unknownCapabilityInContext(dependentId.getName(),
                     dependentId.getScope().getName());
         }
-        Map<CapabilityId, Map<String, RuntimeRequirementRegistration>> requirementMap =
-                requirement.isRuntimeOnly() ? runtimeOnlyRequirements : requirements;
+        boolean runtimeOnly = requirement.isRuntimeOnly();
+        PersistentHashMap<CapabilityId, Map<String, RuntimeRequirementRegistration>> requirementMap = state.getRequirements(runtimeOnly);
 
         Map<String, RuntimeRequirementRegistration> dependents = requirementMap.get(dependentId);
-        if (dependents == null) {
-            dependents = new HashMap<>();
-            requirementMap.put(dependentId, dependents);
-        }
+        dependents = dependents == null ? new HashMap<>() : new HashMap<>(dependents);
         RuntimeRequirementRegistration existing = dependents.get(requirement.getRequiredName());
         if (existing == null) {
             dependents.put(requirement.getRequiredName(), requirement);
         } else {
-            existing.addRegistrationPoint(requirement.getOldestRegistrationPoint());
+            RuntimeRequirementRegistration updated = new RuntimeRequirementRegistration(existing);
+            updated.addRegistrationPoint(requirement.getOldestRegistrationPoint());
+            dependents.put(requirement.getRequiredName(), updated);
         }
+        state.setRequirements(runtimeOnly, requirementMap.plus(dependentId, dependents));
         modified = true;
     }
 
@@ -224,8 +199,10 @@ public final class CapabilityRegistry implements ImmutableCapabilityRegistry, Po
         // so clean it from both maps
         writeLock.lock();
         try {
-            removeRequirement(requirementRegistration, false);
-            removeRequirement(requirementRegistration, true);
+            final State state = new State(this.state);
+            removeRequirement(state, requirementRegistration, false);
+            removeRequirement(state, requirementRegistration, true);
+            this.state = state;
         } finally {
             writeLock.unlock();
         }
@@ -245,53 +222,59 @@ public final class CapabilityRegistry implements ImmutableCapabilityRegistry, Po
                                                           PathAddress registrationPoint) {
         writeLock.lock();
         try {
+            final State state = new State(this.state);
             CapabilityId capabilityId = new CapabilityId(capabilityName, scope);
             RuntimeCapabilityRegistration removed = null;
-            RuntimeCapabilityRegistration candidate = capabilities.get(capabilityId);
+            RuntimeCapabilityRegistration candidate = state.capabilities.get(capabilityId);
             if (candidate != null) {
                 RegistrationPoint rp = new RegistrationPoint(registrationPoint, null);
-                if (candidate.removeRegistrationPoint(rp)) {
+                RuntimeCapabilityRegistration updatedCandidate = new RuntimeCapabilityRegistration(candidate);
+                if (updatedCandidate.removeRegistrationPoint(rp)) {
 
                     Map<String, RuntimeRequirementRegistration> removedRequirements = null;
-                    if (candidate.getRegistrationPointCount() == 0) {
-                        removed = capabilities.remove(capabilityId);
-                        removedRequirements = requirements.remove(capabilityId);
-                        runtimeOnlyRequirements.remove(capabilityId);
+                    if (updatedCandidate.getRegistrationPointCount() == 0) {
+                        removed = updatedCandidate;
+                        state.capabilities = state.capabilities.minus(capabilityId);
+                        removedRequirements = state.requirements.get(capabilityId);
+                        state.requirements = state.requirements.minus(capabilityId);
+                        state.runtimeOnlyRequirements = state.runtimeOnlyRequirements.minus(capabilityId);
                     } else {
+                        state.capabilities = state.capabilities.plus(capabilityId, updatedCandidate);
                         // There are still registration points for this capability.
                         // So just remove the requirements for this registration point
-                        Map<String, RuntimeRequirementRegistration> candidateRequirements = requirements.get(capabilityId);
+                        Map<String, RuntimeRequirementRegistration> candidateRequirements = state.requirements.get(capabilityId);
                         if (candidateRequirements != null) {
                             removedRequirements = new HashMap<>(candidateRequirements.size());
-                            // Iterate over array to avoid ConcurrentModificationException
-                            for (String req : candidateRequirements.keySet().toArray(new String[candidateRequirements.size()])) {
-                                RuntimeRequirementRegistration removedReqReg = removeRequirement(new RuntimeRequirementRegistration(req, capabilityName, scope, rp), false);
+                            // removeRequirement replaces rather than modifies the map we iterate
+                            for (String req : candidateRequirements.keySet()) {
+                                RuntimeRequirementRegistration removedReqReg = removeRequirement(state, new RuntimeRequirementRegistration(req, capabilityName, scope, rp), false);
                                 if (removedReqReg != null) {
                                     removedRequirements.put(req, removedReqReg);
                                 }
                             }
                         }
-                        candidateRequirements = runtimeOnlyRequirements.get(capabilityId);
+                        candidateRequirements = state.runtimeOnlyRequirements.get(capabilityId);
                         if (candidateRequirements != null) {
-                            // Iterate over array to avoid ConcurrentModificationException
-                            for (String req : candidateRequirements.keySet().toArray(new String[candidateRequirements.size()])) {
-                                removeRequirement(new RuntimeRequirementRegistration(req, capabilityName, scope, rp), true);
+                            for (String req : candidateRequirements.keySet()) {
+                                removeRequirement(state, new RuntimeRequirementRegistration(req, capabilityName, scope, rp), true);
                             }
                         }
                     }
 
                     // Remember this removed cap for use by getRuntimeStatus until we are published or rolled back
-                    RuntimeCapabilityRegistration removeReg = pendingRemoveCapabilities.get(capabilityId);
+                    RuntimeCapabilityRegistration removeReg = state.pendingRemoveCapabilities.get(capabilityId);
                     if (removeReg == null) {
                         removeReg = new RuntimeCapabilityRegistration(candidate.getCapability(), candidate.getCapabilityScope(), rp);
-                        pendingRemoveCapabilities.put(capabilityId, removeReg);
                     } else {
+                        removeReg = new RuntimeCapabilityRegistration(removeReg);
                         removeReg.addRegistrationPoint(rp);
                     }
+                    state.pendingRemoveCapabilities = state.pendingRemoveCapabilities.plus(capabilityId, removeReg);
                     if (removedRequirements != null) {
-                        pendingRemoveRequirements.put(capabilityId, removedRequirements);
+                        state.pendingRemoveRequirements = state.pendingRemoveRequirements.plus(capabilityId, removedRequirements);
                     }
 
+                    this.state = state;
                 }
             }
 
@@ -304,20 +287,27 @@ public final class CapabilityRegistry implements ImmutableCapabilityRegistry, Po
         }
     }
 
-    private RuntimeRequirementRegistration removeRequirement(RuntimeRequirementRegistration requirementRegistration, boolean optional) {
+    private RuntimeRequirementRegistration removeRequirement(State state, RuntimeRequirementRegistration requirementRegistration, boolean optional) {
         assert writeLock.isHeldByCurrentThread();
-        Map<CapabilityId, Map<String, RuntimeRequirementRegistration>> requirementMap = optional ? runtimeOnlyRequirements : requirements;
+        PersistentHashMap<CapabilityId, Map<String, RuntimeRequirementRegistration>> requirementMap = state.getRequirements(optional);
         Map<String, RuntimeRequirementRegistration> dependents = requirementMap.get(requirementRegistration.getDependentId());
         RuntimeRequirementRegistration result = null;
         if (dependents != null) {
             RuntimeRequirementRegistration rrr = dependents.get(requirementRegistration.getRequiredName());
             if (rrr != null) {
+                rrr = new RuntimeRequirementRegistration(rrr);
                 rrr.removeRegistrationPoint(requirementRegistration.getOldestRegistrationPoint());
+                dependents = new HashMap<>(dependents);
                 if (rrr.getRegistrationPointCount() == 0) {
-                    result = dependents.remove(requirementRegistration.getRequiredName());
+                    dependents.remove(requirementRegistration.getRequiredName());
+                    result = rrr;
+                } else {
+                    dependents.put(requirementRegistration.getRequiredName(), rrr);
                 }
                 if (dependents.size() == 0) {
-                    requirementMap.remove(requirementRegistration.getDependentId());
+                    state.setRequirements(optional, requirementMap.minus(requirementRegistration.getDependentId()));
+                } else {
+                    state.setRequirements(optional, requirementMap.plus(requirementRegistration.getDependentId(), dependents));
                 }
                 modified = true;
             }
@@ -327,32 +317,28 @@ public final class CapabilityRegistry implements ImmutableCapabilityRegistry, Po
 
     @Override
     public Map<CapabilityId, RuntimeStatus> getRuntimeStatus(PathAddress address, ImmutableManagementResourceRegistration resourceRegistration) {
-        readLock.lock();
-        try {
-            Map<CapabilityId, RuntimeStatus> result;
-            Set<CapabilityId> ids = getCapabilitiesForAddress(address, resourceRegistration);
-            int size = ids.size();
-            if (size == 0) {
-                result = Collections.emptyMap();
+        final State state = this.state;
+        Map<CapabilityId, RuntimeStatus> result;
+        Set<CapabilityId> ids = getCapabilitiesForAddress(state, address, resourceRegistration);
+        int size = ids.size();
+        if (size == 0) {
+            result = Collections.emptyMap();
+        } else {
+            Set<CapabilityId> visited = new HashSet<>();
+            if (size == 1) {
+                CapabilityId id = ids.iterator().next();
+                result = Collections.singletonMap(id, getCapabilityStatus(state, id, visited));
             } else {
-                Set<CapabilityId> visited = new HashSet<>();
-                if (size == 1) {
-                    CapabilityId id = ids.iterator().next();
-                    result = Collections.singletonMap(id, getCapabilityStatus(id, visited));
-                } else {
-                    result = new HashMap<>(size);
-                    for (CapabilityId id : ids) {
-                        result.put(id, getCapabilityStatus(id, visited));
-                    }
+                result = new HashMap<>(size);
+                for (CapabilityId id : ids) {
+                    result.put(id, getCapabilityStatus(state, id, visited));
                 }
             }
-            return result;
-        } finally {
-            readLock.unlock();
         }
+        return result;
     }
 
-    private RuntimeStatus getCapabilityStatus(CapabilityId id, Set<CapabilityId> visited) {
+    private static RuntimeStatus getCapabilityStatus(State state, CapabilityId id, Set<CapabilityId> visited) {
         // This is meant for checking runtime stuff, which should only be for servers or
         // HC runtime stuff, both of which use CapabilityScope.GLOBAL or HostCapabilityScope. So this assert
         // is to check that assumption is valid, as further thought is needed if not (e.g. see WFCORE-1710).
@@ -360,20 +346,20 @@ public final class CapabilityRegistry implements ImmutableCapabilityRegistry, Po
         // internals, but oh well.
         assert id.getScope().equals(CapabilityScope.GLOBAL) || id.getScope().getName().equals(HOST);
 
-        boolean hasRestart = !restartCapabilities.isEmpty();
-        if (hasRestart && restartCapabilities.contains(id)) {
+        boolean hasRestart = !state.restartCapabilities.isEmpty();
+        if (hasRestart && state.restartCapabilities.contains(id)) {
             return RuntimeStatus.RESTART_REQUIRED;
         }
         if (!hasRestart) {
-            if (reloadCapabilities.contains(id)) {
+            if (state.reloadCapabilities.contains(id)) {
                 return RuntimeStatus.RELOAD_REQUIRED;
             }
         } // else defer reload-required check until after we search requirements for restart-required
 
         visited.add(id);
 
-        Map<String, RuntimeRequirementRegistration> dependents = requirements.get(id);
-        RuntimeStatus result = getDependentCapabilityStatus(dependents, id, visited);
+        Map<String, RuntimeRequirementRegistration> dependents = state.requirements.get(id);
+        RuntimeStatus result = getDependentCapabilityStatus(state, dependents, id, visited);
         // TODO we could also check runtimeOnlyRequirements but it's not clear that's meaningful
         // If the non-normal runtime-only req has had its cap removed, a RUNTIME step for the dependent
         // will not see it any more and won't try and integrate. If the req is reload-required but
@@ -382,21 +368,21 @@ public final class CapabilityRegistry implements ImmutableCapabilityRegistry, Po
 
         if (result != RuntimeStatus.RESTART_REQUIRED) {
             // Check pending remove requirements
-            dependents = pendingRemoveRequirements.get(id);
-            RuntimeStatus pending = getDependentCapabilityStatus(dependents, id, visited);
+            dependents = state.pendingRemoveRequirements.get(id);
+            RuntimeStatus pending = getDependentCapabilityStatus(state, dependents, id, visited);
             if (pending != RuntimeStatus.NORMAL) {
                 result = pending;
             }
         }
 
         // We've checked dependents; if we didn't already check this cap for reload-required
-        if (result == RuntimeStatus.NORMAL && hasRestart && reloadCapabilities.contains(id)) {
+        if (result == RuntimeStatus.NORMAL && hasRestart && state.reloadCapabilities.contains(id)) {
             result = RuntimeStatus.RELOAD_REQUIRED;
         }
         return result;
     }
 
-    private RuntimeStatus getDependentCapabilityStatus(Map<String, RuntimeRequirementRegistration> dependents, CapabilityId requiror, Set<CapabilityId> visited) {
+    private static RuntimeStatus getDependentCapabilityStatus(State state, Map<String, RuntimeRequirementRegistration> dependents, CapabilityId requiror, Set<CapabilityId> visited) {
         RuntimeStatus result = RuntimeStatus.NORMAL;
         if (dependents != null) {
             for (String dependent : dependents.keySet()) {
@@ -407,7 +393,7 @@ public final class CapabilityRegistry implements ImmutableCapabilityRegistry, Po
                 for (CapabilityScope scope : toCheck) {
                     CapabilityId dependentId = new CapabilityId(dependent, scope);
                     if (!visited.contains(dependentId)) {
-                        RuntimeStatus status = getCapabilityStatus(dependentId, visited);
+                        RuntimeStatus status = getCapabilityStatus(state, dependentId, visited);
                         if (status == RuntimeStatus.RESTART_REQUIRED) {
                             return status; // no need to check anything else
                         } else if (status == RuntimeStatus.RELOAD_REQUIRED) {
@@ -424,7 +410,9 @@ public final class CapabilityRegistry implements ImmutableCapabilityRegistry, Po
     public void capabilityReloadRequired(PathAddress address, ImmutableManagementResourceRegistration resourceRegistration) {
         writeLock.lock();
         try {
-            reloadCapabilities.addAll(getCapabilitiesForAddress(address, resourceRegistration));
+            final State state = new State(this.state);
+            state.reloadCapabilities = union(state.reloadCapabilities, getCapabilitiesForAddress(state, address, resourceRegistration));
+            this.state = state;
         } finally {
             writeLock.unlock();
         }
@@ -434,13 +422,15 @@ public final class CapabilityRegistry implements ImmutableCapabilityRegistry, Po
     public void capabilityRestartRequired(PathAddress address, ImmutableManagementResourceRegistration resourceRegistration) {
         writeLock.lock();
         try {
-            restartCapabilities.addAll(getCapabilitiesForAddress(address, resourceRegistration));
+            final State state = new State(this.state);
+            state.restartCapabilities = union(state.restartCapabilities, getCapabilitiesForAddress(state, address, resourceRegistration));
+            this.state = state;
         } finally {
             writeLock.unlock();
         }
     }
 
-    private Set<CapabilityId> getCapabilitiesForAddress(PathAddress address, ImmutableManagementResourceRegistration resourceRegistration) {
+    private static Set<CapabilityId> getCapabilitiesForAddress(State state, PathAddress address, ImmutableManagementResourceRegistration resourceRegistration) {
         Set<CapabilityId> result = null;
         PathAddress curAddress = address;
         ImmutableManagementResourceRegistration curReg = resourceRegistration;
@@ -472,7 +462,7 @@ public final class CapabilityRegistry implements ImmutableCapabilityRegistry, Po
 
             // TODO this is inefficient. But it's only called for post-boot write ops
             // when the process is already reload-required
-            for (Map<CapabilityId, RuntimeCapabilityRegistration> map : Arrays.asList(capabilities, pendingRemoveCapabilities)) {
+            for (Map<CapabilityId, RuntimeCapabilityRegistration> map : Arrays.asList(state.capabilities, state.pendingRemoveCapabilities)) {
 
                 for (Map.Entry<CapabilityId, RuntimeCapabilityRegistration> entry : map.entrySet()) {
                     boolean checkIncorporating = false;
@@ -535,6 +525,7 @@ public final class CapabilityRegistry implements ImmutableCapabilityRegistry, Po
     }
 
 
+
     /**
      * Registers a capability with the system. Any
      * {@link org.jboss.as.controller.capability.Capability#getRequirements() requirements}
@@ -549,18 +540,23 @@ public final class CapabilityRegistry implements ImmutableCapabilityRegistry, Po
         CapabilityRegistration<?> capabilityRegistration = new CapabilityRegistration<>(capability, CapabilityScope.GLOBAL, point);
         writeLock.lock();
         try {
-            possibleCapabilities.computeIfPresent(capabilityId, (capabilityId1, currentRegistration) -> {
+            final State state = new State(this.state);
+            CapabilityRegistration<?> currentRegistration = state.possibleCapabilities.get(capabilityId);
+            if (currentRegistration != null) {
                 RegistrationPoint rp = capabilityRegistration.getOldestRegistrationPoint();
                 // The actual capability must be the same, and we must not already have a registration
                 // from this resource
+                CapabilityRegistration<?> updatedRegistration = new CapabilityRegistration<>(currentRegistration);
                 if (!Objects.equals(capabilityRegistration.getCapability(), currentRegistration.getCapability())
-                        || !currentRegistration.addRegistrationPoint(rp)) {
+                        || !updatedRegistration.addRegistrationPoint(rp)) {
                     throw ControllerLogger.MGMT_OP_LOGGER.capabilityAlreadyRegisteredInContext(capabilityId.getName(),
                             capabilityId.getScope().getName());
                 }
-                return currentRegistration;
-            });
-            possibleCapabilities.putIfAbsent(capabilityId, capabilityRegistration);
+                state.possibleCapabilities = state.possibleCapabilities.plus(capabilityId, updatedRegistration);
+            } else {
+                state.possibleCapabilities = state.possibleCapabilities.plus(capabilityId, capabilityRegistration);
+            }
+            this.state = state;
             modified = true;
         } finally {
             writeLock.unlock();
@@ -582,15 +578,19 @@ public final class CapabilityRegistry implements ImmutableCapabilityRegistry, Po
         CapabilityRegistration<?> removed = null;
         writeLock.lock();
         try {
-            CapabilityRegistration<?> candidate = possibleCapabilities.get(capabilityId);
+            final State state = new State(this.state);
+            CapabilityRegistration<?> candidate = state.possibleCapabilities.get(capabilityId);
             if (candidate != null) {
                 RegistrationPoint rp = new RegistrationPoint(registrationPoint, null);
-                if (candidate.removeRegistrationPoint(rp)) {
-                    if (candidate.getRegistrationPointCount() == 0) {
-                        removed = possibleCapabilities.remove(capabilityId);
+                CapabilityRegistration<?> updatedCandidate = new CapabilityRegistration<>(candidate);
+                if (updatedCandidate.removeRegistrationPoint(rp)) {
+                    if (updatedCandidate.getRegistrationPointCount() == 0) {
+                        state.possibleCapabilities = state.possibleCapabilities.minus(capabilityId);
                     } else {
-                        removed = candidate;
+                        state.possibleCapabilities = state.possibleCapabilities.plus(capabilityId, updatedCandidate);
                     }
+                    removed = updatedCandidate;
+                    this.state = state;
                 }
             }
 
@@ -608,117 +608,78 @@ public final class CapabilityRegistry implements ImmutableCapabilityRegistry, Po
 
     @Override
     public boolean hasCapability(String capabilityName, CapabilityScope scope) {
-        readLock.lock();
-        try {
-            return findSatisfactoryCapability(capabilityName, scope, !forServer) != null;
-        } finally {
-            readLock.unlock();
-        }
+        return findSatisfactoryCapability(state, capabilityName, scope, !forServer) != null;
     }
 
     @Override
     public <T> T getCapabilityRuntimeAPI(String capabilityName, CapabilityScope scope, Class<T> apiType) {
         // Here we can't know the dependent name. So this can only be called when resolution is complete.
         assert resolutionContext.resolutionComplete;
-        readLock.lock();
-        try {
-            RuntimeCapabilityRegistration reg = getCapabilityRegistration(capabilityName, scope);
-            Object api = reg.getCapability().getRuntimeAPI();
-            if (api == null) {
-                throw ControllerLogger.MGMT_OP_LOGGER.capabilityDoesNotExposeRuntimeAPI(capabilityName);
-            }
-            return apiType.cast(api);
-        } finally {
-            readLock.unlock();
+        RuntimeCapabilityRegistration reg = getCapabilityRegistration(state, capabilityName, scope);
+        Object api = reg.getCapability().getRuntimeAPI();
+        if (api == null) {
+            throw ControllerLogger.MGMT_OP_LOGGER.capabilityDoesNotExposeRuntimeAPI(capabilityName);
         }
+        return apiType.cast(api);
     }
 
     @Override
     public Set<CapabilityRegistration<?>> getCapabilities() {
-        readLock.lock();
-        try {
-            return Collections.unmodifiableSet(new TreeSet<>(capabilities.values()));
-        } finally {
-            readLock.unlock();
-        }
+        return Collections.unmodifiableSet(new TreeSet<>(state.capabilities.values()));
     }
 
     @Override
     public Set<CapabilityRegistration<?>> getPossibleCapabilities() {
-        readLock.lock();
-        try {
-            return Collections.unmodifiableSet(new TreeSet<>(possibleCapabilities.values()));
-        } finally {
-            readLock.unlock();
-        }
+        return Collections.unmodifiableSet(new TreeSet<>(state.possibleCapabilities.values()));
     }
 
     @Override
     public ServiceName getCapabilityServiceName(String capabilityName, CapabilityScope scope, Class<?> serviceType) {
         // Here we can't know the dependent name. So this can only be called when resolution is complete.
         assert resolutionContext.resolutionComplete;
-        readLock.lock();
-        try {
-            RuntimeCapabilityRegistration reg = getCapabilityRegistration(capabilityName, scope);
-            RuntimeCapability<?> cap = reg.getCapability();
-            return cap.getCapabilityServiceName(serviceType);
-        } finally {
-            readLock.unlock();
-        }
+        RuntimeCapabilityRegistration reg = getCapabilityRegistration(state, capabilityName, scope);
+        RuntimeCapability<?> cap = reg.getCapability();
+        return cap.getCapabilityServiceName(serviceType);
     }
 
     @Override
     public Set<PathAddress> getPossibleProviderPoints(CapabilityId capabilityId) {
+        return getPossibleProviderPoints(state, capabilityId);
+    }
+
+    private static Set<PathAddress> getPossibleProviderPoints(State state, CapabilityId capabilityId) {
         Set<PathAddress> result = new LinkedHashSet<>();
-        readLock.lock();
-        try {
-            final CapabilityId capId = capabilityId.getScope() == CapabilityScope.GLOBAL ? capabilityId : new CapabilityId(capabilityId.getName(), CapabilityScope.GLOBAL); //possible registry is only in global scope
-            CapabilityRegistration<?> reg =  possibleCapabilities.get(capId);
-            if (reg != null) {
-                List<PathAddress> list = new ArrayList<>();
-                for (RegistrationPoint registrationPoint : reg.getRegistrationPoints()) {
-                    PathAddress address = registrationPoint.getAddress();
-                    list.add(address);
-                }
-                result.addAll(list);
-            } else {
-                List<PathAddress> list = new ArrayList<>();
-                for (CapabilityRegistration<?> registration : possibleCapabilities.values()) {
-                    if (registration.getCapability().isDynamicallyNamed()
-                        && registration.getCapabilityScope().equals(capId.getScope())
-                        && capId.getName().startsWith(registration.getCapabilityName())) {
-                        Set<RegistrationPoint> registrationPoints = registration.getRegistrationPoints();
-                        for (RegistrationPoint registrationPoint : registrationPoints) {
-                            PathAddress address = registrationPoint.getAddress();
-                            list.add(address);
-                        }
+        final CapabilityId capId = capabilityId.getScope() == CapabilityScope.GLOBAL ? capabilityId : new CapabilityId(capabilityId.getName(), CapabilityScope.GLOBAL); //possible registry is only in global scope
+        CapabilityRegistration<?> reg =  state.possibleCapabilities.get(capId);
+        if (reg != null) {
+            for (RegistrationPoint registrationPoint : reg.getRegistrationPoints()) {
+                result.add(registrationPoint.getAddress());
+            }
+        } else {
+            for (CapabilityRegistration<?> registration : state.possibleCapabilities.values()) {
+                if (registration.getCapability().isDynamicallyNamed()
+                    && registration.getCapabilityScope().equals(capId.getScope())
+                    && capId.getName().startsWith(registration.getCapabilityName())) {
+                    for (RegistrationPoint registrationPoint : registration.getRegistrationPoints()) {
+                        result.add(registrationPoint.getAddress());
                     }
                 }
-                result.addAll(list);
             }
-
-        } finally {
-            readLock.unlock();
         }
         return result;
     }
 
     @Override
     public CapabilityRegistration<?> getCapability(CapabilityId capabilityId){
-        readLock.lock();
-        try {
-            CapabilityRegistration<?> reg = capabilities.get(capabilityId);
-            return reg != null ? new CapabilityRegistration<>(reg) : null;
-        } finally {
-            readLock.unlock();
-        }
-
+        CapabilityRegistration<?> reg = state.capabilities.get(capabilityId);
+        return reg != null ? new CapabilityRegistration<>(reg) : null;
     }
 
     //end ImmutableCapabilityRegistry methods
 
     /**
-     * Publish the changes to main registry
+     * Publish the changes to main registry. The main registry takes the current state of this one, so this takes
+     * the same time however large the registry is.
      */
     void publish() {
         assert publishedFullRegistry != null : "Cannot write directly to main registry";
@@ -730,10 +691,13 @@ public final class CapabilityRegistry implements ImmutableCapabilityRegistry, Po
             }
             publishedFullRegistry.writeLock.lock();
             try {
-                publishedFullRegistry.clear(true);
-                copy(this, publishedFullRegistry);
-                pendingRemoveCapabilities.clear();
-                pendingRemoveRequirements.clear();
+                final State published = new State(state);
+                published.pendingRemoveCapabilities = PersistentHashMap.empty();
+                published.pendingRemoveRequirements = PersistentHashMap.empty();
+                publishedFullRegistry.resolutionContext.copy(resolutionContext);
+                publishedFullRegistry.state = published;
+                publishedFullRegistry.modified = true;
+                state = published;
                 modified = false;
             } finally {
                 publishedFullRegistry.writeLock.unlock();
@@ -752,13 +716,13 @@ public final class CapabilityRegistry implements ImmutableCapabilityRegistry, Po
         }
         writeLock.lock();
         try {
-            publishedFullRegistry.readLock.lock();
+            publishedFullRegistry.writeLock.lock();
             try {
-                clear(true);
-                copy(publishedFullRegistry, this);
+                state = publishedFullRegistry.state;
+                resolutionContext.copy(publishedFullRegistry.resolutionContext);
                 modified = false;
             } finally {
-                publishedFullRegistry.readLock.unlock();
+                publishedFullRegistry.writeLock.unlock();
             }
         } finally {
             writeLock.unlock();
@@ -766,50 +730,20 @@ public final class CapabilityRegistry implements ImmutableCapabilityRegistry, Po
     }
 
     boolean isModified() {
-        readLock.lock();
-        try {
-            return modified;
-        } finally {
-            readLock.unlock();
-        }
-    }
-
-    private void copy(CapabilityRegistry source, CapabilityRegistry target) {
-        assert target.writeLock.isHeldByCurrentThread();
-        copyCapabilities(source.capabilities, target.capabilities);
-        for (Map.Entry<CapabilityId, CapabilityRegistration<?>> entry : source.possibleCapabilities.entrySet()) {
-            target.possibleCapabilities.put(entry.getKey(), new CapabilityRegistration<>(entry.getValue()));
-        }
-        copyRequirements(source.requirements, target.requirements);
-        copyRequirements(source.runtimeOnlyRequirements, target.runtimeOnlyRequirements);
-        target.reloadCapabilities.addAll(source.reloadCapabilities);
-        target.restartCapabilities.addAll(source.restartCapabilities);
-        if (!forServer) {
-            target.knownContexts.addAll(source.knownContexts);
-        }
-        target.resolutionContext.copy(source.resolutionContext);
+        return modified;
     }
 
     /**
      * Clears capability registry
      */
     void clear() {
-        clear(false);
-    }
-
-    private void clear(boolean restartRequired) {
         writeLock.lock();
         try {
-            capabilities.clear();
-            pendingRemoveCapabilities.clear();
-            possibleCapabilities.clear();
-            requirements.clear();
-            pendingRemoveRequirements.clear();
-            runtimeOnlyRequirements.clear();
-            reloadCapabilities.clear();
-            if (restartRequired) {
-                restartCapabilities.clear();
-            }
+            final State cleared = new State(forServer);
+            // Clearing the registry doesn't take the process out of restart-required
+            cleared.restartCapabilities = state.restartCapabilities;
+            cleared.knownContexts = state.knownContexts;
+            state = cleared;
             modified = true;
         } finally {
             writeLock.unlock();
@@ -818,77 +752,73 @@ public final class CapabilityRegistry implements ImmutableCapabilityRegistry, Po
 
 
     CapabilityValidation resolveCapabilities(Resource rootResource, boolean hostXmlOnly) {
-        readLock.lock();
-        try {
-            resolutionContext.setRootResource(rootResource);
-            assert resolutionContext.rootResource != null;
-            Map<CapabilityId, Set<RuntimeRequirementRegistration>> missing = new HashMap<>();
-
-            // Vars for tracking inconsistent contexts
-            boolean isInconsistent = false;
-            Map<CapabilityScope, Set<RuntimeRequirementRegistration>> requiresConsistency = null;
-            Map<CapabilityScope, Set<CapabilityScope>> consistentSets = null;
-
-            for (Map.Entry<CapabilityId, Map<String, RuntimeRequirementRegistration>> entry : requirements.entrySet()) {
-                CapabilityId dependentId = entry.getKey();
-                String dependentName = dependentId.getName();
-                CapabilityScope dependentContext = dependentId.getScope();
-                Set<CapabilityScope> consistentSet = consistentSets == null ? null : consistentSets.get(dependentContext);
-                for (RuntimeRequirementRegistration req : entry.getValue().values()) {
-                    SatisfactoryCapability satisfactory = findSatisfactoryCapability(req.getRequiredName(), dependentContext, !forServer);
-                    if (satisfactory == null) {
-                        // Missing
-                        if (hostXmlOnly && dependentName.startsWith("org.wildfly.domain.server-config.")
-                                && (req.getRequiredName().startsWith("org.wildfly.domain.server-group.")
-                                || req.getRequiredName().startsWith("org.wildfly.domain.socket-binding-group."))) {
-                            // HACK. We can't resolve these now as we have no domain model at this part of boot
-                            // We can resolve them when the domain model ops run, so wait to validate then
-                            ControllerLogger.MGMT_OP_LOGGER.tracef("Ignoring that dependent %s cannot resolve required capability %s as the 'hostXmlOnly' param is set", dependentId, req.getRequiredName());
-                            continue;
-                        }
-                        CapabilityId basicId = new CapabilityId(req.getRequiredName(), dependentContext);
-                        Set<RuntimeRequirementRegistration> set = missing.get(basicId);
-                        if (set == null) {
-                            set = new HashSet<>();
-                            missing.put(basicId, set);
-                        }
-                        set.add(req);
-                    } else if (satisfactory.multipleCapabilities != null) {
-                        // This requirement is one that needs tracking to ensure that all similar ones for this
-                        // dependent context can be resolved against at least one context
-                        if (requiresConsistency == null) {
-                            requiresConsistency = new HashMap<>();
-                            consistentSets = new HashMap<>();
-                        }
+        final State state = this.state;
+        resolutionContext.setRootResource(rootResource);
+        assert resolutionContext.rootResource != null;
+        Map<CapabilityId, Set<RuntimeRequirementRegistration>> missing = new HashMap<>();
+
+        // Vars for tracking inconsistent contexts
+        boolean isInconsistent = false;
+        Map<CapabilityScope, Set<RuntimeRequirementRegistration>> requiresConsistency = null;
+        Map<CapabilityScope, Set<CapabilityScope>> consistentSets = null;
+
+        for (Map.Entry<CapabilityId, Map<String, RuntimeRequirementRegistration>> entry : state.requirements.entrySet()) {
+            CapabilityId dependentId = entry.getKey();
+            String dependentName = dependentId.getName();
+            CapabilityScope dependentContext = dependentId.getScope();
+            Set<CapabilityScope> consistentSet = consistentSets == null ? null : consistentSets.get(dependentContext);
+            for (RuntimeRequirementRegistration req : entry.getValue().values()) {
+                SatisfactoryCapability satisfactory = findSatisfactoryCapability(state, req.getRequiredName(), dependentContext, !forServer);
+                if (satisfactory == null) {
+                    // Missing
+                    if (hostXmlOnly && dependentName.startsWith("org.wildfly.domain.server-config.")
+                            && (req.getRequiredName().startsWith("org.wildfly.domain.server-group.")
+                            || req.getRequiredName().startsWith("org.wildfly.domain.socket-binding-group."))) {
+                        // HACK. We can't resolve these now as we have no domain model at this part of boot
+                        // We can resolve them when the domain model ops run, so wait to validate then
+                        ControllerLogger.MGMT_OP_LOGGER.tracef("Ignoring that dependent %s cannot resolve required capability %s as the 'hostXmlOnly' param is set", dependentId, req.getRequiredName());
+                        continue;
+                    }
+                    CapabilityId basicId = new CapabilityId(req.getRequiredName(), dependentContext);
+                    Set<RuntimeRequirementRegistration> set = missing.get(basicId);
+                    if (set == null) {
+                        set = new HashSet<>();
+                        missing.put(basicId, set);
+                    }
+                    set.add(req);
+                } else if (satisfactory.multipleCapabilities != null) {
+                    // This requirement is one that needs tracking to ensure that all similar ones for this
+                    // dependent context can be resolved against at least one context
+                    if (requiresConsistency == null) {
+                        requiresConsistency = new HashMap<>();
+                        consistentSets = new HashMap<>();
+                    }
 
-                        CapabilityScope reqDependent = req.getDependentContext();
-                        recordConsistentSets(requiresConsistency, consistentSets, reqDependent, consistentSet, req, satisfactory, reqDependent);
-                        isInconsistent = isInconsistent || (consistentSet != null && consistentSet.isEmpty());
+                    CapabilityScope reqDependent = req.getDependentContext();
+                    recordConsistentSets(requiresConsistency, consistentSets, reqDependent, consistentSet, req, satisfactory, reqDependent);
+                    isInconsistent = isInconsistent || (consistentSet != null && consistentSet.isEmpty());
 
-                        // Record for any contexts that include this one
-                        for (CapabilityScope including : dependentContext.getIncludingScopes(resolutionContext)) {
-                            consistentSet = consistentSets.get(including);
-                            recordConsistentSets(requiresConsistency, consistentSets, including, consistentSet, req, satisfactory, reqDependent);
-                            isInconsistent = isInconsistent || (consistentSet != null && consistentSet.isEmpty());
-                        }
-                    } // else simple capability match
-                }
+                    // Record for any contexts that include this one
+                    for (CapabilityScope including : dependentContext.getIncludingScopes(resolutionContext)) {
+                        consistentSet = consistentSets.get(including);
+                        recordConsistentSets(requiresConsistency, consistentSets, including, consistentSet, req, satisfactory, reqDependent);
+                        isInconsistent = isInconsistent || (consistentSet != null && consistentSet.isEmpty());
+                    }
+                } // else simple capability match
             }
+        }
 
-            // We've finished resolution
-            resolutionContext.resolutionComplete = true;
-
-            if (isInconsistent) {
-                // This is the exception case. Figure out the details of the problems
-                return new CapabilityValidation(missing, findInconsistent(requiresConsistency, consistentSets), resolutionContext);
-            } else if (!missing.isEmpty()) {
-                return new CapabilityValidation(missing, null, resolutionContext);
-            }
+        // We've finished resolution
+        resolutionContext.resolutionComplete = true;
 
-            return CapabilityValidation.OK;
-        } finally {
-            readLock.unlock();
+        if (isInconsistent) {
+            // This is the exception case. Figure out the details of the problems
+            return new CapabilityValidation(missing, findInconsistent(requiresConsistency, consistentSets), resolutionContext);
+        } else if (!missing.isEmpty()) {
+            return new CapabilityValidation(missing, null, resolutionContext);
         }
+
+        return CapabilityValidation.OK;
     }
 
     private void recordConsistentSets(Map<CapabilityScope, Set<RuntimeRequirementRegistration>> requiresConsistency, Map<CapabilityScope, Set<CapabilityScope>> consistentSets, CapabilityScope dependentContext, Set<CapabilityScope> consistentSet, RuntimeRequirementRegistration req, SatisfactoryCapability satisfactory, CapabilityScope reqDependent) {
@@ -921,50 +851,50 @@ public final class CapabilityRegistry implements ImmutableCapabilityRegistry, Po
         return result;
     }
 
-    private RuntimeCapabilityRegistration getCapabilityRegistration(String capabilityName, CapabilityScope capabilityScope) {
-        SatisfactoryCapability satisfactoryCapability = findSatisfactoryCapability(capabilityName, capabilityScope, false);
+    private RuntimeCapabilityRegistration getCapabilityRegistration(State state, String capabilityName, CapabilityScope capabilityScope) {
+        SatisfactoryCapability satisfactoryCapability = findSatisfactoryCapability(state, capabilityName, capabilityScope, false);
         if (satisfactoryCapability == null) {
             if (forServer) {
                 throw ControllerLogger.MGMT_OP_LOGGER.unknownCapability(capabilityName);
             }
-            if (getRegistrationPoints(capabilityName).isEmpty()) {
+            if (getRegistrationPoints(state, capabilityName).isEmpty()) {
                 throw ControllerLogger.MGMT_OP_LOGGER.unknownCapability(capabilityName);
             } else {
-                throw ControllerLogger.MGMT_OP_LOGGER.noSatisfactoryCapability(capabilityName, capabilityScope.getName(), getRegistrationPoints(capabilityName), capabilityScope.getName());
+                throw ControllerLogger.MGMT_OP_LOGGER.noSatisfactoryCapability(capabilityName, capabilityScope.getName(), getRegistrationPoints(state, capabilityName), capabilityScope.getName());
             }
         }
-        return capabilities.get(satisfactoryCapability.singleCapability);
+        return state.capabilities.get(satisfactoryCapability.singleCapability);
     }
 
-    private Set<RegistrationPoint> getRegistrationPoints(String capabilityName) {
+    private static Set<RegistrationPoint> getRegistrationPoints(State state, String capabilityName) {
         Set<RegistrationPoint> registrationPoints = new HashSet<>();
-        for (CapabilityId key: capabilities.keySet()) {
-            if (key.getName().equals(capabilityName)) {
-                registrationPoints = capabilities.get(key).getRegistrationPoints();
+        for (Map.Entry<CapabilityId, RuntimeCapabilityRegistration> entry : state.capabilities.entrySet()) {
+            if (entry.getKey().getName().equals(capabilityName)) {
+                registrationPoints = entry.getValue().getRegistrationPoints();
             }
         }
         return registrationPoints;
     }
 
-    private SatisfactoryCapability findSatisfactoryCapability(String capabilityName, CapabilityScope dependentContext,
+    private SatisfactoryCapability findSatisfactoryCapability(State state, String capabilityName, CapabilityScope dependentContext,
                                                               boolean requireConsistency) {
 
         // Check for a simple match
         CapabilityId requestedId = new CapabilityId(capabilityName, dependentContext);
-        if (capabilities.containsKey(requestedId)) {
+        if (state.capabilities.containsKey(requestedId)) {
             return new SatisfactoryCapability(requestedId);
         }
 
         if (!forServer) {
             // Try other contexts that satisfy the requested one
             Set<CapabilityScope> multiple = null;
-            for (CapabilityScope satisfies : knownContexts) {
+            for (CapabilityScope satisfies : state.knownContexts) {
                 if (satisfies.equals(dependentContext)) {
                     // We already know this one doesn't exist
                     continue;
                 }
                 CapabilityId satisfiesId = new CapabilityId(capabilityName, satisfies);
-                if (capabilities.containsKey(satisfiesId) && satisfies.canSatisfyRequirement(capabilityName, dependentContext, resolutionContext)) {
+                if (state.capabilities.containsKey(satisfiesId) && satisfies.canSatisfyRequirement(capabilityName, dependentContext, resolutionContext)) {
                     if (!requireConsistency || !satisfies.requiresConsistencyCheck()) {
                         return new SatisfactoryCapability(satisfiesId);
                     } else {
@@ -995,18 +925,19 @@ public final class CapabilityRegistry implements ImmutableCapabilityRegistry, Po
         // must be compliant with.
 
         //For possible capabilities it is always global.
+        final State state = this.state;
         CapabilityId id = new CapabilityId(referencedCapability,
                 CapabilityScope.GLOBAL);
-        Set<PathAddress> possibleProviders = new HashSet<>(getPossibleProviderPoints(id));
+        Set<PathAddress> possibleProviders = new HashSet<>(getPossibleProviderPoints(state, id));
         // Any dynamic capability registered to the root address matches (e.g. hardcoded path capabilities)
         possibleProviders.add(PathAddress.EMPTY_ADDRESS);
 
         Set<String> capabilityNames = new HashSet<>();
-        for (CapabilityRegistration<?> registration : getCapabilities()) {
+        for (CapabilityRegistration<?> registration : state.capabilities.values()) {
             // Capability with matching name and that can be reached from the provided scope
             if (!registration.getCapabilityName().equals(referencedCapability)
                     && registration.getCapabilityName().startsWith(referencedCapability)
-                    && hasCapability(registration.getCapabilityName(), dependentScope)) {
+                    && findSatisfactoryCapability(state, registration.getCapabilityName(), dependentScope, !forServer) != null) {
                 // Keep only capabilities that match at least one of the registration point
                 for (RegistrationPoint regPoint : registration.getRegistrationPoints()) {
                     boolean found = false;
@@ -1034,6 +965,61 @@ public final class CapabilityRegistry implements ImmutableCapabilityRegistry, Po
         return capabilityNames;
     }
 
+    private static <T> Set<T> union(Set<T> set, Set<T> added) {
+        if (set.containsAll(added)) {
+            return set;
+        }
+        Set<T> result = new HashSet<>(set);
+        result.addAll(added);
+        return result;
+    }
+
+    /**
+     * The content of a registry. The maps are persistent, so a copy of a state shares all its content with the
+     * original, and a registry can take the state of another in constant time. A state, and the registrations and
+     * requirement maps it holds, must not be modified once it is a registry's {@link #state}; writers modify a
+     * copy, replacing rather than modifying any registration or requirement map they change.
+     */
+    private static final class State {
+        private PersistentHashMap<CapabilityId, RuntimeCapabilityRegistration> capabilities = PersistentHashMap.empty();
+        private PersistentHashMap<CapabilityId, RuntimeCapabilityRegistration> pendingRemoveCapabilities = PersistentHashMap.empty();
+        private PersistentHashMap<CapabilityId, Map<String, RuntimeRequirementRegistration>> requirements = PersistentHashMap.empty();
+        private PersistentHashMap<CapabilityId, Map<String, RuntimeRequirementRegistration>> pendingRemoveRequirements = PersistentHashMap.empty();
+        private PersistentHashMap<CapabilityId, Map<String, RuntimeRequirementRegistration>> runtimeOnlyRequirements = PersistentHashMap.empty();
+        private PersistentHashMap<CapabilityId, CapabilityRegistration<?>> possibleCapabilities = PersistentHashMap.empty();
+        private Set<CapabilityId> reloadCapabilities = Collections.emptySet();
+        private Set<CapabilityId> restartCapabilities = Collections.emptySet();
+        private Set<CapabilityScope> knownContexts;
+
+        private State(boolean forServer) {
+            this.knownContexts = forServer ? null : Collections.emptySet();
+        }
+
+        private State(State toCopy) {
+            this.capabilities = toCopy.capabilities;
+            this.pendingRemoveCapabilities = toCopy.pendingRemoveCapabilities;
+            this.requirements = toCopy.requirements;
+            this.pendingRemoveRequirements = toCopy.pendingRemoveRequirements;
+            this.runtimeOnlyRequirements = toCopy.runtimeOnlyRequirements;
+            this.possibleCapabilities = toCopy.possibleCapabilities;
+            this.reloadCapabilities = toCopy.reloadCapabilities;
+            this.restartCapabilities = toCopy.restartCapabilities;
+            this.knownContexts = toCopy.knownContexts;
+        }
+
+        private PersistentHashMap<CapabilityId, Map<String, RuntimeRequirementRegistration>> getRequirements(boolean runtimeOnly) {
+            return runtimeOnly ? runtimeOnlyRequirements : requirements;
+        }
+
+        private void setRequirements(boolean runtimeOnly, PersistentHashMap<CapabilityId, Map<String, RuntimeRequirementRegistration>> requirementMap) {
+            if (runtimeOnly) {
+                runtimeOnlyRequirements = requirementMap;
+            } else {
+                requirements = requirementMap;
+            }
+        }
+    }
+
     private static class ResolutionContextImpl extends CapabilityResolutionContext {
         private boolean resolutionComplete;
         private Resource rootResource;
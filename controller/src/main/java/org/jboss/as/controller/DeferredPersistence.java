@@ -0,0 +1,166 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.jboss.as.controller;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+
+import org.jboss.as.controller.persistence.ConfigurationPersister;
+
+/**
+ * Tracks configuration changes that have been published to the management model and stored, but whose stored
+ * configuration has not been committed yet, so that a burst of concurrent write operations can share a single commit
+ * of the configuration.
+ * <p>
+ * Changes are identified by a generation number that increases with each deferred change. The configuration stored
+ * by an operation covers every change published before it, so committing it covers every generation deferred before
+ * it was committed, and a deferred resource is superseded by the resource of any later change. A superseded resource
+ * is rolled back, as it will never be committed.
+ * <p>
+ * Changes must be deferred, and resources committed, while holding the controller lock.
+ *
+ * @see ModelControllerImpl#GROUP_COMMIT_PROPERTY
+ */
+final class DeferredPersistence {
+
+    private final Map<Integer, Long> pendingOperations = new HashMap<>();
+    /** The resource storing the latest deferred change, or {@code null} if it has been committed */
+    private ConfigurationPersister.PersistenceResource pending;
+    private long deferred;
+    private volatile long persisted;
+    /** The number of operations waiting in {@link #awaitPersisted} */
+    private volatile int waiters;
+
+    /**
+     * Records that an operation's changes have been published and stored without the stored configuration being
+     * committed. The resource replaces the one of any change deferred before, as it covers that change as well.
+     *
+     * @param operationId the id of the operation
+     * @param resource the resource storing the configuration including the operation's changes
+     */
+    void defer(Integer operationId, ConfigurationPersister.PersistenceResource resource) {
+        final ConfigurationPersister.PersistenceResource superseded;
+        synchronized (this) {
+            pendingOperations.put(operationId, ++deferred);
+            superseded = pending;
+            pending = resource;
+        }
+        if (superseded != null) {
+            superseded.rollback();
+        }
+    }
+
+    /**
+     * Commits a resource storing the configuration including all changes published so far, which covers all the
+     * changes deferred so far.
+     *
+     * @param resource the resource
+     */
+    void commit(ConfigurationPersister.PersistenceResource resource) {
+        final ConfigurationPersister.PersistenceResource superseded;
+        final long generation;
+        synchronized (this) {
+            generation = deferred;
+            superseded = pending;
+            pending = null;
+        }
+        if (superseded != null) {
+            superseded.rollback();
+        }
+        resource.commit();
+        stored(generation);
+    }
+
+    /**
+     * Commits the resource of the latest deferred change, unless it has already been committed or superseded by a
+     * committed resource.
+     */
+    void commitPending() {
+        final ConfigurationPersister.PersistenceResource resource;
+        final long generation;
+        synchronized (this) {
+            resource = pending;
+            generation = deferred;
+            pending = null;
+        }
+        if (resource != null) {
+            resource.commit();
+            stored(generation);
+        }
+    }
+
+    private synchronized void stored(long generation) {
+        if (generation > persisted) {
+            persisted = generation;
+            notifyAll();
+        }
+    }
+
+    /**
+     * Gets the number of deferred changes that have not yet been persisted.
+     *
+     * @return the number of changes
+     */
+    synchronized long getPendingCount() {
+        return deferred - persisted;
+    }
+
+    /**
+     * Waits for a change to be persisted by another operation, for as long as other operations wait for the controller
+     * lock. Does not require the controller lock, and must not be called while holding it. The waiting operation is
+     * woken when the change is persisted, or by {@link #lockQueueChanged()}.
+     *
+     * @param generation the generation of the change
+     * @param othersQueued whether other operations wait for the controller lock, so may persist the change
+     * @return {@code true} if the change has been persisted
+     * @throws InterruptedException if interrupted while waiting
+     */
+    synchronized boolean awaitPersisted(long generation, BooleanSupplier othersQueued) throws InterruptedException {
+        waiters++;
+        try {
+            while (persisted < generation && othersQueued.getAsBoolean()) {
+                wait();
+            }
+        } finally {
+            waiters--;
+        }
+        return persisted >= generation;
+    }
+
+    /**
+     * Wakes the operations waiting for their changes to be persisted, so they check whether other operations still
+     * wait for the controller lock. Must be called after a thread stops waiting for the lock, whether it acquired it
+     * or not.
+     */
+    void lockQueueChanged() {
+        if (waiters > 0) {
+            synchronized (this) {
+                notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Removes the record of an operation's deferred change.
+     *
+     * @param operationId the id of the operation
+     * @return the generation of the operation's change, or {@code null} if the operation did not defer persistence
+     */
+    synchronized Long removeOperation(Integer operationId) {
+        return pendingOperations.remove(operationId);
+    }
+
+    /**
+     * Gets whether a change has been persisted. Does not require the controller lock.
+     *
+     * @param generation the generation of the change
+     * @return {@code true} if a store covering the change has completed
+     */
+    boolean isPersisted(long generation) {
+        return persisted >= generation;
+    }
+}
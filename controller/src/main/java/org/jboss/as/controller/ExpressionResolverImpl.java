@@ -4,13 +4,18 @@
  */
 package org.jboss.as.controller;
 
+import java.util.Map;
 import java.util.Stack;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.jboss.as.controller.logging.ControllerLogger;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
 import org.jboss.dmr.Property;
 import org.jboss.dmr.ValueExpression;
+import org.wildfly.security.manager.WildFlySecurityManager;
 
 /**
  * Basic {@link ExpressionResolver} implementation.
@@ -23,7 +28,30 @@ public class ExpressionResolverImpl implements ExpressionResolver {
     private static final int GOT_DOLLAR = 1;
     private static final int GOT_OPEN_BRACE = 2;
 
+    /**
+     * System property that, if {@code true}, makes resolvers cache the values that expressions resolve to from
+     * system properties and environment variables, so expressions read with {@code resolve-expressions} or resolved on
+     * each service start are only looked up once. What {@link #resolvePluggableExpression(ModelNode, OperationContext)
+     * plug-ins}, such as credential store backed {@link org.jboss.as.controller.extension.ExpressionResolverExtension
+     * extensions}, resolve expressions to is never cached, as it may be a secret.
+     * <p>
+     * The caches are {@link #invalidateCaches() invalidated} when the management model changes a system property.
+     * System properties set by other means, e.g. by applications, are not seen until then, so this should only be
+     * enabled if expressions do not depend on such properties.
+     */
+    public static final String CACHE_PROPERTY = "org.wildfly.management.expression-cache";
+    private static final boolean CACHE_ENABLED = Boolean.parseBoolean(WildFlySecurityManager.getPropertyPrivileged(CACHE_PROPERTY, "false"));
+    /** Expressions usually come from the configuration, but this bounds the memory used if clients send many others */
+    private static final int MAX_CACHED_VALUES = 4096;
+    /** Incremented to invalidate the caches of all resolvers */
+    private static final AtomicLong cacheGeneration = new AtomicLong();
+    private static final LongAdder resolutionCount = new LongAdder();
+    private static final LongAdder cacheHitCount = new LongAdder();
+    private static final LongAdder resolutionTime = new LongAdder();
+
     private final boolean lenient;
+    /** Resolved values, by expression; {@code null} if caching is disabled */
+    private final Map<String, CachedValue> cache;
 
     /**
      * Creates a new {@code ExpressionResolverImpl} configured to throw an OFE
@@ -41,7 +69,48 @@ public class ExpressionResolverImpl implements ExpressionResolver {
      *                           if the node should be left as an unresolved expression
      */
     protected ExpressionResolverImpl(boolean lenient) {
+        this(lenient, CACHE_ENABLED);
+    }
+
+    ExpressionResolverImpl(boolean lenient, boolean cache) {
         this.lenient = lenient;
+        this.cache = cache ? new ConcurrentHashMap<>() : null;
+    }
+
+    /**
+     * Discards the values cached by all resolvers, if {@link #CACHE_PROPERTY caching} is enabled. Must be called
+     * whenever a system property expressions can resolve against changes.
+     */
+    public static void invalidateCaches() {
+        cacheGeneration.incrementAndGet();
+    }
+
+    /**
+     * Gets the number of expressions resolved since the process started, including those resolved from a cache.
+     * Expressions nested in other expressions are counted separately.
+     *
+     * @return the number of expressions
+     */
+    public static long getResolutionCount() {
+        return resolutionCount.sum();
+    }
+
+    /**
+     * Gets the number of expressions resolved from a cache since the process started.
+     *
+     * @return the number of expressions
+     */
+    public static long getCacheHitCount() {
+        return cacheHitCount.sum();
+    }
+
+    /**
+     * Gets the total time spent resolving expressions that were not resolved from a cache since the process started.
+     *
+     * @return the time, in nanoseconds
+     */
+    public static long getResolutionTime() {
+        return resolutionTime.sum();
     }
 
     @Override
@@ -316,23 +385,28 @@ public class ExpressionResolverImpl implements ExpressionResolver {
         return result;
     }
 
-    /** Resolve the given string using any plugin and the DMR resolve method */
+    /** Resolve the given string using any plugin, or the DMR resolve method or its cached result */
     private String resolveExpressionString(final String unresolvedString, final OperationContext context) throws OperationFailedException {
 
         // parseAndResolve should only be providing expressions with no leading or trailing chars
         assert unresolvedString.startsWith("${") && unresolvedString.endsWith("}");
 
+        resolutionCount.increment();
+
         // Default result is no change from input
         String result = unresolvedString;
 
         ModelNode resolveNode = new ModelNode(new ValueExpression(unresolvedString));
 
-        // Try plug-in resolution; i.e. vault
+        // Try plug-in resolution; i.e. vault. What plug-ins resolve to is never cached, as it may be a secret
+        // and may depend on the context
+        final long start = System.nanoTime();
         resolvePluggableExpression(resolveNode, context);
+        resolutionTime.add(System.nanoTime() - start);
 
         if (resolveNode.getType() == ModelType.EXPRESSION ) {
             // resolvePluggableExpression did nothing. Try standard resolution
-            String resolvedString = resolveStandardExpression(resolveNode);
+            String resolvedString = resolveCachedStandardExpression(unresolvedString, resolveNode);
             if (!unresolvedString.equals(resolvedString)) {
                 // resolveStandardExpression made progress
                 result = resolvedString;
@@ -345,6 +419,34 @@ public class ExpressionResolverImpl implements ExpressionResolver {
         return result;
     }
 
+    /**
+     * Performs a {@link #resolveStandardExpression(ModelNode) standard resolution}, which only depends on system
+     * properties and environment variables, using the value cached for the expression if there is one.
+     */
+    private String resolveCachedStandardExpression(final String unresolvedString, final ModelNode unresolved) {
+        final long generation = cacheGeneration.get();
+        if (cache != null) {
+            final CachedValue cached = cache.get(unresolvedString);
+            if (cached != null && cached.generation == generation) {
+                cacheHitCount.increment();
+                return cached.value;
+            }
+        }
+        final long start = System.nanoTime();
+        final String result;
+        try {
+            result = resolveStandardExpression(unresolved);
+        } finally {
+            resolutionTime.add(System.nanoTime() - start);
+        }
+        // Only cache values that did resolve. Values are stale if anything changed since they started being resolved
+        if (cache != null && !unresolvedString.equals(result)
+                && (cache.size() < MAX_CACHED_VALUES || cache.containsKey(unresolvedString))) {
+            cache.put(unresolvedString, new CachedValue(generation, result));
+        }
+        return result;
+    }
+
     /**
      * Perform a standard {@link org.jboss.dmr.ModelNode#resolve()} on the given {@code unresolved} node.
      * @param unresolved  the unresolved node, which should be of type {@link org.jboss.dmr.ModelType#EXPRESSION}
@@ -459,6 +561,16 @@ public class ExpressionResolverImpl implements ExpressionResolver {
         }
     }
 
+    private static class CachedValue {
+        private final long generation;
+        private final String value;
+
+        private CachedValue(long generation, String value) {
+            this.generation = generation;
+            this.value = value;
+        }
+    }
+
     private static class OpenExpression {
         private final int startIndex;
         private int endIndex = -1;
@@ -0,0 +1,520 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.jboss.as.controller;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.COMPOSITE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.DEPLOYMENT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILED;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILURE_DESCRIPTION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FULL_REPLACE_DEPLOYMENT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.HOST;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.HOST_STATE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUTCOME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_ATTRIBUTE_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RELOAD;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RELOAD_ENHANCED;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RELOAD_SERVERS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESPONSE_HEADERS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESTART_SERVERS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RETRY_AFTER;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RUNNING_MODE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RUNNING_SERVER;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RUNTIME_CONFIGURATION_STATE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SERVER_STATE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SHUTDOWN;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.START_SERVERS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.STEPS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.STOP_SERVERS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUSPEND_STATE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.UPLOAD_DEPLOYMENT_BYTES;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.UPLOAD_DEPLOYMENT_STREAM;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.UPLOAD_DEPLOYMENT_URL;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jboss.as.controller.logging.ControllerLogger;
+import org.jboss.as.controller.operations.global.GlobalOperationHandlers;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceName;
+import org.jboss.msc.service.ServiceRegistry;
+import org.wildfly.security.manager.WildFlySecurityManager;
+
+/**
+ * Priority lanes for the management operations of external callers, enabled by the {@link #ENABLED_PROPERTY} system
+ * property.
+ * <p>
+ * Each operation belongs to a {@link Lane}: probes of the state of the process, reads, writes, and deployment and
+ * lifecycle operations, which run the longest. A lane lets a bounded number of its operations execute at once, and
+ * keeps a bounded number of others waiting for their turn, in arrival order, so a lane busy with long running
+ * operations does not delay the operations of another lane, such as the polls of a health check. An operation arriving
+ * while all the places of its lane are taken is rejected right away, along with an estimate of the number of seconds
+ * to wait before retrying, rather than waiting for longer than its caller would.
+ * <p>
+ * An operation either {@link #acquire(Lane) waits for its turn} on the thread that executes it, which is how
+ * {@link ModelControllerImpl} uses the lanes, or is {@link #execute(Lane, Runnable, Executor, Runnable) handed over}
+ * to be executed once its turn comes, which is how the management interfaces use them, so the operations waiting for
+ * their turn do not hold a thread of the executor of the interface.
+ * <p>
+ * The thread executing an admitted operation is marked as such, so the operations it executes in turn, such as those
+ * of callers in the same VM, are not admitted through the lanes again, which would deadlock once their lane is
+ * saturated by the operations waiting for them. The lanes are owned by the model controller, whose service installs
+ * a service providing them, which the services of the management interfaces depend on if it is
+ * {@link #getServiceName(ServiceRegistry, ServiceName) installed}.
+ */
+public final class ManagementOperationLanes {
+
+    /**
+     * System property that, when {@code true}, makes the management interfaces and the model controller admit the
+     * operations of external callers through priority lanes.
+     */
+    public static final String ENABLED_PROPERTY = "org.wildfly.management.operation-lanes";
+
+    /** The suffix appended to the name of the service of a model controller to name the service providing its lanes */
+    static final String SERVICE_NAME_SUFFIX = "operation-lanes";
+
+    /** The number of operations rejected by all the lanes */
+    private static final AtomicLong REJECTIONS = new AtomicLong();
+    /** Set while the thread executes an operation admitted through the lanes */
+    private static final ThreadLocal<Boolean> ADMITTED = new ThreadLocal<>();
+
+    private static final Set<String> PROBE_ATTRIBUTES = Set.of(SERVER_STATE, HOST_STATE, RUNTIME_CONFIGURATION_STATE,
+            SUSPEND_STATE, RUNNING_MODE);
+    private static final Set<String> DEPLOY_OPERATIONS = Set.of(FULL_REPLACE_DEPLOYMENT, UPLOAD_DEPLOYMENT_BYTES,
+            UPLOAD_DEPLOYMENT_URL, UPLOAD_DEPLOYMENT_STREAM, RELOAD, RELOAD_ENHANCED, SHUTDOWN, RELOAD_SERVERS,
+            RESTART_SERVERS, START_SERVERS, STOP_SERVERS);
+
+    /**
+     * The priority classes of management operations, from the highest priority to the lowest. The limits of a lane
+     * can be set by a system property named after {@link #ENABLED_PROPERTY} and the lane, such as
+     * {@code org.wildfly.management.operation-lanes.deploy}, whose value is the number of operations that execute at
+     * once followed by the number of operations that wait for their turn, such as {@code 1,8}.
+     */
+    public enum Lane {
+        /** Reads of the state of the process, such as the polls of health checks */
+        PROBE("probe", 2, 16),
+        /** Other read-only operations */
+        READ("read", 4, 64),
+        /** Operations modifying the configuration */
+        WRITE("write", 2, 32),
+        /** Operations on deployments, and operations reloading, restarting or stopping processes */
+        DEPLOY("deploy", 1, 8);
+
+        private final String name;
+        private final int defaultMaxActive;
+        private final int defaultMaxQueued;
+
+        Lane(final String name, final int defaultMaxActive, final int defaultMaxQueued) {
+            this.name = name;
+            this.defaultMaxActive = defaultMaxActive;
+            this.defaultMaxQueued = defaultMaxQueued;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+
+        /**
+         * Gets the lane of an operation. The lane of a composite operation is the lowest priority lane of its steps.
+         *
+         * @param operation the operation
+         * @return the lane. Will not return {@code null}
+         */
+        public static Lane of(final ModelNode operation) {
+            final String name = operation.hasDefined(OP) ? operation.get(OP).asString() : "";
+            if (COMPOSITE.equals(name) && operation.hasDefined(STEPS)) {
+                Lane result = READ;
+                for (ModelNode step : operation.get(STEPS).asList()) {
+                    final Lane lane = of(step);
+                    if (lane.compareTo(result) > 0) {
+                        result = lane;
+                    }
+                }
+                return result;
+            }
+            final PathAddress address;
+            try {
+                address = operation.hasDefined(OP_ADDR) ? PathAddress.pathAddress(operation.get(OP_ADDR)) : PathAddress.EMPTY_ADDRESS;
+            } catch (IllegalArgumentException e) {
+                // Left for the controller to reject
+                return WRITE;
+            }
+            if (READ_ATTRIBUTE_OPERATION.equals(name) && isProcessAddress(address)
+                    && operation.hasDefined(NAME) && PROBE_ATTRIBUTES.contains(operation.get(NAME).asString())) {
+                return PROBE;
+            }
+            if (GlobalOperationHandlers.STD_READ_OPS.contains(name) || name.startsWith("read-")) {
+                return READ;
+            }
+            if (DEPLOY_OPERATIONS.contains(name)) {
+                return DEPLOY;
+            }
+            for (PathElement element : address) {
+                if (DEPLOYMENT.equals(element.getKey())) {
+                    return DEPLOY;
+                }
+            }
+            return WRITE;
+        }
+
+        /** Whether the address is the root of a process, that is the root, a host or a server of a host */
+        private static boolean isProcessAddress(final PathAddress address) {
+            switch (address.size()) {
+                case 0:
+                    return true;
+                case 1:
+                    return HOST.equals(address.getElement(0).getKey());
+                case 2:
+                    return HOST.equals(address.getElement(0).getKey()) && RUNNING_SERVER.equals(address.getElement(1).getKey());
+                default:
+                    return false;
+            }
+        }
+    }
+
+    private final Queue[] queues;
+
+    ManagementOperationLanes(final int[] maxActive, final int[] maxQueued) {
+        final Lane[] lanes = Lane.values();
+        queues = new Queue[lanes.length];
+        for (Lane lane : lanes) {
+            queues[lane.ordinal()] = new Queue(lane, maxActive[lane.ordinal()], maxQueued[lane.ordinal()]);
+        }
+    }
+
+    /**
+     * Gets the name of the service providing the lanes of a model controller, which is only installed if the
+     * controller admits the operations through lanes.
+     *
+     * @param registry the registry of the services
+     * @param controllerName the name of the service of the controller
+     * @return the name of the service, or {@code null} if the operations are not admitted through lanes
+     */
+    public static ServiceName getServiceName(final ServiceRegistry registry, final ServiceName controllerName) {
+        final ServiceName name = controllerName.append(SERVICE_NAME_SUFFIX);
+        return registry.getService(name) != null ? name : null;
+    }
+
+    /**
+     * Creates the lanes configured by the system properties, if enabled by the {@link #ENABLED_PROPERTY} system
+     * property.
+     *
+     * @return the lanes, or {@code null} if not enabled
+     */
+    public static ManagementOperationLanes create() {
+        if (!Boolean.parseBoolean(WildFlySecurityManager.getPropertyPrivileged(ENABLED_PROPERTY, "false"))) {
+            return null;
+        }
+        final Lane[] lanes = Lane.values();
+        final int[] maxActive = new int[lanes.length];
+        final int[] maxQueued = new int[lanes.length];
+        for (Lane lane : lanes) {
+            maxActive[lane.ordinal()] = lane.defaultMaxActive;
+            maxQueued[lane.ordinal()] = lane.defaultMaxQueued;
+            final String property = ENABLED_PROPERTY + "." + lane.name;
+            final String value = WildFlySecurityManager.getPropertyPrivileged(property, null);
+            if (value != null) {
+                final String[] limits = value.split(",");
+                try {
+                    if (limits.length != 2) {
+                        throw new NumberFormatException(value);
+                    }
+                    final int active = Integer.parseInt(limits[0].trim());
+                    final int queued = Integer.parseInt(limits[1].trim());
+                    if (active < 1 || queued < 0) {
+                        throw new NumberFormatException(value);
+                    }
+                    maxActive[lane.ordinal()] = active;
+                    maxQueued[lane.ordinal()] = queued;
+                } catch (NumberFormatException e) {
+                    ControllerLogger.ROOT_LOGGER.invalidOperationLaneLimits(value, property, lane.defaultMaxActive, lane.defaultMaxQueued);
+                }
+            }
+        }
+        return new ManagementOperationLanes(maxActive, maxQueued);
+    }
+
+    /**
+     * Gets the number of operations rejected as their lane was saturated.
+     *
+     * @return the number of operations
+     */
+    public static long getRejectedOperationCount() {
+        return REJECTIONS.get();
+    }
+
+    /**
+     * Gets the number of operations of all the lanes that can execute at once.
+     *
+     * @return the number of operations
+     */
+    public int getMaxActive() {
+        int result = 0;
+        for (Queue queue : queues) {
+            result += queue.maxActive;
+        }
+        return result;
+    }
+
+    /**
+     * Gets the number of operations of a lane that can execute at once.
+     *
+     * @param lane the lane
+     * @return the number of operations
+     */
+    public int getMaxActive(final Lane lane) {
+        return queues[lane.ordinal()].maxActive;
+    }
+
+    /**
+     * Gets whether the calling thread executes an operation admitted through the lanes.
+     *
+     * @return {@code true} if the operations of the thread are already admitted
+     */
+    static boolean isAdmitted() {
+        return ADMITTED.get() != null;
+    }
+
+    /**
+     * Waits for the turn of an operation of a lane. If {@code true} is returned, the calling thread is marked as
+     * executing an admitted operation, and {@link #release(Lane, long)} must be called by it once the operation
+     * completes.
+     *
+     * @param lane the lane of the operation
+     * @return {@code true} if it is the turn of the operation, or {@code false} if the lane is saturated
+     * @throws InterruptedException if interrupted while waiting. The operation then has not got its turn
+     */
+    public boolean acquire(final Lane lane) throws InterruptedException {
+        if (queues[lane.ordinal()].acquire()) {
+            ADMITTED.set(Boolean.TRUE);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Releases the turn of an operation of a lane acquired by the calling thread, giving it to the next operation
+     * waiting for it. A task waiting for its turn is handed to its executor, so the calling thread does not execute it.
+     *
+     * @param lane the lane of the operation
+     * @param time the time, in nanoseconds, the operation took to execute
+     */
+    public void release(final Lane lane, final long time) {
+        ADMITTED.remove();
+        final Queue queue = queues[lane.ordinal()];
+        queue.dispatch(queue.release(time));
+    }
+
+    /**
+     * Executes an operation of a lane with the given executor once it is its turn. An operation waiting for its turn
+     * does not hold a thread: once the operation it follows completes, it is handed to its own executor, so the
+     * operations of a lane queued by different management interfaces are each executed by the threads of their
+     * interface.
+     *
+     * @param lane the lane of the operation
+     * @param task the task executing the operation
+     * @param executor the executor executing the task once it is the turn of the operation
+     * @param rejectionHandler the task executed in place of {@code task} if the executor rejects it, which must not
+     *                         block, as it may be executed by the calling thread
+     * @return {@code true} if the task is executed, or will be once it is its turn, or {@code false} if the lane is
+     *         saturated
+     */
+    public boolean execute(final Lane lane, final Runnable task, final Executor executor, final Runnable rejectionHandler) {
+        final Queue queue = queues[lane.ordinal()];
+        final Turn turn = new Turn(task, executor, rejectionHandler);
+        final Boolean active = queue.offer(turn);
+        if (active == null) {
+            return false;
+        } else if (active) {
+            queue.dispatch(turn);
+        }
+        return true;
+    }
+
+    /**
+     * Gets an estimate of the number of seconds after which an operation of a lane that is saturated could be
+     * admitted: the time the operations of the lane take on average, times the number of operations of the lane
+     * waiting for each place of the lane.
+     *
+     * @param lane the lane
+     * @return the number of seconds, at least one
+     */
+    public int getRetryAfter(final Lane lane) {
+        return queues[lane.ordinal()].getRetryAfter();
+    }
+
+    /**
+     * Creates the response to an operation of a lane rejected as the lane was saturated. The number of seconds after
+     * which the operation can be retried is set as the {@code retry-after} response header.
+     *
+     * @param lane the lane
+     * @return the response
+     */
+    public ModelNode createRejectedResponse(final Lane lane) {
+        final int retryAfter = getRetryAfter(lane);
+        final ModelNode response = new ModelNode();
+        response.get(OUTCOME).set(FAILED);
+        response.get(FAILURE_DESCRIPTION).set(ControllerLogger.ROOT_LOGGER.operationLaneSaturated(lane.toString(), retryAfter));
+        response.get(RESPONSE_HEADERS, RETRY_AFTER).set(retryAfter);
+        return response;
+    }
+
+    /**
+     * The operations of a lane.
+     */
+    private static final class Queue {
+        /** The weight of the last operation in the average time of the operations */
+        private static final double AVERAGE_WEIGHT = 0.2;
+
+        private final Lane lane;
+        private final int maxActive;
+        private final int maxQueued;
+        /** Guarded by this - the number of operations whose turn it is */
+        private int active;
+        /** Guarded by this - the operations waiting for their turn */
+        private final Deque<Turn> waiting = new ArrayDeque<>();
+        /** Guarded by this - the average time, in nanoseconds, of the operations */
+        private double averageTime;
+
+        private Queue(final Lane lane, final int maxActive, final int maxQueued) {
+            this.lane = lane;
+            this.maxActive = maxActive;
+            this.maxQueued = maxQueued;
+        }
+
+        synchronized boolean acquire() throws InterruptedException {
+            if (active < maxActive) {
+                active++;
+                return true;
+            }
+            if (waiting.size() >= maxQueued) {
+                REJECTIONS.incrementAndGet();
+                return false;
+            }
+            final Turn turn = new Turn(null, null, null);
+            waiting.add(turn);
+            try {
+                while (!turn.granted) {
+                    wait();
+                }
+            } catch (InterruptedException e) {
+                if (turn.granted) {
+                    // Keep the turn, which the caller will release
+                    Thread.currentThread().interrupt();
+                    return true;
+                }
+                waiting.remove(turn);
+                throw e;
+            }
+            return true;
+        }
+
+        /**
+         * @return {@code true} if it is the turn of the task, {@code false} if it waits for its turn, or {@code null}
+         *         if the lane is saturated
+         */
+        synchronized Boolean offer(final Turn turn) {
+            if (active < maxActive) {
+                active++;
+                return Boolean.TRUE;
+            }
+            if (waiting.size() >= maxQueued) {
+                REJECTIONS.incrementAndGet();
+                return null;
+            }
+            waiting.add(turn);
+            return Boolean.FALSE;
+        }
+
+        /**
+         * @return the turn of the task to execute, if any
+         */
+        synchronized Turn release(final long time) {
+            if (time > 0) {
+                averageTime = averageTime == 0 ? time : averageTime + AVERAGE_WEIGHT * (time - averageTime);
+            }
+            final Turn next = waiting.poll();
+            if (next == null) {
+                active--;
+                return null;
+            }
+            // The turn is handed over, so the number of active operations is unchanged
+            next.granted = true;
+            if (next.task == null) {
+                notifyAll();
+                return null;
+            }
+            return next;
+        }
+
+        /**
+         * Hands the task whose turn it is to its executor, or if rejected, executes its rejection handler and gives the
+         * turn to the next task.
+         */
+        void dispatch(final Turn turn) {
+            Turn next = turn;
+            while (next != null) {
+                final Turn current = next;
+                try {
+                    current.executor.execute(() -> run(current));
+                    return;
+                } catch (RejectedExecutionException e) {
+                    try {
+                        current.rejectionHandler.run();
+                    } catch (RuntimeException ex) {
+                        ControllerLogger.ROOT_LOGGER.operationLaneTaskFailed(ex, lane.toString());
+                    }
+                }
+                next = release(0);
+            }
+        }
+
+        /**
+         * Executes a task on the thread of its executor, then hands the task whose turn it gives to its own executor.
+         */
+        void run(final Turn turn) {
+            final long start = System.nanoTime();
+            ADMITTED.set(Boolean.TRUE);
+            try {
+                turn.task.run();
+            } catch (RuntimeException e) {
+                ControllerLogger.ROOT_LOGGER.operationLaneTaskFailed(e, lane.toString());
+            } finally {
+                ADMITTED.remove();
+            }
+            dispatch(release(System.nanoTime() - start));
+        }
+
+        synchronized int getRetryAfter() {
+            final double wait = averageTime * (waiting.size() + active) / maxActive;
+            return (int) Math.max(1, Math.ceil(wait / TimeUnit.SECONDS.toNanos(1)));
+        }
+    }
+
+    private static final class Turn {
+        /** The task, or {@code null} if the thread of the operation waits for its turn */
+        private final Runnable task;
+        private final Executor executor;
+        private final Runnable rejectionHandler;
+        /** Guarded by the queue */
+        private boolean granted;
+
+        private Turn(final Runnable task, final Executor executor, final Runnable rejectionHandler) {
+            this.task = task;
+            this.executor = executor;
+            this.rejectionHandler = rejectionHandler;
+        }
+    }
+}
@@ -5,10 +5,13 @@
 
 package org.jboss.as.controller;
 
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ACCESS_MECHANISM;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ACTIVE_OPERATION;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ATTACHED_STREAMS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.CALLER_TYPE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.CANCELLED;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.CORE_SERVICE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.DOMAIN_UUID;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILED;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILURE_DESCRIPTION;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.HOST;
@@ -23,6 +26,7 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.PRO
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESPONSE_HEADERS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SERVICE;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.STEPS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUBSYSTEM;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.USER;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.UUID;
 import static org.jboss.as.controller.logging.ControllerLogger.MGMT_OP_LOGGER;
@@ -35,6 +39,7 @@ import java.security.PrivilegedAction;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
@@ -83,6 +88,7 @@ import org.jboss.dmr.ModelNode;
 import org.jboss.msc.service.ServiceRegistry;
 import org.jboss.msc.service.ServiceTarget;
 import org.wildfly.security.auth.server.SecurityIdentity;
+import org.wildfly.security.manager.WildFlySecurityManager;
 
 /**
  * Default {@link ModelController} implementation.
@@ -99,6 +105,35 @@ class ModelControllerImpl implements ModelController {
         EMPTY_ADDRESS.protect();
     }
 
+
+    /**
+     * System property that, when {@code true}, makes a write operation that completes while other operations are
+     * waiting for the controller lock leave the commit of the configuration it stored to one of them, so a burst of
+     * concurrent writes writes the configuration once. Each operation still executes, stores the configuration, and
+     * is rolled back if that fails, on its own, and does not return until its changes have been committed.
+     */
+    static final String GROUP_COMMIT_PROPERTY = "org.wildfly.management.group-commit";
+    /**
+     * System property that, when {@code true}, makes a server booting in normal mode also execute the boot operations
+     * for interfaces, socket binding groups, paths and core services in parallel, along with those of the subsystems.
+     * The top level resources run in waves derived from the capabilities their boot operations provide and require.
+     */
+    static final String DEPENDENCY_ORDERED_BOOT_PROPERTY = "org.wildfly.management.dependency-ordered-boot";
+    /**
+     * System property listing, comma separated, the subsystems of a server whose services start on demand. The
+     * services the management operations of such a subsystem install only start once another service depends on
+     * them, typically because a capability of the subsystem is required, whatever mode the subsystem asks for.
+     */
+    static final String LAZY_SUBSYSTEMS_PROPERTY = "org.wildfly.management.lazy-subsystems";
+    /**
+     * System property that, when {@code true}, makes an operation addressed to a subsystem of a server that writes to
+     * the resources of that subsystem take a lock of the subsystem in place of the exclusive controller lock, so the
+     * model stages of operations on different subsystems execute concurrently. See {@link SubsystemWriteLocks}.
+     */
+    static final String SUBSYSTEM_WRITE_LOCKS_PROPERTY = "org.wildfly.management.subsystem-write-locks";
+    /** The most changes that can await persistence, so a steady stream of writes still stores the configuration regularly */
+    private static final int MAX_DEFERRED_CHANGES = 64;
+
     private static final PathAddress MODEL_CONTROLLER_ADDRESS = PathAddress.pathAddress(PathElement.pathElement(CORE_SERVICE, MANAGEMENT),
             PathElement.pathElement(SERVICE, MANAGEMENT_OPERATIONS));
 
@@ -134,6 +169,13 @@ class ModelControllerImpl implements ModelController {
 
     private final AbstractControllerService.PartialModelIndicator partialModelIndicator;
     private final AbstractControllerService.ControllerInstabilityListener instabilityListener;
+    private final boolean groupCommit = Boolean.parseBoolean(WildFlySecurityManager.getPropertyPrivileged(GROUP_COMMIT_PROPERTY, "false"));
+    private final boolean dependencyOrderedBoot = Boolean.parseBoolean(WildFlySecurityManager.getPropertyPrivileged(DEPENDENCY_ORDERED_BOOT_PROPERTY, "false"));
+    private final Set<String> lazySubsystems = getLazySubsystems(WildFlySecurityManager.getPropertyPrivileged(LAZY_SUBSYSTEMS_PROPERTY, null));
+    private final DeferredPersistence deferredPersistence = new DeferredPersistence();
+    private final SubsystemWriteLocks subsystemWriteLocks = Boolean.parseBoolean(WildFlySecurityManager.getPropertyPrivileged(SUBSYSTEM_WRITE_LOCKS_PROPERTY, "false"))
+            ? new SubsystemWriteLocks(controllerLock) : null;
+    private final ManagementOperationLanes operationLanes = ManagementOperationLanes.create();
 
     private volatile ModelControllerClientFactoryImpl clientFactory;
 
@@ -223,6 +265,17 @@ class ModelControllerImpl implements ModelController {
         return executeOperation(operation, handler, control, false);
     }
 
+    /**
+     * Gets the priority lanes through which this controller admits the operations of the management interfaces, so
+     * an interface can admit an operation itself before dispatching it, in which case the controller does not admit
+     * it again.
+     *
+     * @return the lanes, or {@code null} if the operations are not admitted through lanes
+     */
+    ManagementOperationLanes getOperationLanes() {
+        return operationLanes;
+    }
+
     final ModelNode executeOperation(final ModelNode operation, final OperationMessageHandler handler, final OperationTransactionControl control,
                             final OperationAttachments attachments, final boolean forBoot) {
         OperationResponse or = executeForResponse(operation, handler, control, attachments, forBoot);
@@ -242,9 +295,61 @@ class ModelControllerImpl implements ModelController {
 
     final OperationResponse executeForResponse(final ModelNode operation, OperationMessageHandler handler, OperationTransactionControl control,
                                          final OperationAttachments attachments, final boolean forBoot) {
-        SecurityIdentity securityIdentity = securityIdentitySupplier.get();
-        return securityIdentity.runAs((PrivilegedAction<OperationResponse>) () -> internalExecute(operation,
-                handler, control, attachments, prepareStep, false, partialModelIndicator.isModelPartial(), forBoot));
+        final ManagementOperationLanes.Lane lane = forBoot ? null : getLane(operation);
+        if (lane != null) {
+            try {
+                if (!operationLanes.acquire(lane)) {
+                    return OperationResponse.Factory.createSimple(operationLanes.createRejectedResponse(lane));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                final ModelNode result = new ModelNode();
+                result.get(OUTCOME).set(CANCELLED);
+                result.get(FAILURE_DESCRIPTION).set(ControllerLogger.MGMT_OP_LOGGER.operationCancelled());
+                return OperationResponse.Factory.createSimple(result);
+            }
+        }
+        final long start = System.nanoTime();
+        try {
+            SecurityIdentity securityIdentity = securityIdentitySupplier.get();
+            return securityIdentity.runAs((PrivilegedAction<OperationResponse>) () -> internalExecute(operation,
+                    handler, control, attachments, prepareStep, false, partialModelIndicator.isModelPartial(), forBoot));
+        } finally {
+            if (lane != null) {
+                operationLanes.release(lane, System.nanoTime() - start);
+            }
+        }
+    }
+
+    /**
+     * Gets the lane through which an operation is admitted, if {@link ManagementOperationLanes#ENABLED_PROPERTY} is set.
+     * Only the operations the native, HTTP and JMX management interfaces mark with their access mechanism are admitted
+     * through the lanes, unless the interface already admitted them, not those of the other processes of a managed
+     * domain, or of callers in the same VM. The operations executed by the thread of an admitted operation are not
+     * admitted again, as the operation waits for them.
+     *
+     * @param operation the operation
+     * @return the lane, or {@code null} if the operation is not admitted through the lanes
+     */
+    private ManagementOperationLanes.Lane getLane(final ModelNode operation) {
+        if (operationLanes == null || ManagementOperationLanes.isAdmitted() || !operation.hasDefined(OPERATION_HEADERS)) {
+            return null;
+        }
+        final ModelNode headers = operation.get(OPERATION_HEADERS);
+        if (headers.hasDefined(DOMAIN_UUID) || !headers.hasDefined(ACCESS_MECHANISM)) {
+            return null;
+        }
+        final AccessMechanism accessMechanism;
+        try {
+            accessMechanism = AccessMechanism.valueOf(headers.get(ACCESS_MECHANISM).asString());
+        } catch (IllegalArgumentException e) {
+            // Left for internalExecute to reject
+            return null;
+        }
+        if (accessMechanism != AccessMechanism.NATIVE && accessMechanism != AccessMechanism.HTTP && accessMechanism != AccessMechanism.JMX) {
+            return null;
+        }
+        return ManagementOperationLanes.Lane.of(operation);
     }
 
     private AbstractOperationContext getDelegateContext(final int operationId) {
@@ -411,6 +516,8 @@ class ModelControllerImpl implements ModelController {
             responseStreams = null;
             // Create a random operation-id
             final Integer operationID = random.nextInt();
+            // The context reads the model published when the operation starts. It only takes the controller lock
+            // once a step writes, or asks for the lock as readResourceForUpdate does, so reads do not wait for writes
             final OperationContextImpl context = new OperationContextImpl(operationID, operation.get(OP).asString(),
                     operation.get(OP_ADDR), this, processType, this.stability, runningModeControl.getRunningMode(),
                     headers, handler, attachments, managementModel.get(), originalResultTxControl, processState, auditLogger,
@@ -434,6 +541,9 @@ class ModelControllerImpl implements ModelController {
                     context.addStep(responseNode, operation, prepareStep, OperationContext.Stage.MODEL);
                     ControllerLogger.MGMT_OP_LOGGER.tracef("Executing %s", operation);
                     context.executeOperation();
+                    if (groupCommit) {
+                        awaitDeferredPersistence(operationID);
+                    }
                     responseStreams = context.getResponseStreams();
                 } catch (Error e) {
                     try {
@@ -534,7 +644,7 @@ class ModelControllerImpl implements ModelController {
                     break;
                 } else {
                     if(parsedOp.isBootHandlerUpdateNeeded()) {
-                        ParallelBootOperationStepHandler updatedHandler =  new ParallelBootOperationStepHandler(executorService, managementModel.get().getRootResourceRegistration(), processState, this, operationID, extraValidationStepHandler);
+                        ParallelBootOperationStepHandler updatedHandler =  new ParallelBootOperationStepHandler(executorService, managementModel.get().getRootResourceRegistration(), processState, this, operationID, extraValidationStepHandler, dependencyOrderedBoot);
                         for(ModelNode childOp : parsedOp.getChildOperations()) {
                             updatedHandler.addSubsystemOperation(new ParsedBootOp(childOp));
                         }
@@ -609,7 +719,8 @@ class ModelControllerImpl implements ModelController {
      *      can be done in parallel by the executor service.
      *     </li>
      *     <li>If an executor service is available and the controller type is SERVER, organizes all subsystem ops so
-     *     they can be done in parallel by the executor service.
+     *     they can be done in parallel by the executor service. With {@link #DEPENDENCY_ORDERED_BOOT_PROPERTY} set,
+     *     the interface, socket binding group, path and core service ops are organized the same way.
      *     </li>
      * </ol>
      *
@@ -630,7 +741,7 @@ class ModelControllerImpl implements ModelController {
                 parallelBootRootResourceRegistrationProvider : getMutableRootResourceRegistrationProvider();
         ParallelExtensionAddHandler parallelExtensionAddHandler = executorService == null ? null : new ParallelExtensionAddHandler(executorService, parallellBRRRProvider);
         ParallelBootOperationStepHandler parallelSubsystemHandler = (executorService != null && processType.isServer() && runningModeControl.getRunningMode() == RunningMode.NORMAL)
-                ? new ParallelBootOperationStepHandler(executorService, rootRegistration, processState, this, lockPermit, extraValidationStepHandler) : null;
+                ? new ParallelBootOperationStepHandler(executorService, rootRegistration, processState, this, lockPermit, extraValidationStepHandler, dependencyOrderedBoot) : null;
         boolean registeredParallelSubsystemHandler = false;
         int subsystemIndex = 0;
         for (ModelNode bootOp : bootList) {
@@ -734,7 +845,7 @@ class ModelControllerImpl implements ModelController {
         return getClientFactory().createBootClient(executor);
     }
 
-    ConfigurationPersister.PersistenceResource writeModel(final ManagementModelImpl model, final Set<PathAddress> affectedAddresses,
+    ConfigurationPersister.PersistenceResource writeModel(final Integer operationId, final ManagementModelImpl model, final Set<PathAddress> affectedAddresses,
                                                           final boolean resourceTreeModified, final boolean capabilityRegistryModified,
                                                           final boolean resourceRegistrationModified) throws ConfigurationPersistenceException {
         final ConfigurationPersister.PersistenceResource delegate;
@@ -770,8 +881,19 @@ class ModelControllerImpl implements ModelController {
                 }
                 if (resourceTreeModified) {
                     model.publish();
+                    if (subsystemWriteLocks != null) {
+                        subsystemWriteLocks.published(affectedAddresses);
+                    }
                     if (delegate != null) {
-                        delegate.commit();
+                        if (!groupCommit) {
+                            delegate.commit();
+                        } else if (controllerLock.hasQueuedThreads() && deferredPersistence.getPendingCount() < MAX_DEFERRED_CHANGES) {
+                            // Other operations are waiting to run; let one of them commit our changes along with theirs
+                            ControllerLogger.MGMT_OP_LOGGER.tracef("deferring commit of the persistence of %s", model);
+                            deferredPersistence.defer(operationId, delegate);
+                        } else {
+                            deferredPersistence.commit(delegate);
+                        }
                     }
                 }
             }
@@ -787,6 +909,40 @@ class ModelControllerImpl implements ModelController {
         };
     }
 
+    /**
+     * Waits until any changes whose persistence the given operation deferred have been committed, committing the
+     * latest stored configuration itself if no other operation has done so once it gets the controller lock.
+     *
+     * @param operationId the id of the operation, which must no longer hold the controller lock
+     */
+    private void awaitDeferredPersistence(final Integer operationId) {
+        final Long generation = deferredPersistence.removeOperation(operationId);
+        if (generation == null) {
+            return;
+        }
+        try {
+            // The lock isn't fair, so only compete for it once the operations queued behind us have had their turn
+            if (deferredPersistence.awaitPersisted(generation, controllerLock::hasQueuedThreads)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (deferredPersistence.isPersisted(generation)) {
+            return;
+        }
+        controllerLock.lock(operationId);
+        deferredPersistence.lockQueueChanged();
+        try {
+            if (!deferredPersistence.isPersisted(generation)) {
+                ControllerLogger.MGMT_OP_LOGGER.tracef("committing deferred persistence of %s", managementModel.get());
+                deferredPersistence.commitPending();
+            }
+        } finally {
+            controllerLock.unlock(operationId);
+        }
+    }
+
     void discardModel(final ManagementModelImpl model,
                       final boolean resourceTreeModified, final boolean capabilityRegistryModified,
                       final boolean resourceRegistrationModified) {
@@ -803,32 +959,45 @@ class ModelControllerImpl implements ModelController {
     }
 
     void acquireWriteLock(Integer permit, final boolean interruptibly) throws InterruptedException {
-        if (interruptibly) {
-            //noinspection LockAcquiredButNotSafelyReleased
-            controllerLock.lockInterruptibly(permit);
-        } else {
-            //noinspection LockAcquiredButNotSafelyReleased
-            controllerLock.lock(permit);
+        try {
+            if (interruptibly) {
+                //noinspection LockAcquiredButNotSafelyReleased
+                controllerLock.lockInterruptibly(permit);
+            } else {
+                //noinspection LockAcquiredButNotSafelyReleased
+                controllerLock.lock(permit);
+            }
+        } finally {
+            // Operations awaiting deferred persistence wait for as long as others are queued for the lock
+            deferredPersistence.lockQueueChanged();
         }
     }
 
     void acquireReadLock(Integer permit, final boolean interruptibly) throws InterruptedException {
-        if (interruptibly) {
-            //noinspection LockAcquiredButNotSafelyReleased
-            controllerLock.lockSharedInterruptibly(permit);
-        } else {
-            //noinspection LockAcquiredButNotSafelyReleased
-            controllerLock.lockShared(permit);
+        try {
+            if (interruptibly) {
+                //noinspection LockAcquiredButNotSafelyReleased
+                controllerLock.lockSharedInterruptibly(permit);
+            } else {
+                //noinspection LockAcquiredButNotSafelyReleased
+                controllerLock.lockShared(permit);
+            }
+        } finally {
+            deferredPersistence.lockQueueChanged();
         }
     }
 
     boolean acquireWriteLock(Integer permit, final boolean interruptibly, long timeout) throws InterruptedException {
-        if (interruptibly) {
-            //noinspection LockAcquiredButNotSafelyReleased
-            return controllerLock.lockInterruptibly(permit, timeout, TimeUnit.SECONDS);
-        } else {
-            //noinspection LockAcquiredButNotSafelyReleased
-            return controllerLock.lock(permit, timeout, TimeUnit.SECONDS);
+        try {
+            if (interruptibly) {
+                //noinspection LockAcquiredButNotSafelyReleased
+                return controllerLock.lockInterruptibly(permit, timeout, TimeUnit.SECONDS);
+            } else {
+                //noinspection LockAcquiredButNotSafelyReleased
+                return controllerLock.lock(permit, timeout, TimeUnit.SECONDS);
+            }
+        } finally {
+            deferredPersistence.lockQueueChanged();
         }
     }
 
@@ -839,6 +1008,25 @@ class ModelControllerImpl implements ModelController {
     void releaseReadLock(Integer permit) {
         controllerLock.unlockShared(permit);
     }
+
+    /**
+     * Takes the write lock of a subsystem in place of the exclusive controller lock, if the operation is eligible.
+     *
+     * @param permit the id of the operation
+     * @param operationAddress the address of the operation
+     * @param address the address of the resource the operation writes to
+     * @param interruptibly {@code true} if waiting for the lock can be interrupted
+     * @return the lock, or {@code null} if the operation needs the exclusive controller lock
+     * @throws InterruptedException if interrupted while waiting for the lock
+     */
+    SubsystemWriteLocks.Lock acquireSubsystemWriteLock(Integer permit, PathAddress operationAddress, PathAddress address,
+                                                       final boolean interruptibly) throws InterruptedException {
+        if (subsystemWriteLocks == null) {
+            return null;
+        }
+        final PathElement subsystem = SubsystemWriteLocks.getSubsystem(operationAddress, address);
+        return subsystem == null ? null : subsystemWriteLocks.acquire(permit, subsystem, interruptibly);
+    }
     /**
      * Log a report of any problematic container state changes and reset container state change history
      * so another run of this method or of {@link #awaitContainerStateChangeReport(long, java.util.concurrent.TimeUnit)}
@@ -1055,6 +1243,32 @@ class ModelControllerImpl implements ModelController {
         }
     }
 
+    /** Parses the comma-separated names of the {@link #LAZY_SUBSYSTEMS_PROPERTY lazy subsystems}. */
+    private static Set<String> getLazySubsystems(final String property) {
+        if (property == null) {
+            return Collections.emptySet();
+        }
+        final Set<String> result = new HashSet<>();
+        for (String name : property.split(",")) {
+            if (!name.trim().isEmpty()) {
+                result.add(name.trim());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Gets whether the services installed by the operations on a resource start on demand, as the resource belongs
+     * to one of the {@link #LAZY_SUBSYSTEMS_PROPERTY lazy subsystems}.
+     *
+     * @param address the address of the resource
+     * @return {@code true} if the services start on demand
+     */
+    boolean isLazy(final PathAddress address) {
+        return !lazySubsystems.isEmpty() && processType.isServer() && address.size() > 0
+                && SUBSYSTEM.equals(address.getElement(0).getKey()) && lazySubsystems.contains(address.getElement(0).getValue());
+    }
+
     private static final class BootOperations {
         private final List<ParsedBootOp> initialOps;
         private final List<ParsedBootOp> postExtensionOps;
@@ -1219,7 +1433,7 @@ class ModelControllerImpl implements ModelController {
         /**
          * Creates a new {@code ManagementModelImpl} that uses a clone of this one's root {@link ManagementResourceRegistration}.
          * The caller can safely modify that {@code ManagementResourceRegistration} without changes being exposed
-         * to other callers. Use {@link ModelControllerImpl#writeModel(ManagementModelImpl, Set, boolean, boolean, boolean)}
+         * to other callers. Use {@link ModelControllerImpl#writeModel(Integer, ManagementModelImpl, Set, boolean, boolean, boolean)}
          * to publish changes.
          *
          * @return the new {@code ManagementModelImpl}. Will not return {@code null}
@@ -1251,7 +1465,7 @@ class ModelControllerImpl implements ModelController {
         /**
          * Creates a new {@code ManagementModelImpl} that uses a clone of this one's root {@link Resource}.
          * The caller can safely modify that {@code Resource} without changes being exposed
-         * to other callers. Use {@link ModelControllerImpl#writeModel(ManagementModelImpl, Set, boolean, boolean, boolean)}
+         * to other callers. Use {@link ModelControllerImpl#writeModel(Integer, ManagementModelImpl, Set, boolean, boolean, boolean)}
          * to publish changes.
          *
          * @return the new {@code ManagementModelImpl}. Will not return {@code null}
@@ -1260,6 +1474,7 @@ class ModelControllerImpl implements ModelController {
             ManagementResourceRegistration mrr;
             Resource currentResource;
             CapabilityRegistry currentCaps;
+            Resource clone;
             if (published) {
                 // This is the first clone since this was published. Use the current stuff as the basis
                 // to ensure that the clone is based on the latest even if we are not the latest.
@@ -1267,19 +1482,56 @@ class ModelControllerImpl implements ModelController {
                 mrr = currentPublished.resourceRegistration;
                 currentResource = currentPublished.rootResource;
                 currentCaps = currentPublished.capabilityRegistry;
+                // A published resource tree is never modified, so the clone can share all parts of it
+                // the caller does not touch
+                clone = Resource.Tools.copyOnWrite(currentResource);
             } else {
                 // We've already been cloned, which means the thread calling this has the controller lock
                 // and our stuff hasn't been superceded by another thread. So use our stuff
                 mrr = resourceRegistration;
                 currentResource = rootResource;
                 currentCaps = capabilityRegistry;
+                clone = currentResource.clone();
             }
-            Resource clone = currentResource.clone();
             ManagementModelImpl result = new ManagementModelImpl(mrr, clone, currentCaps);
             ControllerLogger.MGMT_OP_LOGGER.tracef("cloned to %s to create %s and %s", currentResource, clone, result);
             return result;
         }
 
+        /**
+         * Creates a new {@code ManagementModelImpl} whose root {@link Resource} is a copy of the latest published one,
+         * holding this one's resource for the given subsystem. Used by an operation that modified the subsystem, and
+         * nothing else, without holding the exclusive controller lock, once it holds it, so the changes published by
+         * other operations in the meantime are kept.
+         *
+         * @param subsystem the subsystem
+         * @return the new {@code ManagementModelImpl}. Will not return {@code null}
+         */
+        ManagementModelImpl rebaseSubsystem(final PathElement subsystem) {
+            final ManagementModelImpl currentPublished = ModelControllerImpl.this.managementModel.get();
+            final Resource root = Resource.Tools.copyOnWrite(currentPublished.rootResource);
+            final Resource resource = rootResource.getChild(subsystem);
+            // Remove the subsystem and those following it, and register them again, so the subsystems keep their order
+            final String type = subsystem.getKey();
+            final List<String> names = new ArrayList<>(root.getChildrenNames(type));
+            final int index = names.indexOf(subsystem.getValue());
+            final Map<PathElement, Resource> following = new LinkedHashMap<>();
+            if (index >= 0) {
+                for (String name : names.subList(index + 1, names.size())) {
+                    final PathElement element = PathElement.pathElement(type, name);
+                    following.put(element, root.removeChild(element));
+                }
+                root.removeChild(subsystem);
+            }
+            if (resource != null) {
+                root.registerChild(subsystem, resource);
+            }
+            following.forEach(root::registerChild);
+            final ManagementModelImpl result = new ManagementModelImpl(currentPublished.resourceRegistration, root, currentPublished.capabilityRegistry);
+            ControllerLogger.MGMT_OP_LOGGER.tracef("rebased %s of %s onto %s to create %s", subsystem, this, currentPublished, result);
+            return result;
+        }
+
         /**
          * Compares the registered requirements to the registered capabilities, returning any missing
          * or inconsistent requirements.
@@ -1299,6 +1551,8 @@ class ModelControllerImpl implements ModelController {
             }
         }
         private void publish() {
+            // Readers of the published model must not make its copy-on-write resources take their own copies
+            Resource.Tools.freeze(rootResource);
             ModelControllerImpl.this.managementModel.set(this);
             published = true;
             ControllerLogger.MGMT_OP_LOGGER.tracef("published %s", this);
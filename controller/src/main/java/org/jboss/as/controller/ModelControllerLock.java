@@ -165,6 +165,23 @@ class ModelControllerLock {
         return sync.tryAcquire(permit);
     }
 
+    /**
+     * Query whether the lock is held in exclusive mode for the given permit.
+     * @param permit - the permit Integer for this operation.
+     * @return {@code boolean} true if the lock is held in exclusive mode by {@code permit}.
+     */
+    boolean isHeldExclusively(final int permit) {
+        return sync.isHeldExclusively(permit);
+    }
+
+    /**
+     * Query whether any threads are waiting to acquire the lock, in either mode.
+     * @return {@code boolean} true if there may be other threads waiting to acquire the lock.
+     */
+    boolean hasQueuedThreads() {
+        return sync.hasQueuedThreads();
+    }
+
     /**
      * Implementation {@link AbstractQueuedSynchronizer} that maintains
      * lock state in a single {@code int}, managed by #getState() and #compareAndSet().
@@ -205,6 +222,10 @@ class ModelControllerLock {
             return internalRelease(permit, false);
         }
 
+        private boolean isHeldExclusively(final int permit) {
+            return getLockMode(getState()) == EXCLUSIVE && getCurrentPermitHolder() == permit;
+        }
+
         private void setCurrentPermitHolder(final int permit) {
             this.permitHolder = permit;
         }
@@ -147,6 +147,8 @@ final class OperationContextImpl extends AbstractOperationContext {
     private volatile BlockingTimeout blockingTimeout;
     private final long startTime = System.nanoTime();
     private volatile long exclusiveStartTime = -1;
+    /** The lock of the subsystem the operation writes to, if it took it in place of the exclusive controller lock */
+    private SubsystemWriteLocks.Lock subsystemWriteLock;
 
     /** Tracks whether any steps have gotten write access to  the resource tree */
     private volatile boolean affectsResourceTree;
@@ -479,6 +481,7 @@ final class OperationContextImpl extends AbstractOperationContext {
             MGMT_OP_LOGGER.debugf("Entered VERIFY stage; waiting for service container to settle");
             long timeout = getBlockingTimeout().getLocalBlockingTimeout();
             ExecutionStatus originalExecutionStatus = executionStatus;
+            final long start = System.nanoTime();
             try {
                 // First wait until any removals we've initiated have begun processing, otherwise
                 // the ContainerStateMonitor may not have gotten the notification causing it to untick
@@ -508,6 +511,9 @@ final class OperationContextImpl extends AbstractOperationContext {
                 ThreadDumpUtil.threadDump();
                 throw te;
             } finally {
+                if (profile != null) {
+                    profile.containerWaited(System.nanoTime() - start);
+                }
                 executionStatus = originalExecutionStatus;
                 notifyModificationsComplete();
             }
@@ -547,9 +553,12 @@ final class OperationContextImpl extends AbstractOperationContext {
 
     @Override
     ConfigurationPersister.PersistenceResource createPersistenceResource() throws ConfigurationPersistenceException {
+        if (affectsResourceTree && subsystemWriteLock != null && !subsystemWriteLock.isExclusive()) {
+            lockSubsystemPublication();
+        }
         return
             (affectsResourceTree || affectsCapabilityRegistry || affectsResourceRegistration)
-                ? modelController.writeModel(managementModel, affectsModel.keySet(), affectsResourceTree,
+                ? modelController.writeModel(operationId, managementModel, affectsModel.keySet(), affectsResourceTree,
                     affectsCapabilityRegistry, affectsResourceRegistration)
                 : null;
     }
@@ -766,6 +775,7 @@ final class OperationContextImpl extends AbstractOperationContext {
         }
         ensureWriteLockForRuntime();
 
+        final boolean lazy = modelController.isLazy(targetActiveStep.address);
         final ContextServiceBuilderSupplier supplier = new ContextServiceBuilderSupplier() {
             @Override
             public <T> ContextServiceBuilder<T> getContextServiceBuilder(ServiceBuilder<T> delegate) {
@@ -782,7 +792,7 @@ final class OperationContextImpl extends AbstractOperationContext {
                         return OperationContextImpl.this.getCapabilityServiceName(capabilityName, serviceType, address);
                     }
                 };
-                return new ContextServiceBuilder<T>(delegate, csi);
+                return new ContextServiceBuilder<T>(delegate, csi, lazy);
             }
         };
         ServiceTarget delegate = targetActiveStep.getScopedServiceTarget(modelController.getServiceTarget());
@@ -797,20 +807,42 @@ final class OperationContextImpl extends AbstractOperationContext {
     }
 
     private void takeWriteLock() {
-        if (lockStep == null) {
+        takeWriteLock(null);
+    }
+
+    /**
+     * Takes the exclusive controller lock, or, in the model stage, the write lock of the subsystem of the resource to
+     * write to, if the operation is addressed to that subsystem and {@link ModelControllerImpl#SUBSYSTEM_WRITE_LOCKS_PROPERTY}
+     * is set. The exclusive lock is taken in place of the subsystem one once the operation writes to anything else.
+     *
+     * @param address the address of the resource to write to, or {@code null} if the exclusive lock is needed
+     */
+    private void takeWriteLock(final PathAddress address) {
+        if (lockStep != null) {
+            if (subsystemWriteLock != null && !subsystemWriteLock.isExclusive() && (address == null || !subsystemWriteLock.covers(address))) {
+                escalateWriteLock();
+            }
+        } else {
             if (currentStage == Stage.DONE) {
                 throw ControllerLogger.ROOT_LOGGER.invalidModificationAfterCompletedStep();
             }
             ExecutionStatus originalStatus = executionStatus;
             try {
                 executionStatus = ExecutionStatus.AWAITING_OTHER_OPERATION;
+                final long start = System.nanoTime();
+                if (address != null && currentStage == Stage.MODEL && !isBooting()) {
+                    subsystemWriteLock = modelController.acquireSubsystemWriteLock(operationId,
+                            PathAddress.pathAddress(operationAddress), address, respectInterruption);
+                }
                 // BES 2014/04/22 Ignore blocking timeout here. We risk some bug causing the
                 // lock to never be released. But we gain multiple ops being able to wait until they get
                 // a chance to run with no need to guess how long op 2 will take so we can
                 // let op 3 block for the time needed for both 1 and 2
 //                int timeout = blockingTimeout.getBlockingTimeout();
 //                if (timeout < 1) {
-                modelController.acquireWriteLock(operationId, respectInterruption);
+                if (subsystemWriteLock == null) {
+                    modelController.acquireWriteLock(operationId, respectInterruption);
+                }
 //                } else {
 //                    // Wait longer than the standard amount to get a chance to execute
 //                    // after whatever was holding the lock times out
@@ -820,6 +852,9 @@ final class OperationContextImpl extends AbstractOperationContext {
 //                    }
 //                }
                 exclusiveStartTime = System.nanoTime();
+                if (profile != null) {
+                    profile.lockWaited(exclusiveStartTime - start);
+                }
                 recordWriteLock();
             } catch (InterruptedException e) {
                 cancelled = true;
@@ -831,6 +866,58 @@ final class OperationContextImpl extends AbstractOperationContext {
         }
     }
 
+    /**
+     * Takes the exclusive controller lock in place of the shared one held along with the write lock of a subsystem,
+     * and moves the changes made to the subsystem onto the latest published model.
+     */
+    private void escalateWriteLock() {
+        ExecutionStatus originalStatus = executionStatus;
+        try {
+            executionStatus = ExecutionStatus.AWAITING_OTHER_OPERATION;
+            final long start = System.nanoTime();
+            final boolean unchanged = subsystemWriteLock.escalate(respectInterruption);
+            if (profile != null) {
+                profile.lockWaited(System.nanoTime() - start);
+            }
+            // Once done, as when rolling back, the changes are not published
+            if (currentStage != Stage.DONE) {
+                if (!unchanged) {
+                    throw ControllerLogger.ROOT_LOGGER.subsystemModifiedConcurrently(operationName,
+                            PathAddress.pathAddress(subsystemWriteLock.getSubsystem()));
+                }
+                if (affectsResourceTree) {
+                    managementModel = managementModel.rebaseSubsystem(subsystemWriteLock.getSubsystem());
+                }
+            }
+        } catch (InterruptedException e) {
+            cancelled = true;
+            Thread.currentThread().interrupt();
+            throw ControllerLogger.ROOT_LOGGER.operationCancelledAsynchronously();
+        } finally {
+            executionStatus = originalStatus;
+        }
+    }
+
+    /**
+     * Takes the lock ordering the publication of the changes of the operations holding the write lock of a subsystem
+     * rather than the exclusive controller lock, and moves the changes made to the subsystem onto the latest published
+     * model.
+     */
+    private void lockSubsystemPublication() {
+        ExecutionStatus originalStatus = executionStatus;
+        try {
+            executionStatus = ExecutionStatus.AWAITING_OTHER_OPERATION;
+            subsystemWriteLock.lockPublication(respectInterruption);
+            managementModel = managementModel.rebaseSubsystem(subsystemWriteLock.getSubsystem());
+        } catch (InterruptedException e) {
+            cancelled = true;
+            Thread.currentThread().interrupt();
+            throw ControllerLogger.ROOT_LOGGER.operationCancelledAsynchronously();
+        } finally {
+            executionStatus = originalStatus;
+        }
+    }
+
     private void ensureWriteLockForRuntime() {
         if (!affectsRuntime) {
             takeWriteLock();
@@ -987,7 +1074,7 @@ final class OperationContextImpl extends AbstractOperationContext {
         }
         checkHostServerGroupTracker(address);
         authorize(false, runtimeOnly ? READ_WRITE_RUNTIME : READ_WRITE_CONFIG);
-        ensureLocalRootResource();
+        ensureLocalRootResource(address);
         affectsModel.put(address, NULL);
         Resource resource = this.managementModel.getRootResource();
         for (PathElement element : address) {
@@ -1018,6 +1105,28 @@ final class OperationContextImpl extends AbstractOperationContext {
         return mrr != null && mrr.isRuntimeOnly();
     }
 
+    /**
+     * Gets a resource of the published management model this context started with, without copying it. The
+     * resource must not be modified, and will not be modified by anything else either.
+     *
+     * @param address the absolute address of the resource
+     * @return the resource, or {@code null} if there is none at {@code address}, or if the context is booting or
+     *         has modified the resource tree, in which case it is not working with a published model
+     */
+    Resource getPublishedResource(PathAddress address) {
+        if (isBooting() || affectsResourceTree) {
+            return null;
+        }
+        Resource resource = originalModel.getRootResource();
+        for (PathElement element : address) {
+            resource = resource.getChild(element);
+            if (resource == null) {
+                return null;
+            }
+        }
+        return resource;
+    }
+
     @Override
     public Resource getOriginalRootResource() {
         // TODO restrict
@@ -1067,7 +1176,7 @@ final class OperationContextImpl extends AbstractOperationContext {
         }
         checkHostServerGroupTracker(absoluteAddress);
         authorizeAdd(runtimeOnly);
-        ensureLocalRootResource();
+        ensureLocalRootResource(absoluteAddress);
         affectsModel.put(absoluteAddress, NULL);
         Resource model = this.managementModel.getRootResource();
         final Iterator<PathElement> i = absoluteAddress.iterator();
@@ -1130,7 +1239,7 @@ final class OperationContextImpl extends AbstractOperationContext {
         }
         checkHostServerGroupTracker(address);
         authorize(false, runtimeOnly ? READ_WRITE_RUNTIME : READ_WRITE_CONFIG);
-        ensureLocalRootResource();
+        ensureLocalRootResource(address);
         affectsModel.put(address, NULL);
         Resource model = this.managementModel.getRootResource();
         final Iterator<PathElement> i = address.iterator();
@@ -1262,7 +1371,12 @@ final class OperationContextImpl extends AbstractOperationContext {
     }
 
     private void releaseModelControllerLock() {
-        modelController.releaseWriteLock(operationId);
+        if (subsystemWriteLock != null) {
+            subsystemWriteLock.release();
+            subsystemWriteLock = null;
+        } else {
+            modelController.releaseWriteLock(operationId);
+        }
         exclusiveStartTime = -1;
         lockStep = null;
     }
@@ -1959,9 +2073,11 @@ final class OperationContextImpl extends AbstractOperationContext {
         return blockingTimeout;
     }
 
-    private synchronized void ensureLocalRootResource() {
+    private synchronized void ensureLocalRootResource(final PathAddress address) {
+        if (!affectsResourceTree || subsystemWriteLock != null) {
+            takeWriteLock(address);
+        }
         if (!affectsResourceTree) {
-            takeWriteLock();
             managementModel = managementModel.cloneRootResource();
             affectsResourceTree = true;
         }
@@ -2036,6 +2152,7 @@ final class OperationContextImpl extends AbstractOperationContext {
                 long timeout = getBlockingTimeout().getLocalBlockingTimeout();
                 long waitTime = timeout;
                 long end = System.currentTimeMillis() + waitTime;
+                final long start = controller != null && profile != null ? System.nanoTime() : 0;
                 while (controller != null && waitTime > 0) {
                     try {
                         realRemovingControllers.wait(waitTime);
@@ -2049,6 +2166,9 @@ final class OperationContextImpl extends AbstractOperationContext {
                     controller = contains(providedValues);
                     waitTime = end - System.currentTimeMillis();
                 }
+                if (start != 0) {
+                    profile.containerWaited(System.nanoTime() - start);
+                }
 
                 if (controller != null) {
                     // We timed out
@@ -2227,11 +2347,29 @@ final class OperationContextImpl extends AbstractOperationContext {
 
         private final ServiceBuilder<T> realBuilder;
         private volatile ContextServiceInstaller serviceInstaller;
+        /** Whether the service starts on demand, whatever mode it is given, as it belongs to a lazy subsystem */
+        private final boolean lazy;
+        /** The mode a lazy service was given, applied when it is installed */
+        private ServiceController.Mode initialMode;
 
-        ContextServiceBuilder(final ServiceBuilder<T> realBuilder, final ContextServiceInstaller serviceInstaller) {
+        ContextServiceBuilder(final ServiceBuilder<T> realBuilder, final ContextServiceInstaller serviceInstaller, final boolean lazy) {
             super(realBuilder);
             this.realBuilder = realBuilder;
             this.serviceInstaller = serviceInstaller;
+            this.lazy = lazy;
+        }
+
+        @Override
+        public ServiceBuilder<T> setInitialMode(final ServiceController.Mode mode) {
+            if (!lazy) {
+                return super.setInitialMode(mode);
+            }
+            if (initialMode != null) {
+                // As the real builder would
+                throw new IllegalStateException("setInitialMode() method called twice");
+            }
+            initialMode = mode;
+            return this;
         }
 
         /**
@@ -2243,6 +2381,11 @@ final class OperationContextImpl extends AbstractOperationContext {
         }
 
         public ServiceController<T> install() throws ServiceRegistryException, IllegalStateException {
+            if (lazy) {
+                final ServiceController.Mode mode = initialMode;
+                realBuilder.setInitialMode(mode == null || mode == ServiceController.Mode.ACTIVE || mode == ServiceController.Mode.PASSIVE
+                        ? ServiceController.Mode.ON_DEMAND : mode);
+            }
             ContextServiceInstaller installer = this.serviceInstaller;
             return installer == null ? realBuilder.install() : installer.installService(realBuilder);
         }
@@ -13,6 +13,7 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAI
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILURE_DESCRIPTION;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OPERATION_HEADERS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUTCOME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.PROFILE_OPERATION;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ROLLBACK_ON_RUNTIME_FAILURE;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.WARNING_LEVEL;
 
@@ -47,7 +48,12 @@ final class OperationHeaders {
             .setRequired(false)
             .build();
 
-    private static final OperationHeaders INTERNAL = new OperationHeaders(EnumSet.noneOf(OperationContextImpl.ContextFlag.class), null, null, null, null);
+    private static final AttributeDefinition PROFILING = SimpleAttributeDefinitionBuilder.create(PROFILE_OPERATION, ModelType.BOOLEAN)
+            .setRequired(false)
+            .setDefaultValue(ModelNode.FALSE)
+            .build();
+
+    private static final OperationHeaders INTERNAL = new OperationHeaders(EnumSet.noneOf(OperationContextImpl.ContextFlag.class), null, null, null, null, false);
 
     /**
      * Gets a headers object for use by internal calls where the caller knows there will be none of the
@@ -65,6 +71,7 @@ final class OperationHeaders {
         String warningLevel = null;
         String domainUUID = null;
         AccessMechanism accessMechanism = null;
+        boolean profile = false;
         if (operation.hasDefined(OPERATION_HEADERS)) {
             final ModelNode headers = operation.get(OPERATION_HEADERS).clone();
 
@@ -89,18 +96,19 @@ final class OperationHeaders {
             warningLevel = headers.hasDefined(WARNING_LEVEL) ? headers.get(WARNING_LEVEL).asString() : null;
             domainUUID = headers.hasDefined(DOMAIN_UUID) ? headers.get(DOMAIN_UUID).asString() : null;
             accessMechanism = headers.hasDefined(ACCESS_MECHANISM) ? AccessMechanism.valueOf(headers.get(ACCESS_MECHANISM).asString()) : null;
+            profile = PROFILING.resolveModelAttribute(ExpressionResolver.REJECTING, headers).asBoolean();
         } else {
             contextFlags = EnumSet.of(AbstractOperationContext.ContextFlag.ROLLBACK_ON_FAIL);
         }
 
-        return new OperationHeaders(contextFlags, blockingTimeout, warningLevel, domainUUID, accessMechanism);
+        return new OperationHeaders(contextFlags, blockingTimeout, warningLevel, domainUUID, accessMechanism, profile);
     }
 
     static OperationHeaders forBoot(boolean rollbackOnRuntimeFailure) {
         EnumSet<OperationContextImpl.ContextFlag> contextFlags = rollbackOnRuntimeFailure
                 ? EnumSet.of(AbstractOperationContext.ContextFlag.ROLLBACK_ON_FAIL)
                 : EnumSet.noneOf(OperationContextImpl.ContextFlag.class);
-        return new OperationHeaders(contextFlags, null, null, null, null);
+        return new OperationHeaders(contextFlags, null, null, null, null, false);
     }
 
     static OperationResponse fromFailure(OperationFailedException ofe) {
@@ -115,14 +123,16 @@ final class OperationHeaders {
     private final String warningLevel;
     private final String domainUUID;
     private final AccessMechanism accessMechanism;
+    private final boolean profile;
 
     private OperationHeaders(EnumSet<AbstractOperationContext.ContextFlag> contextFlags, Integer blockingTimeout,
-                             String warningLevel, String domainUUID, AccessMechanism accessMechanism) {
+                             String warningLevel, String domainUUID, AccessMechanism accessMechanism, boolean profile) {
         this.contextFlags = contextFlags;
         this.blockingTimeout = blockingTimeout;
         this.warningLevel = warningLevel;
         this.domainUUID = domainUUID;
         this.accessMechanism = accessMechanism;
+        this.profile = profile;
     }
 
     EnumSet<AbstractOperationContext.ContextFlag> getContextFlags() {
@@ -144,4 +154,14 @@ final class OperationHeaders {
     AccessMechanism getAccessMechanism() {
         return  accessMechanism;
     }
+
+    /**
+     * Gets whether the {@code profile-operation} header asks for the time taken by each step of the operation to be
+     * returned in the {@code operation-profile} response header.
+     *
+     * @return {@code true} if the operation should be profiled
+     */
+    boolean isProfile() {
+        return profile;
+    }
 }
@@ -0,0 +1,147 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.jboss.as.controller;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.jboss.dmr.ModelNode;
+
+/**
+ * Records where the time taken to execute an operation went. The time spent waiting for the controller lock and
+ * for the service container to stabilize is always recorded, for the {@link OperationProfileStatistics statistics}
+ * of the operation; the time taken by each step is only recorded if the client asked for it with the
+ * {@code profile-operation} operation header. While the {@link SlowOperationLog} is active, the time taken by each
+ * step is only recorded once the operation has been executing for longer than the log's threshold, so operations
+ * that complete within it only pay for timing.
+ * <p>
+ * Times are in nanoseconds. Not thread safe; must only be used by the thread executing the operation.
+ */
+final class OperationProfile {
+
+    static final String EXECUTION_TIME = "execution-time";
+    static final String LOCK_WAIT_TIME = "lock-wait-time";
+    static final String CONTAINER_WAIT_TIME = "container-wait-time";
+    private static final String HANDLER = "handler";
+    private static final String STAGE = "stage";
+    private static final String STAGES = "stages";
+    private static final String STEPS = "steps";
+
+    /** The {@link #OperationProfile(long) steps threshold} of a profile that does not record steps */
+    static final long NO_STEPS = Long.MAX_VALUE;
+
+    private final long start = System.nanoTime();
+    private final long stepsThreshold;
+    private Map<OperationContext.Stage, Long> stageTimes;
+    private ModelNode steps;
+    private long lockWaitTime;
+    private long containerWaitTime;
+    private long stepStart;
+    private long stepLockWaitTime;
+    private long stepContainerWaitTime;
+
+    /**
+     * Creates a profile.
+     *
+     * @param stepsThreshold the time, in nanoseconds, the operation must have been executing for before the time
+     *                       taken by the steps that complete is recorded; {@code 0} to record every step, or
+     *                       {@link #NO_STEPS} to record none
+     */
+    OperationProfile(long stepsThreshold) {
+        this.stepsThreshold = stepsThreshold;
+    }
+
+    boolean isRecordingSteps() {
+        return stepsThreshold != NO_STEPS;
+    }
+
+    void stepStarted() {
+        if (stepsThreshold != NO_STEPS) {
+            stepStart = System.nanoTime();
+            stepLockWaitTime = 0;
+            stepContainerWaitTime = 0;
+        }
+    }
+
+    void stepCompleted(OperationContext.Stage stage, Object handler, PathAddress address) {
+        if (stepsThreshold != NO_STEPS) {
+            final long now = System.nanoTime();
+            if (now - start < stepsThreshold) {
+                return;
+            }
+            final long time = now - stepStart;
+            stageTime(stage, time);
+            if (steps == null) {
+                steps = new ModelNode().setEmptyList();
+            }
+            final ModelNode step = steps.add();
+            step.get(STAGE).set(stage.toString());
+            step.get(HANDLER).set(handler.getClass().getName());
+            step.get(OP_ADDR).set(address.toModelNode());
+            step.get(EXECUTION_TIME).set(time);
+            step.get(LOCK_WAIT_TIME).set(stepLockWaitTime);
+            step.get(CONTAINER_WAIT_TIME).set(stepContainerWaitTime);
+        }
+    }
+
+    /**
+     * Records time spent in a stage outside of any step, e.g. running the result handlers in {@code Stage.DONE}.
+     */
+    void stageTime(OperationContext.Stage stage, long time) {
+        if (stepsThreshold != NO_STEPS && getElapsedTime() >= stepsThreshold) {
+            if (stageTimes == null) {
+                stageTimes = new EnumMap<>(OperationContext.Stage.class);
+            }
+            stageTimes.merge(stage, time, Long::sum);
+        }
+    }
+
+    void lockWaited(long time) {
+        lockWaitTime += time;
+        stepLockWaitTime += time;
+    }
+
+    void containerWaited(long time) {
+        containerWaitTime += time;
+        stepContainerWaitTime += time;
+    }
+
+    long getElapsedTime() {
+        return System.nanoTime() - start;
+    }
+
+    long getLockWaitTime() {
+        return lockWaitTime;
+    }
+
+    long getContainerWaitTime() {
+        return containerWaitTime;
+    }
+
+    /**
+     * Gets the profile to return in the {@code operation-profile} response header.
+     *
+     * @return the profile. Will not be {@code null}
+     */
+    ModelNode toModelNode() {
+        final ModelNode result = new ModelNode();
+        result.get(EXECUTION_TIME).set(getElapsedTime());
+        result.get(LOCK_WAIT_TIME).set(lockWaitTime);
+        result.get(CONTAINER_WAIT_TIME).set(containerWaitTime);
+        if (stepsThreshold != NO_STEPS) {
+            final ModelNode stages = result.get(STAGES).setEmptyObject();
+            if (stageTimes != null) {
+                for (Map.Entry<OperationContext.Stage, Long> entry : stageTimes.entrySet()) {
+                    stages.get(entry.getKey().toString()).set(entry.getValue());
+                }
+            }
+            result.get(STEPS).set(steps != null ? steps : new ModelNode().setEmptyList());
+        }
+        return result;
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.jboss.as.controller;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.jboss.dmr.ModelNode;
+
+/**
+ * Aggregates the {@link OperationProfile profiles} of the operations executed by the process, by operation name.
+ * Operations executed during boot are not included.
+ */
+public final class OperationProfileStatistics {
+
+    static final String COUNT = "count";
+    static final String MAX_TIME = "max-time";
+    static final String HISTOGRAM = "histogram";
+    static final String OVERFLOW_BUCKET = "+Inf";
+    /** The exclusive upper bounds, in milliseconds, of the buckets of the execution time histograms */
+    private static final long[] BUCKETS = {1, 5, 10, 50, 100, 500, 1000, 5000, 10000};
+    /** Operations are registered by name, but this bounds the memory used if something executes many others */
+    private static final int MAX_OPERATIONS = 1024;
+
+    private static final Map<String, Statistics> statistics = new ConcurrentHashMap<>();
+
+    private OperationProfileStatistics() {
+    }
+
+    static void record(String operationName, OperationProfile profile) {
+        Statistics stats = statistics.get(operationName);
+        if (stats == null) {
+            if (statistics.size() >= MAX_OPERATIONS) {
+                return;
+            }
+            stats = statistics.computeIfAbsent(operationName, name -> new Statistics());
+        }
+        stats.record(profile.getElapsedTime(), profile.getLockWaitTime(), profile.getContainerWaitTime());
+    }
+
+    /**
+     * Gets the statistics of the operations executed since the process started. Times are in milliseconds; the
+     * keys of the histogram of the execution times are the exclusive upper bounds of its buckets, in milliseconds.
+     *
+     * @return the statistics, by operation name. Will not be {@code null}
+     */
+    public static ModelNode getStatistics() {
+        final ModelNode result = new ModelNode().setEmptyObject();
+        for (Map.Entry<String, Statistics> entry : statistics.entrySet()) {
+            result.get(entry.getKey()).set(entry.getValue().toModelNode());
+        }
+        return result;
+    }
+
+    private static final class Statistics {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder executionTime = new LongAdder();
+        private final LongAccumulator maxTime = new LongAccumulator(Math::max, 0);
+        private final LongAdder lockWaitTime = new LongAdder();
+        private final LongAdder containerWaitTime = new LongAdder();
+        private final LongAdder[] histogram = new LongAdder[BUCKETS.length + 1];
+
+        private Statistics() {
+            for (int i = 0; i < histogram.length; i++) {
+                histogram[i] = new LongAdder();
+            }
+        }
+
+        private void record(long time, long lockWait, long containerWait) {
+            count.increment();
+            executionTime.add(time);
+            maxTime.accumulate(time);
+            lockWaitTime.add(lockWait);
+            containerWaitTime.add(containerWait);
+            final long millis = TimeUnit.NANOSECONDS.toMillis(time);
+            int bucket = 0;
+            while (bucket < BUCKETS.length && millis >= BUCKETS[bucket]) {
+                bucket++;
+            }
+            histogram[bucket].increment();
+        }
+
+        private ModelNode toModelNode() {
+            final ModelNode result = new ModelNode();
+            result.get(COUNT).set(count.sum());
+            result.get(OperationProfile.EXECUTION_TIME).set(TimeUnit.NANOSECONDS.toMillis(executionTime.sum()));
+            result.get(MAX_TIME).set(TimeUnit.NANOSECONDS.toMillis(maxTime.get()));
+            result.get(OperationProfile.LOCK_WAIT_TIME).set(TimeUnit.NANOSECONDS.toMillis(lockWaitTime.sum()));
+            result.get(OperationProfile.CONTAINER_WAIT_TIME).set(TimeUnit.NANOSECONDS.toMillis(containerWaitTime.sum()));
+            final ModelNode buckets = result.get(HISTOGRAM);
+            for (int i = 0; i < BUCKETS.length; i++) {
+                buckets.get(Long.toString(BUCKETS[i])).set(histogram[i].sum());
+            }
+            buckets.get(OVERFLOW_BUCKET).set(histogram[BUCKETS.length].sum());
+            return result;
+        }
+    }
+}
@@ -5,33 +5,55 @@
 
 package org.jboss.as.controller;
 
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ADD;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.CORE_SERVICE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.INTERFACE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.PATH;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SOCKET_BINDING_GROUP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.VALUE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.WRITE_ATTRIBUTE_OPERATION;
 import static org.jboss.as.controller.logging.ControllerLogger.MGMT_OP_LOGGER;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 
+import org.jboss.as.controller.capability.RuntimeCapability;
 import org.jboss.as.controller.client.OperationResponse;
 import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
 import org.jboss.as.controller.logging.ControllerLogger;
 import org.jboss.as.controller.operations.common.Util;
+import org.jboss.as.controller.registry.AttributeAccess;
 import org.jboss.as.controller.registry.ImmutableManagementResourceRegistration;
 import org.jboss.as.controller.registry.Resource;
 import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
 import org.wildfly.security.auth.server.SecurityDomain;
 import org.wildfly.security.auth.server.SecurityRealm;
 
 /**
  * Special handler that executes subsystem boot operations in parallel.
+ * <p>
+ * If created as dependency ordered, the handler also executes the boot operations for interfaces, socket binding
+ * groups, paths and core services, and runs the resources in waves: a resource whose boot operations require a
+ * capability provided by the boot operations of another resource runs in a later wave than that resource.
  *
  * @author Brian Stansberry (c) 2011 Red Hat Inc.
  */
 public class ParallelBootOperationStepHandler implements OperationStepHandler {
 
+    /** Types of the top level resources whose boot operations, besides those of subsystems, a dependency ordered handler executes */
+    private static final Set<String> DEPENDENCY_ORDERED_TYPES = Set.of(INTERFACE, SOCKET_BINDING_GROUP, PATH, CORE_SERVICE);
+
     private final Executor executor;
     private final ImmutableManagementResourceRegistration rootRegistration;
     private final ControlledProcessState processState;
@@ -39,13 +61,22 @@ public class ParallelBootOperationStepHandler implements OperationStepHandler {
 
     private final ModelControllerImpl controller;
     private final int operationId;
+    private final boolean dependencyOrdered;
 
-    private final Map<String, List<ParsedBootOp>> opsBySubsystem = new LinkedHashMap<String, List<ParsedBootOp>>();
+    /** The boot operations keyed by the top level resource they address, in the order the resources were first seen */
+    private final Map<PathElement, List<ParsedBootOp>> opsByResource = new LinkedHashMap<PathElement, List<ParsedBootOp>>();
     private ParsedBootOp ourOp;
 
     ParallelBootOperationStepHandler(final ExecutorService executorService, final ImmutableManagementResourceRegistration rootRegistration,
                                      final ControlledProcessState processState, final ModelControllerImpl controller,
                                      final int operationId, final OperationStepHandler extraValidationStepHandler) {
+        this(executorService, rootRegistration, processState, controller, operationId, extraValidationStepHandler, false);
+    }
+
+    ParallelBootOperationStepHandler(final ExecutorService executorService, final ImmutableManagementResourceRegistration rootRegistration,
+                                     final ControlledProcessState processState, final ModelControllerImpl controller,
+                                     final int operationId, final OperationStepHandler extraValidationStepHandler,
+                                     final boolean dependencyOrdered) {
         this.executor = executorService;
         this.rootRegistration = rootRegistration;
         this.processState = processState;
@@ -53,20 +84,27 @@ public class ParallelBootOperationStepHandler implements OperationStepHandler {
         this.controller = controller;
         this.operationId = operationId;
         this.extraValidationStepHandler = extraValidationStepHandler;
+        this.dependencyOrdered = dependencyOrdered;
     }
 
+    /**
+     * Adds a boot operation to those executed by this handler, if it is one this handler can execute.
+     *
+     * @param parsedOp the operation
+     * @return {@code true} if the operation was added; {@code false} if it needs to be executed by the caller
+     */
     boolean addSubsystemOperation(final ParsedBootOp parsedOp) {
-        final String subsystemName = getSubsystemName(parsedOp.address);
-        if (subsystemName != null) {
-            List<ParsedBootOp> list = opsBySubsystem.get(subsystemName);
+        final PathElement resource = getTopLevelResource(parsedOp.address);
+        if (resource != null) {
+            List<ParsedBootOp> list = opsByResource.get(resource);
             if (list == null) {
                 list = new ArrayList<ParsedBootOp>();
-                opsBySubsystem.put(subsystemName, list);
+                opsByResource.put(resource, list);
             }
             list.add(parsedOp);
             getParsedBootOp().addChildOperation(parsedOp);
         }
-        return subsystemName != null;
+        return resource != null;
     }
 
     ParsedBootOp getParsedBootOp() {
@@ -77,12 +115,139 @@ public class ParallelBootOperationStepHandler implements OperationStepHandler {
         return ourOp;
     }
 
-    private String getSubsystemName(final PathAddress address) {
-        String key = null;
-        if (address.size() > 0 && ModelDescriptionConstants.SUBSYSTEM.equals(address.getElement(0).getKey())) {
-            key = address.getElement(0).getValue();
+    private PathElement getTopLevelResource(final PathAddress address) {
+        if (address.size() > 0) {
+            final PathElement element = address.getElement(0);
+            if (ModelDescriptionConstants.SUBSYSTEM.equals(element.getKey())
+                    || (dependencyOrdered && DEPENDENCY_ORDERED_TYPES.contains(element.getKey()))) {
+                return element;
+            }
         }
-        return key;
+        return null;
+    }
+
+    /**
+     * Gets the waves the top level resources run in. All the resources of a wave run concurrently, once all the
+     * resources of the previous waves are done.
+     *
+     * @return the waves, containing each resource once. Will not be {@code null}
+     */
+    List<List<PathElement>> getWaves() {
+        if (!dependencyOrdered || opsByResource.size() < 2) {
+            return Collections.singletonList(new ArrayList<>(opsByResource.keySet()));
+        }
+        final Map<String, PathElement> providers = new HashMap<>();
+        final Map<PathElement, Set<String>> requirements = new LinkedHashMap<>();
+        final Map<PathElement, Set<String>> baseRequirements = new HashMap<>();
+        for (Map.Entry<PathElement, List<ParsedBootOp>> entry : opsByResource.entrySet()) {
+            final Set<String> required = new HashSet<>();
+            final Set<String> baseRequired = new HashSet<>();
+            for (ParsedBootOp op : entry.getValue()) {
+                final ImmutableManagementResourceRegistration registration = rootRegistration.getSubModel(op.address);
+                if (registration == null) {
+                    continue;
+                }
+                if (ADD.equals(op.operationName)) {
+                    for (RuntimeCapability<?> capability : registration.getCapabilities()) {
+                        providers.putIfAbsent(capability.isDynamicallyNamed() ? capability.getDynamicName(op.address) : capability.getName(), entry.getKey());
+                        required.addAll(capability.getRequirements());
+                    }
+                    for (String attribute : registration.getAttributeNames(PathAddress.EMPTY_ADDRESS)) {
+                        if (op.operation.hasDefined(attribute)) {
+                            addRequirements(registration, attribute, op.operation.get(attribute), required, baseRequired);
+                        }
+                    }
+                } else if (WRITE_ATTRIBUTE_OPERATION.equals(op.operationName) && op.operation.hasDefined(NAME) && op.operation.hasDefined(VALUE)) {
+                    addRequirements(registration, op.operation.get(NAME).asString(), op.operation.get(VALUE), required, baseRequired);
+                }
+            }
+            requirements.put(entry.getKey(), required);
+            baseRequirements.put(entry.getKey(), baseRequired);
+        }
+
+        final Map<PathElement, Set<PathElement>> dependencies = new LinkedHashMap<>();
+        for (Map.Entry<PathElement, Set<String>> entry : requirements.entrySet()) {
+            final PathElement resource = entry.getKey();
+            final Set<PathElement> resourceDependencies = new HashSet<>();
+            for (String requirement : entry.getValue()) {
+                final PathElement provider = providers.get(requirement);
+                if (provider != null) {
+                    resourceDependencies.add(provider);
+                }
+            }
+            for (String baseRequirement : baseRequirements.get(resource)) {
+                for (Map.Entry<String, PathElement> provided : providers.entrySet()) {
+                    if (provided.getKey().startsWith(baseRequirement + ".")) {
+                        resourceDependencies.add(provided.getValue());
+                    }
+                }
+            }
+            if (!PATH.equals(resource.getKey())) {
+                // Many subsystems resolve paths through the PathManager without requiring the path capability
+                for (PathElement other : opsByResource.keySet()) {
+                    if (PATH.equals(other.getKey())) {
+                        resourceDependencies.add(other);
+                    }
+                }
+            }
+            resourceDependencies.remove(resource);
+            dependencies.put(resource, resourceDependencies);
+        }
+
+        final List<List<PathElement>> waves = new ArrayList<>();
+        final Set<PathElement> done = new HashSet<>();
+        while (done.size() < dependencies.size()) {
+            final List<PathElement> wave = new ArrayList<>();
+            for (Map.Entry<PathElement, Set<PathElement>> entry : dependencies.entrySet()) {
+                if (!done.contains(entry.getKey()) && done.containsAll(entry.getValue())) {
+                    wave.add(entry.getKey());
+                }
+            }
+            if (wave.isEmpty()) {
+                // The remaining resources depend on each other; run them together, as they would without ordering
+                for (PathElement resource : dependencies.keySet()) {
+                    if (!done.contains(resource)) {
+                        wave.add(resource);
+                    }
+                }
+            }
+            done.addAll(wave);
+            waves.add(wave);
+        }
+        MGMT_OP_LOGGER.debugf("Running the boot operations of %d resources in %d waves: %s", dependencies.size(), waves.size(), waves);
+        return waves;
+    }
+
+    /**
+     * Adds the names of the capabilities a value of an attribute requires. The name of a capability whose dynamic
+     * part cannot be determined before the operation executes is added as the base name of the capabilities it may be.
+     */
+    private static void addRequirements(ImmutableManagementResourceRegistration registration, String attribute, ModelNode value,
+                                        Set<String> required, Set<String> baseRequired) {
+        final AttributeAccess access = registration.getAttributeAccess(PathAddress.EMPTY_ADDRESS, attribute);
+        final AttributeDefinition definition = access != null ? access.getAttributeDefinition() : null;
+        final CapabilityReferenceRecorder recorder = definition != null ? definition.getReferenceRecorder() : null;
+        if (recorder == null) {
+            return;
+        }
+        final String baseName = recorder.getBaseRequirementName();
+        final List<ModelNode> values = value.getType() == ModelType.LIST ? value.asList() : Collections.singletonList(value);
+        for (ModelNode element : values) {
+            if (!element.isDefined()) {
+                continue;
+            }
+            final String[] segments = element.getType() == ModelType.EXPRESSION ? null : recorder.getRequirementPatternSegments(attribute, PathAddress.EMPTY_ADDRESS);
+            if (segments != null && segments.length == 1) {
+                required.add(RuntimeCapability.buildDynamicCapabilityName(baseName, element.asString()));
+            } else {
+                // The name depends on an expression or on other attributes
+                baseRequired.add(baseName);
+            }
+        }
+    }
+
+    private static String getDescription(PathElement resource) {
+        return PathAddress.pathAddress(resource).toCLIStyleString();
     }
 
     @Override
@@ -105,12 +270,19 @@ public class ParallelBootOperationStepHandler implements OperationStepHandler {
         final Resource rootResource = context.readResourceForUpdate(PathAddress.EMPTY_ADDRESS);
         context.acquireControllerLock();
 
-        final Map<String, List<ParsedBootOp>> runtimeOpsBySubsystem = new LinkedHashMap<String, List<ParsedBootOp>>();
-        final Map<String, ParallelBootTransactionControl> transactionControls = new LinkedHashMap<String, ParallelBootTransactionControl>();
+        final List<List<PathElement>> waves = getWaves();
+        final Set<PathElement> existingResources = new HashSet<>();
+        for (PathElement resource : opsByResource.keySet()) {
+            if (rootResource.hasChild(resource)) {
+                existingResources.add(resource);
+            }
+        }
+
+        final Map<PathElement, List<ParsedBootOp>> runtimeOpsByResource = new LinkedHashMap<PathElement, List<ParsedBootOp>>();
+        final Map<PathElement, ParallelBootTransactionControl> transactionControls = new LinkedHashMap<PathElement, ParallelBootTransactionControl>();
 
-        final CountDownLatch preparedLatch = new CountDownLatch(opsBySubsystem.size());
         final CountDownLatch committedLatch = new CountDownLatch(1);
-        final CountDownLatch completeLatch = new CountDownLatch(opsBySubsystem.size());
+        final CountDownLatch completeLatch = new CountDownLatch(opsByResource.size());
 
         // TODO Elytron - We probably need a way to stop repeating this.
         final SecurityDomain bootSecurityDomain = SecurityDomain.builder()
@@ -118,32 +290,18 @@ public class ParallelBootOperationStepHandler implements OperationStepHandler {
                 .addRealm("Empty", SecurityRealm.EMPTY_REALM).build()
                 .build();
 
-        for (Map.Entry<String, List<ParsedBootOp>> entry : opsBySubsystem.entrySet()) {
-            String subsystemName = entry.getKey();
-            List<ParsedBootOp> subsystemRuntimeOps = new ArrayList<ParsedBootOp>();
-            runtimeOpsBySubsystem.put(subsystemName, subsystemRuntimeOps);
-
-            final ParallelBootTransactionControl txControl = new ParallelBootTransactionControl(preparedLatch, committedLatch, completeLatch);
-            transactionControls.put(entry.getKey(), txControl);
-
-            // Execute the subsystem's ops in another thread
-            List<ParsedBootOp> bootOps = entry.getValue();
-            ParallelBootOperationContext pboc = bootOps.isEmpty()
-                    ? null
-                    : createOperationContext(primaryContext, bootSecurityDomain, txControl, subsystemRuntimeOps);
-            ParallelBootTask subsystemTask = new ParallelBootTask(subsystemName, bootOps, OperationContext.Stage.MODEL, txControl, pboc);
-            executor.execute(subsystemTask);
-        }
-
         // Wait for all subsystem ops to complete
         try {
-            preparedLatch.await();
+            executeWaves(waves, opsByResource, OperationContext.Stage.MODEL, primaryContext, bootSecurityDomain,
+                    transactionControls, runtimeOpsByResource, committedLatch, completeLatch);
 
             // See if all subsystems succeeded; if not report a failure to context
             checkForSubsystemFailures(context, transactionControls, OperationContext.Stage.MODEL);
 
-            // Add any logging subsystem steps so we get logging early in the boot
-            List<ParsedBootOp> loggingOps = runtimeOpsBySubsystem.remove("logging");
+            // Add any logging subsystem steps so we get logging early in the boot, unless they need to wait for
+            // the runtime steps of resources the logging subsystem depends on
+            final PathElement logging = PathElement.pathElement(ModelDescriptionConstants.SUBSYSTEM, "logging");
+            List<ParsedBootOp> loggingOps = waves.get(0).contains(logging) ? runtimeOpsByResource.remove(logging) : null;
             if (loggingOps != null) {
                 for (ParsedBootOp loggingOp : loggingOps) {
                     context.addStep(loggingOp.response, loggingOp.operation, loggingOp.handler, OperationContext.Stage.RUNTIME);
@@ -153,19 +311,21 @@ public class ParallelBootOperationStepHandler implements OperationStepHandler {
             // AS7-2561
             // The parallel execution will have added the subsystems to their parent resource in random order.
             // We need to restore the order that came in the XML.
-            final Map<String, Resource> subsystemResources = new LinkedHashMap<String, Resource>();
-            for (String subsystemName : opsBySubsystem.keySet()) {
-                final Resource resource = rootResource.removeChild(PathElement.pathElement(ModelDescriptionConstants.SUBSYSTEM, subsystemName));
-                if (resource != null) {
-                    subsystemResources.put(subsystemName, resource);
+            final Map<PathElement, Resource> addedResources = new LinkedHashMap<PathElement, Resource>();
+            for (PathElement element : opsByResource.keySet()) {
+                if (!existingResources.contains(element)) {
+                    final Resource resource = rootResource.removeChild(element);
+                    if (resource != null) {
+                        addedResources.put(element, resource);
+                    }
                 }
             }
-            for (Map.Entry<String, Resource> entry : subsystemResources.entrySet()) {
-                rootResource.registerChild(PathElement.pathElement(ModelDescriptionConstants.SUBSYSTEM, entry.getKey()), entry.getValue());
+            for (Map.Entry<PathElement, Resource> entry : addedResources.entrySet()) {
+                rootResource.registerChild(entry.getKey(), entry.getValue());
             }
 
             // Add step to execute all the runtime ops recorded by the other subsystem tasks
-            context.addStep(getRuntimeStep(runtimeOpsBySubsystem, bootSecurityDomain), OperationContext.Stage.RUNTIME);
+            context.addStep(getRuntimeStep(waves, runtimeOpsByResource, bootSecurityDomain), OperationContext.Stage.RUNTIME);
 
         } catch (InterruptedException e) {
             context.getFailureDescription().set(new ModelNode().set(ControllerLogger.ROOT_LOGGER.subsystemBootInterrupted()));
@@ -174,7 +334,7 @@ public class ParallelBootOperationStepHandler implements OperationStepHandler {
 
         if (MGMT_OP_LOGGER.isDebugEnabled()) {
             long elapsed = System.currentTimeMillis() - start;
-            MGMT_OP_LOGGER.debugf("Ran subsystem model operations in [%d] ms", elapsed);
+            MGMT_OP_LOGGER.debugf("Ran parallel boot model operations in [%d] ms", elapsed);
         }
 
         // Continue boot
@@ -196,6 +356,59 @@ public class ParallelBootOperationStepHandler implements OperationStepHandler {
 
     }
 
+    /**
+     * Executes the boot operations of each wave of resources in parallel, waiting for those of a wave to be prepared
+     * before starting the next wave.
+     *
+     * @param runtimeOpsByResource map to record the runtime steps of each resource in, or {@code null} if the
+     *                             operations execute in the runtime stage
+     * @throws InterruptedException if interrupted waiting for a wave. The complete latch has been counted down for
+     *                              the resources of the waves that were not started.
+     */
+    private void executeWaves(final List<List<PathElement>> waves,
+                              final Map<PathElement, List<ParsedBootOp>> opsByResource,
+                              final OperationContext.Stage stage,
+                              final OperationContextImpl primaryContext,
+                              final SecurityDomain bootSecurityDomain,
+                              final Map<PathElement, ParallelBootTransactionControl> transactionControls,
+                              final Map<PathElement, List<ParsedBootOp>> runtimeOpsByResource,
+                              final CountDownLatch committedLatch,
+                              final CountDownLatch completeLatch) throws InterruptedException {
+        int started = 0;
+        try {
+            for (List<PathElement> wave : waves) {
+                final List<PathElement> resources = new ArrayList<>(wave);
+                resources.retainAll(opsByResource.keySet());
+                final CountDownLatch preparedLatch = new CountDownLatch(resources.size());
+                for (PathElement resource : resources) {
+                    List<ParsedBootOp> resourceRuntimeOps = null;
+                    if (runtimeOpsByResource != null) {
+                        resourceRuntimeOps = new ArrayList<ParsedBootOp>();
+                        runtimeOpsByResource.put(resource, resourceRuntimeOps);
+                    }
+
+                    final ParallelBootTransactionControl txControl = new ParallelBootTransactionControl(preparedLatch, committedLatch, completeLatch);
+                    transactionControls.put(resource, txControl);
+
+                    // Execute the resource's ops in another thread
+                    List<ParsedBootOp> bootOps = opsByResource.get(resource);
+                    ParallelBootOperationContext pboc = bootOps.isEmpty()
+                            ? null
+                            : createOperationContext(primaryContext, bootSecurityDomain, txControl, resourceRuntimeOps);
+                    ParallelBootTask task = new ParallelBootTask(resource, bootOps, stage, txControl, pboc);
+                    executor.execute(task);
+                    started++;
+                }
+                preparedLatch.await();
+            }
+        } catch (InterruptedException e) {
+            for (int i = started; i < opsByResource.size(); i++) {
+                completeLatch.countDown();
+            }
+            throw e;
+        }
+    }
+
     private ParallelBootOperationContext createOperationContext(final OperationContextImpl primaryContext,
                                                                 final SecurityDomain bootSecurityDomain,
                                                                 final ParallelBootTransactionControl txControl,
@@ -205,17 +418,19 @@ public class ParallelBootOperationStepHandler implements OperationStepHandler {
                 extraValidationStepHandler, bootSecurityDomain::getAnonymousSecurityIdentity);
     }
 
-    private void checkForSubsystemFailures(OperationContext context, Map<String, ParallelBootTransactionControl> transactionControls, OperationContext.Stage stage) {
+    private void checkForSubsystemFailures(OperationContext context, Map<PathElement, ParallelBootTransactionControl> transactionControls, OperationContext.Stage stage) {
         boolean failureRecorded = false;
-        for (Map.Entry<String, ParallelBootTransactionControl> entry : transactionControls.entrySet()) {
+        for (Map.Entry<PathElement, ParallelBootTransactionControl> entry : transactionControls.entrySet()) {
             ParallelBootTransactionControl txControl = entry.getValue();
             if (txControl.transaction == null) {
                 // This means a set of subsystem steps didn't complete and rolled back
                 String failureDesc;
                 if (txControl.response.getResponseNode().hasDefined(ModelDescriptionConstants.FAILURE_DESCRIPTION)) {
                     failureDesc = txControl.response.getResponseNode().get(ModelDescriptionConstants.FAILURE_DESCRIPTION).toString();
+                } else if (ModelDescriptionConstants.SUBSYSTEM.equals(entry.getKey().getKey())) {
+                    failureDesc = ControllerLogger.ROOT_LOGGER.subsystemBootOperationFailed(entry.getKey().getValue());
                 } else {
-                    failureDesc = ControllerLogger.ROOT_LOGGER.subsystemBootOperationFailed(entry.getKey());
+                    failureDesc = ControllerLogger.ROOT_LOGGER.parallelBootOperationsFailed(getDescription(entry.getKey()));
                 }
                 MGMT_OP_LOGGER.error(failureDesc);
                 if (!failureRecorded) {
@@ -226,31 +441,33 @@ public class ParallelBootOperationStepHandler implements OperationStepHandler {
                     context.setRollbackOnly();
                 }
             } else {
-                MGMT_OP_LOGGER.debugf("Stage %s boot ops for subsystem %s succeeded", stage, entry.getKey());
+                MGMT_OP_LOGGER.debugf("Stage %s boot ops for %s succeeded", stage, getDescription(entry.getKey()));
             }
         }
     }
 
-    private void notifySubsystemTransactions(final Map<String, ParallelBootTransactionControl> transactionControls,
+    private void notifySubsystemTransactions(final Map<PathElement, ParallelBootTransactionControl> transactionControls,
                                              final boolean rollback,
                                              final CountDownLatch committedLatch,
                                              final OperationContext.Stage stage) {
-        for (Map.Entry<String, ParallelBootTransactionControl> entry : transactionControls.entrySet()) {
+        for (Map.Entry<PathElement, ParallelBootTransactionControl> entry : transactionControls.entrySet()) {
             ParallelBootTransactionControl txControl = entry.getValue();
             if (txControl.transaction != null) {
                 if (!rollback) {
                     txControl.transaction.commit();
-                    MGMT_OP_LOGGER.debugf("Committed transaction for %s subsystem %s stage boot operations", entry.getKey(), stage);
+                    MGMT_OP_LOGGER.debugf("Committed transaction for %s %s stage boot operations", getDescription(entry.getKey()), stage);
                 } else {
                     txControl.transaction.rollback();
-                    MGMT_OP_LOGGER.debugf("Rolled back transaction for %s subsystem %s stage boot operations", entry.getKey(), stage);
+                    MGMT_OP_LOGGER.debugf("Rolled back transaction for %s %s stage boot operations", getDescription(entry.getKey()), stage);
                 }
             }
         }
         committedLatch.countDown();
     }
 
-    private OperationStepHandler getRuntimeStep(final Map<String, List<ParsedBootOp>> runtimeOpsBySubsystem, final SecurityDomain bootSecurityDomain) {
+    private OperationStepHandler getRuntimeStep(final List<List<PathElement>> waves,
+                                                final Map<PathElement, List<ParsedBootOp>> runtimeOpsByResource,
+                                                final SecurityDomain bootSecurityDomain) {
 
         return new OperationStepHandler() {
             @Override
@@ -266,29 +483,15 @@ public class ParallelBootOperationStepHandler implements OperationStepHandler {
                 // make sure the registry lock is held
                 context.getServiceRegistry(true);
 
-                final Map<String, ParallelBootTransactionControl> transactionControls = new LinkedHashMap<String, ParallelBootTransactionControl>();
+                final Map<PathElement, ParallelBootTransactionControl> transactionControls = new LinkedHashMap<PathElement, ParallelBootTransactionControl>();
 
-                final CountDownLatch preparedLatch = new CountDownLatch(runtimeOpsBySubsystem.size());
                 final CountDownLatch committedLatch = new CountDownLatch(1);
-                final CountDownLatch completeLatch = new CountDownLatch(runtimeOpsBySubsystem.size());
-
-                for (Map.Entry<String, List<ParsedBootOp>> entry : runtimeOpsBySubsystem.entrySet()) {
-                    String subsystemName = entry.getKey();
-                    final ParallelBootTransactionControl txControl = new ParallelBootTransactionControl(preparedLatch, committedLatch, completeLatch);
-                    transactionControls.put(subsystemName, txControl);
-
-                    // Execute the subsystem's ops in another thread
-                    List<ParsedBootOp> bootOps = entry.getValue();
-                    ParallelBootOperationContext pboc = bootOps.isEmpty()
-                        ? null
-                        : createOperationContext(primaryContext, bootSecurityDomain, txControl, null);
-                    ParallelBootTask subsystemTask = new ParallelBootTask(subsystemName, bootOps, OperationContext.Stage.RUNTIME, txControl, pboc);
-                    executor.execute(subsystemTask);
-                }
+                final CountDownLatch completeLatch = new CountDownLatch(runtimeOpsByResource.size());
 
                 // Wait for all subsystem ops to complete
                 try {
-                    preparedLatch.await();
+                    executeWaves(waves, runtimeOpsByResource, OperationContext.Stage.RUNTIME, primaryContext, bootSecurityDomain,
+                            transactionControls, null, committedLatch, completeLatch);
 
                     // See if all subsystems succeeded; if not report a failure to context
                     checkForSubsystemFailures(context, transactionControls, OperationContext.Stage.RUNTIME);
@@ -300,7 +503,7 @@ public class ParallelBootOperationStepHandler implements OperationStepHandler {
 
                 if (MGMT_OP_LOGGER.isDebugEnabled()) {
                     long elapsed = System.currentTimeMillis() - start;
-                    MGMT_OP_LOGGER.debugf("Ran subsystem runtime operations in [%d] ms", elapsed);
+                    MGMT_OP_LOGGER.debugf("Ran parallel boot runtime operations in [%d] ms", elapsed);
                 }
 
 
@@ -326,19 +529,19 @@ public class ParallelBootOperationStepHandler implements OperationStepHandler {
 
     private class ParallelBootTask implements Runnable {
 
-        private final String subsystemName;
+        private final PathElement resource;
         private final List<ParsedBootOp> bootOperations;
         private final OperationContext.Stage executionStage;
         private final ParallelBootTransactionControl transactionControl;
         private final ParallelBootOperationContext pboc;
 
-        ParallelBootTask(final String subsystemName,
+        ParallelBootTask(final PathElement resource,
                          final List<ParsedBootOp> bootOperations,
                          final OperationContext.Stage executionStage,
                          final ParallelBootTransactionControl transactionControl,
                          final ParallelBootOperationContext pboc) {
             assert bootOperations != null || pboc != null;
-            this.subsystemName = subsystemName;
+            this.resource = resource;
             this.bootOperations = bootOperations;
             this.executionStage = executionStage;
             this.transactionControl = transactionControl;
@@ -368,7 +571,11 @@ public class ParallelBootOperationStepHandler implements OperationStepHandler {
                     pboc.executeOperation();
                 }
             } catch (RuntimeException | Error t) {
-                MGMT_OP_LOGGER.failedSubsystemBootOperations(t, subsystemName);
+                if (ModelDescriptionConstants.SUBSYSTEM.equals(resource.getKey())) {
+                    MGMT_OP_LOGGER.failedSubsystemBootOperations(t, resource.getValue());
+                } else {
+                    MGMT_OP_LOGGER.failedParallelBootOperations(t, getDescription(resource));
+                }
                 if (!transactionControl.signalled) {
                     ModelNode failure = new ModelNode();
                     failure.get(ModelDescriptionConstants.SUCCESS).set(false);
@@ -389,7 +596,9 @@ public class ParallelBootOperationStepHandler implements OperationStepHandler {
                     if (!transactionControl.signalled) {
                         ModelNode failure = new ModelNode();
                         failure.get(ModelDescriptionConstants.SUCCESS).set(false);
-                        failure.get(ModelDescriptionConstants.FAILURE_DESCRIPTION).set(ControllerLogger.ROOT_LOGGER.subsystemBootOperationFailedExecuting(subsystemName));
+                        failure.get(ModelDescriptionConstants.FAILURE_DESCRIPTION).set(ModelDescriptionConstants.SUBSYSTEM.equals(resource.getKey())
+                                ? ControllerLogger.ROOT_LOGGER.subsystemBootOperationFailedExecuting(resource.getValue())
+                                : ControllerLogger.ROOT_LOGGER.parallelBootOperationsFailedExecuting(getDescription(resource)));
                         transactionControl.operationFailed(failure);
                     }
                 } else {
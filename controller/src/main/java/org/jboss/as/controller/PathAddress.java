@@ -7,20 +7,17 @@ package org.jboss.as.controller;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.HOST;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SERVER;
 
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
-import java.util.HashSet;
 import java.util.List;
 import java.util.ListIterator;
-import java.util.Set;
+import java.util.NoSuchElementException;
+import java.util.Objects;
 
 import org.jboss.as.controller._private.OperationFailedRuntimeException;
 import org.jboss.as.controller.logging.ControllerLogger;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
 import org.jboss.dmr.Property;
-import org.wildfly.common.Assert;
 
 /**
  * A path address for an operation.
@@ -33,7 +30,7 @@ public class PathAddress implements Iterable<PathElement> {
     /**
      * An empty address.
      */
-    public static final PathAddress EMPTY_ADDRESS = new PathAddress(Collections.emptyList());
+    public static final PathAddress EMPTY_ADDRESS = new PathAddress(new PathElement[0], 0, 0);
 
     /**
      * Creates a PathAddress from the given ModelNode address. The given node is expected to be an address node.
@@ -45,76 +42,41 @@ public class PathAddress implements Iterable<PathElement> {
     public static PathAddress pathAddress(final ModelNode node) {
         if (node.isDefined()) {
 
-//            final List<Property> props = node.asPropertyList();
-            // Following bit is crap TODO; uncomment above and delete below
-            // when bug is fixed
-            final List<Property> props = new ArrayList<>();
+            final List<ModelNode> nodes = node.asList();
+            // Elements are either properties or a key node followed by a value node
+            final PathElement[] elements = new PathElement[nodes.size()];
+            int size = 0;
             String key = null;
-            for (ModelNode element : node.asList()) {
-                Property prop = null;
+            for (ModelNode element : nodes) {
+                PathElement pathElement = null;
                 if (element.getType() == ModelType.PROPERTY || element.getType() == ModelType.OBJECT) {
-                    prop = element.asProperty();
+                    final Property prop = element.asProperty();
+                    pathElement = PathElement.pathElement(prop.getName(), prop.getValue().asString());
                 } else if (key == null) {
                     key = element.asString();
                 } else {
-                    prop = new Property(key, element);
+                    pathElement = PathElement.pathElement(key, element.asString());
                 }
-                if (prop != null) {
-                    props.add(prop);
+                if (pathElement != null) {
+                    elements[size] = pathElement;
+                    checkDuplicateKey(elements, size);
+                    size++;
                     key = null;
                 }
 
             }
-            if (props.isEmpty()) {
-                return EMPTY_ADDRESS;
-            } else {
-                final Set<String> seen = new HashSet<>();
-                final List<PathElement> values = new ArrayList<>();
-                int index = 0;
-                for (final Property prop : props) {
-                    final String name = prop.getName();
-                    if (seen.add(name)) {
-                        values.add(new PathElement(name, prop.getValue().asString()));
-                    } else {
-                        throw duplicateElement(name);
-                    }
-                    if (index == 1 && name.equals(SERVER) && seen.contains(HOST)) {
-                        seen.clear();
-                    }
-                    index++;
-                }
-                return new PathAddress(Collections.unmodifiableList(values));
-            }
+            return size == 0 ? EMPTY_ADDRESS : new PathAddress(elements, 0, size);
         } else {
             return EMPTY_ADDRESS;
         }
     }
 
     public static PathAddress pathAddress(List<PathElement> elements) {
-        if (elements.isEmpty()) {
-            return EMPTY_ADDRESS;
-        }
-        final ArrayList<PathElement> newList = new ArrayList<>(elements.size());
-        final Set<String> seen = new HashSet<>();
-        int index = 0;
-        for (PathElement element : elements) {
-            final String name = element.getKey();
-            if (seen.add(name)) {
-                newList.add(element);
-            } else {
-                throw duplicateElement(name);
-            }
-            if (index == 1 && name.equals(SERVER) && seen.contains(HOST)) {
-                seen.clear();
-            }
-            index++;
-
-        }
-        return new PathAddress(Collections.unmodifiableList(newList));
+        return EMPTY_ADDRESS.append(elements);
     }
 
     public static PathAddress pathAddress(PathElement... elements) {
-        return pathAddress(Arrays.asList(elements));
+        return EMPTY_ADDRESS.append(elements);
     }
 
     public static PathAddress pathAddress(String key, String value) {
@@ -122,9 +84,7 @@ public class PathAddress implements Iterable<PathElement> {
     }
 
     public static PathAddress pathAddress(PathAddress parent, PathElement... elements) {
-        List<PathElement> list = new ArrayList<>(parent.pathAddressList);
-        Collections.addAll(list, elements);
-        return pathAddress(list);
+        return parent.append(elements);
     }
 
     public static PathAddress parseCLIStyleAddress(String address) throws IllegalArgumentException {
@@ -189,15 +149,38 @@ public class PathAddress implements Iterable<PathElement> {
         return parsedAddress;
     }
 
+    /**
+     * Checks that an element's key is not used by the elements before it, other than those of a /host=x/server=y
+     * prefix, which are the parents of the address of a server in a domain.
+     */
+    private static void checkDuplicateKey(final PathElement[] elements, final int index) {
+        final String name = elements[index].getKey();
+        final int start = index > 1 && HOST.equals(elements[0].getKey()) && SERVER.equals(elements[1].getKey()) ? 2 : 0;
+        for (int i = start; i < index; i++) {
+            if (name.equals(elements[i].getKey())) {
+                throw duplicateElement(name);
+            }
+        }
+    }
+
     private static OperationFailedRuntimeException duplicateElement(final String name) {
         return ControllerLogger.ROOT_LOGGER.duplicateElement(name);
     }
 
-    private final List<PathElement> pathAddressList;
-
-    PathAddress(final List<PathElement> pathAddressList) {
-        Assert.assertNotNull(pathAddressList);
-        this.pathAddressList = pathAddressList;
+    /**
+     * The elements, from {@link #offset}. The array is never modified, so addresses share it with their parents
+     * and other sub-addresses.
+     */
+    private final PathElement[] elements;
+    private final int offset;
+    private final int size;
+    /** The hash code, or zero if it has not been computed yet */
+    private int hashCode;
+
+    private PathAddress(final PathElement[] elements, final int offset, final int size) {
+        this.elements = elements;
+        this.offset = offset;
+        this.size = size;
     }
 
     /**
@@ -209,7 +192,7 @@ public class PathAddress implements Iterable<PathElement> {
      * @throws IndexOutOfBoundsException if the index is out of range (<tt>index &lt; 0 || index &gt;= size()</tt>)
      */
     public PathElement getElement(int index) {
-        return pathAddressList.get(index);
+        return elements[offset + Objects.checkIndex(index, size)];
     }
 
     /**
@@ -218,8 +201,7 @@ public class PathAddress implements Iterable<PathElement> {
      * @return the element, or {@code null} if {@link #size()} is zero.
      */
     public PathElement getLastElement() {
-        final List<PathElement> list = pathAddressList;
-        return list.isEmpty() ? null : list.get(list.size() - 1);
+        return size == 0 ? null : elements[offset + size - 1];
     }
 
     /**
@@ -229,8 +211,7 @@ public class PathAddress implements Iterable<PathElement> {
      * @return the partial address
      */
     public PathAddress subAddress(int start) {
-        final List<PathElement> list = pathAddressList;
-        return new PathAddress(list.subList(start, list.size()));
+        return subAddress(start, size);
     }
 
     /**
@@ -241,7 +222,11 @@ public class PathAddress implements Iterable<PathElement> {
      * @return the partial address
      */
     public PathAddress subAddress(int start, int end) {
-        return new PathAddress(pathAddressList.subList(start, end));
+        Objects.checkFromToIndex(start, end, size);
+        if (start == 0 && end == size) {
+            return this;
+        }
+        return start == end ? EMPTY_ADDRESS : new PathAddress(elements, offset + start, end - start);
     }
 
     /**
@@ -251,10 +236,7 @@ public class PathAddress implements Iterable<PathElement> {
      * @return the new path address
      */
     public PathAddress append(List<PathElement> additionalElements) {
-        final ArrayList<PathElement> newList = new ArrayList<>(pathAddressList.size() + additionalElements.size());
-        newList.addAll(pathAddressList);
-        newList.addAll(additionalElements);
-        return pathAddress(newList);
+        return append(additionalElements.toArray(new PathElement[0]), 0, additionalElements.size());
     }
 
     /**
@@ -264,7 +246,7 @@ public class PathAddress implements Iterable<PathElement> {
      * @return the new path address
      */
     public PathAddress append(PathElement... additionalElements) {
-        return append(Arrays.asList(additionalElements));
+        return append(additionalElements, 0, additionalElements.length);
     }
 
     /**
@@ -274,7 +256,20 @@ public class PathAddress implements Iterable<PathElement> {
      * @return the new path address
      */
     public PathAddress append(PathAddress address) {
-        return append(address.pathAddressList);
+        return append(address.elements, address.offset, address.size);
+    }
+
+    private PathAddress append(PathElement[] additionalElements, int additionalOffset, int additionalSize) {
+        if (additionalSize == 0) {
+            return this;
+        }
+        final PathElement[] newElements = Arrays.copyOfRange(elements, offset, offset + size + additionalSize);
+        for (int i = 0; i < additionalSize; i++) {
+            final PathElement element = additionalElements[additionalOffset + i];
+            newElements[size + i] = element;
+            checkDuplicateKey(newElements, size + i);
+        }
+        return new PathAddress(newElements, 0, newElements.length);
     }
 
     public PathAddress append(String key, String value) {
@@ -292,7 +287,8 @@ public class PathAddress implements Iterable<PathElement> {
      */
     public ModelNode toModelNode() {
         final ModelNode node = new ModelNode().setEmptyList();
-        for (PathElement element : pathAddressList) {
+        for (int i = offset; i < offset + size; i++) {
+            final PathElement element = elements[i];
             final String value;
             if (element.isMultiTarget() && !element.isWildcard()) {
                 value = '[' + element.getValue() + ']';
@@ -310,8 +306,8 @@ public class PathAddress implements Iterable<PathElement> {
      * @return <code>true</code> if the address can apply to multiple targets, <code>false</code> otherwise
      */
     public boolean isMultiTarget() {
-        for (final PathElement element : pathAddressList) {
-            if (element.isMultiTarget()) {
+        for (int i = offset; i < offset + size; i++) {
+            if (elements[i].isMultiTarget()) {
                 return true;
             }
         }
@@ -324,7 +320,7 @@ public class PathAddress implements Iterable<PathElement> {
      * @return the size
      */
     public int size() {
-        return pathAddressList.size();
+        return size;
     }
 
     /**
@@ -334,16 +330,29 @@ public class PathAddress implements Iterable<PathElement> {
      */
     @Override
     public ListIterator<PathElement> iterator() {
-        return pathAddressList.listIterator();
+        return new ElementIterator();
     }
 
     public PathAddress getParent() {
-        return subAddress(0, size() - 1);
+        return subAddress(0, size - 1);
     }
 
+    /**
+     * Gets the hash code, which is that of the {@link List#hashCode() list} of the elements.
+     *
+     * @return the hash code
+     */
     @Override
     public int hashCode() {
-        return pathAddressList.hashCode();
+        int result = hashCode;
+        if (result == 0) {
+            result = 1;
+            for (int i = offset; i < offset + size; i++) {
+                result = 31 * result + elements[i].hashCode();
+            }
+            hashCode = result;
+        }
+        return result;
     }
 
     /**
@@ -364,7 +373,19 @@ public class PathAddress implements Iterable<PathElement> {
      * @return {@code true} if they are equal, {@code false} otherwise
      */
     public boolean equals(PathAddress other) {
-        return this == other || other != null && pathAddressList.equals(other.pathAddressList);
+        if (this == other) {
+            return true;
+        }
+        if (other == null || size != other.size
+                || hashCode != 0 && other.hashCode != 0 && hashCode != other.hashCode) {
+            return false;
+        }
+        for (int i = 0; i < size; i++) {
+            if (!elements[offset + i].equals(other.elements[other.offset + i])) {
+                return false;
+            }
+        }
+        return true;
     }
 
     @Override
@@ -424,11 +445,12 @@ public class PathAddress implements Iterable<PathElement> {
     }
 
     private String toString(char keyValSeparator) {
-        if (pathAddressList.isEmpty()) {
+        if (size == 0) {
             return "/";
         }
         StringBuilder sb = new StringBuilder();
-        for (PathElement pe : pathAddressList) {
+        for (int i = offset; i < offset + size; i++) {
+            final PathElement pe = elements[i];
             sb.append('/');
             sb.append(pe.getKey());
             sb.append(keyValSeparator);
@@ -444,4 +466,59 @@ public class PathAddress implements Iterable<PathElement> {
         }
         return sb.toString();
     }
+
+    private final class ElementIterator implements ListIterator<PathElement> {
+        private int cursor;
+
+        @Override
+        public boolean hasNext() {
+            return cursor < size;
+        }
+
+        @Override
+        public PathElement next() {
+            if (cursor >= size) {
+                throw new NoSuchElementException();
+            }
+            return elements[offset + cursor++];
+        }
+
+        @Override
+        public boolean hasPrevious() {
+            return cursor > 0;
+        }
+
+        @Override
+        public PathElement previous() {
+            if (cursor <= 0) {
+                throw new NoSuchElementException();
+            }
+            return elements[offset + --cursor];
+        }
+
+        @Override
+        public int nextIndex() {
+            return cursor;
+        }
+
+        @Override
+        public int previousIndex() {
+            return cursor - 1;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void set(PathElement element) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void add(PathElement element) {
+            throw new UnsupportedOperationException();
+        }
+    }
 }
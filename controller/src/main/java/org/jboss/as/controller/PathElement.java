@@ -18,6 +18,13 @@ public class PathElement {
 
     public static final String WILDCARD_VALUE = "*";
 
+    /**
+     * Recently created elements, so the elements of the addresses that are used over and over again are shared
+     * rather than created and validated again each time. Lossy: an element replaces any other with the same index.
+     * Elements are immutable, so the array needs no synchronization.
+     */
+    private static final PathElement[] INTERNED = new PathElement[4096];
+
     private final String key;
     private final String value;
     private final boolean multiTarget;
@@ -29,7 +36,7 @@ public class PathElement {
      * @return the new path element
      */
     public static PathElement pathElement(final String key) {
-        return new PathElement(key);
+        return pathElement(key, WILDCARD_VALUE);
     }
 
     /**
@@ -39,7 +46,23 @@ public class PathElement {
      * @return the new path element
      */
     public static PathElement pathElement(final String key, final String value) {
-        return new PathElement(key, value);
+        if (key == null || value == null || value.isEmpty() || value.charAt(0) == '[') {
+            // Invalid, or the value is not stored as given
+            return new PathElement(key, value);
+        }
+        final int hash = hash(key, value);
+        final int index = (hash ^ (hash >>> 16)) & (INTERNED.length - 1);
+        final PathElement interned = INTERNED[index];
+        if (interned != null && interned.hashCode == hash && interned.key.equals(key) && interned.value.equals(value)) {
+            return interned;
+        }
+        final PathElement result = new PathElement(key, value);
+        INTERNED[index] = result;
+        return result;
+    }
+
+    private static int hash(final String key, final String value) {
+        return key.hashCode() * 19 + value.hashCode();
     }
 
     /**
@@ -81,7 +104,8 @@ public class PathElement {
             this.value = value;
         }
         this.multiTarget = multiTarget;
-        hashCode = key.hashCode() * 19 + value.hashCode();
+        // Hash what equals() compares, which for a bracketed value is not what was given
+        hashCode = hash(this.key, this.value);
     }
 
     /**
@@ -0,0 +1,390 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.jboss.as.controller;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * An immutable hash map whose updates return a new map sharing all but the changed path with the original, a hash
+ * array mapped trie. Lookups and updates take time proportional to the depth of the trie, which is at most seven,
+ * rather than to the size of the map, so a new version of a large map can be made cheaply and published to
+ * concurrent readers without locking.
+ * <p>
+ * The {@link Map} mutators are not supported; use {@link #plus(Object, Object)} and {@link #minus(Object)}.
+ * {@code null} keys and values are not supported.
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ */
+final class PersistentHashMap<K, V> extends AbstractMap<K, V> {
+
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+    private static final PersistentHashMap<?, ?> EMPTY = new PersistentHashMap<>(null, 0);
+
+    private final Node root;
+    private final int size;
+    private Set<Map.Entry<K, V>> entrySet;
+
+    private PersistentHashMap(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <K, V> PersistentHashMap<K, V> empty() {
+        return (PersistentHashMap<K, V>) EMPTY;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        return root == null || key == null ? null : (V) root.find(key, hash(key), 0);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    /**
+     * Gets a map with the given mapping in addition to, or replacing, the mappings of this one.
+     *
+     * @param key the key. Cannot be {@code null}
+     * @param value the value. Cannot be {@code null}
+     * @return the map. Will not be {@code null}; will be this map if it already contained the mapping
+     */
+    PersistentHashMap<K, V> plus(K key, V value) {
+        assert key != null && value != null;
+        final int hash = hash(key);
+        if (root == null) {
+            return new PersistentHashMap<>(new BitmapNode(bit(hash, 0), new Object[] {key, value}), 1);
+        }
+        final SizeChange change = new SizeChange();
+        final Node updated = root.put(key, value, hash, 0, change);
+        return updated == root ? this : new PersistentHashMap<>(updated, size + change.delta);
+    }
+
+    /**
+     * Gets a map with the mappings of this one other than that of the given key.
+     *
+     * @param key the key. Cannot be {@code null}
+     * @return the map. Will not be {@code null}; will be this map if it did not contain the key
+     */
+    PersistentHashMap<K, V> minus(Object key) {
+        assert key != null;
+        if (root == null) {
+            return this;
+        }
+        final Node updated = root.remove(key, hash(key), 0);
+        if (updated == root) {
+            return this;
+        }
+        return updated == null ? empty() : new PersistentHashMap<>(updated, size - 1);
+    }
+
+    @Override
+    public Set<Map.Entry<K, V>> entrySet() {
+        Set<Map.Entry<K, V>> result = entrySet;
+        if (result == null) {
+            result = entrySet = new AbstractSet<Map.Entry<K, V>>() {
+                @Override
+                public Iterator<Map.Entry<K, V>> iterator() {
+                    return new EntryIterator<>(root);
+                }
+
+                @Override
+                public int size() {
+                    return size;
+                }
+            };
+        }
+        return result;
+    }
+
+    private static int hash(Object key) {
+        final int hash = key.hashCode();
+        return hash ^ (hash >>> 16);
+    }
+
+    private static int bit(int hash, int shift) {
+        return 1 << ((hash >>> shift) & MASK);
+    }
+
+    private static Node merge(Object key1, Object value1, int hash1, Object key2, Object value2, int hash2, int shift) {
+        if (hash1 == hash2) {
+            return new CollisionNode(hash1, new Object[] {key1, value1, key2, value2});
+        }
+        final int bit1 = bit(hash1, shift);
+        final int bit2 = bit(hash2, shift);
+        if (bit1 == bit2) {
+            return new BitmapNode(bit1, new Object[] {null, merge(key1, value1, hash1, key2, value2, hash2, shift + BITS)});
+        }
+        return new BitmapNode(bit1 | bit2, Integer.compareUnsigned(bit1, bit2) < 0
+                ? new Object[] {key1, value1, key2, value2}
+                : new Object[] {key2, value2, key1, value1});
+    }
+
+    private static final class SizeChange {
+        private int delta;
+    }
+
+    /**
+     * A node of the trie. Its array holds key/value pairs; in a {@link BitmapNode} a pair with a {@code null} key
+     * holds a child node as its value.
+     */
+    private abstract static class Node {
+        final Object[] array;
+
+        Node(Object[] array) {
+            this.array = array;
+        }
+
+        abstract Object find(Object key, int hash, int shift);
+
+        abstract Node put(Object key, Object value, int hash, int shift, SizeChange change);
+
+        /** Returns {@code null} if the node is left empty */
+        abstract Node remove(Object key, int hash, int shift);
+    }
+
+    private static final class BitmapNode extends Node {
+        private final int bitmap;
+
+        BitmapNode(int bitmap, Object[] array) {
+            super(array);
+            this.bitmap = bitmap;
+        }
+
+        private int index(int bit) {
+            return 2 * Integer.bitCount(bitmap & (bit - 1));
+        }
+
+        @Override
+        Object find(Object key, int hash, int shift) {
+            final int bit = bit(hash, shift);
+            if ((bitmap & bit) == 0) {
+                return null;
+            }
+            final int index = index(bit);
+            final Object slotKey = array[index];
+            if (slotKey == null) {
+                return ((Node) array[index + 1]).find(key, hash, shift + BITS);
+            }
+            return key.equals(slotKey) ? array[index + 1] : null;
+        }
+
+        @Override
+        Node put(Object key, Object value, int hash, int shift, SizeChange change) {
+            final int bit = bit(hash, shift);
+            final int index = index(bit);
+            if ((bitmap & bit) == 0) {
+                final Object[] updated = new Object[array.length + 2];
+                System.arraycopy(array, 0, updated, 0, index);
+                updated[index] = key;
+                updated[index + 1] = value;
+                System.arraycopy(array, index, updated, index + 2, array.length - index);
+                change.delta = 1;
+                return new BitmapNode(bitmap | bit, updated);
+            }
+            final Object slotKey = array[index];
+            final Object slotValue = array[index + 1];
+            final Object replacement;
+            if (slotKey == null) {
+                final Node child = (Node) slotValue;
+                final Node updatedChild = child.put(key, value, hash, shift + BITS, change);
+                if (updatedChild == child) {
+                    return this;
+                }
+                replacement = updatedChild;
+            } else if (key.equals(slotKey)) {
+                if (value == slotValue) {
+                    return this;
+                }
+                final Object[] updated = array.clone();
+                updated[index] = key;
+                updated[index + 1] = value;
+                return new BitmapNode(bitmap, updated);
+            } else {
+                change.delta = 1;
+                replacement = merge(slotKey, slotValue, hash(slotKey), key, value, hash, shift + BITS);
+            }
+            final Object[] updated = array.clone();
+            updated[index] = null;
+            updated[index + 1] = replacement;
+            return new BitmapNode(bitmap, updated);
+        }
+
+        @Override
+        Node remove(Object key, int hash, int shift) {
+            final int bit = bit(hash, shift);
+            if ((bitmap & bit) == 0) {
+                return this;
+            }
+            final int index = index(bit);
+            final Object slotKey = array[index];
+            if (slotKey == null) {
+                final Node child = (Node) array[index + 1];
+                final Node updatedChild = child.remove(key, hash, shift + BITS);
+                if (updatedChild == child) {
+                    return this;
+                }
+                if (updatedChild != null) {
+                    final Object[] updated = array.clone();
+                    updated[index + 1] = updatedChild;
+                    return new BitmapNode(bitmap, updated);
+                }
+            } else if (!key.equals(slotKey)) {
+                return this;
+            }
+            if (bitmap == bit) {
+                return null;
+            }
+            final Object[] updated = new Object[array.length - 2];
+            System.arraycopy(array, 0, updated, 0, index);
+            System.arraycopy(array, index + 2, updated, index, array.length - index - 2);
+            return new BitmapNode(bitmap & ~bit, updated);
+        }
+    }
+
+    /**
+     * The pairs whose keys all have the same hash.
+     */
+    private static final class CollisionNode extends Node {
+        private final int hash;
+
+        CollisionNode(int hash, Object[] array) {
+            super(array);
+            this.hash = hash;
+        }
+
+        private int index(Object key) {
+            for (int i = 0; i < array.length; i += 2) {
+                if (key.equals(array[i])) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        Object find(Object key, int hash, int shift) {
+            if (hash != this.hash) {
+                return null;
+            }
+            final int index = index(key);
+            return index < 0 ? null : array[index + 1];
+        }
+
+        @Override
+        Node put(Object key, Object value, int hash, int shift, SizeChange change) {
+            if (hash != this.hash) {
+                // Push this node down a level, under one that tells the hashes apart
+                return new BitmapNode(bit(this.hash, shift), new Object[] {null, this}).put(key, value, hash, shift, change);
+            }
+            final int index = index(key);
+            if (index >= 0) {
+                if (array[index + 1] == value) {
+                    return this;
+                }
+                final Object[] updated = array.clone();
+                updated[index + 1] = value;
+                return new CollisionNode(hash, updated);
+            }
+            final Object[] updated = Arrays.copyOf(array, array.length + 2);
+            updated[array.length] = key;
+            updated[array.length + 1] = value;
+            change.delta = 1;
+            return new CollisionNode(hash, updated);
+        }
+
+        @Override
+        Node remove(Object key, int hash, int shift) {
+            final int index = hash == this.hash ? index(key) : -1;
+            if (index < 0) {
+                return this;
+            }
+            if (array.length == 2) {
+                return null;
+            }
+            final Object[] updated = new Object[array.length - 2];
+            System.arraycopy(array, 0, updated, 0, index);
+            System.arraycopy(array, index + 2, updated, index, array.length - index - 2);
+            return new CollisionNode(hash, updated);
+        }
+    }
+
+    private static final class EntryIterator<K, V> implements Iterator<Map.Entry<K, V>> {
+        /** The nodes on the path to the next entry, deepest last; at most one per level plus a collision node */
+        private final Node[] nodes = new Node[8];
+        private final int[] indexes = new int[8];
+        private int depth = -1;
+        private Map.Entry<K, V> next;
+
+        EntryIterator(Node root) {
+            if (root != null) {
+                nodes[0] = root;
+                depth = 0;
+                advance();
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private void advance() {
+            next = null;
+            while (depth >= 0) {
+                final Node node = nodes[depth];
+                final int index = indexes[depth];
+                if (index == node.array.length) {
+                    nodes[depth] = null;
+                    indexes[depth] = 0;
+                    depth--;
+                    continue;
+                }
+                indexes[depth] = index + 2;
+                final Object key = node.array[index];
+                if (key == null) {
+                    depth++;
+                    nodes[depth] = (Node) node.array[index + 1];
+                } else {
+                    next = new AbstractMap.SimpleImmutableEntry<>((K) key, (V) node.array[index + 1]);
+                    return;
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Map.Entry<K, V> next() {
+            final Map.Entry<K, V> result = next;
+            if (result == null) {
+                throw new NoSuchElementException();
+            }
+            advance();
+            return result;
+        }
+    }
+}
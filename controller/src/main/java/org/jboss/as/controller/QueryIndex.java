@@ -0,0 +1,305 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.jboss.as.controller;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_ATTRIBUTE_OPERATION;
+
+import java.lang.ref.Reference;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.jboss.as.controller.logging.ControllerLogger;
+import org.jboss.as.controller.operations.global.ReadAttributeHandler;
+import org.jboss.as.controller.registry.AttributeAccess;
+import org.jboss.as.controller.registry.ImmutableManagementResourceRegistration;
+import org.jboss.as.controller.registry.Resource;
+import org.jboss.dmr.ModelNode;
+import org.wildfly.security.manager.WildFlySecurityManager;
+
+/**
+ * Optional secondary indexes of the values the children of a resource have for an attribute, which let the
+ * {@code query} operation only read the children that can match its {@code where} clause instead of all of them.
+ * <p>
+ * The indexed attributes are set with the {@value #PROPERTY} system property, a comma separated list of entries such
+ * as {@code /deployment=*:status} or {@code /subsystem=logging/periodic-rotating-file-handler=*:level}. The address
+ * of an entry ends with a wildcard element for the indexed child type, and may use wildcard values in its other
+ * elements. Only configuration attributes that are read from the model, rather than by a read handler, and that have
+ * no access constraints are indexed.
+ * <p>
+ * An index is built from a published management model the first time it is used. After a new model is published,
+ * the next use brings the index up to date, re-reading the attribute only for the children whose model changed.
+ */
+public final class QueryIndex {
+
+    public static final String PROPERTY = "org.wildfly.management.query-index";
+
+    /** The indexes of the process */
+    public static final QueryIndex INSTANCE = new QueryIndex(WildFlySecurityManager.getPropertyPrivileged(PROPERTY, null));
+
+    private volatile List<IndexedAttribute> indexedAttributes;
+    private final Map<Key, Values> indexes = new ConcurrentHashMap<>();
+
+    QueryIndex(String indexedAttributes) {
+        setIndexedAttributes(indexedAttributes);
+    }
+
+    /**
+     * Sets the attributes to index, discarding any existing indexes.
+     *
+     * @param indexedAttributes the attributes, in the format of the {@value #PROPERTY} system property, or
+     *                          {@code null} to index none
+     */
+    void setIndexedAttributes(String indexedAttributes) {
+        final List<IndexedAttribute> result = new ArrayList<>();
+        if (indexedAttributes != null) {
+            for (String entry : indexedAttributes.split(",")) {
+                final String trimmed = entry.trim();
+                if (!trimmed.isEmpty()) {
+                    final IndexedAttribute attribute = IndexedAttribute.parse(trimmed);
+                    if (attribute != null) {
+                        result.add(attribute);
+                    } else {
+                        ControllerLogger.ROOT_LOGGER.invalidQueryIndex(trimmed, PROPERTY);
+                    }
+                }
+            }
+        }
+        this.indexedAttributes = result;
+        indexes.clear();
+    }
+
+    /**
+     * Gets the index of the values the children addressed by {@code address} have for an attribute, as of the
+     * published management model the given context is working with.
+     *
+     * @param context the context of the operation using the index. Cannot be {@code null}
+     * @param address the address of the children, whose last element is a wildcard. Cannot be {@code null}
+     * @param attribute the name of the attribute. Cannot be {@code null}
+     * @return the index, or {@code null} if the attribute is not indexed for these children, or if the context is
+     *         not working with a published model
+     */
+    public Values getValues(OperationContext context, PathAddress address, String attribute) {
+        final List<IndexedAttribute> indexedAttributes = this.indexedAttributes;
+        if (indexedAttributes.isEmpty() || !(context instanceof OperationContextImpl) || !isIndexed(indexedAttributes, address, attribute)) {
+            return null;
+        }
+        final AttributeDefinition definition = getIndexableDefinition(context.getRootResourceRegistration().getSubModel(address), attribute);
+        if (definition == null) {
+            return null;
+        }
+        final Resource parent = ((OperationContextImpl) context).getPublishedResource(address.getParent());
+        if (parent == null) {
+            return null;
+        }
+        final Key key = new Key(address, attribute);
+        final Values current = indexes.get(key);
+        if (current != null && current.parent.get() == parent) {
+            return current;
+        }
+        final Values updated = Values.create(parent, address.getLastElement().getKey(), attribute, definition.getDefaultValue(), current);
+        if (updated != null) {
+            indexes.put(key, updated);
+        }
+        return updated;
+    }
+
+    private static boolean isIndexed(List<IndexedAttribute> indexedAttributes, PathAddress address, String attribute) {
+        if (address.size() == 0 || !address.getLastElement().isWildcard() || address.getParent().isMultiTarget()) {
+            return false;
+        }
+        for (IndexedAttribute indexed : indexedAttributes) {
+            if (indexed.matches(address, attribute)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gets the definition of an attribute whose value read-resource reads straight from the model, without a
+     * read handler or access control that could make it report a different value than the index.
+     */
+    private static AttributeDefinition getIndexableDefinition(ImmutableManagementResourceRegistration registration, String attribute) {
+        if (registration == null || registration.isRemote() || registration.isRuntimeOnly()) {
+            return null;
+        }
+        final OperationStepHandler readAttribute = registration.getOperationHandler(PathAddress.EMPTY_ADDRESS, READ_ATTRIBUTE_OPERATION);
+        if (readAttribute != null && readAttribute != ReadAttributeHandler.INSTANCE && readAttribute != ReadAttributeHandler.RESOLVE_INSTANCE) {
+            return null;
+        }
+        final AttributeAccess access = registration.getAttributeAccess(PathAddress.EMPTY_ADDRESS, attribute);
+        if (access == null || access.getStorageType() != AttributeAccess.Storage.CONFIGURATION || access.getReadHandler() != null) {
+            return null;
+        }
+        final AttributeDefinition definition = access.getAttributeDefinition();
+        return definition == null || !definition.getAccessConstraints().isEmpty() ? null : definition;
+    }
+
+    /**
+     * The values the children of one version of a resource have for an attribute. An undefined attribute has the
+     * value read-resource reports for it, its default value if it has one.
+     */
+    public static final class Values {
+        private final Reference<Resource> parent;
+        private final List<String> childNames;
+        /** The model each child was indexed from, to tell whether it changed in a later version */
+        private final Map<String, ModelNode> models;
+        private final Map<String, ModelNode> values;
+        private final Map<ModelNode, Set<String>> childNamesByValue;
+
+        private Values(Resource parent, List<String> childNames, Map<String, ModelNode> models, Map<String, ModelNode> values) {
+            this.parent = new WeakReference<>(parent);
+            this.childNames = Collections.unmodifiableList(childNames);
+            this.models = models;
+            this.values = values;
+            final Map<ModelNode, Set<String>> byValue = new LinkedHashMap<>();
+            for (String name : childNames) {
+                byValue.computeIfAbsent(values.get(name), v -> new LinkedHashSet<>()).add(name);
+            }
+            for (Map.Entry<ModelNode, Set<String>> entry : byValue.entrySet()) {
+                entry.setValue(Collections.unmodifiableSet(entry.getValue()));
+            }
+            this.childNamesByValue = Collections.unmodifiableMap(byValue);
+        }
+
+        /**
+         * Indexes the children of the given type of a published resource.
+         *
+         * @param previous the index of an earlier version of the resource, whose entries are reused for the children
+         *                 whose model has not changed since, or {@code null}
+         * @return the index, or {@code null} if a child is not a configuration resource
+         */
+        private static Values create(Resource parent, String childType, String attribute, ModelNode defaultValue, Values previous) {
+            final Set<Resource.ResourceEntry> children = parent.getChildren(childType);
+            final List<String> childNames = new ArrayList<>(children.size());
+            final Map<String, ModelNode> models = new HashMap<>();
+            final Map<String, ModelNode> values = new HashMap<>();
+            for (Resource.ResourceEntry child : children) {
+                if (child.isRuntime() || child.isProxy()) {
+                    return null;
+                }
+                final String name = child.getName();
+                final ModelNode model = Resource.Tools.peekModel(child);
+                ModelNode value = previous != null && previous.models.get(name) == model ? previous.values.get(name) : null;
+                if (value == null) {
+                    if (model.hasDefined(attribute)) {
+                        value = model.get(attribute).clone();
+                    } else {
+                        value = defaultValue != null ? defaultValue.clone() : new ModelNode();
+                    }
+                    value.protect();
+                }
+                childNames.add(name);
+                models.put(name, model);
+                values.put(name, value);
+            }
+            return new Values(parent, childNames, models, values);
+        }
+
+        /**
+         * Gets the names of all the children, in the order the resource keeps them.
+         *
+         * @return the names. Will not be {@code null}
+         */
+        public List<String> getChildNames() {
+            return childNames;
+        }
+
+        /**
+         * Gets the names of the children grouped by their value of the attribute.
+         *
+         * @return the names of the children with each value, in the order the resource keeps them. Will not be {@code null}
+         */
+        public Map<ModelNode, Set<String>> getChildNamesByValue() {
+            return childNamesByValue;
+        }
+    }
+
+    private static final class IndexedAttribute {
+        private final PathAddress address;
+        private final String attribute;
+
+        private IndexedAttribute(PathAddress address, String attribute) {
+            this.address = address;
+            this.attribute = attribute;
+        }
+
+        /**
+         * Parses an {@code address:attribute} entry.
+         *
+         * @return the attribute, or {@code null} if the entry is not valid
+         */
+        static IndexedAttribute parse(String entry) {
+            final int separator = entry.lastIndexOf(':');
+            if (separator <= 0 || separator == entry.length() - 1) {
+                return null;
+            }
+            final PathAddress address;
+            try {
+                address = PathAddress.parseCLIStyleAddress(entry.substring(0, separator));
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+            if (address.size() == 0 || !address.getLastElement().isWildcard()) {
+                return null;
+            }
+            for (PathElement element : address) {
+                if (element.getKey().equals(PathElement.WILDCARD_VALUE) || (element.isMultiTarget() && !element.isWildcard())) {
+                    return null;
+                }
+            }
+            return new IndexedAttribute(address, entry.substring(separator + 1));
+        }
+
+        boolean matches(PathAddress address, String attribute) {
+            if (!this.attribute.equals(attribute) || this.address.size() != address.size()) {
+                return false;
+            }
+            for (int i = 0; i < address.size(); i++) {
+                final PathElement pattern = this.address.getElement(i);
+                final PathElement element = address.getElement(i);
+                if (!pattern.getKey().equals(element.getKey())
+                        || !(pattern.isWildcard() || pattern.getValue().equals(element.getValue()))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private static final class Key {
+        private final PathAddress address;
+        private final String attribute;
+
+        private Key(PathAddress address, String attribute) {
+            this.address = address;
+            this.attribute = attribute;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            final Key other = (Key) o;
+            return address.equals(other.address) && attribute.equals(other.attribute);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(address, attribute);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.jboss.as.controller;
+
+import static org.jboss.as.controller.audit.JsonAuditLogItemFormatter.ACCESS_MECHANISM;
+import static org.jboss.as.controller.audit.JsonAuditLogItemFormatter.DOMAIN_UUID;
+import static org.jboss.as.controller.audit.JsonAuditLogItemFormatter.READ_ONLY;
+import static org.jboss.as.controller.audit.JsonAuditLogItemFormatter.REMOTE_ADDRESS;
+import static org.jboss.as.controller.audit.JsonAuditLogItemFormatter.SUCCESS;
+import static org.jboss.as.controller.audit.JsonAuditLogItemFormatter.TYPE;
+import static org.jboss.as.controller.audit.JsonAuditLogItemFormatter.USER_ID;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.PROFILE;
+
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.controller.logging.ControllerLogger;
+import org.jboss.dmr.ModelNode;
+import org.wildfly.security.auth.server.SecurityIdentity;
+
+/**
+ * Logs the management operations that take longer than a threshold, with where their time went, as a JSON record
+ * in the style of the {@link org.jboss.as.controller.audit.JsonAuditLogItemFormatter JSON audit log formatter}.
+ * The logged profile details the steps that completed once the operation had exceeded the threshold. Operations
+ * executed during boot are not logged.
+ */
+public final class SlowOperationLog {
+
+    /** The log used by the process */
+    public static final SlowOperationLog INSTANCE = new SlowOperationLog();
+
+    static final String TYPE_SLOW_OPERATION = "slow-operation";
+    private static final long DISABLED = -1;
+
+    /** The threshold, in nanoseconds, or {@link #DISABLED} */
+    private volatile long threshold = DISABLED;
+
+    SlowOperationLog() {
+    }
+
+    /**
+     * Sets the execution time above which operations are logged, enabling the log.
+     *
+     * @param threshold the threshold, in milliseconds. Must not be negative
+     */
+    public void setThreshold(long threshold) {
+        assert threshold >= 0;
+        this.threshold = TimeUnit.MILLISECONDS.toNanos(threshold);
+    }
+
+    /**
+     * Disables the log.
+     */
+    public void deactivate() {
+        this.threshold = DISABLED;
+    }
+
+    /**
+     * Gets how long an operation must have been executing for before the time taken by its steps is recorded, so
+     * that only the operations that are logged pay for it.
+     *
+     * @return the threshold in nanoseconds, or {@link OperationProfile#NO_STEPS} if the log is disabled
+     */
+    long getStepsThreshold() {
+        final long threshold = this.threshold;
+        return threshold == DISABLED ? OperationProfile.NO_STEPS : threshold;
+    }
+
+    void operationCompleted(ModelNode operation, boolean readOnly, boolean success, SecurityIdentity identity,
+                            AccessAuditContext accessContext, OperationProfile profile) {
+        final long threshold = this.threshold;
+        final long time = profile.getElapsedTime();
+        if (threshold == DISABLED || time < threshold) {
+            return;
+        }
+        final ModelNode record = new ModelNode();
+        record.get(TYPE).set(TYPE_SLOW_OPERATION);
+        record.get(OP).set(operation.get(OP));
+        record.get(OP_ADDR).set(operation.get(OP_ADDR));
+        record.get(READ_ONLY).set(readOnly);
+        record.get(SUCCESS).set(success);
+        record.get(USER_ID);
+        if (identity != null) {
+            record.get(USER_ID).set(identity.getPrincipal().getName());
+        }
+        record.get(DOMAIN_UUID);
+        record.get(ACCESS_MECHANISM);
+        record.get(REMOTE_ADDRESS);
+        if (accessContext != null) {
+            if (accessContext.getDomainUuid() != null) {
+                record.get(DOMAIN_UUID).set(accessContext.getDomainUuid());
+            }
+            if (accessContext.getAccessMechanism() != null) {
+                record.get(ACCESS_MECHANISM).set(accessContext.getAccessMechanism().toString());
+            }
+            if (accessContext.getRemoteAddress() != null) {
+                record.get(REMOTE_ADDRESS).set(accessContext.getRemoteAddress().toString());
+            }
+        }
+        record.get(PROFILE).set(profile.toModelNode());
+        ControllerLogger.MGMT_OP_LOGGER.slowOperation(TimeUnit.NANOSECONDS.toMillis(time),
+                TimeUnit.NANOSECONDS.toMillis(threshold), record.toJSONString(true));
+    }
+}
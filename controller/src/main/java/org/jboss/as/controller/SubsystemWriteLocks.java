@@ -0,0 +1,245 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.jboss.as.controller;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUBSYSTEM;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The write locks of the subsystems of a {@link ModelControllerImpl}, taken in place of the exclusive controller lock
+ * by an operation addressed to a subsystem that writes to the resources of that subsystem, when
+ * {@link ModelControllerImpl#SUBSYSTEM_WRITE_LOCKS_PROPERTY} is set.
+ * <p>
+ * Such an operation takes the lock of its subsystem, and then the controller lock in shared mode, so operations
+ * writing to different subsystems execute alongside each other, each on its own copy of the model, while operations
+ * needing the exclusive controller lock wait for them. Once done, the operation takes the publication lock, which
+ * orders the publication of the changes of such operations, and publishes the changes it made to its subsystem on top
+ * of the latest published model.
+ * <p>
+ * The operation instead takes the exclusive controller lock in place of the shared one, keeping the lock of its
+ * subsystem, as soon as it needs more than the resources of its subsystem: other resources, the resource
+ * registrations, the capability registry or the service container. The changes it made to its subsystem are then
+ * moved onto the latest published model, unless another operation changed the subsystem while the operation waited
+ * for the exclusive lock, in which case the operation fails.
+ * <p>
+ * The lock of a subsystem is always taken before the controller lock, and an operation holding the controller lock in
+ * shared mode only waits for another lock once it has released it, so the locks cannot deadlock. As with
+ * {@link ModelControllerLock#detectDeadlockAndGetLock(int)}, an operation that already holds the exclusive controller
+ * lock keeps using it, rather than waiting for the shared one.
+ */
+final class SubsystemWriteLocks {
+
+    private final ModelControllerLock controllerLock;
+    private final ModelControllerLock publicationLock = new ModelControllerLock();
+    private final ConcurrentMap<PathElement, ModelControllerLock> locks = new ConcurrentHashMap<>();
+    /**
+     * The number of times the changes to each subsystem have been published. Only subsystems are counted, so the map
+     * stays as small as the set of subsystems. Entries are kept once the subsystem is removed, so a version is never
+     * reused.
+     */
+    private final ConcurrentMap<PathElement, Long> versions = new ConcurrentHashMap<>();
+    /** The number of times changes to the root resource itself have been published */
+    private final AtomicLong rootVersion = new AtomicLong();
+
+    SubsystemWriteLocks(final ModelControllerLock controllerLock) {
+        this.controllerLock = controllerLock;
+    }
+
+    /**
+     * Gets the subsystem whose lock an operation takes to write to a resource.
+     *
+     * @param operationAddress the address of the operation
+     * @param address the address of the resource
+     * @return the subsystem, or {@code null} if the operation needs the exclusive controller lock
+     */
+    static PathElement getSubsystem(final PathAddress operationAddress, final PathAddress address) {
+        final PathElement subsystem = getSubsystem(operationAddress);
+        return subsystem != null && subsystem.equals(getSubsystem(address)) ? subsystem : null;
+    }
+
+    private static PathElement getSubsystem(final PathAddress address) {
+        if (address.size() == 0) {
+            return null;
+        }
+        final PathElement element = address.getElement(0);
+        return SUBSYSTEM.equals(element.getKey()) && !element.isWildcard() ? element : null;
+    }
+
+    /**
+     * Takes the lock of a subsystem, and the controller lock in shared mode.
+     *
+     * @param permit the id of the operation
+     * @param subsystem the subsystem
+     * @param interruptibly {@code true} if waiting for the locks can be interrupted
+     * @return the locks held, or {@code null} if the operation already holds the exclusive controller lock
+     * @throws InterruptedException if interrupted while waiting for the locks. The operation then holds neither lock
+     */
+    Lock acquire(final Integer permit, final PathElement subsystem, final boolean interruptibly) throws InterruptedException {
+        if (controllerLock.isHeldExclusively(permit)) {
+            return null;
+        }
+        final ModelControllerLock lock = locks.computeIfAbsent(subsystem, key -> new ModelControllerLock());
+        if (interruptibly) {
+            lock.lockInterruptibly(permit);
+        } else {
+            lock.lock(permit);
+        }
+        boolean shared = false;
+        try {
+            if (interruptibly) {
+                controllerLock.lockSharedInterruptibly(permit);
+            } else {
+                controllerLock.lockShared(permit);
+            }
+            shared = true;
+        } finally {
+            if (!shared) {
+                lock.unlock(permit);
+            }
+        }
+        // Other operations may publish changes to other subsystems meanwhile, but escalate() only compares the version
+        // of this subsystem and that of the root resource, which no other operation can publish changes to while the
+        // lock of this subsystem and the shared controller lock are held
+        return new Lock(permit, subsystem, lock, versions.getOrDefault(subsystem, 0L), rootVersion.get());
+    }
+
+    /**
+     * Records the publication of changes to the resources with the given addresses.
+     *
+     * @param addresses the addresses
+     */
+    void published(final Set<PathAddress> addresses) {
+        boolean root = false;
+        for (PathAddress address : addresses) {
+            if (address.size() == 0) {
+                root = true;
+            } else {
+                final PathElement subsystem = getSubsystem(address);
+                if (subsystem != null) {
+                    versions.merge(subsystem, 1L, Long::sum);
+                }
+            }
+        }
+        if (root) {
+            rootVersion.incrementAndGet();
+        }
+    }
+
+    /**
+     * The locks held by an operation writing to the resources of a subsystem.
+     */
+    final class Lock {
+        private final Integer permit;
+        private final PathElement subsystem;
+        private final ModelControllerLock lock;
+        private final long version;
+        private final long rootVersion;
+        /** Whether the controller lock is held in shared mode */
+        private boolean shared = true;
+        /** Whether the controller lock is held in exclusive mode */
+        private boolean exclusive;
+        /** Whether the publication lock is held */
+        private boolean publishing;
+
+        private Lock(final Integer permit, final PathElement subsystem, final ModelControllerLock lock,
+                     final long version, final long rootVersion) {
+            this.permit = permit;
+            this.subsystem = subsystem;
+            this.lock = lock;
+            this.version = version;
+            this.rootVersion = rootVersion;
+        }
+
+        PathElement getSubsystem() {
+            return subsystem;
+        }
+
+        /**
+         * Gets whether the operation can write to a resource without holding the exclusive controller lock.
+         *
+         * @param address the address of the resource
+         * @return {@code true} if the resource belongs to the subsystem and the controller lock is still shared
+         */
+        boolean covers(final PathAddress address) {
+            return shared && subsystem.equals(SubsystemWriteLocks.getSubsystem(address));
+        }
+
+        boolean isExclusive() {
+            return exclusive;
+        }
+
+        /**
+         * Takes the exclusive controller lock in place of the shared one.
+         *
+         * @param interruptibly {@code true} if waiting for the lock can be interrupted
+         * @return {@code true} if no other operation has published changes to the subsystem, or to the root resource,
+         *         since the locks were taken
+         * @throws InterruptedException if interrupted while waiting for the lock. The operation then only holds the
+         *                              lock of the subsystem
+         */
+        boolean escalate(final boolean interruptibly) throws InterruptedException {
+            if (!exclusive) {
+                if (publishing) {
+                    // Not needed once exclusive, and other operations may be waiting for it while holding the shared lock
+                    publicationLock.unlock(permit);
+                    publishing = false;
+                }
+                if (shared) {
+                    controllerLock.unlockShared(permit);
+                    shared = false;
+                }
+                if (interruptibly) {
+                    controllerLock.lockInterruptibly(permit);
+                } else {
+                    controllerLock.lock(permit);
+                }
+                exclusive = true;
+            }
+            return versions.getOrDefault(subsystem, 0L) == version && SubsystemWriteLocks.this.rootVersion.get() == rootVersion;
+        }
+
+        /**
+         * Takes the publication lock, if the controller lock is held in shared mode, so the operation can publish its
+         * changes. The lock is held until the locks are released.
+         *
+         * @param interruptibly {@code true} if waiting for the lock can be interrupted
+         * @throws InterruptedException if interrupted while waiting for the lock
+         */
+        void lockPublication(final boolean interruptibly) throws InterruptedException {
+            if (shared && !publishing) {
+                if (interruptibly) {
+                    publicationLock.lockInterruptibly(permit);
+                } else {
+                    publicationLock.lock(permit);
+                }
+                publishing = true;
+            }
+        }
+
+        /**
+         * Releases the locks.
+         */
+        void release() {
+            try {
+                if (publishing) {
+                    publicationLock.unlock(permit);
+                }
+                if (exclusive) {
+                    controllerLock.unlock(permit);
+                } else if (shared) {
+                    controllerLock.unlockShared(permit);
+                }
+            } finally {
+                exclusive = shared = publishing = false;
+                lock.unlock(permit);
+            }
+        }
+    }
+}
@@ -4,10 +4,13 @@
  */
 package org.jboss.as.controller.audit;
 
+import static java.security.AccessController.doPrivileged;
+
 import org.jboss.as.controller.logging.ControllerLogger;
 import org.jboss.as.controller.services.path.PathManagerService;
 import org.jboss.as.protocol.StreamUtils;
-import org.xnio.IoUtils;
+import org.jboss.threads.JBossThreadFactory;
+import org.wildfly.security.manager.WildFlySecurityManager;
 
 import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
@@ -16,21 +19,57 @@ import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
+import java.security.PrivilegedAction;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.zip.GZIPOutputStream;
 
 /**
  *  All methods on this class should be called with {@link org.jboss.as.controller.audit.ManagedAuditLoggerImpl}'s lock taken.
+ *  The records are written to the file by a {@link BufferedAuditLogFileWriter}, and the backups made when the file
+ *  is rotated are compressed in the background if the {@link #COMPRESS_BACKUPS_PROPERTY} system property is {@code true}.
  *
  * @author <a href="kabir.khan@jboss.com">Kabir Khan</a>
  * @author <a href="mailto:istudens@redhat.com">Ivo Studensky</a>
  */
 public abstract class AbstractFileAuditLogHandler extends AuditLogHandler {
     protected static final byte[] LINE_TERMINATOR = System.lineSeparator().getBytes(StandardCharsets.UTF_8);
+
+    /** System property setting the size, in bytes, of the buffer the records are written to before the file */
+    public static final String BUFFER_SIZE_PROPERTY = "org.wildfly.management.audit-log-buffer-size";
+
+    /**
+     * System property setting when the file is synced to the storage device after records are written: {@code always}
+     * (the default), {@code interval} or {@code never}
+     */
+    public static final String SYNC_POLICY_PROPERTY = "org.wildfly.management.audit-log-sync-policy";
+
+    /** System property setting the minimum time, in milliseconds, between two syncs of the file with the {@code interval} policy */
+    public static final String SYNC_INTERVAL_PROPERTY = "org.wildfly.management.audit-log-sync-interval";
+
+    /** System property that, when {@code true}, has the backups made when the file is rotated compressed with gzip */
+    public static final String COMPRESS_BACKUPS_PROPERTY = "org.wildfly.management.audit-log-compress-backups";
+
+    /** The extension of the compressed backups */
+    protected static final String COMPRESSED_SUFFIX = ".gz";
+
     private final PathManagerService pathManager;
     private final String path;
     private final String relativeTo;
+    private final BufferedAuditLogFileWriter writer = BufferedAuditLogFileWriter.create();
+    private final boolean compressBackups = Boolean.parseBoolean(WildFlySecurityManager.getPropertyPrivileged(COMPRESS_BACKUPS_PROPERTY, "false"));
 
     private volatile File file;
+    /** Compresses the backups made by this handler, created with the first one and shut down when the handler stops */
+    private ExecutorService compressionExecutor;
+    /** The compression of the last backup made */
+    private volatile Future<?> compression = CompletableFuture.completedFuture(null);
 
     public AbstractFileAuditLogHandler(String name, String formatterName, int maxFailureCount, PathManagerService pathManager, String path, String relativeTo) {
         super(name, formatterName, maxFailureCount);
@@ -70,21 +109,104 @@ public abstract class AbstractFileAuditLogHandler extends AuditLogHandler {
     @Override
     void stop() {
         file = null;
+        if (compressionExecutor != null) {
+            // Let the last backup be compressed before the process exits
+            awaitBackupCompression();
+            compressionExecutor.shutdown();
+            compressionExecutor = null;
+        }
+    }
+
+    @Override
+    void drain(long deadline) {
+        try {
+            writer.sync();
+        } catch (IOException e) {
+            ControllerLogger.MGMT_OP_LOGGER.logHandlerWriteFailed(e, name);
+        }
     }
 
     @Override
     void writeLogItem(String formattedItem) throws IOException {
-        final FileOutputStream fos = new FileOutputStream(file, true);
-        final BufferedOutputStream output = new BufferedOutputStream(fos);
+        itemWritten(writer.write(file, formattedItem));
+    }
+
+    @Override
+    void flush() throws IOException {
+        writer.flush();
+    }
+
+    /**
+     * Called when a record has been written, or buffered to be written, to the file.
+     *
+     * @param size the size of the record in bytes, including its line terminator
+     */
+    protected void itemWritten(int size) {
+    }
+
+    /**
+     * Writes the buffered records to the file, before it is rotated.
+     */
+    protected void flushBeforeRotation() {
         try {
-            output.write(formattedItem.getBytes(StandardCharsets.UTF_8));
-            output.write(LINE_TERMINATOR);
+            writer.flush();
+        } catch (IOException e) {
+            throw ControllerLogger.ROOT_LOGGER.couldNotFlushAuditLogBeforeRotation(e, name);
+        }
+    }
 
-            //Flush and force the file to sync
-            output.flush();
-            fos.getFD().sync();
-        } finally {
-            IoUtils.safeClose(output);
+    /**
+     * Moves the file to a backup, compressing the backup in the background if enabled.
+     *
+     * @param file the file
+     * @param backup the backup
+     * @throws IOException if the file could not be moved
+     */
+    protected void backUp(final File file, final File backup) throws IOException {
+        rename(file, backup);
+        if (compressBackups && backup.exists()) {
+            if (compressionExecutor == null) {
+                final ThreadFactory threadFactory = doPrivileged(new PrivilegedAction<JBossThreadFactory>() {
+                    public JBossThreadFactory run() {
+                        return new JBossThreadFactory(ThreadGroupHolder.THREAD_GROUP, Boolean.TRUE, null, "%G - %t", null, null);
+                    }
+                });
+                compressionExecutor = Executors.newSingleThreadExecutor(threadFactory);
+            }
+            compression = compressionExecutor.submit(() -> compress(backup));
+        }
+    }
+
+    /**
+     * Waits for the backups made by this handler to be compressed, so they can be moved.
+     */
+    protected void awaitBackupCompression() {
+        try {
+            compression.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            // compress() logs its failures
+        }
+    }
+
+    private void compress(final File backup) {
+        final File compressed = new File(backup.getPath() + COMPRESSED_SUFFIX);
+        try {
+            compressed.delete();
+            createNewFile(compressed);
+            try (InputStream in = new BufferedInputStream(new FileInputStream(backup));
+                 FileOutputStream fos = new FileOutputStream(compressed)) {
+                final OutputStream output = new GZIPOutputStream(fos, 8192);
+                StreamUtils.copyStream(in, output);
+                output.close();
+            }
+            if (!backup.delete()) {
+                ControllerLogger.MGMT_OP_LOGGER.couldNotDeleteAuditLogBackup(backup.getAbsolutePath());
+            }
+        } catch (Exception e) {
+            compressed.delete();
+            ControllerLogger.MGMT_OP_LOGGER.couldNotCompressAuditLogBackup(e, backup.getAbsolutePath());
         }
     }
 
@@ -159,7 +281,7 @@ public abstract class AbstractFileAuditLogHandler extends AuditLogHandler {
             file.createNewFile();
             setFileNotWorldReadablePermissions(file);
         } catch (IOException e){
-            throw new RuntimeException(e);
+            throw ControllerLogger.ROOT_LOGGER.couldNotCreateAuditLogFile(e, file);
         }
     }
 
@@ -178,4 +300,9 @@ public abstract class AbstractFileAuditLogHandler extends AuditLogHandler {
        file.setWritable(true, true);
     }
 
+    // Wrapper class to delay thread group creation until when it's needed.
+    private static class ThreadGroupHolder {
+        private static final ThreadGroup THREAD_GROUP = new ThreadGroup("audit-log-backup-compression");
+    }
+
 }
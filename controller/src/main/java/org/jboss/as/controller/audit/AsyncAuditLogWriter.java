@@ -0,0 +1,317 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.jboss.as.controller.audit;
+
+import static java.security.AccessController.doPrivileged;
+
+import java.security.PrivilegedAction;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.jboss.as.controller.logging.ControllerLogger;
+import org.jboss.threads.JBossThreadFactory;
+import org.wildfly.security.manager.WildFlySecurityManager;
+
+/**
+ * Writes the records of an {@link AuditLogHandler} on a thread of its own, so the audit lock of
+ * {@link ManagedAuditLoggerImpl} is only held to format a record and queue it, and not while the handler writes it.
+ * <p>
+ * The records are queued in a bounded queue, and written in batches by a thread started with the handler, which ends
+ * once the handler is {@link #shutdown(Runnable) shut down} and the records queued before have been written. What
+ * happens when the queue is full is set by the {@link ManagedAuditLoggerImpl#OVERFLOW_POLICY_PROPERTY} system property.
+ * Other work on the handler, such as stopping it or counting its failures, is queued along with the records so it is
+ * done by the same thread, once the records queued before it have been written. The thread does not keep the process
+ * alive, so the handlers are shut down when the controller stops, by {@link ManagedAuditLoggerImpl#shutdown()}, which
+ * waits a bounded time for the records still queued to be written.
+ */
+final class AsyncAuditLogWriter {
+
+    enum OverflowPolicy {
+        /** The logging thread waits for the queue to have room for the record */
+        BLOCK("block"),
+        /** The record is discarded */
+        DISCARD("discard");
+
+        private final String name;
+
+        OverflowPolicy(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+
+        static OverflowPolicy forName(String name) {
+            for (OverflowPolicy policy : values()) {
+                if (policy.name.equals(name.toLowerCase(Locale.ENGLISH))) {
+                    return policy;
+                }
+            }
+            ControllerLogger.MGMT_OP_LOGGER.invalidAuditLogOverflowPolicy(name, ManagedAuditLoggerImpl.OVERFLOW_POLICY_PROPERTY, BLOCK.name);
+            return BLOCK;
+        }
+    }
+
+    /** The default capacity of the queue of records of a handler */
+    static final int DEFAULT_QUEUE_SIZE = 1024;
+    /** The maximum number of records written by a handler in one batch */
+    static final int BATCH_SIZE = 64;
+
+    /** The number of records queued by all the writers */
+    static final AtomicInteger QUEUED = new AtomicInteger();
+    /** The number of records discarded by all the writers as their queue was full */
+    static final AtomicLong DISCARDED = new AtomicLong();
+    /** The number of records written by all the writers */
+    static final AtomicLong WRITTEN = new AtomicLong();
+    /** The time, in nanoseconds, spent by all the writers writing records */
+    static final AtomicLong WRITE_TIME = new AtomicLong();
+
+    private final AuditLogHandler handler;
+    private final int capacity;
+    private final OverflowPolicy policy;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    /** Guarded by lock - the formatted records and the other work to do on the handler */
+    private final ArrayDeque<Object> queue = new ArrayDeque<>();
+    /** Guarded by lock - the number of records in the queue */
+    private int records;
+    /** The thread writing the records */
+    private final Thread thread;
+    /** Guarded by lock - whether the handler has been shut down, so the thread ends once the queue is empty */
+    private boolean shutdown;
+    /** Guarded by lock - whether records were discarded since the queue was last full */
+    private boolean overflowed;
+
+    private AsyncAuditLogWriter(final AuditLogHandler handler, final int capacity, final OverflowPolicy policy) {
+        this.handler = handler;
+        this.capacity = capacity;
+        this.policy = policy;
+        this.thread = ThreadFactoryHolder.THREAD_FACTORY.newThread(this::run);
+    }
+
+    /**
+     * Creates and starts the writer of a handler being started, if asynchronous audit logging is enabled by the
+     * {@link ManagedAuditLoggerImpl#ASYNC_PROPERTY} system property.
+     *
+     * @param handler the handler
+     * @return the writer, or {@code null} if the handler writes records on the logging thread
+     */
+    static AsyncAuditLogWriter create(final AuditLogHandler handler) {
+        if (!Boolean.parseBoolean(WildFlySecurityManager.getPropertyPrivileged(ManagedAuditLoggerImpl.ASYNC_PROPERTY, "false"))) {
+            return null;
+        }
+        final OverflowPolicy policy = OverflowPolicy.forName(WildFlySecurityManager.getPropertyPrivileged(ManagedAuditLoggerImpl.OVERFLOW_POLICY_PROPERTY, OverflowPolicy.BLOCK.toString()));
+        final AsyncAuditLogWriter writer = new AsyncAuditLogWriter(handler, getQueueSize(), policy);
+        writer.thread.start();
+        return writer;
+    }
+
+    private static int getQueueSize() {
+        final String value = WildFlySecurityManager.getPropertyPrivileged(ManagedAuditLoggerImpl.QUEUE_SIZE_PROPERTY, String.valueOf(DEFAULT_QUEUE_SIZE));
+        try {
+            return Math.max(1, Integer.parseInt(value.trim()));
+        } catch (NumberFormatException e) {
+            ControllerLogger.ROOT_LOGGER.invalidSystemPropertyValue(value, ManagedAuditLoggerImpl.QUEUE_SIZE_PROPERTY, DEFAULT_QUEUE_SIZE);
+            return DEFAULT_QUEUE_SIZE;
+        }
+    }
+
+    /**
+     * Queues a formatted record to be written by the handler.
+     *
+     * @param formattedItem the record
+     */
+    void write(final String formattedItem) {
+        lock.lock();
+        try {
+            if (shutdown) {
+                // No longer a configured handler, so no longer logged to
+                return;
+            }
+            while (records >= capacity) {
+                if (policy == OverflowPolicy.DISCARD || Thread.currentThread() == thread) {
+                    discard();
+                    return;
+                }
+                try {
+                    notFull.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    discard();
+                    return;
+                }
+            }
+            overflowed = false;
+            records++;
+            QUEUED.incrementAndGet();
+            enqueue(formattedItem);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Queues work to be done on the handler once the records already queued have been written. The work is queued
+     * whether or not the queue is full.
+     *
+     * @param task the work
+     */
+    void execute(final Runnable task) {
+        lock.lock();
+        try {
+            enqueue(task);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Queues the last work to be done on the handler, once the records already queued have been written, after which
+     * the thread of the writer ends.
+     *
+     * @param task the work
+     */
+    void shutdown(final Runnable task) {
+        lock.lock();
+        try {
+            enqueue(task);
+            shutdown = true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits for the thread of a writer that has been shut down to end.
+     *
+     * @param timeout the maximum time to wait
+     * @param unit the unit of {@code timeout}
+     * @return {@code true} if the thread has ended, {@code false} if the time elapsed first
+     * @throws InterruptedException if interrupted while waiting
+     */
+    boolean awaitTermination(final long timeout, final TimeUnit unit) throws InterruptedException {
+        final long millis = unit.toMillis(timeout);
+        if (millis > 0) {
+            thread.join(millis);
+        }
+        return !thread.isAlive();
+    }
+
+    /**
+     * Gets the name of the handler whose records are written.
+     *
+     * @return the name
+     */
+    String getHandlerName() {
+        return handler.getName();
+    }
+
+    /** Guarded by lock */
+    private void enqueue(final Object work) {
+        queue.add(work);
+        notEmpty.signal();
+    }
+
+    /** Guarded by lock */
+    private void discard() {
+        DISCARDED.incrementAndGet();
+        if (!overflowed) {
+            overflowed = true;
+            ControllerLogger.MGMT_OP_LOGGER.auditLogQueueFull(handler.getName(), capacity);
+        }
+    }
+
+    private void run() {
+        final List<Object> batch = new ArrayList<>(BATCH_SIZE);
+        lock.lock();
+        try {
+            for (;;) {
+                while (queue.isEmpty()) {
+                    if (shutdown) {
+                        return;
+                    }
+                    try {
+                        notEmpty.await();
+                    } catch (InterruptedException e) {
+                        // Only ends once shut down, so no queued record is lost
+                    }
+                }
+                int taken = 0;
+                while (batch.size() < BATCH_SIZE && !queue.isEmpty()) {
+                    final Object work = queue.poll();
+                    if (work instanceof String) {
+                        taken++;
+                    }
+                    batch.add(work);
+                }
+                records -= taken;
+                notFull.signalAll();
+                lock.unlock();
+                try {
+                    process(batch);
+                } finally {
+                    batch.clear();
+                    lock.lock();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void process(final List<Object> batch) {
+        final List<String> formattedItems = new ArrayList<>(batch.size());
+        for (Object work : batch) {
+            if (work instanceof String) {
+                formattedItems.add((String) work);
+            } else {
+                write(formattedItems);
+                try {
+                    ((Runnable) work).run();
+                } catch (Throwable t) {
+                    ControllerLogger.MGMT_OP_LOGGER.logHandlerWriteFailed(t, handler.getName());
+                }
+            }
+        }
+        write(formattedItems);
+    }
+
+    private void write(final List<String> formattedItems) {
+        if (formattedItems.isEmpty()) {
+            return;
+        }
+        final long start = System.nanoTime();
+        try {
+            handler.writeLogItems(formattedItems);
+        } finally {
+            WRITE_TIME.addAndGet(System.nanoTime() - start);
+            WRITTEN.addAndGet(formattedItems.size());
+            QUEUED.addAndGet(-formattedItems.size());
+            formattedItems.clear();
+        }
+    }
+
+    // Wrapper class to delay thread group creation until when it's needed.
+    private static class ThreadFactoryHolder {
+        private static final ThreadFactory THREAD_FACTORY = doPrivileged(new PrivilegedAction<JBossThreadFactory>() {
+            public JBossThreadFactory run() {
+                return new JBossThreadFactory(new ThreadGroup("management-audit-log-writer"), Boolean.TRUE, null, "%G - %t", null, null);
+            }
+        });
+    }
+}
@@ -15,7 +15,11 @@ import org.jboss.as.controller.logging.ControllerLogger;
 import org.jboss.dmr.ModelNode;
 
 /**
- *  All methods on this class should be called with {@link ManagedAuditLoggerImpl}'s lock taken.
+ *  All methods on this class should be called with {@link ManagedAuditLoggerImpl}'s lock taken, except when the handler
+ *  has been {@link #start() started} with an {@link AsyncAuditLogWriter}. Then {@link #initialize()},
+ *  {@link #writeLogItem(String)}, {@link #flush()}, {@link #stop()} and the counting of failures are only called by the
+ *  thread of the writer, without the lock, and other changes to the state they use are made on that thread through
+ *  {@link #execute(Runnable)}.
  *
  * @author <a href="kabir.khan@jboss.com">Kabir Khan</a>
  */
@@ -25,13 +29,15 @@ abstract class AuditLogHandler {
     private volatile int maxFailureCount = 10;
 
     /** The number of consecutive failures writing to the log */
-    private int failureCount;
+    private volatile int failureCount;
 
 
     protected final String name;
     private volatile String formatterName;
     private final Set<PathAddress> references = new HashSet<PathAddress>();
     private AuditLogItemFormatter formatter;
+    /** Writes the records on a thread of its own, or {@code null} if they are written by the logging thread */
+    private AsyncAuditLogWriter asyncWriter;
 
     AuditLogHandler(String name, String formatterName, int maxFailureCount){
         this.name = name;
@@ -60,20 +66,143 @@ abstract class AuditLogHandler {
     }
 
     void writeLogItem(AuditLogItem item) {
+        if (asyncWriter != null) {
+            String formattedItem;
+            try {
+                formattedItem = item.format(formatter);
+            } catch (Throwable t) {
+                asyncWriter.execute(() -> getFailureCountHandler().failure(t));
+                return;
+            }
+            asyncWriter.write(formattedItem);
+            return;
+        }
         FailureCountHandler fch = getFailureCountHandler();
         try {
             initialize();
             String formattedItem = item.format(formatter);
             writeLogItem(formattedItem);
+            flush();
             fch.success();
         } catch (Throwable t) {
             fch.failure(t);
         }
     }
 
+    /**
+     * Writes records formatted by the logging thread. Called by the thread of the {@link AsyncAuditLogWriter}.
+     *
+     * @param formattedItems the records
+     */
+    void writeLogItems(List<String> formattedItems) {
+        for (String formattedItem : formattedItems) {
+            if (!isActive()) {
+                // Disabled while the records were queued, so they are not written, as when written synchronously
+                break;
+            }
+            FailureCountHandler fch = getFailureCountHandler();
+            try {
+                initialize();
+                writeLogItem(formattedItem);
+                fch.success();
+            } catch (Throwable t) {
+                fch.failure(t);
+            }
+        }
+        try {
+            flush();
+        } catch (Throwable t) {
+            getFailureCountHandler().failure(t);
+        }
+    }
+
+    /**
+     * Gets whether the records may be written by a thread other than the logging thread, if audit logging is
+     * asynchronous.
+     *
+     * @return {@code true} if the records may be written asynchronously
+     */
+    boolean isAsynchronous() {
+        return true;
+    }
+
+    /**
+     * Starts the handler once it is configured, so its records are written on a thread of its own if audit logging is
+     * asynchronous.
+     */
+    void start() {
+        if (asyncWriter == null && isAsynchronous()) {
+            asyncWriter = AsyncAuditLogWriter.create(this);
+        }
+    }
+
+    /**
+     * Does work on the handler once the records already logged have been written, on the thread writing them.
+     *
+     * @param task the work
+     */
+    void execute(Runnable task) {
+        if (asyncWriter != null) {
+            asyncWriter.execute(task);
+        } else {
+            task.run();
+        }
+    }
+
+    /**
+     * Stops the handler, no longer configured, once the records already logged have been written, and ends the thread
+     * writing them.
+     */
+    void shutdown() {
+        if (asyncWriter != null) {
+            asyncWriter.shutdown(this::stop);
+            asyncWriter = null;
+        } else {
+            stop();
+        }
+    }
+
+    /**
+     * Stops the handler when the process stops, once the records already logged have been written and
+     * {@link #drain(long) drained}, and ends the thread writing them.
+     *
+     * @param deadline the {@link System#nanoTime()} by which the records should have been written
+     * @return the writer whose thread writes the records, for the caller to await its end, or {@code null} if the
+     *         handler has already been stopped
+     */
+    AsyncAuditLogWriter shutdown(long deadline) {
+        final Runnable task = () -> {
+            try {
+                drain(deadline);
+            } finally {
+                stop();
+            }
+        };
+        final AsyncAuditLogWriter asyncWriter = this.asyncWriter;
+        if (asyncWriter != null) {
+            asyncWriter.shutdown(task);
+            this.asyncWriter = null;
+        } else {
+            task.run();
+        }
+        return asyncWriter;
+    }
+
+    /**
+     * Makes sure the records written, and flushed, reach their destination before the process stops, if the handler
+     * keeps them in a buffer of its own once flushed. Called when the handler is {@link #shutdown(long) shut down},
+     * before it is stopped. This implementation does nothing.
+     *
+     * @param deadline the {@link System#nanoTime()} after which the handler should not wait for the records to be sent
+     */
+    void drain(long deadline) {
+    }
+
     void recycle() {
-        this.failureCount = 0;
-        stop();
+        execute(() -> {
+            this.failureCount = 0;
+            stop();
+        });
     }
 
     boolean isActive() {
@@ -95,7 +224,8 @@ abstract class AuditLogHandler {
     void removeReference(PathAddress address){
         references.remove(address);
         if (references.isEmpty()){
-            stop();
+            // Still configured, so it may be referenced again
+            execute(this::stop);
         }
     }
 
@@ -107,6 +237,10 @@ abstract class AuditLogHandler {
         return failureCount;
     }
 
+    AsyncAuditLogWriter getAsyncWriter() {
+        return asyncWriter;
+    }
+
     FailureCountHandler getFailureCountHandler() {
         return new StandardFailureCountHandler();
     }
@@ -116,6 +250,14 @@ abstract class AuditLogHandler {
     abstract void stop();
     abstract void writeLogItem(String formattedItem) throws IOException;
 
+    /**
+     * Completes the writing of the records passed to {@link #writeLogItem(String)}, if they are buffered.
+     *
+     * @throws IOException if the records could not be written
+     */
+    void flush() throws IOException {
+    }
+
     List<ModelNode> listLastEntries() {
         return Collections.emptyList();
     }
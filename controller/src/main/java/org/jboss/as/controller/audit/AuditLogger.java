@@ -162,6 +162,10 @@ public interface AuditLogger {
         public void startBoot() {
         }
 
+        @Override
+        public void shutdown() {
+        }
+
         @Override
         public void updateSyslogHandlerFacility(String name, Facility facility) {
         }
@@ -0,0 +1,223 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.jboss.as.controller.audit;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+
+import org.jboss.as.controller.logging.ControllerLogger;
+import org.wildfly.security.manager.WildFlySecurityManager;
+
+/**
+ * Writes the records of an {@link AbstractFileAuditLogHandler} to its file. The records are encoded into a direct
+ * buffer, which is written to the file when it is full and when the handler is flushed, so the records written
+ * together, such as a batch of records written by an {@link AsyncAuditLogWriter}, are written with one channel.
+ * How often the file is then synced to the storage device is set by the
+ * {@link AbstractFileAuditLogHandler#SYNC_POLICY_PROPERTY} system property.
+ * <p>
+ * The file is only open while the buffered records are written, so the file may be moved, or deleted, between
+ * writes.
+ */
+final class BufferedAuditLogFileWriter {
+
+    enum SyncPolicy {
+        /** The file is synced each time the handler is flushed */
+        ALWAYS("always"),
+        /** The file is synced when the handler is flushed, if it was last synced longer than the sync interval ago */
+        INTERVAL("interval"),
+        /** The file is never synced, which is left to the operating system */
+        NEVER("never");
+
+        private final String name;
+
+        SyncPolicy(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+
+        static SyncPolicy forName(String name) {
+            for (SyncPolicy policy : values()) {
+                if (policy.name.equals(name.toLowerCase(Locale.ENGLISH))) {
+                    return policy;
+                }
+            }
+            ControllerLogger.MGMT_OP_LOGGER.invalidAuditLogSyncPolicy(name, AbstractFileAuditLogHandler.SYNC_POLICY_PROPERTY, ALWAYS.name);
+            return ALWAYS;
+        }
+    }
+
+    /** The default size, in bytes, of the buffer */
+    static final int DEFAULT_BUFFER_SIZE = 8192;
+    /** The default time, in milliseconds, between two syncs of the file with the {@link SyncPolicy#INTERVAL} policy */
+    static final int DEFAULT_SYNC_INTERVAL = 1000;
+
+    private static final byte[] LINE_TERMINATOR = AbstractFileAuditLogHandler.LINE_TERMINATOR;
+
+    private final int bufferSize;
+    private final SyncPolicy syncPolicy;
+    private final long syncInterval;
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+    private ByteBuffer buffer;
+    private FileChannel channel;
+    private File file;
+    private long lastSync;
+    /** The file last written without being synced, if any */
+    private File unsynced;
+
+    BufferedAuditLogFileWriter(final int bufferSize, final SyncPolicy syncPolicy, final long syncInterval) {
+        this.bufferSize = bufferSize;
+        this.syncPolicy = syncPolicy;
+        this.syncInterval = syncInterval;
+    }
+
+    /**
+     * Creates a writer configured by the {@link AbstractFileAuditLogHandler#BUFFER_SIZE_PROPERTY},
+     * {@link AbstractFileAuditLogHandler#SYNC_POLICY_PROPERTY} and
+     * {@link AbstractFileAuditLogHandler#SYNC_INTERVAL_PROPERTY} system properties.
+     *
+     * @return the writer
+     */
+    static BufferedAuditLogFileWriter create() {
+        final SyncPolicy syncPolicy = SyncPolicy.forName(WildFlySecurityManager.getPropertyPrivileged(AbstractFileAuditLogHandler.SYNC_POLICY_PROPERTY, SyncPolicy.ALWAYS.toString()));
+        return new BufferedAuditLogFileWriter(getIntProperty(AbstractFileAuditLogHandler.BUFFER_SIZE_PROPERTY, DEFAULT_BUFFER_SIZE, 64),
+                syncPolicy, getIntProperty(AbstractFileAuditLogHandler.SYNC_INTERVAL_PROPERTY, DEFAULT_SYNC_INTERVAL, 0));
+    }
+
+    private static int getIntProperty(final String name, final int defaultValue, final int minimum) {
+        final String value = WildFlySecurityManager.getPropertyPrivileged(name, String.valueOf(defaultValue));
+        try {
+            return Math.max(minimum, Integer.parseInt(value.trim()));
+        } catch (NumberFormatException e) {
+            ControllerLogger.ROOT_LOGGER.invalidSystemPropertyValue(value, name, defaultValue);
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Buffers a record, followed by a line terminator, writing the buffer to the file if it fills up.
+     *
+     * @param file the file the record is written to
+     * @param formattedItem the record
+     * @return the number of bytes of the record, including the line terminator
+     * @throws IOException if the buffer could not be written
+     */
+    int write(final File file, final String formattedItem) throws IOException {
+        if (this.file != null && !this.file.equals(file)) {
+            flush();
+        }
+        this.file = file;
+        if (buffer == null) {
+            buffer = ByteBuffer.allocateDirect(bufferSize);
+        }
+        int size = 0;
+        final CharBuffer chars = CharBuffer.wrap(formattedItem);
+        try {
+            CoderResult result;
+            do {
+                final int start = buffer.position();
+                result = encoder.encode(chars, buffer, true);
+                if (result.isUnderflow()) {
+                    result = encoder.flush(buffer);
+                }
+                size += buffer.position() - start;
+                if (result.isOverflow()) {
+                    drain();
+                }
+            } while (result.isOverflow());
+        } finally {
+            encoder.reset();
+        }
+        if (buffer.remaining() < LINE_TERMINATOR.length) {
+            drain();
+        }
+        buffer.put(LINE_TERMINATOR);
+        return size + LINE_TERMINATOR.length;
+    }
+
+    /**
+     * Writes the buffered records to the file, and syncs it following the sync policy.
+     *
+     * @throws IOException if the records could not be written. They are discarded
+     */
+    void flush() throws IOException {
+        if (file == null) {
+            return;
+        }
+        try {
+            drain();
+            if (channel != null) {
+                final long now = System.currentTimeMillis();
+                if (syncPolicy == SyncPolicy.ALWAYS || (syncPolicy == SyncPolicy.INTERVAL && now - lastSync >= syncInterval)) {
+                    channel.force(false);
+                    lastSync = now;
+                    unsynced = null;
+                } else {
+                    unsynced = file;
+                }
+            }
+        } finally {
+            if (buffer != null) {
+                buffer.clear();
+            }
+            file = null;
+            final FileChannel channel = this.channel;
+            this.channel = null;
+            if (channel != null) {
+                channel.close();
+            }
+        }
+    }
+
+    /**
+     * Writes the buffered records to the file, and syncs the file last written whatever the sync policy, so the
+     * records reach the storage device before the process stops.
+     *
+     * @throws IOException if the records could not be written or the file synced
+     */
+    void sync() throws IOException {
+        flush();
+        final File unsynced = this.unsynced;
+        this.unsynced = null;
+        // Unless it has been rotated since
+        if (unsynced != null && unsynced.exists()) {
+            try (FileChannel channel = FileChannel.open(unsynced.toPath(), StandardOpenOption.WRITE)) {
+                channel.force(false);
+            }
+        }
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        try {
+            if (buffer.hasRemaining()) {
+                if (channel == null) {
+                    channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+                }
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+        } finally {
+            buffer.clear();
+        }
+    }
+}
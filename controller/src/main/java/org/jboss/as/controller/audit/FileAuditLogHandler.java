@@ -37,7 +37,7 @@ public class FileAuditLogHandler extends AbstractFileAuditLogHandler {
         if (file.exists() && rotateAtStartup) {
             final File backup = new File(file.getParentFile(), file.getName() + OLD_FILE_FORMATTER.format(new Date()));
             try {
-                rename(file, backup);
+                backUp(file, backup);
             } catch (IOException e) {
                 throw ControllerLogger.ROOT_LOGGER.couldNotBackUp(e, file.getAbsolutePath(), backup.getAbsolutePath());
             }
@@ -88,6 +88,12 @@ public final class InMemoryAuditLogHandler extends AuditLogHandler {
         items.add(item);
     }
 
+    @Override
+    boolean isAsynchronous() {
+        // The records are kept by the formatter, on the logging thread
+        return false;
+    }
+
     @Override
     void initialize() {
     }
@@ -191,6 +191,12 @@ public interface ManagedAuditLogger extends AuditLogger {
      */
     void bootDone();
 
+    /**
+     * Callback for the controller to call when the controller stops, which stops the handlers once the records
+     * already logged have been written, waiting a bounded time for them to be
+     */
+    void shutdown();
+
     /**
      * <p>The audit log handler updater. Additive changes will be used for the audit log record as a result of
      * management operations causing updates here. Removals and updates will not take effect until the current audit log
@@ -14,6 +14,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
@@ -33,9 +34,28 @@ import org.jboss.dmr.ModelNode;
  * @author Kabir Khan
  */
 public class ManagedAuditLoggerImpl implements ManagedAuditLogger, ManagedAuditLogger.AuditLogHandlerUpdater {
+
+    /**
+     * System property that, when {@code true}, has the file and syslog handlers write their records on threads of
+     * their own, so the management operations being logged do not wait for the records to be written
+     */
+    public static final String ASYNC_PROPERTY = "org.wildfly.management.audit-log-async";
+
+    /** System property setting the number of records each handler may have waiting to be written, if asynchronous */
+    public static final String QUEUE_SIZE_PROPERTY = "org.wildfly.management.audit-log-queue-size";
+
+    /**
+     * System property setting what happens when a record is logged while the queue of a handler is full: {@code block}
+     * (the default) waits for the queue to have room, and {@code discard} discards the record
+     */
+    public static final String OVERFLOW_POLICY_PROPERTY = "org.wildfly.management.audit-log-overflow-policy";
+
     /** Maximum number of consecutive logging failures before we stop logging */
     private static final short MAX_FAILURE_COUNT = 10;
 
+    /** The maximum time, in seconds, the controller waits for the handlers to write their records when it stops */
+    private static final long SHUTDOWN_TIMEOUT = 5;
+
     private final List<ManagedAuditLoggerImpl> childImpls;
 
     /** If we are the core audit logger, list the children */
@@ -263,6 +283,42 @@ public class ManagedAuditLoggerImpl implements ManagedAuditLogger, ManagedAuditL
         }
     }
 
+    /**
+     * Gets the number of records waiting to be written by the handlers, if audit logging is asynchronous.
+     *
+     * @return the number of records
+     */
+    public static int getQueuedRecordCount() {
+        return AsyncAuditLogWriter.QUEUED.get();
+    }
+
+    /**
+     * Gets the number of records discarded as the queue of their handler was full.
+     *
+     * @return the number of records
+     */
+    public static long getDiscardedRecordCount() {
+        return AsyncAuditLogWriter.DISCARDED.get();
+    }
+
+    /**
+     * Gets the number of records written by the handlers, if audit logging is asynchronous.
+     *
+     * @return the number of records
+     */
+    public static long getWrittenRecordCount() {
+        return AsyncAuditLogWriter.WRITTEN.get();
+    }
+
+    /**
+     * Gets the time, in nanoseconds, spent by the handlers writing records, if audit logging is asynchronous.
+     *
+     * @return the time
+     */
+    public static long getRecordWriteTime() {
+        return AsyncAuditLogWriter.WRITE_TIME.get();
+    }
+
     public AuditLogHandlerUpdater getUpdater() {
         return this;
     }
@@ -437,7 +493,7 @@ public class ManagedAuditLoggerImpl implements ManagedAuditLogger, ManagedAuditL
         config.lock();
         try {
             SyslogAuditLogHandler handler = (SyslogAuditLogHandler)config.getConfiguredHandler(name);
-            handler.setFacility(facility);
+            handler.execute(() -> handler.setFacility(facility));
         } finally {
             config.unlock();
         }
@@ -448,7 +504,7 @@ public class ManagedAuditLoggerImpl implements ManagedAuditLogger, ManagedAuditL
         config.lock();
         try {
             SyslogAuditLogHandler handler = (SyslogAuditLogHandler)config.getConfiguredHandler(name);
-            handler.setAppName(appName);
+            handler.execute(() -> handler.setAppName(appName));
         } finally {
             config.unlock();
         }
@@ -819,11 +875,16 @@ public class ManagedAuditLoggerImpl implements ManagedAuditLogger, ManagedAuditL
             if (addedHandlers == null){
                 addedHandlers = new HashMap<String, AuditLogHandler>();
             }
-            addedHandlers.put(handler.getName(), handler);
+            AuditLogHandler previous = addedHandlers.put(handler.getName(), handler);
+            if (previous != null && previous != handler) {
+                // Replaced within the same operation, so never applied
+                previous.shutdown();
+            }
 
             //Update the 'live' handlers with the addition
             config.putConfiguredHandler(handler);
             handler.setFormatter(config.getFormatter(handler.getFormatterName()));
+            handler.start();
         }
 
         void replaceHandler(AuditLogHandler handler){
@@ -911,6 +972,7 @@ public class ManagedAuditLoggerImpl implements ManagedAuditLogger, ManagedAuditL
             if (addedHandlers != null && addedHandlers.size() > 0){
                 for (AuditLogHandler handler : addedHandlers.values()){
                     config.removeConfiguredHandler(handler.getName());
+                    handler.shutdown();
                 }
             }
         }
@@ -920,7 +982,7 @@ public class ManagedAuditLoggerImpl implements ManagedAuditLogger, ManagedAuditL
                 for (String name : removedHandlers) {
                     AuditLogHandler handler = config.removeConfiguredHandler(name);
                     if (handler != null){
-                        handler.stop();
+                        handler.shutdown();
                     }
                 }
             }
@@ -928,7 +990,7 @@ public class ManagedAuditLoggerImpl implements ManagedAuditLogger, ManagedAuditL
                 for (AuditLogHandler handler : replacedHandlers.values()) {
                     AuditLogHandler existing = config.removeConfiguredHandler(handler.getName());
                     if (existing != null) {
-                        existing.stop();
+                        existing.shutdown();
                         // Update the references for the replaced one
                         for (PathAddress referenceAddress : existing.getReferences()) {
                             if (removedReferences != null && !removedReferences.contains(referenceAddress)) {
@@ -938,6 +1000,7 @@ public class ManagedAuditLoggerImpl implements ManagedAuditLogger, ManagedAuditL
                     }
                     config.putConfiguredHandler(handler);
                     handler.setFormatter(config.getFormatter(handler.getFormatterName()));
+                    handler.start();
                 }
             }
             if (removedReferences != null && !removedReferences.isEmpty()){
@@ -974,6 +1037,37 @@ public class ManagedAuditLoggerImpl implements ManagedAuditLogger, ManagedAuditL
     }
 
 
+    @Override
+    public void shutdown() {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(SHUTDOWN_TIMEOUT);
+        final List<AsyncAuditLogWriter> writers = new ArrayList<>();
+        config.lock();
+        try {
+            if (!config.isCore()) {
+                // The handlers are those of the core configuration
+                return;
+            }
+            for (AuditLogHandler handler : config.sharedConfiguration.getConfiguredHandlers().values()) {
+                final AsyncAuditLogWriter writer = handler.shutdown(deadline);
+                if (writer != null) {
+                    writers.add(writer);
+                }
+            }
+        } finally {
+            config.unlock();
+        }
+        // Wait without the lock, which the writers do not need to write the records
+        try {
+            for (AsyncAuditLogWriter writer : writers) {
+                if (!writer.awaitTermination(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                    ControllerLogger.MGMT_OP_LOGGER.auditLogHandlerNotDrained(writer.getHandlerName());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
     @Override
     public void startBoot() {
         config.lock();
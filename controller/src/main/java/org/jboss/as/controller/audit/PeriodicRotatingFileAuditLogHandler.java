@@ -90,9 +90,10 @@ public class PeriodicRotatingFileAuditLogHandler extends AbstractFileAuditLogHan
     }
 
     private void rollOver(final File file) {
+        flushBeforeRotation();
         final File backup = new File(file.getParentFile(), file.getName() + nextSuffix);
         try {
-            rename(file, backup);
+            backUp(file, backup);
         } catch (IOException e) {
             throw ControllerLogger.ROOT_LOGGER.couldNotBackUp(e, file.getAbsolutePath(), backup.getAbsolutePath());
         }
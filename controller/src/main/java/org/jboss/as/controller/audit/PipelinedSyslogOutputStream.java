@@ -0,0 +1,352 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.jboss.as.controller.audit;
+
+import static java.security.AccessController.doPrivileged;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.security.PrivilegedAction;
+import java.util.Arrays;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.net.SocketFactory;
+
+import org.jboss.as.controller.logging.ControllerLogger;
+import org.jboss.threads.JBossThreadFactory;
+
+/**
+ * The TCP or TLS connection of a {@link SyslogAuditLogHandler} whose frames are pipelined. The frames written by the
+ * syslog handler are kept in a bounded send buffer, and sent together in one write when the audit log handler is
+ * flushed, so a batch of records written by an {@link AsyncAuditLogWriter} is sent at once.
+ * <p>
+ * The connection is kept open between writes, and is established, and re-established after a failure to send, by a
+ * thread of its own, so neither the logging thread nor the writer thread waits for the syslog server. The frames
+ * written in the meantime are kept in the send buffer until they can be sent, and a frame is only rejected if the
+ * send buffer is full.
+ * <p>
+ * The buffered frames are written one after the other, so that if the connection fails only the frames not yet
+ * written are kept. The frame being written when it failed is kept whole, and sent again from its start once connected
+ * again, as the syslog server discards what it received of it with the broken connection.
+ */
+final class PipelinedSyslogOutputStream extends OutputStream {
+
+    /** The default size, in bytes, of the send buffer */
+    static final int DEFAULT_BUFFER_SIZE = 65536;
+    /** The time, in milliseconds, waited for before the first attempt to connect again */
+    private static final long MIN_RECONNECT_DELAY = 100;
+    /** The maximum time, in milliseconds, waited for between two attempts to connect */
+    private static final long MAX_RECONNECT_DELAY = 30000;
+
+    /** The number of writes to the connections of all the handlers */
+    static final AtomicLong SENDS = new AtomicLong();
+    /** The time, in nanoseconds, spent writing to the connections of all the handlers */
+    static final AtomicLong SEND_TIME = new AtomicLong();
+    /** The number of frames in the send buffers of all the handlers */
+    static final AtomicInteger BACKLOG = new AtomicInteger();
+
+    private final String name;
+    private final SocketFactory socketFactory;
+    private final InetAddress address;
+    private final int port;
+
+    /** Guarded by this - the frames not yet sent */
+    private final byte[] buffer;
+    /** Guarded by this - the number of bytes in the buffer */
+    private int count;
+    /** Guarded by this - the number of frames in the buffer */
+    private int frames;
+    /** Guarded by this - the offset in the buffer of the end of each frame */
+    private int[] frameEnds = new int[64];
+    /** Guarded by this */
+    private Socket socket;
+    /** Guarded by this */
+    private OutputStream output;
+    /** Guarded by this - the thread establishing the connection, if running */
+    private Thread connector;
+    /** Guarded by this */
+    private boolean closed;
+
+    PipelinedSyslogOutputStream(final String name, final SocketFactory socketFactory, final InetAddress address, final int port, final int bufferSize) {
+        this.name = name;
+        this.socketFactory = socketFactory;
+        this.address = address;
+        this.port = port;
+        this.buffer = new byte[bufferSize];
+        synchronized (this) {
+            connect();
+        }
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+        write(new byte[] {(byte) b}, 0, 1);
+    }
+
+    /**
+     * Buffers a frame. The syslog handler writes each frame with one call.
+     */
+    @Override
+    public synchronized void write(final byte[] b, final int off, final int len) throws IOException {
+        if (closed) {
+            throw ControllerLogger.MGMT_OP_LOGGER.syslogConnectionClosed(name);
+        }
+        if (len > buffer.length - count && output != null) {
+            if (trySendBuffered() && len > buffer.length) {
+                // Too large to be buffered, so sent right away
+                send(b, off, len);
+                SENDS.incrementAndGet();
+                return;
+            }
+        }
+        if (len > buffer.length - count) {
+            throw ControllerLogger.MGMT_OP_LOGGER.syslogSendBufferFull(name, buffer.length);
+        }
+        System.arraycopy(b, off, buffer, count, len);
+        count += len;
+        if (frames == frameEnds.length) {
+            frameEnds = Arrays.copyOf(frameEnds, frames * 2);
+        }
+        frameEnds[frames++] = count;
+        BACKLOG.incrementAndGet();
+    }
+
+    /**
+     * Does nothing, as the syslog handler flushes its output after each frame. The frames are sent by {@link #send()}.
+     */
+    @Override
+    public void flush() {
+    }
+
+    /**
+     * Sends the buffered frames, if connected. Otherwise they are sent once the connection is established. A failure
+     * to send is not reported to the caller: the frames not yet sent are kept, and sent once the connection has been
+     * re-established in the background.
+     */
+    synchronized void send() {
+        if (output != null) {
+            trySendBuffered();
+        }
+    }
+
+    /**
+     * Sends the buffered frames, waiting for the connection to be established, or re-established, if need be.
+     *
+     * @param deadline the {@link System#nanoTime()} after which the frames are no longer waited for
+     * @return {@code true} if all the frames were sent, {@code false} if some are still waiting to be
+     */
+    synchronized boolean awaitSent(final long deadline) {
+        while (frames > 0 && !closed) {
+            if (output != null && trySendBuffered()) {
+                continue;
+            }
+            final long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (remaining <= 0) {
+                break;
+            }
+            try {
+                // Woken once connected
+                wait(remaining);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return frames == 0;
+    }
+
+    /**
+     * Gets the number of frames waiting to be sent.
+     *
+     * @return the number of frames
+     */
+    synchronized int getBacklog() {
+        return frames;
+    }
+
+    /**
+     * Sends the buffered frames, if connected, and closes the connection.
+     */
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        if (output != null) {
+            try {
+                sendBuffered();
+            } catch (IOException e) {
+                // sendBuffered() disconnected, and the frames are discarded below
+            }
+        }
+        closed = true;
+        BACKLOG.addAndGet(-frames);
+        count = 0;
+        frames = 0;
+        disconnect();
+        if (connector != null) {
+            connector.interrupt();
+        }
+    }
+
+    /**
+     * Guarded by this - sends the buffered frames, logging a failure to send.
+     *
+     * @return {@code true} if the frames were sent, {@code false} if they are kept until connected again
+     */
+    private boolean trySendBuffered() {
+        try {
+            sendBuffered();
+            return true;
+        } catch (IOException e) {
+            ControllerLogger.MGMT_OP_LOGGER.syslogSendFailed(e, name, frames);
+            return false;
+        }
+    }
+
+    /** Guarded by this */
+    private void sendBuffered() throws IOException {
+        if (count == 0) {
+            return;
+        }
+        final long start = System.nanoTime();
+        int sent = 0;
+        int offset = 0;
+        try {
+            while (sent < frames) {
+                output.write(buffer, offset, frameEnds[sent] - offset);
+                offset = frameEnds[sent++];
+            }
+            output.flush();
+            SENDS.incrementAndGet();
+        } catch (IOException e) {
+            disconnect();
+            connect();
+            throw e;
+        } finally {
+            SEND_TIME.addAndGet(System.nanoTime() - start);
+            removeSent(sent, offset);
+        }
+    }
+
+    /** Guarded by this - removes the frames written from the buffer */
+    private void removeSent(final int sent, final int offset) {
+        if (sent == 0) {
+            return;
+        }
+        System.arraycopy(buffer, offset, buffer, 0, count - offset);
+        count -= offset;
+        frames -= sent;
+        for (int i = 0; i < frames; i++) {
+            frameEnds[i] = frameEnds[i + sent] - offset;
+        }
+        BACKLOG.addAndGet(-sent);
+    }
+
+    /** Guarded by this */
+    private void send(final byte[] b, final int off, final int len) throws IOException {
+        final long start = System.nanoTime();
+        try {
+            output.write(b, off, len);
+            output.flush();
+        } catch (IOException e) {
+            disconnect();
+            connect();
+            throw e;
+        } finally {
+            SEND_TIME.addAndGet(System.nanoTime() - start);
+        }
+    }
+
+    /** Guarded by this */
+    private void disconnect() {
+        final Socket socket = this.socket;
+        this.socket = null;
+        output = null;
+        if (socket != null) {
+            try {
+                socket.close();
+            } catch (IOException ignore) {
+            }
+        }
+    }
+
+    /** Guarded by this */
+    private void connect() {
+        if (connector == null && !closed) {
+            connector = ThreadFactoryHolder.THREAD_FACTORY.newThread(this::establishConnection);
+            connector.start();
+        }
+    }
+
+    private void establishConnection() {
+        long delay = MIN_RECONNECT_DELAY;
+        boolean logged = false;
+        for (;;) {
+            Socket socket = null;
+            try {
+                socket = socketFactory.createSocket(address, port);
+                final OutputStream output = socket.getOutputStream();
+                synchronized (this) {
+                    connector = null;
+                    if (closed) {
+                        socket.close();
+                        return;
+                    }
+                    this.socket = socket;
+                    this.output = output;
+                    if (logged) {
+                        ControllerLogger.MGMT_OP_LOGGER.syslogReconnected(name, frames);
+                    }
+                    try {
+                        sendBuffered();
+                    } catch (IOException e) {
+                        // sendBuffered() started connecting again
+                    }
+                    notifyAll();
+                    return;
+                }
+            } catch (IOException e) {
+                if (socket != null) {
+                    try {
+                        socket.close();
+                    } catch (IOException ignore) {
+                    }
+                }
+                if (!logged) {
+                    ControllerLogger.MGMT_OP_LOGGER.syslogConnectionFailed(e, name);
+                    logged = true;
+                }
+            }
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                // Interrupted when closed
+            }
+            synchronized (this) {
+                if (closed) {
+                    connector = null;
+                    return;
+                }
+            }
+            delay = Math.min(delay * 2, MAX_RECONNECT_DELAY);
+        }
+    }
+
+    // Wrapper class to delay thread group creation until when it's needed.
+    private static class ThreadFactoryHolder {
+        private static final ThreadFactory THREAD_FACTORY = doPrivileged(new PrivilegedAction<JBossThreadFactory>() {
+            public JBossThreadFactory run() {
+                return new JBossThreadFactory(new ThreadGroup("management-syslog-connector"), Boolean.TRUE, null, "%G - %t", null, null);
+            }
+        });
+    }
+}
@@ -9,7 +9,6 @@ import org.jboss.as.controller.services.path.PathManagerService;
 
 import java.io.File;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
 
 /**
  *  All methods on this class should be called with {@link org.jboss.as.controller.audit.ManagedAuditLoggerImpl}'s lock taken.
@@ -38,21 +37,20 @@ public class SizeRotatingFileAuditLogHandler extends AbstractFileAuditLogHandler
     protected void rotateLogFile(final File file) {
         if (currentSize > this.rotateSize) {
             // rotate
+            flushBeforeRotation();
             if (maxBackupIndex > 0) {
+                // the backups are renamed, so wait for the last one to be compressed under its current name
+                awaitBackupCompression();
                 // first, drop the max file (if any), then move each file to the next higher slot.
                 new File(file.getAbsolutePath() + "." + maxBackupIndex).delete();
+                new File(file.getAbsolutePath() + "." + maxBackupIndex + COMPRESSED_SUFFIX).delete();
                 for (int i = maxBackupIndex - 1; i >= 1; i--) {
-                    final File from = new File(file.getAbsolutePath() + "." + i);
-                    final File to = new File(file.getAbsolutePath() + "." + (i + 1));
-                    try {
-                        rename(from, to);
-                    } catch (IOException e) {
-                        throw ControllerLogger.ROOT_LOGGER.couldNotBackUp(e, from.getAbsolutePath(), to.getAbsolutePath());
-                    }
+                    backUp(file, i, "");
+                    backUp(file, i, COMPRESSED_SUFFIX);
                 }
                 final File backup = new File(file.getAbsolutePath() + ".1");
                 try {
-                    rename(file, backup);
+                    backUp(file, backup);
                 } catch (IOException e) {
                     throw ControllerLogger.ROOT_LOGGER.couldNotBackUp(e, file.getAbsolutePath(), backup.getAbsolutePath());
                 }
@@ -66,11 +64,19 @@ public class SizeRotatingFileAuditLogHandler extends AbstractFileAuditLogHandler
         }
     }
 
+    private void backUp(final File file, final int index, final String suffix) {
+        final File from = new File(file.getAbsolutePath() + "." + index + suffix);
+        final File to = new File(file.getAbsolutePath() + "." + (index + 1) + suffix);
+        try {
+            rename(from, to);
+        } catch (IOException e) {
+            throw ControllerLogger.ROOT_LOGGER.couldNotBackUp(e, from.getAbsolutePath(), to.getAbsolutePath());
+        }
+    }
+
     @Override
-    void writeLogItem(String formattedItem) throws IOException {
-        super.writeLogItem(formattedItem);
-        currentSize += formattedItem.getBytes(StandardCharsets.UTF_8).length;
-        currentSize += LINE_TERMINATOR.length;
+    protected void itemWritten(int size) {
+        currentSize += size;
     }
 
     @Override
@@ -29,6 +29,7 @@ import org.jboss.logmanager.handlers.SyslogHandler.SyslogType;
 import org.jboss.logmanager.handlers.TcpOutputStream;
 import org.wildfly.common.function.ExceptionSupplier;
 import org.wildfly.security.credential.source.CredentialSource;
+import org.wildfly.security.manager.WildFlySecurityManager;
 import org.wildfly.security.password.interfaces.ClearPassword;
 import org.xnio.IoUtils;
 
@@ -38,6 +39,15 @@ import org.xnio.IoUtils;
  */
 public class SyslogAuditLogHandler extends AuditLogHandler {
 
+    /**
+     * System property that, when {@code true}, has the TCP and TLS handlers keep their frames in a send buffer and
+     * send them together, over a connection established in the background
+     */
+    public static final String PIPELINING_PROPERTY = "org.wildfly.management.audit-log-syslog-pipelining";
+
+    /** System property setting the size, in bytes, of the send buffer of the pipelined handlers */
+    public static final String SEND_BUFFER_SIZE_PROPERTY = "org.wildfly.management.audit-log-syslog-send-buffer-size";
+
     private final PathManagerService pathManager;
 
     private volatile SyslogHandler handler;
@@ -60,6 +70,7 @@ public class SyslogAuditLogHandler extends AuditLogHandler {
     private volatile String tlsClientCertStorePassword;
     private volatile String tlsClientCertStoreKeyPassword;
     private volatile TransportErrorManager errorManager;
+    private volatile PipelinedSyslogOutputStream pipeline;
     private volatile int reconnectTimeout = -1;
     private volatile long lastErrorTime = -1;
     // This should be guarded by the config lock in the ManagedAuditLoggerImpl
@@ -76,6 +87,33 @@ public class SyslogAuditLogHandler extends AuditLogHandler {
         connected = false;
     }
 
+    /**
+     * Gets the number of writes to the connections of the pipelined handlers.
+     *
+     * @return the number of writes
+     */
+    public static long getPipelinedSendCount() {
+        return PipelinedSyslogOutputStream.SENDS.get();
+    }
+
+    /**
+     * Gets the time, in nanoseconds, spent writing to the connections of the pipelined handlers.
+     *
+     * @return the time
+     */
+    public static long getPipelinedSendTime() {
+        return PipelinedSyslogOutputStream.SEND_TIME.get();
+    }
+
+    /**
+     * Gets the number of frames waiting in the send buffers of the pipelined handlers.
+     *
+     * @return the number of frames
+     */
+    public static int getPipelinedBacklog() {
+        return PipelinedSyslogOutputStream.BACKLOG.get();
+    }
+
     public void setHostName(String hostName) {
         assert hostName != null;
         this.hostName = hostName;
@@ -281,7 +319,15 @@ public class SyslogAuditLogHandler extends AuditLogHandler {
 
                     }
                     context.init(keyManagers, trustManagers, null);
-                    handler.setOutputStream(new SSLContextOutputStream(context, syslogServerAddress, port));
+                    if (isPipelined()) {
+                        pipeline = new PipelinedSyslogOutputStream(name, context.getSocketFactory(), syslogServerAddress, port, getSendBufferSize());
+                        handler.setOutputStream(pipeline);
+                    } else {
+                        handler.setOutputStream(new SSLContextOutputStream(context, syslogServerAddress, port));
+                    }
+                } else if (isPipelined()) {
+                    pipeline = new PipelinedSyslogOutputStream(name, SocketFactory.getDefault(), syslogServerAddress, port, getSendBufferSize());
+                    handler.setOutputStream(pipeline);
                 } else {
                     handler.setOutputStream(new AuditLogTcpOutputStream(syslogServerAddress, port));
                     handler.setProtocol(transport == Transport.TCP ? Protocol.TCP : Protocol.SSL_TCP);
@@ -293,6 +339,11 @@ public class SyslogAuditLogHandler extends AuditLogHandler {
         } catch (Exception e) {
             // Failed to initialize the handler, clean up the resources
             connected = false;
+            PipelinedSyslogOutputStream pipeline = this.pipeline;
+            this.pipeline = null;
+            if (pipeline != null) {
+                pipeline.close();
+            }
             if (handler != null) {
                 try {
                     handler.close();
@@ -302,9 +353,24 @@ public class SyslogAuditLogHandler extends AuditLogHandler {
         }
     }
 
+    private static boolean isPipelined() {
+        return Boolean.parseBoolean(WildFlySecurityManager.getPropertyPrivileged(PIPELINING_PROPERTY, "false"));
+    }
+
+    private static int getSendBufferSize() {
+        final String value = WildFlySecurityManager.getPropertyPrivileged(SEND_BUFFER_SIZE_PROPERTY, String.valueOf(PipelinedSyslogOutputStream.DEFAULT_BUFFER_SIZE));
+        try {
+            return Math.max(1024, Integer.parseInt(value.trim()));
+        } catch (NumberFormatException e) {
+            ControllerLogger.ROOT_LOGGER.invalidSystemPropertyValue(value, SEND_BUFFER_SIZE_PROPERTY, PipelinedSyslogOutputStream.DEFAULT_BUFFER_SIZE);
+            return PipelinedSyslogOutputStream.DEFAULT_BUFFER_SIZE;
+        }
+    }
+
     @Override
     void stop() {
         connected = false;
+        pipeline = null;
         SyslogHandler handler = this.handler;
         this.handler = null;
         if (handler != null) {
@@ -313,6 +379,25 @@ public class SyslogAuditLogHandler extends AuditLogHandler {
 
     }
 
+    @Override
+    void drain(long deadline) {
+        PipelinedSyslogOutputStream pipeline = this.pipeline;
+        if (pipeline != null && !pipeline.awaitSent(deadline)) {
+            // Closing the pipeline discards them
+            ControllerLogger.MGMT_OP_LOGGER.syslogFramesNotSent(name, pipeline.getBacklog());
+        }
+    }
+
+    @Override
+    void flush() throws IOException {
+        PipelinedSyslogOutputStream pipeline = this.pipeline;
+        if (pipeline != null) {
+            // A failure to send is not a failure of the handler: the pipeline keeps the frames not yet sent, and sends
+            // them once it has connected again on its own
+            pipeline.send();
+        }
+    }
+
     private boolean isReconnect() {
         return hasTooManyFailures() && isActive();
     }
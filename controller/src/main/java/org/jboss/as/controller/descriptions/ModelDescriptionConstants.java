@@ -345,6 +345,7 @@ public class ModelDescriptionConstants {
     public static final String OPERATION_HEADERS = "operation-headers";
     public static final String OPERATION_ID = "operation-id";
     public static final String OPERATION_NAME = "operation-name";
+    public static final String OPERATION_PROFILE = "operation-profile";
     public static final String OP_PARAMS = "op-params";
     public static final String OP_PARAMS_MAPPING = "op-params-mapping";
     public static final String OPERATIONS = "operations";
@@ -385,6 +386,7 @@ public class ModelDescriptionConstants {
     public static final String PRODUCT_VERSION = "product-version";
     public static final String PROFILE = "profile";
     public static final String PROFILE_NAME = "profile-name";
+    public static final String PROFILE_OPERATION = "profile-operation";
     public static final String PROPERTIES = "properties";
     public static final String PROPERTY = "property";
     public static final String PROTOCOL = "protocol";
@@ -447,6 +449,7 @@ public class ModelDescriptionConstants {
     public static final String RESULT = "result";
     public static final String RESULT_PATH = "result-path";
     public static final String RESULT_PATTERN = "result-pattern";
+    public static final String RETRY_AFTER = "retry-after";
     public static final String REASON = "reason";
     public static final String ROLE = "role";
     public static final String ROLES = "roles";
@@ -515,6 +518,7 @@ public class ModelDescriptionConstants {
     public static final String SELECT = "select";
     public static final String SERVER_LOGGER = "server-logger";
     public static final String SERVER_NAME = "server-name";
+    public static final String SERVER_STATE = "server-state";
     public static final String SHUTDOWN = "shutdown";
     public static final String SKIP_MISSING_GROUPS = "skip-missing-groups";
     public static final String SOCKET_BINDING = "socket-binding";
@@ -3809,4 +3809,103 @@ public interface ControllerLogger extends BasicLogger {
     @LogMessage(level = WARN)
     @Message(id = 517, value = "There are multiple Parallel Boot Operations.")
     void multipleParallelBootOperation();
+
+    @LogMessage(level = WARN)
+    @Message(id = 519, value = "Invalid persistence mode '%s' set by system property %s; using '%s'")
+    void invalidPersistenceMode(String mode, String property, String defaultMode);
+
+    @LogMessage(level = WARN)
+    @Message(id = 520, value = "Operation took %d ms, reaching the slow operation threshold of %d ms: %s")
+    void slowOperation(long time, long threshold, String record);
+
+    @LogMessage(level = WARN)
+    @Message(id = 521, value = "Ignoring invalid query index '%s' set by system property %s; expected an address ending with a wildcard element, followed by ':' and an attribute name")
+    void invalidQueryIndex(String index, String property);
+
+    @LogMessage(level = ERROR)
+    @Message(id = 522, value = "Failed executing the boot operations for %s")
+    void failedParallelBootOperations(@Cause Throwable cause, String address);
+
+    @Message(id = 523, value = "Boot operations for %s failed without explanation")
+    String parallelBootOperationsFailed(String address);
+
+    @Message(id = 524, value = "Failed executing the boot operations for %s")
+    String parallelBootOperationsFailedExecuting(String address);
+
+    @Message(id = 525, value = "Interrupted awaiting the parsing of element %s")
+    XMLStreamException subsystemParsingInterrupted(QName element);
+
+    @LogMessage(level = WARN)
+    @Message(id = 526, value = "Invalid notification overflow policy '%s' set by system property %s; using '%s'")
+    void invalidNotificationOverflowPolicy(String policy, String property, String defaultPolicy);
+
+    @LogMessage(level = WARN)
+    @Message(id = 527, value = "The queue of %d notifications to deliver is full; notifications are discarded following the '%s' overflow policy until it has been drained")
+    void notificationQueueFull(int capacity, String policy);
+
+    @LogMessage(level = WARN)
+    @Message(id = 528, value = "Invalid audit log overflow policy '%s' set by system property %s; using '%s'")
+    void invalidAuditLogOverflowPolicy(String policy, String property, String defaultPolicy);
+
+    @LogMessage(level = WARN)
+    @Message(id = 529, value = "The queue of audit log handler '%s' is full with %d records; records are discarded until it has been drained")
+    void auditLogQueueFull(String name, int capacity);
+
+    @LogMessage(level = WARN)
+    @Message(id = 530, value = "Invalid audit log sync policy '%s' set by system property %s; using '%s'")
+    void invalidAuditLogSyncPolicy(String policy, String property, String defaultPolicy);
+
+    @LogMessage(level = WARN)
+    @Message(id = 531, value = "Could not compress audit log backup %s")
+    void couldNotCompressAuditLogBackup(@Cause Throwable cause, String backup);
+
+    @Message(id = 532, value = "The connection of syslog audit log handler '%s' is closed")
+    IOException syslogConnectionClosed(String name);
+
+    @Message(id = 533, value = "The send buffer of syslog audit log handler '%s' is full with %d bytes waiting to be sent")
+    IOException syslogSendBufferFull(String name, int size);
+
+    @LogMessage(level = WARN)
+    @Message(id = 534, value = "Could not connect syslog audit log handler '%s' to the syslog server; connecting again in the background")
+    void syslogConnectionFailed(@Cause Throwable cause, String name);
+
+    @LogMessage(level = INFO)
+    @Message(id = 535, value = "Syslog audit log handler '%s' connected to the syslog server again; sending %d buffered frames")
+    void syslogReconnected(String name, int frames);
+
+    @Message(id = 536, value = "Operation '%s' failed as %s was modified by another operation while it was executing; the operation can be retried")
+    OperationFailedRuntimeException subsystemModifiedConcurrently(String operationName, PathAddress subsystem);
+
+    @Message(id = 537, value = "The %s lane of management operations is saturated; retry after %d seconds")
+    String operationLaneSaturated(String lane, int retryAfter);
+
+    @LogMessage(level = WARN)
+    @Message(id = 538, value = "Invalid limits '%s' set by system property %s; using %d active and %d queued operations")
+    void invalidOperationLaneLimits(String value, String property, int maxActive, int maxQueued);
+
+    @LogMessage(level = ERROR)
+    @Message(id = 539, value = "Unexpected failure of an operation of the %s lane of management operations")
+    void operationLaneTaskFailed(@Cause Throwable cause, String lane);
+
+    @LogMessage(level = WARN)
+    @Message(id = 540, value = "Syslog audit log handler '%s' could not send to the syslog server; sending %d buffered frames once connected again")
+    void syslogSendFailed(@Cause Throwable cause, String name, int frames);
+
+    @LogMessage(level = WARN)
+    @Message(id = 541, value = "Audit log handler '%s' had not written the records queued for it when the process stopped")
+    void auditLogHandlerNotDrained(String name);
+
+    @LogMessage(level = WARN)
+    @Message(id = 542, value = "Syslog audit log handler '%s' could not send %d buffered frames to the syslog server before it was stopped")
+    void syslogFramesNotSent(String name, int frames);
+
+    @Message(id = 543, value = "Could not create audit log file %s")
+    IllegalStateException couldNotCreateAuditLogFile(@Cause Throwable cause, File file);
+
+    @Message(id = 544, value = "Audit log handler '%s' could not write the buffered records before rotating the file")
+    IllegalStateException couldNotFlushAuditLogBeforeRotation(@Cause Throwable cause, String name);
+
+    @LogMessage(level = WARN)
+    @Message(id = 545, value = "Could not delete audit log backup %s once compressed")
+    void couldNotDeleteAuditLogBackup(String backup);
 }
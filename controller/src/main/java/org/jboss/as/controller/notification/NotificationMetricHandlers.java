@@ -0,0 +1,25 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.jboss.as.controller.notification;
+
+import org.jboss.as.controller.OperationStepHandler;
+
+/**
+ * Handlers reading the metrics of the queues of the {@link NotificationSupport}s of the process.
+ */
+public final class NotificationMetricHandlers {
+
+    /** Reads the number of notifications waiting to be delivered */
+    public static final OperationStepHandler QUEUED_NOTIFICATIONS =
+            (context, operation) -> context.getResult().set(NotificationSupports.getQueuedNotificationCount());
+
+    /** Reads the number of notifications discarded because a queue was full or the emitting thread was interrupted */
+    public static final OperationStepHandler DISCARDED_NOTIFICATIONS =
+            (context, operation) -> context.getResult().set(NotificationSupports.getDiscardedNotificationCount());
+
+    private NotificationMetricHandlers() {
+    }
+}
@@ -5,15 +5,21 @@
 
 package org.jboss.as.controller.notification;
 
-import java.util.Arrays;
-import java.util.Queue;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.jboss.as.controller.logging.ControllerLogger;
 import org.jboss.as.controller.registry.NotificationHandlerRegistration;
+import org.wildfly.security.manager.WildFlySecurityManager;
 
 /**
  * Provides implementation of the {@code NotificationSupport}.
@@ -23,12 +29,26 @@ import org.jboss.as.controller.registry.NotificationHandlerRegistration;
  *
  * The {@code NonBlockingNotificationSupport} will fire the notifications in a separate thread (provided by its {@code
  *  executorService}.
- * Its {@code emit()} method will return immediately and will not block the code execution.
+ * Its {@code emit()} method will return immediately and will not block the code execution, unless its queue is bounded,
+ * full, and the overflow policy is to block.
  *
  * @author <a href="http://jmesnil.net/">Jeff Mesnil</a> (c) 2014 Red Hat inc.
  */
 class NotificationSupports {
 
+    /**
+     * System property setting the maximum number of notifications queued for delivery by a {@code NotificationSupport}
+     * created with an executor. The queue is unbounded if it is not set or is 0.
+     */
+    static final String QUEUE_SIZE_PROPERTY = "org.wildfly.management.notification-queue-size";
+
+    /**
+     * System property setting what happens when a notification is emitted while the queue is full: {@code block}
+     * (the default) to wait for room in the queue, {@code discard-oldest} to discard the oldest queued notification
+     * or {@code discard-newest} to discard the emitted notification.
+     */
+    static final String OVERFLOW_POLICY_PROPERTY = "org.wildfly.management.notification-overflow-policy";
+
     static class BlockingNotificationSupport implements NotificationSupport {
 
         private final NotificationHandlerRegistration registry;
@@ -48,58 +68,286 @@ class NotificationSupports {
         }
     }
 
+    /**
+     * The policy applied when a notification is emitted while the queue of a {@link NonBlockingNotificationSupport}
+     * is full.
+     */
+    enum OverflowPolicy {
+        /** The emitting thread waits for the queue to have room for the notification */
+        BLOCK("block"),
+        /** The oldest queued notification is discarded to make room for the notification */
+        DISCARD_OLDEST("discard-oldest"),
+        /** The notification is discarded */
+        DISCARD_NEWEST("discard-newest");
+
+        private final String name;
+
+        OverflowPolicy(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+
+        static OverflowPolicy forName(String name) {
+            for (OverflowPolicy policy : values()) {
+                if (policy.name.equals(name.toLowerCase(Locale.ENGLISH))) {
+                    return policy;
+                }
+            }
+            ControllerLogger.ROOT_LOGGER.invalidNotificationOverflowPolicy(name, OVERFLOW_POLICY_PROPERTY, BLOCK.name);
+            return BLOCK;
+        }
+    }
+
+    /** The number of notifications queued by all the {@code NonBlockingNotificationSupport}s */
+    static final AtomicInteger QUEUED = new AtomicInteger();
+    /** The number of notifications discarded by all the {@code NonBlockingNotificationSupport}s */
+    static final AtomicLong DISCARDED = new AtomicLong();
+
+    /**
+     * Gets the number of notifications waiting to be delivered by all the {@code NotificationSupport}s of the process.
+     */
+    static int getQueuedNotificationCount() {
+        return QUEUED.get();
+    }
+
+    /**
+     * Gets the number of notifications discarded by all the {@code NotificationSupport}s of the process because
+     * their queue was full, or because the thread emitting them was interrupted waiting for room in the queue.
+     */
+    static long getDiscardedNotificationCount() {
+        return DISCARDED.get();
+    }
+
     static class NonBlockingNotificationSupport implements  NotificationSupport {
 
+        /** The maximum number of notifications delivered between two checks of the queue */
+        static final int BATCH_SIZE = 64;
+
         private final NotificationHandlerRegistration registry;
         private final ExecutorService executor;
+        /** The maximum number of queued notifications, or 0 if the queue is unbounded */
+        private final int capacity;
+        private final OverflowPolicy overflowPolicy;
 
         /**
-         * Use a concurrent queue to put the notifications in it when {@code emit()} is called.
-         * The queue will be drained in a separate thread and the notifications effectively delivered to the handlers.
+         * Guards the queue. Notifications are queued when {@code emit()} is called, and delivered to the handlers
+         * in batches by a single task of the executor at a time.
          *
          * This ensures that the notifications will be delivered in the same order they were emitted.
          */
-        private final Queue<Notification> queue = new ConcurrentLinkedQueue<Notification>();
-
-        /**
-         * use the lock's exclusive writeLock to ensure only one thread can drain the queue at a given time.
-         */
-        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        private final Lock lock = new ReentrantLock();
+        private final Condition notFull = lock.newCondition();
+        /** The queue, a ring buffer that grows up to the capacity */
+        private Notification[] queue = new Notification[16];
+        private int head;
+        private int size;
+        /** Whether a task delivering the queued notifications has been submitted and has not completed */
+        private boolean dispatching;
+        /** The thread delivering notifications, if any */
+        private Thread dispatcher;
+        /** Whether notifications have been discarded since the queue was last drained */
+        private boolean overflowed;
 
         public NonBlockingNotificationSupport(NotificationHandlerRegistration registry, ExecutorService executor) {
+            this(registry, executor, getQueueSize(), OverflowPolicy.forName(WildFlySecurityManager.getPropertyPrivileged(OVERFLOW_POLICY_PROPERTY, OverflowPolicy.BLOCK.name)));
+        }
+
+        NonBlockingNotificationSupport(NotificationHandlerRegistration registry, ExecutorService executor, int capacity, OverflowPolicy overflowPolicy) {
             this.registry = registry;
             this.executor = executor;
+            this.capacity = capacity;
+            this.overflowPolicy = overflowPolicy;
         }
 
-        @Override
-        public synchronized void emit(Notification... notifications) {
-            queue.addAll(Arrays.asList(notifications));
+        private static int getQueueSize() {
+            final String value = WildFlySecurityManager.getPropertyPrivileged(QUEUE_SIZE_PROPERTY, "0");
+            try {
+                return Math.max(0, Integer.parseInt(value.trim()));
+            } catch (NumberFormatException e) {
+                ControllerLogger.ROOT_LOGGER.invalidSystemPropertyValue(value, QUEUE_SIZE_PROPERTY, 0);
+                return 0;
+            }
+        }
 
-            executor.execute(new Runnable() {
-                @Override
-                public void run() {
-                    lock.writeLock().lock();
-                    try {
-                        while (true) {
-                            Notification notification = queue.poll();
-                            if (notification == null) {
-                                break;
-                            }
-                            fireNotifications(registry, notification);
-                        }
-                    } finally {
-                        lock.writeLock().unlock();
+        @Override
+        public void emit(Notification... notifications) {
+            lock.lock();
+            try {
+                for (int i = 0; i < notifications.length; i++) {
+                    if (!offer(notifications[i])) {
+                        // Interrupted waiting for room in the queue, so this and the remaining notifications are lost
+                        discarded(notifications.length - i);
+                        break;
                     }
                 }
-            });
+                if (size > 0) {
+                    dispatch();
+                }
+            } finally {
+                lock.unlock();
+            }
         }
 
         @Override
         public NotificationHandlerRegistration getNotificationRegistry() {
             return registry;
         }
+
+        /**
+         * Gets the number of queued notifications.
+         */
+        int getQueueDepth() {
+            lock.lock();
+            try {
+                return size;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Queues a notification, applying the overflow policy if the queue is full. Must be called holding the lock.
+         *
+         * @return {@code false} if the thread was interrupted waiting for room in the queue
+         */
+        private boolean offer(Notification notification) {
+            while (capacity > 0 && size >= capacity) {
+                if (overflowPolicy == OverflowPolicy.BLOCK) {
+                    if (Thread.currentThread() == dispatcher) {
+                        // A handler emitting notifications would wait for itself, so exceed the capacity instead
+                        break;
+                    }
+                    dispatch();
+                    if (size >= capacity) {
+                        try {
+                            notFull.await();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            return false;
+                        }
+                    }
+                } else {
+                    discarded(1);
+                    if (overflowPolicy == OverflowPolicy.DISCARD_NEWEST) {
+                        return true;
+                    }
+                    poll(1);
+                }
+            }
+            if (size == queue.length) {
+                final Notification[] grown = new Notification[queue.length * 2];
+                for (int i = 0; i < size; i++) {
+                    grown[i] = queue[(head + i) % queue.length];
+                }
+                queue = grown;
+                head = 0;
+            }
+            queue[(head + size) % queue.length] = notification;
+            size++;
+            QUEUED.incrementAndGet();
+            return true;
+        }
+
+        /**
+         * Removes notifications from the head of the queue. Must be called holding the lock.
+         */
+        private Notification[] poll(int max) {
+            final Notification[] batch = new Notification[Math.min(max, size)];
+            for (int i = 0; i < batch.length; i++) {
+                batch[i] = queue[head];
+                queue[head] = null;
+                head = (head + 1) % queue.length;
+            }
+            size -= batch.length;
+            QUEUED.addAndGet(-batch.length);
+            notFull.signalAll();
+            return batch;
+        }
+
+        private void discarded(int count) {
+            DISCARDED.addAndGet(count);
+            if (!overflowed) {
+                overflowed = true;
+                ControllerLogger.ROOT_LOGGER.notificationQueueFull(capacity, overflowPolicy.toString());
+            }
+        }
+
+        /**
+         * Submits a task delivering the queued notifications, unless one already is. Must be called holding the lock.
+         */
+        private void dispatch() {
+            if (dispatching) {
+                return;
+            }
+            dispatching = true;
+            try {
+                executor.execute(this::deliverQueued);
+            } catch (RuntimeException | Error e) {
+                dispatching = false;
+                throw e;
+            }
+        }
+
+        private void deliverQueued() {
+            lock.lock();
+            final Thread previous = dispatcher;
+            dispatcher = Thread.currentThread();
+            try {
+                while (size > 0) {
+                    final Notification[] batch = poll(BATCH_SIZE);
+                    lock.unlock();
+                    try {
+                        fireNotificationsByHandler(registry, batch);
+                    } finally {
+                        lock.lock();
+                    }
+                }
+                dispatching = false;
+                overflowed = false;
+            } finally {
+                dispatcher = previous;
+                lock.unlock();
+            }
+        }
     }
 
+    /**
+     * Delivers a batch of notifications to each handler in turn, preserving the order of the notifications
+     * each handler is delivered.
+     */
+    private static void fireNotificationsByHandler(NotificationHandlerRegistration registry, final Notification... notifications) {
+        final Map<NotificationHandler, List<Notification>> batches = new IdentityHashMap<>();
+        final List<NotificationHandler> handlers = new ArrayList<>();
+        for (Notification notification : notifications) {
+            try {
+                // each notification may have a different subset of handlers depending on their filters
+                for (NotificationHandler handler : registry.findMatchingNotificationHandlers(notification)) {
+                    List<Notification> batch = batches.get(handler);
+                    if (batch == null) {
+                        batch = new ArrayList<>();
+                        batches.put(handler, batch);
+                        handlers.add(handler);
+                    }
+                    batch.add(notification);
+                }
+            } catch (Throwable t) {
+                ControllerLogger.ROOT_LOGGER.failedToEmitNotification(notification, t);
+            }
+        }
+        for (NotificationHandler handler : handlers) {
+            for (Notification notification : batches.get(handler)) {
+                try {
+                    handler.handleNotification(notification);
+                } catch (Throwable t) {
+                    ControllerLogger.ROOT_LOGGER.failedToEmitNotification(notification, t);
+                }
+            }
+        }
+    }
 
     private static void fireNotifications(NotificationHandlerRegistration registry, final Notification... notifications) {
         for (Notification notification : notifications) {
@@ -10,12 +10,16 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAI
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.INCLUDE_RUNTIME;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OPERATOR;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_RESOURCE_OPERATION;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESULT;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.jboss.as.controller.AttributeDefinition;
 import org.jboss.as.controller.ExpressionResolver;
@@ -25,8 +29,10 @@ import org.jboss.as.controller.OperationDefinition;
 import org.jboss.as.controller.OperationFailedException;
 import org.jboss.as.controller.OperationStepHandler;
 import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
 import org.jboss.as.controller.PrimitiveListAttributeDefinition;
 import org.jboss.as.controller.PropertiesAttributeDefinition;
+import org.jboss.as.controller.QueryIndex;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.SimpleOperationDefinitionBuilder;
 import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
@@ -84,6 +90,88 @@ public final class QueryOperationHandler extends GlobalOperationHandlers.Abstrac
         super(null, true, item -> !item.hasDefined(RESULT));
     }
 
+    @Override
+    public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+        final List<String> candidates = getIndexedCandidates(context, operation);
+        if (candidates == null) {
+            super.execute(context, operation);
+        } else if (candidates.isEmpty()) {
+            context.getResult().setEmptyList();
+        } else {
+            // Only read the children that can match; the filter still runs against each of them
+            final PathAddress address = context.getCurrentAddress();
+            final ModelNode narrowed = operation.clone();
+            final ModelNode narrowedAddress = narrowed.get(OP_ADDR).setEmptyList();
+            for (PathElement element : address.getParent()) {
+                narrowedAddress.add(element.getKey(), element.getValue());
+            }
+            narrowedAddress.add(address.getLastElement().getKey(),
+                    candidates.size() == 1 ? candidates.get(0) : "[" + String.join(",", candidates) + "]");
+            super.execute(context, narrowed);
+        }
+    }
+
+    /**
+     * Uses the {@link QueryIndex query indexes} of the attributes in the where clause of a query for all the children
+     * of a given type to find the children that can match it.
+     *
+     * @return the names of the children that can match, in the order their parent keeps them, or {@code null} if the
+     *         query must read all the children
+     */
+    private static List<String> getIndexedCandidates(OperationContext context, ModelNode operation) throws OperationFailedException {
+        final PathAddress address = context.getCurrentAddress();
+        if (address.size() == 0 || !address.getLastElement().isWildcard()) {
+            return null;
+        }
+        final ModelNode where = WHERE_ATT.validateOperation(operation);
+        if (!where.isDefined()) {
+            return null;
+        }
+        // The operator is implicitly Operator.AND, so each indexed attribute narrows the candidates down
+        Set<String> candidates = null;
+        QueryIndex.Values values = null;
+        for (Property property : where.asPropertyList()) {
+            final QueryIndex.Values attributeValues = QueryIndex.INSTANCE.getValues(context, address, property.getName());
+            if (attributeValues != null) {
+                final Set<String> matching = new HashSet<>();
+                for (Map.Entry<ModelNode, Set<String>> entry : attributeValues.getChildNamesByValue().entrySet()) {
+                    if (mayMatch(property.getName(), property.getValue(), entry.getKey())) {
+                        matching.addAll(entry.getValue());
+                    }
+                }
+                if (candidates == null) {
+                    candidates = matching;
+                } else {
+                    candidates.retainAll(matching);
+                }
+                values = attributeValues;
+            }
+        }
+        if (values == null) {
+            return null;
+        }
+        final List<String> result = new ArrayList<>(candidates.size());
+        for (String name : values.getChildNames()) {
+            if (candidates.contains(name)) {
+                if (name.indexOf(',') >= 0 || name.charAt(0) == '[') {
+                    // Can't be addressed as one of several values of an element
+                    return null;
+                }
+                result.add(name);
+            }
+        }
+        return result;
+    }
+
+    private static boolean mayMatch(String name, ModelNode filterValue, ModelNode value) {
+        try {
+            return FilterReduceHandler.isEqual(name, filterValue, value);
+        } catch (OperationFailedException e) {
+            // Let the filter report the failure
+            return true;
+        }
+    }
+
     @Override
     void doExecute(final OperationContext parentContext, ModelNode operation, FilteredData filteredData, boolean ignoreMissingResources) throws OperationFailedException {
 
@@ -183,40 +271,7 @@ public final class QueryOperationHandler extends GlobalOperationHandlers.Abstrac
                 final String filterName = property.getName();
                 final ModelNode filterValue = property.getValue();
 
-                boolean isEqual = false;
-
-                if(!filterValue.isDefined() || filterValue.asString().equals(UNDEFINED))  {
-                    // query for undefined attributes
-                    isEqual = !resource.get(filterName).isDefined();
-                }  else {
-
-                    final ModelType targetValueType = resource.get(filterName).getType();
-
-                    try {
-                        // query for attribute values (throws exception when types don't match)
-                        switch (targetValueType) {
-                            case BOOLEAN:
-                                isEqual = filterValue.asBoolean() == resource.get(filterName).asBoolean();
-                                break;
-                            case LONG:
-                                isEqual = filterValue.asLong() == resource.get(filterName).asLong();
-                                break;
-                            case INT:
-                                isEqual = filterValue.asInt() == resource.get(filterName).asInt();
-                                break;
-                            case DOUBLE:
-                                isEqual = filterValue.asDouble() == resource.get(filterName).asDouble();
-                                break;
-                            default:
-                                isEqual = filterValue.equals(resource.get(filterName));
-                        }
-                    } catch (IllegalArgumentException e) {
-                        throw ControllerLogger.MGMT_OP_LOGGER.selectFailedCouldNotConvertAttributeToType(filterName, targetValueType);
-                    }
-
-                }
-
-                if(isEqual) {
+                if(isEqual(filterName, filterValue, resource.get(filterName))) {
                     matches.add(resource.get(filterName).equals(filterValue));
                 }
 
@@ -250,6 +305,34 @@ public final class QueryOperationHandler extends GlobalOperationHandlers.Abstrac
             return isMatching;
         }
 
+        static boolean isEqual(final String filterName, final ModelNode filterValue, final ModelNode value) throws OperationFailedException {
+
+            if(!filterValue.isDefined() || filterValue.asString().equals(UNDEFINED))  {
+                // query for undefined attributes
+                return !value.isDefined();
+            }
+
+            final ModelType targetValueType = value.getType();
+
+            try {
+                // query for attribute values (throws exception when types don't match)
+                switch (targetValueType) {
+                    case BOOLEAN:
+                        return filterValue.asBoolean() == value.asBoolean();
+                    case LONG:
+                        return filterValue.asLong() == value.asLong();
+                    case INT:
+                        return filterValue.asInt() == value.asInt();
+                    case DOUBLE:
+                        return filterValue.asDouble() == value.asDouble();
+                    default:
+                        return filterValue.equals(value);
+                }
+            } catch (IllegalArgumentException e) {
+                throw ControllerLogger.MGMT_OP_LOGGER.selectFailedCouldNotConvertAttributeToType(filterName, targetValueType);
+            }
+        }
+
         private static ModelNode reduce(final ModelNode payload, final ModelNode attributes) throws OperationFailedException {
 
             ModelNode outcome = new ModelNode();
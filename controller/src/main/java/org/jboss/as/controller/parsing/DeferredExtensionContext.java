@@ -113,6 +113,15 @@ public class DeferredExtensionContext {
         }
     }
 
+    /**
+     * Gets the executor extensions are loaded with.
+     *
+     * @return the executor, or {@code null} if extensions are loaded by the parsing thread
+     */
+    public ExecutorService getBootExecutor() {
+        return bootExecutor;
+    }
+
     public void addExtension(String moduleName, XMLMapper xmlMapper) {
         extensions.add(new ExtensionData(moduleName, xmlMapper));
     }
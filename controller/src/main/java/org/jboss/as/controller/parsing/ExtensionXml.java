@@ -60,6 +60,15 @@ public class ExtensionXml {
         this.deferredExtensionContext = null;
     }
 
+    /**
+     * Gets the executor extensions are loaded with.
+     *
+     * @return the executor, or {@code null} if extensions are loaded by the parsing thread
+     */
+    public ExecutorService getBootExecutor() {
+        return deferredExtensionContext != null ? deferredExtensionContext.getBootExecutor() : bootExecutor;
+    }
+
     public void writeExtensions(final XMLExtendedStreamWriter writer, final ModelNode modelNode) throws XMLStreamException {
         Set<String> keys = new TreeSet<>(modelNode.keys());
         if (!keys.isEmpty()) {
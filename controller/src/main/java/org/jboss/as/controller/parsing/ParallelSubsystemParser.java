@@ -0,0 +1,319 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.jboss.as.controller.parsing;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
+import javax.xml.stream.util.StreamReaderDelegate;
+
+import org.jboss.as.controller.logging.ControllerLogger;
+import org.jboss.dmr.ModelNode;
+import org.jboss.staxmapper.XMLAttributeReader;
+import org.jboss.staxmapper.XMLContentWriter;
+import org.jboss.staxmapper.XMLElementReader;
+import org.jboss.staxmapper.XMLElementWriter;
+import org.jboss.staxmapper.XMLExtendedStreamReader;
+import org.jboss.staxmapper.XMLMapper;
+import org.wildfly.security.manager.WildFlySecurityManager;
+
+/**
+ * Parses the {@code subsystem} elements of a profile. By default each element is parsed as it is read, by
+ * {@link XMLExtendedStreamReader#handleAny(Object)}. If parallel parsing is enabled by the {@link #PROPERTY} system
+ * property, and the document is parsed by a mapper created by {@link #createXMLMapper()}, each element is instead
+ * read into a buffer, and parsed by its registered {@link XMLElementReader} on a thread of the boot executor while
+ * the rest of the document is read.
+ * <p>
+ * The parsers of different subsystems must not share mutable state to be parsed in parallel. The elements of one
+ * profile are all parsed by the time {@link #complete(boolean)} returns, so the operations of each element can then
+ * be used in document order.
+ */
+public final class ParallelSubsystemParser {
+
+    /** System property that, when {@code true}, enables the parallel parsing of subsystem elements */
+    public static final String PROPERTY = "org.wildfly.management.parallel-subsystem-parsing";
+
+    private static final ParallelSubsystemParser SEQUENTIAL = new ParallelSubsystemParser(null, null);
+
+    private final RecordingXMLMapper mapper;
+    private final ExecutorService executor;
+    private final List<Task> tasks = new ArrayList<>();
+
+    private ParallelSubsystemParser(final RecordingXMLMapper mapper, final ExecutorService executor) {
+        this.mapper = mapper;
+        this.executor = executor;
+    }
+
+    /**
+     * Creates the mapper to parse a configuration document with. If parallel parsing is enabled, the mapper
+     * records the readers registered with it, so the subsystem elements of the document can be parsed in parallel.
+     *
+     * @return the mapper
+     */
+    public static XMLMapper createXMLMapper() {
+        final XMLMapper mapper = XMLMapper.Factory.create();
+        return Boolean.parseBoolean(WildFlySecurityManager.getPropertyPrivileged(PROPERTY, "false")) ? new RecordingXMLMapper(mapper) : mapper;
+    }
+
+    /**
+     * Creates a parser of the subsystem elements of a profile.
+     *
+     * @param reader the reader of the document
+     * @param executor the executor to parse the elements with, or {@code null} if they must be parsed as they are read
+     * @return the parser
+     */
+    public static ParallelSubsystemParser create(final XMLExtendedStreamReader reader, final ExecutorService executor) {
+        final XMLMapper mapper = reader.getXMLMapper();
+        return executor != null && mapper instanceof RecordingXMLMapper ? new ParallelSubsystemParser((RecordingXMLMapper) mapper, executor) : SEQUENTIAL;
+    }
+
+    /**
+     * Parses the subsystem element the reader is positioned at, leaving the reader positioned at its end element.
+     * The element may not be parsed until {@link #complete(boolean)} is called.
+     *
+     * @param reader the reader, positioned at a {@code subsystem} element
+     * @param operations the list to add the operations parsed from the element to. Must not be used until
+     *                   {@link #complete(boolean)} returns
+     * @throws XMLStreamException if the element cannot be read or, if it is parsed right away, parsed
+     */
+    public void parse(final XMLExtendedStreamReader reader, final List<ModelNode> operations) throws XMLStreamException {
+        if (mapper == null) {
+            reader.handleAny(operations);
+            return;
+        }
+        final XMLElementBuffer buffer = XMLElementBuffer.read(reader);
+        final ClassLoader tccl = WildFlySecurityManager.getCurrentContextClassLoaderPrivileged();
+        final Task task = new Task(buffer.getName(), new FutureTask<>(() -> {
+            final ClassLoader oldTccl = WildFlySecurityManager.setCurrentContextClassLoaderPrivileged(tccl);
+            try {
+                // parseDocument() unregisters the root elements, so each element is parsed by a mapper of its own
+                mapper.copyTo(XMLMapper.Factory.create()).parseDocument(operations, buffer.createReader());
+            } finally {
+                WildFlySecurityManager.setCurrentContextClassLoaderPrivileged(oldTccl);
+            }
+            return null;
+        }));
+        tasks.add(task);
+        try {
+            executor.execute(task.future);
+        } catch (RejectedExecutionException e) {
+            task.future.run();
+        }
+    }
+
+    /**
+     * Waits for the elements passed to {@link #parse(XMLExtendedStreamReader, List)} to be parsed.
+     *
+     * @param ignoreFailures {@code true} if the failure to parse an element should be logged and otherwise ignored
+     * @throws XMLStreamException the failure to parse the first element, in document order, that could not be parsed
+     */
+    public void complete(final boolean ignoreFailures) throws XMLStreamException {
+        try {
+            for (Task task : tasks) {
+                try {
+                    task.future.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw ControllerLogger.ROOT_LOGGER.subsystemParsingInterrupted(task.element);
+                } catch (ExecutionException e) {
+                    final Throwable cause = e.getCause();
+                    if (cause instanceof RuntimeException) {
+                        throw (RuntimeException) cause;
+                    } else if (cause instanceof Error) {
+                        throw (Error) cause;
+                    }
+                    final XMLStreamException failure = cause instanceof XMLStreamException ? (XMLStreamException) cause : new XMLStreamException(cause);
+                    if (!ignoreFailures) {
+                        throw failure;
+                    }
+                    ControllerLogger.ROOT_LOGGER.failedToParseElementLenient(failure, task.element.toString());
+                }
+            }
+        } finally {
+            for (Task task : tasks) {
+                task.future.cancel(true);
+            }
+            tasks.clear();
+        }
+    }
+
+    private static final class Task {
+        final QName element;
+        final FutureTask<Void> future;
+
+        Task(final QName element, final FutureTask<Void> future) {
+            this.element = element;
+            this.future = future;
+        }
+    }
+
+    /**
+     * A mapper that records the readers registered with it, and is the mapper of the readers it passes to them.
+     */
+    private static final class RecordingXMLMapper implements XMLMapper {
+        private final XMLMapper delegate;
+        private final Map<QName, Supplier<? extends XMLElementReader<?>>> rootElements = new ConcurrentHashMap<>();
+        private final Map<QName, XMLAttributeReader<?>> rootAttributes = new ConcurrentHashMap<>();
+
+        RecordingXMLMapper(final XMLMapper delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public <T> void registerRootElement(final QName name, final XMLElementReader<T> reader) {
+            rootElements.put(name, () -> reader);
+            delegate.registerRootElement(name, (XMLElementReader<T>) (extendedReader, value) -> reader.readElement(new Reader(extendedReader, this), value));
+        }
+
+        @Override
+        public <T> void registerRootElement(final QName name, final Supplier<XMLElementReader<T>> supplier) {
+            rootElements.put(name, supplier);
+            delegate.registerRootElement(name, (Supplier<XMLElementReader<T>>) () -> {
+                final XMLElementReader<T> reader = supplier.get();
+                return (extendedReader, value) -> reader.readElement(new Reader(extendedReader, this), value);
+            });
+        }
+
+        @Override
+        public void unregisterRootElement(final QName name) {
+            rootElements.remove(name);
+            delegate.unregisterRootElement(name);
+        }
+
+        @Override
+        public void registerRootAttribute(final QName name, final XMLAttributeReader<?> reader) {
+            rootAttributes.put(name, reader);
+            delegate.registerRootAttribute(name, reader);
+        }
+
+        @Override
+        public void unregisterRootAttribute(final QName name) {
+            rootAttributes.remove(name);
+            delegate.unregisterRootAttribute(name);
+        }
+
+        @Override
+        public void parseDocument(final Object rootObject, final XMLStreamReader reader) throws XMLStreamException {
+            delegate.parseDocument(rootObject, reader);
+        }
+
+        @Override
+        public void deparseDocument(final XMLElementWriter<?> writer, final Object rootObject, final XMLStreamWriter streamWriter) throws XMLStreamException {
+            delegate.deparseDocument(writer, rootObject, streamWriter);
+        }
+
+        @Override
+        public void deparseDocument(final XMLContentWriter contentWriter, final XMLStreamWriter streamWriter) throws XMLStreamException {
+            delegate.deparseDocument(contentWriter, streamWriter);
+        }
+
+        /**
+         * Registers the recorded readers with another mapper.
+         *
+         * @return the other mapper
+         */
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        XMLMapper copyTo(final XMLMapper mapper) {
+            for (Map.Entry<QName, Supplier<? extends XMLElementReader<?>>> entry : rootElements.entrySet()) {
+                mapper.registerRootElement(entry.getKey(), (Supplier) entry.getValue());
+            }
+            for (Map.Entry<QName, XMLAttributeReader<?>> entry : rootAttributes.entrySet()) {
+                mapper.registerRootAttribute(entry.getKey(), entry.getValue());
+            }
+            return mapper;
+        }
+    }
+
+    /**
+     * A reader whose mapper is a {@link RecordingXMLMapper}, so the subsystem elements it reads can be parsed in parallel.
+     */
+    private static final class Reader extends StreamReaderDelegate implements XMLExtendedStreamReader {
+        private final XMLExtendedStreamReader delegate;
+        private final XMLMapper mapper;
+
+        Reader(final XMLExtendedStreamReader delegate, final XMLMapper mapper) {
+            super(delegate);
+            this.delegate = delegate;
+            this.mapper = mapper;
+        }
+
+        @Override
+        public void handleAny(final Object value) throws XMLStreamException {
+            delegate.handleAny(value);
+        }
+
+        @Override
+        public void handleAttribute(final Object value, final int index) throws XMLStreamException {
+            delegate.handleAttribute(value, index);
+        }
+
+        @Override
+        public void discardRemainder() throws XMLStreamException {
+            delegate.discardRemainder();
+        }
+
+        @Override
+        public int getIntAttributeValue(final int index) throws XMLStreamException {
+            return delegate.getIntAttributeValue(index);
+        }
+
+        @Override
+        public int[] getIntListAttributeValue(final int index) throws XMLStreamException {
+            return delegate.getIntListAttributeValue(index);
+        }
+
+        @Override
+        public List<String> getListAttributeValue(final int index) throws XMLStreamException {
+            return delegate.getListAttributeValue(index);
+        }
+
+        @Override
+        public long getLongAttributeValue(final int index) throws XMLStreamException {
+            return delegate.getLongAttributeValue(index);
+        }
+
+        @Override
+        public long[] getLongListAttributeValue(final int index) throws XMLStreamException {
+            return delegate.getLongListAttributeValue(index);
+        }
+
+        @Override
+        public <T> T getAttributeValue(final int index, final Class<T> kind) throws XMLStreamException {
+            return delegate.getAttributeValue(index, kind);
+        }
+
+        @Override
+        public <T> List<? extends T> getListAttributeValue(final int index, final Class<T> kind) throws XMLStreamException {
+            return delegate.getListAttributeValue(index, kind);
+        }
+
+        @Override
+        public String getId() throws XMLStreamException {
+            return delegate.getId();
+        }
+
+        @Override
+        public XMLMapper getXMLMapper() {
+            return mapper;
+        }
+
+        @Override
+        public void setTrimElementText(final boolean trim) {
+            delegate.setTrimElementText(trim);
+        }
+    }
+}
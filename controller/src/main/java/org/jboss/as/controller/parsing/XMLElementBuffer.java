@@ -0,0 +1,637 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.jboss.as.controller.parsing;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import javax.xml.XMLConstants;
+import javax.xml.namespace.NamespaceContext;
+import javax.xml.namespace.QName;
+import javax.xml.stream.Location;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * The events of an XML element, read from one {@link XMLStreamReader} so they can be replayed, possibly on another
+ * thread, as a document of their own by the reader returned by {@link #createReader()}.
+ * <p>
+ * The replayed events report the location they were read at. Besides the namespaces declared within the element,
+ * the namespaces of the prefixed names the element contains are in scope of the replayed document.
+ */
+final class XMLElementBuffer {
+
+    private static final String[] NO_STRINGS = new String[0];
+    private static final QName[] NO_NAMES = new QName[0];
+
+    private final List<Event> events;
+
+    private XMLElementBuffer(final List<Event> events) {
+        this.events = events;
+    }
+
+    /**
+     * Reads the element the reader is positioned at, leaving the reader positioned at its end element.
+     *
+     * @param reader the reader, positioned at a start element
+     * @return the buffered element
+     * @throws XMLStreamException if the element cannot be read
+     */
+    static XMLElementBuffer read(final XMLStreamReader reader) throws XMLStreamException {
+        reader.require(XMLStreamConstants.START_ELEMENT, null, null);
+        final List<Event> events = new ArrayList<>();
+        events.add(new Event(XMLStreamConstants.START_DOCUMENT, null, null, null, null, null, null, null, false, location(reader.getLocation())));
+        // The prefixes declared within the element, and the bindings of the others it uses
+        final Deque<List<String>> scopes = new ArrayDeque<>();
+        final List<String> inheritedPrefixes = new ArrayList<>();
+        final List<String> inheritedURIs = new ArrayList<>();
+        int depth = 0;
+        int event = reader.getEventType();
+        do {
+            switch (event) {
+                case XMLStreamConstants.START_ELEMENT: {
+                    depth++;
+                    final Event start = startElement(reader);
+                    final List<String> declared = new ArrayList<>(start.namespacePrefixes.length);
+                    Collections.addAll(declared, start.namespacePrefixes);
+                    scopes.push(declared);
+                    inherit(start.name, true, scopes, inheritedPrefixes, inheritedURIs);
+                    for (QName attribute : start.attributeNames) {
+                        inherit(attribute, false, scopes, inheritedPrefixes, inheritedURIs);
+                    }
+                    events.add(start);
+                    break;
+                }
+                case XMLStreamConstants.END_ELEMENT: {
+                    depth--;
+                    scopes.pop();
+                    events.add(new Event(event, reader.getName(), null, null, null, null, null, null, false, location(reader.getLocation())));
+                    break;
+                }
+                case XMLStreamConstants.PROCESSING_INSTRUCTION: {
+                    events.add(new Event(event, null, null, null, null, null, null, reader.getPITarget() + ' ' + (reader.getPIData() == null ? "" : reader.getPIData()), false, location(reader.getLocation())));
+                    break;
+                }
+                case XMLStreamConstants.CHARACTERS:
+                case XMLStreamConstants.CDATA:
+                case XMLStreamConstants.SPACE:
+                case XMLStreamConstants.COMMENT:
+                case XMLStreamConstants.ENTITY_REFERENCE: {
+                    events.add(new Event(event, null, null, null, null, null, null, reader.getText(), reader.isWhiteSpace(), location(reader.getLocation())));
+                    break;
+                }
+                default:
+                    // Nothing else can occur within an element
+            }
+            if (depth > 0) {
+                event = reader.next();
+            }
+        } while (depth > 0);
+        if (!inheritedPrefixes.isEmpty()) {
+            final Event root = events.get(1);
+            final int declared = root.namespacePrefixes.length;
+            final String[] prefixes = new String[declared + inheritedPrefixes.size()];
+            final String[] uris = new String[prefixes.length];
+            System.arraycopy(root.namespacePrefixes, 0, prefixes, 0, declared);
+            System.arraycopy(root.namespaceURIs, 0, uris, 0, declared);
+            for (int i = 0; i < inheritedPrefixes.size(); i++) {
+                prefixes[declared + i] = inheritedPrefixes.get(i);
+                uris[declared + i] = inheritedURIs.get(i);
+            }
+            events.set(1, new Event(root.type, root.name, root.attributeNames, root.attributeValues, root.attributeTypes,
+                    prefixes, uris, null, false, root.location));
+        }
+        events.add(new Event(XMLStreamConstants.END_DOCUMENT, null, null, null, null, null, null, null, false, location(reader.getLocation())));
+        return new XMLElementBuffer(events);
+    }
+
+    /**
+     * Gets the name of the buffered element.
+     */
+    QName getName() {
+        return events.get(1).name;
+    }
+
+    /**
+     * Creates a reader of a document consisting of the buffered element. Each reader replays the events independently.
+     */
+    XMLStreamReader createReader() {
+        return new Reader();
+    }
+
+    private static Event startElement(final XMLStreamReader reader) {
+        final int attributeCount = reader.getAttributeCount();
+        final QName[] attributeNames = attributeCount == 0 ? NO_NAMES : new QName[attributeCount];
+        final String[] attributeValues = attributeCount == 0 ? NO_STRINGS : new String[attributeCount];
+        final String[] attributeTypes = attributeCount == 0 ? NO_STRINGS : new String[attributeCount];
+        for (int i = 0; i < attributeCount; i++) {
+            attributeNames[i] = reader.getAttributeName(i);
+            attributeValues[i] = reader.getAttributeValue(i);
+            attributeTypes[i] = reader.getAttributeType(i);
+        }
+        final int namespaceCount = reader.getNamespaceCount();
+        final String[] namespacePrefixes = namespaceCount == 0 ? NO_STRINGS : new String[namespaceCount];
+        final String[] namespaceURIs = namespaceCount == 0 ? NO_STRINGS : new String[namespaceCount];
+        for (int i = 0; i < namespaceCount; i++) {
+            final String prefix = reader.getNamespacePrefix(i);
+            namespacePrefixes[i] = prefix == null ? XMLConstants.DEFAULT_NS_PREFIX : prefix;
+            namespaceURIs[i] = reader.getNamespaceURI(i);
+        }
+        return new Event(XMLStreamConstants.START_ELEMENT, reader.getName(), attributeNames, attributeValues, attributeTypes,
+                namespacePrefixes, namespaceURIs, null, false, location(reader.getLocation()));
+    }
+
+    /**
+     * Records the binding of the prefix of a name if it was declared outside the buffered element.
+     */
+    private static void inherit(final QName name, final boolean element, final Deque<List<String>> scopes,
+                                final List<String> inheritedPrefixes, final List<String> inheritedURIs) {
+        final String prefix = name.getPrefix();
+        if ((!element && prefix.isEmpty()) || XMLConstants.XML_NS_PREFIX.equals(prefix)
+                || (prefix.isEmpty() && name.getNamespaceURI().isEmpty()) || inheritedPrefixes.contains(prefix)) {
+            return;
+        }
+        for (List<String> declared : scopes) {
+            if (declared.contains(prefix)) {
+                return;
+            }
+        }
+        inheritedPrefixes.add(prefix);
+        inheritedURIs.add(name.getNamespaceURI());
+    }
+
+    private static Location location(final Location location) {
+        if (location == null) {
+            return null;
+        }
+        return new BufferedLocation(location.getLineNumber(), location.getColumnNumber(), location.getCharacterOffset(),
+                location.getPublicId(), location.getSystemId());
+    }
+
+    private static final class Event {
+        final int type;
+        final QName name;
+        final QName[] attributeNames;
+        final String[] attributeValues;
+        final String[] attributeTypes;
+        final String[] namespacePrefixes;
+        final String[] namespaceURIs;
+        /** The text of character events and comments, or the target and data of processing instructions */
+        final String text;
+        final boolean whiteSpace;
+        final Location location;
+
+        Event(final int type, final QName name, final QName[] attributeNames, final String[] attributeValues,
+              final String[] attributeTypes, final String[] namespacePrefixes, final String[] namespaceURIs,
+              final String text, final boolean whiteSpace, final Location location) {
+            this.type = type;
+            this.name = name;
+            this.attributeNames = attributeNames;
+            this.attributeValues = attributeValues;
+            this.attributeTypes = attributeTypes;
+            this.namespacePrefixes = namespacePrefixes;
+            this.namespaceURIs = namespaceURIs;
+            this.text = text;
+            this.whiteSpace = whiteSpace;
+            this.location = location;
+        }
+    }
+
+    private static final class BufferedLocation implements Location {
+        private final int lineNumber;
+        private final int columnNumber;
+        private final int characterOffset;
+        private final String publicId;
+        private final String systemId;
+
+        BufferedLocation(final int lineNumber, final int columnNumber, final int characterOffset, final String publicId, final String systemId) {
+            this.lineNumber = lineNumber;
+            this.columnNumber = columnNumber;
+            this.characterOffset = characterOffset;
+            this.publicId = publicId;
+            this.systemId = systemId;
+        }
+
+        @Override
+        public int getLineNumber() {
+            return lineNumber;
+        }
+
+        @Override
+        public int getColumnNumber() {
+            return columnNumber;
+        }
+
+        @Override
+        public int getCharacterOffset() {
+            return characterOffset;
+        }
+
+        @Override
+        public String getPublicId() {
+            return publicId;
+        }
+
+        @Override
+        public String getSystemId() {
+            return systemId;
+        }
+    }
+
+    private final class Reader implements XMLStreamReader, NamespaceContext {
+        /** The start elements of the elements the current event is within, or ends */
+        private final Deque<Event> elements = new ArrayDeque<>();
+        private int index;
+        private Event current = events.get(0);
+
+        @Override
+        public Object getProperty(final String name) {
+            if (name == null) {
+                throw new IllegalArgumentException();
+            }
+            return null;
+        }
+
+        @Override
+        public int next() throws XMLStreamException {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            if (current.type == XMLStreamConstants.END_ELEMENT) {
+                elements.pop();
+            }
+            current = events.get(++index);
+            if (current.type == XMLStreamConstants.START_ELEMENT) {
+                elements.push(current);
+            }
+            return current.type;
+        }
+
+        @Override
+        public void require(final int type, final String namespaceURI, final String localName) throws XMLStreamException {
+            if (type != current.type) {
+                throw new XMLStreamException("Expected event type " + type + " but found " + current.type, getLocation());
+            }
+            if (namespaceURI != null && !namespaceURI.equals(getNamespaceURI())) {
+                throw new XMLStreamException("Expected namespace " + namespaceURI + " but found " + getNamespaceURI(), getLocation());
+            }
+            if (localName != null && !localName.equals(getLocalName())) {
+                throw new XMLStreamException("Expected local name " + localName + " but found " + getLocalName(), getLocation());
+            }
+        }
+
+        @Override
+        public String getElementText() throws XMLStreamException {
+            require(XMLStreamConstants.START_ELEMENT, null, null);
+            final StringBuilder text = new StringBuilder();
+            int type = next();
+            while (type != XMLStreamConstants.END_ELEMENT) {
+                switch (type) {
+                    case XMLStreamConstants.CHARACTERS:
+                    case XMLStreamConstants.CDATA:
+                    case XMLStreamConstants.SPACE:
+                    case XMLStreamConstants.ENTITY_REFERENCE:
+                        text.append(current.text);
+                        break;
+                    case XMLStreamConstants.PROCESSING_INSTRUCTION:
+                    case XMLStreamConstants.COMMENT:
+                        break;
+                    case XMLStreamConstants.START_ELEMENT:
+                        throw new XMLStreamException("Element text content may not contain a start element", getLocation());
+                    default:
+                        throw new XMLStreamException("Unexpected event type " + type, getLocation());
+                }
+                type = next();
+            }
+            return text.toString();
+        }
+
+        @Override
+        public int nextTag() throws XMLStreamException {
+            int type = next();
+            while ((type == XMLStreamConstants.CHARACTERS && current.whiteSpace)
+                    || (type == XMLStreamConstants.CDATA && current.whiteSpace)
+                    || type == XMLStreamConstants.SPACE
+                    || type == XMLStreamConstants.PROCESSING_INSTRUCTION
+                    || type == XMLStreamConstants.COMMENT) {
+                type = next();
+            }
+            if (type != XMLStreamConstants.START_ELEMENT && type != XMLStreamConstants.END_ELEMENT) {
+                throw new XMLStreamException("Expected a start or end element but found event type " + type, getLocation());
+            }
+            return type;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return index < events.size() - 1;
+        }
+
+        @Override
+        public void close() {
+            // Nothing to release
+        }
+
+        @Override
+        public String getNamespaceURI(final String prefix) {
+            if (prefix == null) {
+                throw new IllegalArgumentException();
+            }
+            if (XMLConstants.XML_NS_PREFIX.equals(prefix)) {
+                return XMLConstants.XML_NS_URI;
+            }
+            if (XMLConstants.XMLNS_ATTRIBUTE.equals(prefix)) {
+                return XMLConstants.XMLNS_ATTRIBUTE_NS_URI;
+            }
+            for (Event element : elements) {
+                for (int i = 0; i < element.namespacePrefixes.length; i++) {
+                    if (prefix.equals(element.namespacePrefixes[i])) {
+                        return element.namespaceURIs[i];
+                    }
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public String getPrefix(final String namespaceURI) {
+            final Iterator<String> prefixes = getPrefixes(namespaceURI);
+            return prefixes.hasNext() ? prefixes.next() : null;
+        }
+
+        @Override
+        public Iterator<String> getPrefixes(final String namespaceURI) {
+            if (namespaceURI == null) {
+                throw new IllegalArgumentException();
+            }
+            final List<String> prefixes = new ArrayList<>();
+            for (Event element : elements) {
+                for (int i = 0; i < element.namespacePrefixes.length; i++) {
+                    final String prefix = element.namespacePrefixes[i];
+                    if (namespaceURI.equals(element.namespaceURIs[i]) && !prefixes.contains(prefix)
+                            && namespaceURI.equals(getNamespaceURI(prefix))) {
+                        prefixes.add(prefix);
+                    }
+                }
+            }
+            return prefixes.iterator();
+        }
+
+        @Override
+        public boolean isStartElement() {
+            return current.type == XMLStreamConstants.START_ELEMENT;
+        }
+
+        @Override
+        public boolean isEndElement() {
+            return current.type == XMLStreamConstants.END_ELEMENT;
+        }
+
+        @Override
+        public boolean isCharacters() {
+            return current.type == XMLStreamConstants.CHARACTERS;
+        }
+
+        @Override
+        public boolean isWhiteSpace() {
+            return current.whiteSpace;
+        }
+
+        @Override
+        public String getAttributeValue(final String namespaceURI, final String localName) {
+            final Event start = startElement();
+            for (int i = 0; i < start.attributeNames.length; i++) {
+                final QName name = start.attributeNames[i];
+                if (name.getLocalPart().equals(localName) && (namespaceURI == null || namespaceURI.equals(name.getNamespaceURI()))) {
+                    return start.attributeValues[i];
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public int getAttributeCount() {
+            return startElement().attributeNames.length;
+        }
+
+        @Override
+        public QName getAttributeName(final int index) {
+            return startElement().attributeNames[index];
+        }
+
+        @Override
+        public String getAttributeNamespace(final int index) {
+            final String namespaceURI = getAttributeName(index).getNamespaceURI();
+            return namespaceURI.isEmpty() ? null : namespaceURI;
+        }
+
+        @Override
+        public String getAttributeLocalName(final int index) {
+            return getAttributeName(index).getLocalPart();
+        }
+
+        @Override
+        public String getAttributePrefix(final int index) {
+            return getAttributeName(index).getPrefix();
+        }
+
+        @Override
+        public String getAttributeType(final int index) {
+            return startElement().attributeTypes[index];
+        }
+
+        @Override
+        public String getAttributeValue(final int index) {
+            return startElement().attributeValues[index];
+        }
+
+        @Override
+        public boolean isAttributeSpecified(final int index) {
+            getAttributeName(index);
+            return true;
+        }
+
+        @Override
+        public int getNamespaceCount() {
+            return element().namespacePrefixes.length;
+        }
+
+        @Override
+        public String getNamespacePrefix(final int index) {
+            final String prefix = element().namespacePrefixes[index];
+            return prefix.isEmpty() ? null : prefix;
+        }
+
+        @Override
+        public String getNamespaceURI(final int index) {
+            return element().namespaceURIs[index];
+        }
+
+        @Override
+        public NamespaceContext getNamespaceContext() {
+            return this;
+        }
+
+        @Override
+        public int getEventType() {
+            return current.type;
+        }
+
+        @Override
+        public String getText() {
+            switch (current.type) {
+                case XMLStreamConstants.CHARACTERS:
+                case XMLStreamConstants.CDATA:
+                case XMLStreamConstants.SPACE:
+                case XMLStreamConstants.COMMENT:
+                case XMLStreamConstants.ENTITY_REFERENCE:
+                    return current.text;
+                default:
+                    throw new IllegalStateException();
+            }
+        }
+
+        @Override
+        public char[] getTextCharacters() {
+            return getText().toCharArray();
+        }
+
+        @Override
+        public int getTextCharacters(final int sourceStart, final char[] target, final int targetStart, final int length) {
+            final String text = getText();
+            final int count = Math.min(length, text.length() - sourceStart);
+            if (count <= 0) {
+                return 0;
+            }
+            text.getChars(sourceStart, sourceStart + count, target, targetStart);
+            return count;
+        }
+
+        @Override
+        public int getTextStart() {
+            getText();
+            return 0;
+        }
+
+        @Override
+        public int getTextLength() {
+            return getText().length();
+        }
+
+        @Override
+        public String getEncoding() {
+            return null;
+        }
+
+        @Override
+        public boolean hasText() {
+            switch (current.type) {
+                case XMLStreamConstants.CHARACTERS:
+                case XMLStreamConstants.CDATA:
+                case XMLStreamConstants.SPACE:
+                case XMLStreamConstants.COMMENT:
+                case XMLStreamConstants.ENTITY_REFERENCE:
+                    return true;
+                default:
+                    return false;
+            }
+        }
+
+        @Override
+        public Location getLocation() {
+            return current.location;
+        }
+
+        @Override
+        public QName getName() {
+            return element().name;
+        }
+
+        @Override
+        public String getLocalName() {
+            return getName().getLocalPart();
+        }
+
+        @Override
+        public boolean hasName() {
+            return current.type == XMLStreamConstants.START_ELEMENT || current.type == XMLStreamConstants.END_ELEMENT;
+        }
+
+        @Override
+        public String getNamespaceURI() {
+            if (!hasName()) {
+                return null;
+            }
+            final String namespaceURI = current.name.getNamespaceURI();
+            return namespaceURI.isEmpty() ? null : namespaceURI;
+        }
+
+        @Override
+        public String getPrefix() {
+            return hasName() ? current.name.getPrefix() : null;
+        }
+
+        @Override
+        public String getVersion() {
+            return null;
+        }
+
+        @Override
+        public boolean isStandalone() {
+            return false;
+        }
+
+        @Override
+        public boolean standaloneSet() {
+            return false;
+        }
+
+        @Override
+        public String getCharacterEncodingScheme() {
+            return null;
+        }
+
+        @Override
+        public String getPITarget() {
+            return processingInstruction()[0];
+        }
+
+        @Override
+        public String getPIData() {
+            return processingInstruction()[1];
+        }
+
+        private String[] processingInstruction() {
+            if (current.type != XMLStreamConstants.PROCESSING_INSTRUCTION) {
+                throw new IllegalStateException();
+            }
+            return current.text.split(" ", 2);
+        }
+
+        private Event startElement() {
+            if (current.type != XMLStreamConstants.START_ELEMENT) {
+                throw new IllegalStateException();
+            }
+            return current;
+        }
+
+        /**
+         * Gets the start element of the current start or end element event.
+         */
+        private Event element() {
+            if (!hasName()) {
+                throw new IllegalStateException();
+            }
+            return elements.peek();
+        }
+    }
+}
@@ -11,14 +11,18 @@ import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Supplier;
 import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamWriter;
 
+import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.logging.ControllerLogger;
 import org.jboss.dmr.ModelNode;
 import org.jboss.staxmapper.XMLElementWriter;
+import org.jboss.staxmapper.XMLExtendedStreamWriter;
 import org.jboss.staxmapper.XMLMapper;
 
 /**
@@ -30,6 +34,7 @@ public abstract class AbstractConfigurationPersister implements ExtensibleConfig
 
     private final XMLElementWriter<ModelMarshallingContext> rootDeparser;
     private final ConcurrentHashMap<String, Supplier<XMLElementWriter<SubsystemMarshallingContext>>> subsystemWriterSuppliers = new ConcurrentHashMap<>();
+    private final SubsystemXmlCache subsystemXmlCache = new SubsystemXmlCache();
 
     /**
      * Construct a new instance.
@@ -42,17 +47,58 @@ public abstract class AbstractConfigurationPersister implements ExtensibleConfig
 
     @Override
     public void registerSubsystemWriter(String name, Supplier<XMLElementWriter<SubsystemMarshallingContext>> writer) {
-        subsystemWriterSuppliers.putIfAbsent(name, writer);
+        if (subsystemWriterSuppliers.putIfAbsent(name, writer) == null) {
+            subsystemXmlCache.invalidate(name);
+        }
     }
 
     @Override
     public void unregisterSubsystemWriter(String name) {
         subsystemWriterSuppliers.remove(name);
+        subsystemXmlCache.invalidate(name);
     }
 
     /** {@inheritDoc} */
     @Override
     public void marshallAsXml(final ModelNode model, final OutputStream output) throws ConfigurationPersistenceException {
+        marshallAsXml(model, output, null);
+    }
+
+    /**
+     * Marshals a model that differs from the one last marshalled by this method only in the given addresses.
+     * Subsystems not affected by the differences are not marshalled again; what their writers wrote last time is
+     * written instead.
+     *
+     * @param model the model to marshal
+     * @param affectedAddresses the addresses of the resources that may have changed since the last call, or
+     *                          {@code null} if unknown
+     * @param output the stream to marshal to
+     * @throws ConfigurationPersistenceException if a problem occurs marshalling the model
+     */
+    void marshallAsXml(final ModelNode model, final Set<PathAddress> affectedAddresses, final OutputStream output) throws ConfigurationPersistenceException {
+        subsystemXmlCache.invalidate(affectedAddresses);
+        boolean success = false;
+        try {
+            marshallAsXml(model, output, subsystemXmlCache);
+            success = true;
+        } finally {
+            if (!success) {
+                subsystemXmlCache.invalidate((Set<PathAddress>) null);
+            }
+        }
+    }
+
+    /**
+     * Discards what was cached by {@link #marshallAsXml(ModelNode, Set, OutputStream)} for the given addresses,
+     * as changes to them are not going to be stored.
+     *
+     * @param affectedAddresses the addresses of the resources affected by the changes, or {@code null} if unknown
+     */
+    void discardMarshalledSubsystems(final Set<PathAddress> affectedAddresses) {
+        subsystemXmlCache.invalidate(affectedAddresses);
+    }
+
+    private void marshallAsXml(final ModelNode model, final OutputStream output, final SubsystemXmlCache cache) throws ConfigurationPersistenceException {
         final XMLMapper mapper = XMLMapper.Factory.create();
         final Map<String, XMLElementWriter<SubsystemMarshallingContext>> localSubsystemWriters = new HashMap<>();
         try {
@@ -79,6 +125,15 @@ public abstract class AbstractConfigurationPersister implements ExtensibleConfig
                         }
                         return result;
                     }
+
+                    @Override
+                    public void writeSubsystem(PathAddress address, ModelNode subsystem, XMLExtendedStreamWriter writer) throws XMLStreamException {
+                        if (cache == null) {
+                            ModelMarshallingContext.super.writeSubsystem(address, subsystem, writer);
+                        } else {
+                            cache.writeSubsystem(address, subsystem, () -> getSubsystemWriter(address.getLastElement().getValue()), writer);
+                        }
+                    }
                 };
                 mapper.deparseDocument(rootDeparser, extensibleModel, streamWriter);
                 streamWriter.close();
@@ -94,6 +149,15 @@ public abstract class AbstractConfigurationPersister implements ExtensibleConfig
     public void successfulBoot() throws ConfigurationPersistenceException {
     }
 
+    @Override
+    public void flush() {
+        getWriteBehindPersistence().flush(this);
+    }
+
+    WriteBehindPersistence getWriteBehindPersistence() {
+        return WriteBehindPersistence.INSTANCE;
+    }
+
     @Override
     public SnapshotInfo listSnapshots() {
         return NULL_SNAPSHOT_INFO;
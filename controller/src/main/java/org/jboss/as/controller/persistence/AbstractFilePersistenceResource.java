@@ -9,6 +9,9 @@ import static org.jboss.as.controller.logging.ControllerLogger.MGMT_OP_LOGGER;
 import java.io.BufferedOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Set;
+
+import org.jboss.as.controller.PathAddress;
 
 import org.jboss.as.controller.logging.ControllerLogger;
 import org.jboss.dmr.ModelNode;
@@ -20,13 +23,40 @@ import org.xnio.IoUtils;
  */
 public abstract class AbstractFilePersistenceResource implements ConfigurationPersister.PersistenceResource {
     private volatile ExposedByteArrayOutputStream marshalled;
+    private final AbstractConfigurationPersister persister;
+    private final Set<PathAddress> affectedAddresses;
+    private final boolean incremental;
 
     protected AbstractFilePersistenceResource(final ModelNode model, final AbstractConfigurationPersister persister) throws ConfigurationPersistenceException {
+        this(model, persister, null, false);
+    }
+
+    /**
+     * Creates a resource that only marshals again the subsystems affected by the change being stored.
+     *
+     * @param model the model to store
+     * @param affectedAddresses the addresses of the resources affected by the change, or {@code null} if unknown
+     * @param persister the persister
+     * @throws ConfigurationPersistenceException if a problem occurs marshalling the model
+     */
+    protected AbstractFilePersistenceResource(final ModelNode model, final Set<PathAddress> affectedAddresses, final AbstractConfigurationPersister persister) throws ConfigurationPersistenceException {
+        this(model, persister, affectedAddresses, true);
+    }
+
+    private AbstractFilePersistenceResource(final ModelNode model, final AbstractConfigurationPersister persister,
+                                            final Set<PathAddress> affectedAddresses, final boolean incremental) throws ConfigurationPersistenceException {
+        this.persister = persister;
+        this.affectedAddresses = affectedAddresses;
+        this.incremental = incremental;
         marshalled = new ExposedByteArrayOutputStream(1024 * 8);
         try {
             try {
                 BufferedOutputStream output = new BufferedOutputStream(marshalled);
-                persister.marshallAsXml(model, output);
+                if (incremental) {
+                    persister.marshallAsXml(model, affectedAddresses, output);
+                } else {
+                    persister.marshallAsXml(model, output);
+                }
                 output.close();
                 marshalled.close();
             } finally {
@@ -39,24 +69,58 @@ public abstract class AbstractFilePersistenceResource implements ConfigurationPe
 
     @Override
     public void commit() {
+        final ExposedByteArrayOutputStream marshalled = this.marshalled;
         if (marshalled == null) {
             throw ControllerLogger.ROOT_LOGGER.rollbackAlreadyInvoked();
         }
-        try(InputStream in = getMarshalledInputStream()) {
-            doCommit(in);
-        } catch (IOException ioex) {
-            MGMT_OP_LOGGER.errorf(ioex, ioex.getMessage());
+        final Runnable write = () -> {
+            try (InputStream in = marshalled.getInputStream()) {
+                doCommit(in);
+            } catch (IOException ioex) {
+                MGMT_OP_LOGGER.errorf(ioex, ioex.getMessage());
+            }
+        };
+        if (isWriteBehind()) {
+            persister.getWriteBehindPersistence().write(persister, write);
+        } else {
+            write.run();
         }
     }
 
     @Override
     public void rollback() {
         marshalled = null;
+        if (incremental) {
+            // The subsystems marshalled for the change no longer match the model
+            persister.discardMarshalledSubsystems(affectedAddresses);
+        }
     }
 
     protected InputStream getMarshalledInputStream() {
         return marshalled.getInputStream();
     }
 
+    /**
+     * Gets whether {@link #doCommit(InputStream)} may be called by another thread after {@link #commit()} returns,
+     * depending on the {@link WriteBehindPersistence#MODE_PROPERTY persistence mode}. If so, a later commit of a
+     * resource of the same persister may replace this one before it is written. This implementation returns
+     * {@code false}.
+     *
+     * @return {@code true} if the commit can be written behind
+     */
+    protected boolean isWriteBehind() {
+        return false;
+    }
+
+    /**
+     * Gets whether {@link #doCommit(InputStream)} must force the files it writes to storage before they replace the
+     * previous ones.
+     *
+     * @return {@code true} if writes must be forced
+     */
+    protected boolean isForcingWrites() {
+        return isWriteBehind() && persister.getWriteBehindPersistence().isForcingWrites();
+    }
+
     protected abstract void doCommit(InputStream marshalled);
 }
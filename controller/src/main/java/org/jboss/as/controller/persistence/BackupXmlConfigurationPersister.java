@@ -93,6 +93,7 @@ public class BackupXmlConfigurationPersister extends XmlConfigurationPersister {
     @Override
     public PersistenceResource store(final ModelNode model, Set<PathAddress> affectedAddresses) throws ConfigurationPersistenceException {
         if(!successfulBoot.get()) {
+            discardMarshalledSubsystems(affectedAddresses);
             return new PersistenceResource() {
                 @Override
                 public void commit() {
@@ -104,11 +105,12 @@ public class BackupXmlConfigurationPersister extends XmlConfigurationPersister {
             };
         }
         this.stored = true;
-        return new ConfigurationFilePersistenceResource(model, configurationFile, this);
+        return new ConfigurationFilePersistenceResource(model, affectedAddresses, configurationFile, this);
     }
 
     @Override
     public String snapshot(String name, String comment) throws ConfigurationPersistenceException {
+        flush();
         return configurationFile.snapshot(name, comment);
     }
 
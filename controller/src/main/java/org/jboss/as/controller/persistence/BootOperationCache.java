@@ -0,0 +1,196 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.jboss.as.controller.persistence;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ADD;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.EXTENSION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+import static org.jboss.as.controller.logging.ControllerLogger.ROOT_LOGGER;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.Objects;
+
+import org.jboss.as.controller.PathAddress;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.Property;
+import org.jboss.modules.Module;
+import org.jboss.modules.ModuleLoadException;
+import org.jboss.modules.ModuleLoader;
+import org.jboss.modules.Version;
+import org.wildfly.security.manager.WildFlySecurityManager;
+
+/**
+ * A cache of the boot operations parsed from a configuration file, stored in DMR binary form so a later boot of an
+ * unchanged configuration can skip parsing the XML.
+ * <p>
+ * A cached list of operations is only used if its key matches: the key covers the content of the configuration
+ * file and a fingerprint of the parsers, such as the versions of the schemas the process supports. The cache also
+ * records the version of each extension module the operations add, and is not used if one of them has changed.
+ */
+public final class BootOperationCache {
+
+    /** System property that, when {@code true}, enables the cache for the processes that support it */
+    public static final String PROPERTY = "org.wildfly.management.boot-operation-cache";
+
+    /** Increased whenever the format of the cache file changes */
+    private static final String FORMAT = "1";
+    private static final String KEY = "key";
+    private static final String EXTENSIONS = "extensions";
+    private static final String OPERATIONS = "operations";
+
+    private final File cacheFile;
+    private final String fingerprint;
+
+    /**
+     * Creates a cache.
+     *
+     * @param cacheFile the file to store the cached operations in. Cannot be {@code null}
+     * @param fingerprint identifies the parsers whose result is cached. Cannot be {@code null}
+     */
+    public BootOperationCache(final File cacheFile, final String fingerprint) {
+        this.cacheFile = cacheFile;
+        this.fingerprint = fingerprint;
+    }
+
+    /**
+     * Creates a cache if it is enabled by the {@link #PROPERTY} system property.
+     *
+     * @return the cache, or {@code null} if it is not enabled
+     */
+    public static BootOperationCache create(final File cacheFile, final String fingerprint) {
+        return Boolean.parseBoolean(WildFlySecurityManager.getPropertyPrivileged(PROPERTY, "false")) ? new BootOperationCache(cacheFile, fingerprint) : null;
+    }
+
+    /**
+     * Gets the key the operations parsed from a configuration are cached under.
+     *
+     * @param content the content of the configuration file
+     * @return the key
+     */
+    String getKey(final byte[] content) {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        digest.update(FORMAT.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        digest.update(fingerprint.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        final byte[] hash = digest.digest(content);
+        final StringBuilder sb = new StringBuilder(hash.length * 2);
+        for (byte b : hash) {
+            sb.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Loads the cached operations.
+     *
+     * @param key the key of the configuration
+     * @return the operations, or {@code null} if none are cached for the key or they are out of date
+     */
+    List<ModelNode> load(final String key) {
+        if (!cacheFile.isFile()) {
+            return null;
+        }
+        final ModelNode cached = new ModelNode();
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(cacheFile.toPath())))) {
+            cached.readExternal(input);
+        } catch (IOException | RuntimeException e) {
+            ROOT_LOGGER.debugf(e, "Ignoring unreadable boot operation cache %s", cacheFile);
+            return null;
+        }
+        if (!key.equals(cached.get(KEY).asStringOrNull())) {
+            ROOT_LOGGER.debugf("Boot operation cache %s is for a different configuration", cacheFile);
+            return null;
+        }
+        for (Property extension : cached.get(EXTENSIONS).asPropertyListOrEmpty()) {
+            if (!Objects.equals(getModuleVersion(extension.getName()), extension.getValue().asStringOrNull())) {
+                ROOT_LOGGER.debugf("Boot operation cache %s is for a different version of extension %s", cacheFile, extension.getName());
+                return null;
+            }
+        }
+        ROOT_LOGGER.debugf("Using the boot operations cached in %s", cacheFile);
+        return cached.get(OPERATIONS).asListOrEmpty();
+    }
+
+    /**
+     * Stores the operations parsed from a configuration. A failure to store them is logged and otherwise ignored.
+     *
+     * @param key the key of the configuration
+     * @param configurationFile the configuration file, whose permissions the cache file is given, as it holds the
+     *                          same information
+     * @param operations the operations
+     */
+    void store(final String key, final File configurationFile, final List<ModelNode> operations) {
+        final ModelNode cached = new ModelNode();
+        cached.get(KEY).set(key);
+        final ModelNode extensions = cached.get(EXTENSIONS).setEmptyObject();
+        final ModelNode list = cached.get(OPERATIONS).setEmptyList();
+        for (ModelNode operation : operations) {
+            list.add(operation);
+            final PathAddress address = PathAddress.pathAddress(operation.get(OP_ADDR));
+            if (address.size() == 1 && EXTENSION.equals(address.getElement(0).getKey()) && ADD.equals(operation.get(OP).asStringOrNull())) {
+                final String module = address.getElement(0).getValue();
+                final String version = getModuleVersion(module);
+                if (version == null) {
+                    // The extension cannot be loaded, so the boot will fail; don't cache it
+                    return;
+                }
+                extensions.get(module).set(version);
+            }
+        }
+        final File tempFile = FilePersistenceUtils.createTempFile(cacheFile);
+        try {
+            Files.createDirectories(cacheFile.getParentFile().toPath());
+            FilePersistenceUtils.deleteFile(tempFile);
+            FilePersistenceUtils.createTempFileWithAttributes(tempFile.toPath(), configurationFile);
+            try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile.toPath())))) {
+                cached.writeExternal(output);
+            }
+            FilePersistenceUtils.moveTempFileToMain(tempFile, cacheFile);
+        } catch (IOException | ConfigurationPersistenceException | RuntimeException e) {
+            ROOT_LOGGER.debugf(e, "Failed to store the boot operation cache %s", cacheFile);
+            try {
+                Files.deleteIfExists(tempFile.toPath());
+            } catch (IOException ignored) {
+                // nothing more to do
+            }
+        }
+    }
+
+    /**
+     * Gets the version of a module, as far as it can be told.
+     *
+     * @return the version, an empty string if it is unknown, or {@code null} if the module cannot be loaded
+     */
+    private static String getModuleVersion(final String name) {
+        final ModuleLoader loader = Module.getCallerModuleLoader();
+        if (loader == null) {
+            return "";
+        }
+        try {
+            final Version version = loader.loadModule(name).getVersion();
+            return version != null ? version.toString() : "";
+        } catch (ModuleLoadException e) {
+            return null;
+        }
+    }
+}
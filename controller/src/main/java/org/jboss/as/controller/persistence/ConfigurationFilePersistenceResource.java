@@ -9,7 +9,9 @@ import static org.jboss.as.controller.logging.ControllerLogger.MGMT_OP_LOGGER;
 
 import java.io.File;
 import java.io.InputStream;
+import java.util.Set;
 
+import org.jboss.as.controller.PathAddress;
 import org.jboss.dmr.ModelNode;
 
 /**
@@ -31,6 +33,18 @@ public class ConfigurationFilePersistenceResource extends AbstractFilePersistenc
         this.fileName = configurationFile.getMainFile();
     }
 
+    ConfigurationFilePersistenceResource(final ModelNode model, final Set<PathAddress> affectedAddresses, final ConfigurationFile configurationFile,
+                                         final AbstractConfigurationPersister persister) throws ConfigurationPersistenceException {
+        super(model, affectedAddresses, persister);
+        this.configurationFile = configurationFile;
+        this.fileName = configurationFile.getMainFile();
+    }
+
+    @Override
+    protected boolean isWriteBehind() {
+        return true;
+    }
+
     @Override
     protected void doCommit(InputStream in) {
         final File tempFileName;
@@ -45,7 +59,7 @@ public class ConfigurationFilePersistenceResource extends AbstractFilePersistenc
 
         try {
             try {
-                FilePersistenceUtils.writeToTempFile(in, tempFileName, fileName);
+                FilePersistenceUtils.writeToTempFile(in, tempFileName, fileName, isForcingWrites());
             } catch (Exception e) {
                 MGMT_OP_LOGGER.failedToStoreConfiguration(e, fileName.getName());
                 return;
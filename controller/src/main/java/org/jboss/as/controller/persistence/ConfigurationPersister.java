@@ -100,6 +100,15 @@ public interface ConfigurationPersister {
      */
     void successfulBoot() throws ConfigurationPersistenceException;
 
+    /**
+     * Waits for the changes committed by the {@link PersistenceResource}s of this persister to be written to
+     * persistent storage, for persisters that write them asynchronously. Called before the process stops.
+     * <p>
+     * The default implementation does nothing.
+     */
+    default void flush() {
+    }
+
     /**
      * Take a snapshot of the current configuration.
      *
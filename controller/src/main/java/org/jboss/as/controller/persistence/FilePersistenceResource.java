@@ -9,7 +9,9 @@ import static org.jboss.as.controller.logging.ControllerLogger.MGMT_OP_LOGGER;
 
 import java.io.File;
 import java.io.InputStream;
+import java.util.Set;
 
+import org.jboss.as.controller.PathAddress;
 import org.jboss.dmr.ModelNode;
 
 /**
@@ -27,11 +29,22 @@ public class FilePersistenceResource extends AbstractFilePersistenceResource {
 
     }
 
+    FilePersistenceResource(final ModelNode model, final Set<PathAddress> affectedAddresses, final File fileName,
+                            final AbstractConfigurationPersister persister) throws ConfigurationPersistenceException {
+        super(model, affectedAddresses, persister);
+        this.fileName = fileName;
+    }
+
+    @Override
+    protected boolean isWriteBehind() {
+        return true;
+    }
+
     @Override
     protected void doCommit(InputStream in) {
         final File tempFileName = FilePersistenceUtils.createTempFile(fileName);
         try {
-            FilePersistenceUtils.writeToTempFile(in, tempFileName, fileName);
+            FilePersistenceUtils.writeToTempFile(in, tempFileName, fileName, isForcingWrites());
             FilePersistenceUtils.moveTempFileToMain(tempFileName, fileName);
         } catch (Exception e) {
             MGMT_OP_LOGGER.failedToStoreConfiguration(e, fileName.getName());
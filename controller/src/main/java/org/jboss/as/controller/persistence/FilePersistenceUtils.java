@@ -8,10 +8,12 @@ import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.channels.FileChannel;
 import java.nio.file.FileStore;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.nio.file.attribute.AclEntry;
 import java.nio.file.attribute.AclFileAttributeView;
 import java.nio.file.attribute.FileAttribute;
@@ -106,6 +108,10 @@ class FilePersistenceUtils {
     }
 
     static File writeToTempFile(InputStream is, File tempFileName, File fileName) throws IOException {
+        return writeToTempFile(is, tempFileName, fileName, false);
+    }
+
+    static File writeToTempFile(InputStream is, File tempFileName, File fileName, boolean force) throws IOException {
         Path targetPath = tempFileName.toPath();
         deleteFile(tempFileName);
         try {
@@ -114,6 +120,11 @@ class FilePersistenceUtils {
             ControllerLogger.ROOT_LOGGER.error(ioex.getLocalizedMessage(), ioex);
         }
         Files.copy(is, targetPath, StandardCopyOption.REPLACE_EXISTING);
+        if (force) {
+            try (FileChannel channel = FileChannel.open(targetPath, StandardOpenOption.WRITE)) {
+                channel.force(true);
+            }
+        }
         return tempFileName;
     }
 
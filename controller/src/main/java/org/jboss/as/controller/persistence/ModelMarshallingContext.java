@@ -4,8 +4,12 @@
  */
 package org.jboss.as.controller.persistence;
 
+import javax.xml.stream.XMLStreamException;
+
+import org.jboss.as.controller.PathAddress;
 import org.jboss.dmr.ModelNode;
 import org.jboss.staxmapper.XMLElementWriter;
+import org.jboss.staxmapper.XMLExtendedStreamWriter;
 
 /**
  * Context passed to {@link XMLElementWriter}s that marshal a model.
@@ -28,4 +32,20 @@ public interface ModelMarshallingContext {
      *          under {@code subsystemName}
      */
     XMLElementWriter<SubsystemMarshallingContext> getSubsystemWriter(String subsystemName);
+
+    /**
+     * Marshals a subsystem using the {@link #getSubsystemWriter(String) writer registered} for it, if any.
+     * Implementations may reuse the output of a previous marshalling of a subsystem that has not changed since.
+     *
+     * @param address the address of the subsystem resource, relative to the {@link #getModelNode() model} being marshalled
+     * @param subsystem the model of the subsystem
+     * @param writer the stream writer to marshal the subsystem to
+     * @throws XMLStreamException if a problem occurs writing the subsystem
+     */
+    default void writeSubsystem(PathAddress address, ModelNode subsystem, XMLExtendedStreamWriter writer) throws XMLStreamException {
+        XMLElementWriter<SubsystemMarshallingContext> subsystemWriter = getSubsystemWriter(address.getLastElement().getValue());
+        if (subsystemWriter != null) { // FIXME -- remove when extensions are doing the registration
+            subsystemWriter.writeContent(writer, new SubsystemMarshallingContext(subsystem, writer));
+        }
+    }
 }
@@ -0,0 +1,281 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.jboss.as.controller.persistence;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.xml.namespace.NamespaceContext;
+import javax.xml.stream.XMLStreamException;
+
+import org.jboss.staxmapper.XMLExtendedStreamWriter;
+
+/**
+ * An {@link XMLExtendedStreamWriter} that passes everything written to it on to another writer, recording it so
+ * it can later be {@link Recording#replay(XMLExtendedStreamWriter) replayed} to another writer.
+ */
+final class RecordingXMLStreamWriter implements XMLExtendedStreamWriter {
+
+    /**
+     * A sequence of calls made to a {@link RecordingXMLStreamWriter}.
+     */
+    static final class Recording {
+
+        private final List<Event> events;
+
+        private Recording(List<Event> events) {
+            this.events = events;
+        }
+
+        /**
+         * Makes the recorded calls to the given writer.
+         *
+         * @param writer the writer. Cannot be {@code null}
+         * @throws XMLStreamException if the writer throws it
+         */
+        void replay(XMLExtendedStreamWriter writer) throws XMLStreamException {
+            for (Event event : events) {
+                event.replay(writer);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface Event {
+        void replay(XMLExtendedStreamWriter writer) throws XMLStreamException;
+    }
+
+    private final XMLExtendedStreamWriter delegate;
+    private final List<Event> events = new ArrayList<>();
+
+    RecordingXMLStreamWriter(XMLExtendedStreamWriter delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * Gets the calls made to this writer so far.
+     *
+     * @return the recording. Will not be {@code null}
+     */
+    Recording getRecording() {
+        return new Recording(List.copyOf(events));
+    }
+
+    private void record(Event event) throws XMLStreamException {
+        event.replay(delegate);
+        events.add(event);
+    }
+
+    @Override
+    public void writeAttribute(String localName, String[] values) throws XMLStreamException {
+        final String[] copy = values.clone();
+        record(writer -> writer.writeAttribute(localName, copy));
+    }
+
+    @Override
+    public void writeAttribute(String prefix, String namespaceURI, String localName, String[] values) throws XMLStreamException {
+        final String[] copy = values.clone();
+        record(writer -> writer.writeAttribute(prefix, namespaceURI, localName, copy));
+    }
+
+    @Override
+    public void writeAttribute(String namespaceURI, String localName, String[] values) throws XMLStreamException {
+        final String[] copy = values.clone();
+        record(writer -> writer.writeAttribute(namespaceURI, localName, copy));
+    }
+
+    @Override
+    public void writeAttribute(String localName, Iterable<String> values) throws XMLStreamException {
+        final List<String> copy = copy(values);
+        record(writer -> writer.writeAttribute(localName, copy));
+    }
+
+    @Override
+    public void writeAttribute(String prefix, String namespaceURI, String localName, Iterable<String> values) throws XMLStreamException {
+        final List<String> copy = copy(values);
+        record(writer -> writer.writeAttribute(prefix, namespaceURI, localName, copy));
+    }
+
+    @Override
+    public void writeAttribute(String namespaceURI, String localName, Iterable<String> values) throws XMLStreamException {
+        final List<String> copy = copy(values);
+        record(writer -> writer.writeAttribute(namespaceURI, localName, copy));
+    }
+
+    @Override
+    public void setUnspecifiedElementNamespace(String namespace) {
+        delegate.setUnspecifiedElementNamespace(namespace);
+        events.add(writer -> writer.setUnspecifiedElementNamespace(namespace));
+    }
+
+    @Override
+    public void writeStartElement(String localName) throws XMLStreamException {
+        record(writer -> writer.writeStartElement(localName));
+    }
+
+    @Override
+    public void writeStartElement(String namespaceURI, String localName) throws XMLStreamException {
+        record(writer -> writer.writeStartElement(namespaceURI, localName));
+    }
+
+    @Override
+    public void writeStartElement(String prefix, String localName, String namespaceURI) throws XMLStreamException {
+        record(writer -> writer.writeStartElement(prefix, localName, namespaceURI));
+    }
+
+    @Override
+    public void writeEmptyElement(String namespaceURI, String localName) throws XMLStreamException {
+        record(writer -> writer.writeEmptyElement(namespaceURI, localName));
+    }
+
+    @Override
+    public void writeEmptyElement(String prefix, String localName, String namespaceURI) throws XMLStreamException {
+        record(writer -> writer.writeEmptyElement(prefix, localName, namespaceURI));
+    }
+
+    @Override
+    public void writeEmptyElement(String localName) throws XMLStreamException {
+        record(writer -> writer.writeEmptyElement(localName));
+    }
+
+    @Override
+    public void writeEndElement() throws XMLStreamException {
+        record(XMLExtendedStreamWriter::writeEndElement);
+    }
+
+    @Override
+    public void writeEndDocument() throws XMLStreamException {
+        record(XMLExtendedStreamWriter::writeEndDocument);
+    }
+
+    @Override
+    public void close() throws XMLStreamException {
+        delegate.close();
+    }
+
+    @Override
+    public void flush() throws XMLStreamException {
+        delegate.flush();
+    }
+
+    @Override
+    public void writeAttribute(String localName, String value) throws XMLStreamException {
+        record(writer -> writer.writeAttribute(localName, value));
+    }
+
+    @Override
+    public void writeAttribute(String prefix, String namespaceURI, String localName, String value) throws XMLStreamException {
+        record(writer -> writer.writeAttribute(prefix, namespaceURI, localName, value));
+    }
+
+    @Override
+    public void writeAttribute(String namespaceURI, String localName, String value) throws XMLStreamException {
+        record(writer -> writer.writeAttribute(namespaceURI, localName, value));
+    }
+
+    @Override
+    public void writeNamespace(String prefix, String namespaceURI) throws XMLStreamException {
+        record(writer -> writer.writeNamespace(prefix, namespaceURI));
+    }
+
+    @Override
+    public void writeDefaultNamespace(String namespaceURI) throws XMLStreamException {
+        record(writer -> writer.writeDefaultNamespace(namespaceURI));
+    }
+
+    @Override
+    public void writeComment(String data) throws XMLStreamException {
+        record(writer -> writer.writeComment(data));
+    }
+
+    @Override
+    public void writeProcessingInstruction(String target) throws XMLStreamException {
+        record(writer -> writer.writeProcessingInstruction(target));
+    }
+
+    @Override
+    public void writeProcessingInstruction(String target, String data) throws XMLStreamException {
+        record(writer -> writer.writeProcessingInstruction(target, data));
+    }
+
+    @Override
+    public void writeCData(String data) throws XMLStreamException {
+        record(writer -> writer.writeCData(data));
+    }
+
+    @Override
+    public void writeDTD(String dtd) throws XMLStreamException {
+        record(writer -> writer.writeDTD(dtd));
+    }
+
+    @Override
+    public void writeEntityRef(String name) throws XMLStreamException {
+        record(writer -> writer.writeEntityRef(name));
+    }
+
+    @Override
+    public void writeStartDocument() throws XMLStreamException {
+        record(XMLExtendedStreamWriter::writeStartDocument);
+    }
+
+    @Override
+    public void writeStartDocument(String version) throws XMLStreamException {
+        record(writer -> writer.writeStartDocument(version));
+    }
+
+    @Override
+    public void writeStartDocument(String encoding, String version) throws XMLStreamException {
+        record(writer -> writer.writeStartDocument(encoding, version));
+    }
+
+    @Override
+    public void writeCharacters(String text) throws XMLStreamException {
+        record(writer -> writer.writeCharacters(text));
+    }
+
+    @Override
+    public void writeCharacters(char[] text, int start, int len) throws XMLStreamException {
+        final char[] copy = Arrays.copyOfRange(text, start, start + len);
+        record(writer -> writer.writeCharacters(copy, 0, copy.length));
+    }
+
+    @Override
+    public String getPrefix(String uri) throws XMLStreamException {
+        return delegate.getPrefix(uri);
+    }
+
+    @Override
+    public void setPrefix(String prefix, String uri) throws XMLStreamException {
+        record(writer -> writer.setPrefix(prefix, uri));
+    }
+
+    @Override
+    public void setDefaultNamespace(String uri) throws XMLStreamException {
+        record(writer -> writer.setDefaultNamespace(uri));
+    }
+
+    @Override
+    public void setNamespaceContext(NamespaceContext context) throws XMLStreamException {
+        record(writer -> writer.setNamespaceContext(context));
+    }
+
+    @Override
+    public NamespaceContext getNamespaceContext() {
+        return delegate.getNamespaceContext();
+    }
+
+    @Override
+    public Object getProperty(String name) throws IllegalArgumentException {
+        return delegate.getProperty(name);
+    }
+
+    private static List<String> copy(Iterable<String> values) {
+        final List<String> result = new ArrayList<>();
+        values.forEach(result::add);
+        return result;
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.jboss.as.controller.persistence;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.HOST;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.PROFILE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUBSYSTEM;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import javax.xml.stream.XMLStreamException;
+
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.dmr.ModelNode;
+import org.jboss.staxmapper.XMLElementWriter;
+import org.jboss.staxmapper.XMLExtendedStreamWriter;
+
+/**
+ * Caches what the subsystem writers wrote when the configuration was last stored, so that storing a change
+ * only runs the writers of the subsystems affected by it. The writes of the other subsystems are replayed.
+ * <p>
+ * Subsystems are identified by their address relative to the stored model, and are invalidated using the
+ * addresses of the resources affected by a change, which may be absolute. A change to a resource within a
+ * subsystem invalidates every subsystem of the same name, whatever its parent. A change to a resource that
+ * may contain subsystems, i.e. the root, a profile or a host, invalidates all subsystems. Registering or
+ * unregistering the writer of a subsystem must also {@link #invalidate(String) invalidate} it.
+ */
+final class SubsystemXmlCache {
+
+    private final Map<PathAddress, RecordingXMLStreamWriter.Recording> subsystems = new HashMap<>();
+
+    /**
+     * Writes a subsystem, replaying what its writer wrote last time if it has not been invalidated since.
+     *
+     * @param address the address of the subsystem, relative to the model being written
+     * @param subsystem the model of the subsystem
+     * @param subsystemWriter supplies the writer of the subsystem, which is only needed if it has to be run
+     * @param writer the stream writer
+     * @throws XMLStreamException if a problem occurs writing the subsystem
+     */
+    void writeSubsystem(PathAddress address, ModelNode subsystem, Supplier<XMLElementWriter<SubsystemMarshallingContext>> subsystemWriter,
+                        XMLExtendedStreamWriter writer) throws XMLStreamException {
+        final RecordingXMLStreamWriter.Recording cached;
+        synchronized (this) {
+            cached = subsystems.get(address);
+        }
+        if (cached != null) {
+            cached.replay(writer);
+        } else {
+            final XMLElementWriter<SubsystemMarshallingContext> elementWriter = subsystemWriter.get();
+            if (elementWriter == null) {
+                return;
+            }
+            final RecordingXMLStreamWriter recorder = new RecordingXMLStreamWriter(writer);
+            elementWriter.writeContent(recorder, new SubsystemMarshallingContext(subsystem, recorder));
+            synchronized (this) {
+                subsystems.put(address, recorder.getRecording());
+            }
+        }
+    }
+
+    /**
+     * Discards the writes of the subsystems affected by a change.
+     *
+     * @param affectedAddresses the addresses of the resources affected by the change, or {@code null} if unknown
+     */
+    synchronized void invalidate(Set<PathAddress> affectedAddresses) {
+        if (affectedAddresses == null) {
+            subsystems.clear();
+            return;
+        }
+        for (PathAddress affected : affectedAddresses) {
+            if (subsystems.isEmpty()) {
+                return;
+            }
+            final String subsystemName = getSubsystemName(affected);
+            if (subsystemName != null) {
+                invalidate(subsystemName);
+            } else if (affected.size() == 0 || PROFILE.equals(affected.getLastElement().getKey())
+                    || HOST.equals(affected.getLastElement().getKey())) {
+                subsystems.clear();
+            }
+        }
+    }
+
+    /**
+     * Discards the writes of all subsystems with the given name.
+     *
+     * @param subsystemName the name of the subsystem
+     */
+    synchronized void invalidate(String subsystemName) {
+        subsystems.keySet().removeIf(address -> subsystemName.equals(address.getLastElement().getValue()));
+    }
+
+    private static String getSubsystemName(PathAddress address) {
+        for (PathElement element : address) {
+            if (SUBSYSTEM.equals(element.getKey())) {
+                return element.getValue();
+            }
+        }
+        return null;
+    }
+}
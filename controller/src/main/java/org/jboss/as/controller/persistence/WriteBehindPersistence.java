@@ -0,0 +1,223 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.jboss.as.controller.persistence;
+
+import static java.security.AccessController.doPrivileged;
+import static org.jboss.as.controller.logging.ControllerLogger.MGMT_OP_LOGGER;
+
+import java.security.PrivilegedAction;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadFactory;
+
+import org.jboss.as.controller.logging.ControllerLogger;
+import org.jboss.threads.JBossThreadFactory;
+import org.wildfly.security.manager.WildFlySecurityManager;
+
+/**
+ * Writes committed configuration changes on a dedicated thread, so that write operations do not wait for the
+ * configuration files to be written, if the {@link #MODE_PROPERTY persistence mode} allows it.
+ * <p>
+ * Writes are queued per target, usually a persister. A write queued while an earlier write to the same target is
+ * still queued replaces it, as each write stores the whole configuration, so a burst of changes only writes the
+ * files once. Writes to different targets are made in the order they were first queued.
+ * <p>
+ * {@link #flush(Object)} must be called before anything reads or copies the files of a target, and when the
+ * process stops.
+ */
+public final class WriteBehindPersistence {
+
+    /**
+     * System property setting how committed configuration changes are written:
+     * <ul>
+     *     <li>{@code sync}, the default: by the thread committing the operation, before it completes</li>
+     *     <li>{@code async}: by a dedicated thread, forcing each written file to storage before it replaces the
+     *     previous one, so the cost of syncing is only paid once for a burst of changes</li>
+     *     <li>{@code async-relaxed}: by a dedicated thread, leaving it to the operating system to decide when the
+     *     files reach storage</li>
+     * </ul>
+     */
+    public static final String MODE_PROPERTY = "org.wildfly.management.persistence-mode";
+
+    enum Mode {
+        SYNC("sync"),
+        ASYNC("async"),
+        ASYNC_RELAXED("async-relaxed");
+
+        private final String name;
+
+        Mode(String name) {
+            this.name = name;
+        }
+
+        static Mode forName(String name) {
+            for (Mode mode : values()) {
+                if (mode.name.equals(name.toLowerCase(Locale.ENGLISH))) {
+                    return mode;
+                }
+            }
+            ControllerLogger.ROOT_LOGGER.invalidPersistenceMode(name, MODE_PROPERTY, SYNC.name);
+            return SYNC;
+        }
+    }
+
+    /** The instance used by all persisters */
+    public static final WriteBehindPersistence INSTANCE = new WriteBehindPersistence(Mode.forName(WildFlySecurityManager.getPropertyPrivileged(MODE_PROPERTY, Mode.SYNC.name)));
+
+    private final Mode mode;
+    /** Queued writes, by target */
+    private final Map<Object, PendingWrite> pending = new LinkedHashMap<>();
+    /** The write being made, if any */
+    private PendingWrite writing;
+    private long coalesced;
+    private Thread writer;
+
+    WriteBehindPersistence(Mode mode) {
+        this.mode = mode;
+    }
+
+    /**
+     * Writes a committed change, or queues it to be written by the writer thread.
+     *
+     * @param target the target of the write. Cannot be {@code null}
+     * @param write makes the write. Cannot be {@code null}
+     */
+    void write(Object target, Runnable write) {
+        if (mode == Mode.SYNC) {
+            write.run();
+            return;
+        }
+        synchronized (this) {
+            final PendingWrite replaced = pending.get(target);
+            if (replaced == null) {
+                pending.put(target, new PendingWrite(target, write, System.currentTimeMillis()));
+            } else {
+                // Keep the time of the earliest change the write now covers, and the target's place in the queue
+                pending.put(target, new PendingWrite(target, write, replaced.queued));
+                coalesced++;
+            }
+            if (writer == null) {
+                final ThreadFactory threadFactory = doPrivileged(new PrivilegedAction<JBossThreadFactory>() {
+                    public JBossThreadFactory run() {
+                        return new JBossThreadFactory(ThreadGroupHolder.THREAD_GROUP, Boolean.TRUE, null, "%G - %t", null, null);
+                    }
+                });
+                writer = threadFactory.newThread(this::run);
+                writer.start();
+            }
+            notifyAll();
+        }
+    }
+
+    /**
+     * Waits for the queued writes to a target to be made. Returns immediately if the current thread is interrupted,
+     * leaving its interrupt status set.
+     *
+     * @param target the target of the writes
+     */
+    synchronized void flush(Object target) {
+        if (Thread.currentThread() == writer) {
+            return;
+        }
+        try {
+            while (pending.containsKey(target) || (writing != null && writing.target == target)) {
+                wait();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Gets whether files written for a target must be forced to storage before they replace the previous ones.
+     *
+     * @return {@code true} if writes must be forced
+     */
+    boolean isForcingWrites() {
+        return mode == Mode.ASYNC;
+    }
+
+    /**
+     * Gets the number of committed changes waiting to be written, including any being written.
+     *
+     * @return the number of writes
+     */
+    public synchronized int getPendingWriteCount() {
+        return pending.size() + (writing != null ? 1 : 0);
+    }
+
+    /**
+     * Gets how long the earliest committed change that has not been written yet has been waiting.
+     *
+     * @return the time in milliseconds, or 0 if all committed changes have been written
+     */
+    public synchronized long getLag() {
+        long earliest = writing != null ? writing.queued : Long.MAX_VALUE;
+        for (PendingWrite write : pending.values()) {
+            earliest = Math.min(earliest, write.queued);
+        }
+        return earliest == Long.MAX_VALUE ? 0 : Math.max(0, System.currentTimeMillis() - earliest);
+    }
+
+    /**
+     * Gets the number of writes that were not made because a later change replaced them before they were.
+     *
+     * @return the number of writes
+     */
+    public synchronized long getCoalescedWriteCount() {
+        return coalesced;
+    }
+
+    private void run() {
+        for (;;) {
+            final PendingWrite write;
+            synchronized (this) {
+                try {
+                    while (pending.isEmpty()) {
+                        wait();
+                    }
+                } catch (InterruptedException e) {
+                    // Nothing interrupts this thread, but make sure nothing queued is left unwritten if something does
+                    Thread.interrupted();
+                    continue;
+                }
+                final Iterator<PendingWrite> iterator = pending.values().iterator();
+                write = iterator.next();
+                iterator.remove();
+                writing = write;
+            }
+            try {
+                write.write.run();
+            } catch (RuntimeException e) {
+                MGMT_OP_LOGGER.errorf(e, e.getMessage());
+            } finally {
+                synchronized (this) {
+                    writing = null;
+                    notifyAll();
+                }
+            }
+        }
+    }
+
+    // Wrapper class to delay thread group creation until when it's needed.
+    private static class ThreadGroupHolder {
+        private static final ThreadGroup THREAD_GROUP = new ThreadGroup("configuration-persistence-writer");
+    }
+
+    private static final class PendingWrite {
+        private final Object target;
+        private final Runnable write;
+        private final long queued;
+
+        private PendingWrite(Object target, Runnable write, long queued) {
+            this.target = target;
+            this.write = write;
+            this.queued = queued;
+        }
+    }
+}
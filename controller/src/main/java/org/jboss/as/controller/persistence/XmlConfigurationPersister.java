@@ -8,10 +8,13 @@ package org.jboss.as.controller.persistence;
 import static org.jboss.as.controller.logging.ControllerLogger.ROOT_LOGGER;
 
 import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
 import java.io.Closeable;
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -24,6 +27,7 @@ import javax.xml.stream.XMLStreamReader;
 
 import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.logging.ControllerLogger;
+import org.jboss.as.controller.parsing.ParallelSubsystemParser;
 import org.jboss.dmr.ModelNode;
 import org.jboss.staxmapper.XMLElementReader;
 import org.jboss.staxmapper.XMLElementWriter;
@@ -44,6 +48,7 @@ public class XmlConfigurationPersister extends AbstractConfigurationPersister {
     private final XMLElementReader<List<ModelNode>> rootParser;
     private final Map<QName, XMLElementReader<List<ModelNode>>> additionalParsers;
     private final boolean suppressLoad;
+    private volatile BootOperationCache bootOperationCache;
     protected volatile boolean stored = false;
 
     /**
@@ -82,11 +87,21 @@ public class XmlConfigurationPersister extends AbstractConfigurationPersister {
         }
     }
 
+    /**
+     * Sets the cache of the operations parsed from the configuration file, used by {@link #load()} instead of
+     * parsing the file when it has not changed.
+     *
+     * @param bootOperationCache the cache, or {@code null} to always parse the file
+     */
+    public void setBootOperationCache(final BootOperationCache bootOperationCache) {
+        this.bootOperationCache = bootOperationCache;
+    }
+
     /** {@inheritDoc} */
     @Override
     public PersistenceResource store(final ModelNode model, Set<PathAddress> affectedAddresses) throws ConfigurationPersistenceException {
         stored = true;
-        return new FilePersistenceResource(model, fileName, this);
+        return new FilePersistenceResource(model, affectedAddresses, fileName, this);
     }
 
     /** {@inheritDoc} */
@@ -96,7 +111,23 @@ public class XmlConfigurationPersister extends AbstractConfigurationPersister {
             return new ArrayList<>();
         }
 
-        final XMLMapper mapper = XMLMapper.Factory.create();
+        final BootOperationCache cache = this.bootOperationCache;
+        byte[] content = null;
+        String key = null;
+        if (cache != null) {
+            try {
+                content = Files.readAllBytes(fileName.toPath());
+            } catch (Exception e) {
+                throw ControllerLogger.ROOT_LOGGER.failedToParseConfiguration(e);
+            }
+            key = cache.getKey(content);
+            final List<ModelNode> cached = cache.load(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        final XMLMapper mapper = ParallelSubsystemParser.createXMLMapper();
         mapper.registerRootElement(rootElement, rootParser);
         synchronized (additionalParsers) {
             for (Map.Entry<QName, XMLElementReader<List<ModelNode>>> entry : additionalParsers.entrySet()) {
@@ -104,10 +135,11 @@ public class XmlConfigurationPersister extends AbstractConfigurationPersister {
             }
         }
         final List<ModelNode> updates = new ArrayList<ModelNode>();
-        BufferedInputStream input = null;
+        InputStream input = null;
         XMLStreamReader streamReader = null;
         try {
-            input = new BufferedInputStream(new FileInputStream(fileName));
+            // Parse the content the key was computed from, in case the file changes in the meantime
+            input = content != null ? new ByteArrayInputStream(content) : new BufferedInputStream(new FileInputStream(fileName));
             streamReader = XMLInputFactoryUtil.create().createXMLStreamReader(input, StandardCharsets.UTF_8.toString());
             mapper.parseDocument(updates, streamReader);
         } catch (XMLStreamException e) {
@@ -128,6 +160,9 @@ public class XmlConfigurationPersister extends AbstractConfigurationPersister {
             safeClose(input);
         }
 
+        if (cache != null) {
+            cache.store(key, fileName, updates);
+        }
         return updates;
     }
 
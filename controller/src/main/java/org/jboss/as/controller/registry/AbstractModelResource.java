@@ -32,6 +32,13 @@ public abstract class AbstractModelResource extends ResourceProvider.ResourcePro
 
     /** The children. */
     private final Map<String, ResourceProvider> children = new LinkedHashMap<String, ResourceProvider>();
+    /**
+     * A resource that will never be modified again, whose children this resource presents until it first needs
+     * copies of them. Guarded by {@link #children}.
+     */
+    private AbstractModelResource childrenSource;
+    /** Whether this resource has been {@link #freeze() frozen}, so it is never modified again. */
+    private volatile boolean frozen;
     private final boolean runtimeOnly;
     private final Set<String> orderedChildTypes;
 
@@ -85,7 +92,7 @@ public abstract class AbstractModelResource extends ResourceProvider.ResourcePro
 
     @Override
     public boolean hasChild(final PathElement address) {
-        final ResourceProvider provider = getProvider(address.getKey());
+        final ResourceProvider provider = getProviderForRead(address.getKey());
         if(provider == null) {
             return false;
         }
@@ -106,7 +113,7 @@ public abstract class AbstractModelResource extends ResourceProvider.ResourcePro
 
     @Override
     public boolean hasChildren(final String childType) {
-        final ResourceProvider provider = getProvider(childType);
+        final ResourceProvider provider = getProviderForRead(childType);
         return provider != null && provider.hasChildren();
     }
 
@@ -117,7 +124,7 @@ public abstract class AbstractModelResource extends ResourceProvider.ResourcePro
 
     @Override
     public Set<String> getChildrenNames(final String childType) {
-        final ResourceProvider provider = getProvider(childType);
+        final ResourceProvider provider = getProviderForRead(childType);
         if(provider == null) {
             return Collections.emptySet();
         }
@@ -126,9 +133,14 @@ public abstract class AbstractModelResource extends ResourceProvider.ResourcePro
 
     @Override
     public Set<String> getChildTypes() {
+        final AbstractModelResource source;
         synchronized (children) {
-            return new LinkedHashSet<String>(children.keySet());
+            source = childrenSource;
+            if (source == null) {
+                return new LinkedHashSet<String>(children.keySet());
+            }
         }
+        return source.getChildTypes();
     }
 
     @Override
@@ -207,6 +219,7 @@ public abstract class AbstractModelResource extends ResourceProvider.ResourcePro
 
     protected void registerResourceProvider(final String type, final ResourceProvider provider) {
         synchronized (children) {
+            copySharedChildren();
             if (children.containsKey(type)) {
                 throw ControllerLogger.ROOT_LOGGER.duplicateResourceType(type);
             }
@@ -215,13 +228,35 @@ public abstract class AbstractModelResource extends ResourceProvider.ResourcePro
     }
 
     protected final ResourceProvider getProvider(final String type) {
+        if (frozen) {
+            // Nothing will modify the children, so they do not need to be copied from the source
+            return getProviderForRead(type);
+        }
         synchronized (children) {
+            copySharedChildren();
             return children.get(type);
         }
     }
 
+    /**
+     * Gets the provider for the given child type for the purpose of inspecting which children exist, without
+     * taking copies of children shared with a {@link #copyChildrenOnWrite(AbstractModelResource) source resource}.
+     * Unless this resource is {@link #freeze() frozen}, the children the provider returns must not be handed out.
+     */
+    private ResourceProvider getProviderForRead(final String type) {
+        final AbstractModelResource source;
+        synchronized (children) {
+            source = childrenSource;
+            if (source == null) {
+                return children.get(type);
+            }
+        }
+        return source.getProviderForRead(type);
+    }
+
     protected ResourceProvider getOrCreateProvider(final String type) {
         synchronized (children) {
+            copySharedChildren();
             final ResourceProvider provider = children.get(type);
             if(provider != null) {
                 return provider;
@@ -238,12 +273,106 @@ public abstract class AbstractModelResource extends ResourceProvider.ResourcePro
 
     protected void cloneProviders(AbstractModelResource clone) {
         synchronized (children) {
+            final AbstractModelResource source = childrenSource;
+            if (source != null) {
+                if (clone.copyChildrenOnWrite(source)) {
+                    // Nothing has been copied from the source yet, so the clone can share it as well
+                    return;
+                }
+                if (frozen) {
+                    source.cloneProviders(clone);
+                    return;
+                }
+            }
+            copySharedChildren();
             for (final Map.Entry<String, ResourceProvider> entry : children.entrySet()) {
                 clone.registerResourceProvider(entry.getKey(), entry.getValue().clone());
             }
         }
     }
 
+    /**
+     * Makes this resource, if it does not have any children yet, present the same children as the given
+     * resource. The given resource must never be modified again; the children are only copied the first time
+     * this resource hands them out or is modified, so subtrees that are never touched are shared rather than
+     * copied.
+     *
+     * @param frozen the resource whose children should be shared. Cannot be {@code null}
+     * @return {@code true} if the children are now shared; {@code false} if this resource already had children
+     */
+    boolean copyChildrenOnWrite(final AbstractModelResource frozen) {
+        final AbstractModelResource source;
+        synchronized (frozen.children) {
+            // Share with whatever the frozen resource itself shares, to avoid chains of sources
+            source = frozen.childrenSource != null ? frozen.childrenSource : frozen;
+        }
+        synchronized (children) {
+            if (!children.isEmpty() || childrenSource != null) {
+                return false;
+            }
+            childrenSource = source;
+            return true;
+        }
+    }
+
+    /**
+     * Marks this resource, and the children it does not share with a source resource, as never being modified
+     * again, e.g. as they are about to be published. A frozen resource presents the model and children it shares
+     * with its source without taking its own copies of them, so reading it never modifies it.
+     */
+    void freeze() {
+        if (frozen) {
+            return;
+        }
+        frozen = true;
+        synchronized (children) {
+            if (childrenSource == null) {
+                for (final ResourceProvider provider : children.values()) {
+                    if (provider instanceof DefaultResourceProvider) {
+                        ((DefaultResourceProvider) provider).freeze();
+                    }
+                }
+            }
+        }
+    }
+
+    boolean isFrozen() {
+        return frozen;
+    }
+
+    /**
+     * {@link #freeze() Freezes} a resource, if it is a standard resource implementation.
+     *
+     * @param resource the resource. Cannot be {@code null}
+     */
+    static void freeze(final Resource resource) {
+        Resource target = resource;
+        if (target instanceof DelegateResource) {
+            target = ((DelegateResource) target).delegate;
+        }
+        if (target instanceof AbstractModelResource) {
+            ((AbstractModelResource) target).freeze();
+        }
+    }
+
+    /**
+     * Replaces shared children with this resource's own copies. Callers must hold the {@link #children} lock.
+     */
+    private void copySharedChildren() {
+        final AbstractModelResource source = childrenSource;
+        if (source != null) {
+            childrenSource = null;
+            synchronized (source.children) {
+                for (final Map.Entry<String, ResourceProvider> entry : source.children.entrySet()) {
+                    final ResourceProvider provider = entry.getValue();
+                    children.put(entry.getKey(), provider instanceof DefaultResourceProvider
+                            ? ((DefaultResourceProvider) provider).copyOnWrite()
+                            : provider.clone());
+                }
+            }
+        }
+    }
+
     private static class DefaultResourceProvider implements ResourceProvider {
 
         private final Map<String, Resource> children = new LinkedHashMap<String, Resource>();
@@ -337,6 +466,28 @@ public abstract class AbstractModelResource extends ResourceProvider.ResourcePro
             }
             return provider;
         }
+
+        /**
+         * Creates a copy of this provider, whose children will never be modified again, holding
+         * {@link Tools#copyOnWrite(Resource) copy-on-write} copies of the children.
+         */
+        ResourceProvider copyOnWrite() {
+            final DefaultResourceProvider provider = new DefaultResourceProvider();
+            synchronized (children) {
+                for (final Map.Entry<String, Resource> entry : children.entrySet()) {
+                    provider.children.put(entry.getKey(), Tools.copyOnWrite(entry.getValue()));
+                }
+            }
+            return provider;
+        }
+
+        void freeze() {
+            synchronized (children) {
+                for (final Resource child : children.values()) {
+                    AbstractModelResource.freeze(child);
+                }
+            }
+        }
     }
 
     abstract static class DelegateResource implements ResourceEntry {
@@ -8,6 +8,7 @@ package org.jboss.as.controller.registry;
 import java.util.ConcurrentModificationException;
 import java.util.Set;
 
+import org.jboss.as.controller.PathElement;
 import org.jboss.dmr.ModelNode;
 
 /**
@@ -16,12 +17,20 @@ import org.jboss.dmr.ModelNode;
  * <p>Concurrency note: if a thread needs to modify a BasicResource, it must use the clone() method to obtain its
  * own copy of the resource. That instance cannot be made visible to other threads until all writes are complete.</p>
  *
+ * <p>A resource that will never be modified again, e.g. one in a published management model, can instead be
+ * copied using {@link #copyOnWrite()}. Such a copy shares the model and children of the original, and only takes
+ * its own copy of them the first time they are handed out, so modifying a single resource in a large tree only
+ * copies the resources along its address. Once the copy is itself published it must be
+ * {@link Resource.Tools#freeze(Resource) frozen}, so reading it no longer takes copies.</p>
+ *
  * @author Emanuel Muckenhuber
  */
 class BasicResource extends AbstractModelResource implements Resource {
 
-    /** The local model. */
-    private final ModelNode model = new ModelNode();
+    /** The local model, or {@code null} while it is still shared with {@link #modelSource}. */
+    private volatile ModelNode model;
+    /** The resource whose model this one presents until it needs its own copy; {@code null} once it has. */
+    private volatile BasicResource modelSource;
 
     protected BasicResource() {
         this(false);
@@ -29,48 +38,137 @@ class BasicResource extends AbstractModelResource implements Resource {
 
     protected BasicResource(boolean runtimeOnly) {
         super(runtimeOnly);
+        this.model = new ModelNode();
     }
 
     protected BasicResource(boolean runtimeOnly, String...orderedChildTypes) {
         super(runtimeOnly, orderedChildTypes);
+        this.model = new ModelNode();
     }
 
     protected BasicResource(boolean runtimeOnly, Set<String> orderedChildTypes) {
         super(runtimeOnly, orderedChildTypes);
+        this.model = new ModelNode();
     }
 
-    private BasicResource(boolean runtimeOnly, Set<String> orderedChildTypes, boolean safe) {
-        super(runtimeOnly, orderedChildTypes, safe);
+    private BasicResource(boolean runtimeOnly, Set<String> orderedChildTypes, BasicResource modelSource) {
+        super(runtimeOnly, orderedChildTypes, true);
+        this.model = modelSource == null ? new ModelNode() : null;
+        this.modelSource = modelSource;
     }
 
     @Override
     public ModelNode getModel() {
-        return model;
+        ModelNode result = model;
+        if (result == null) {
+            if (isFrozen()) {
+                // Nothing will modify the model, so it does not need to be copied from the source
+                return peekModel();
+            }
+            synchronized (this) {
+                result = model;
+                if (result == null) {
+                    result = modelSource.model.clone();
+                    model = result;
+                    modelSource = null;
+                }
+            }
+        }
+        return result;
     }
 
     @Override
     public void writeModel(ModelNode newModel) {
+        if (model == null) {
+            synchronized (this) {
+                if (model == null) {
+                    // No point copying the shared model just to overwrite it
+                    model = newModel.clone();
+                    modelSource = null;
+                    return;
+                }
+            }
+        }
         model.set(newModel);
     }
 
     @Override
     public boolean isModelDefined() {
-        return model.isDefined();
+        return peekModel().isDefined();
     }
+
+    /**
+     * Gets the model for reading only, without taking a copy of a model shared with another resource.
+     *
+     * @return the model. Must not be modified
+     */
+    ModelNode peekModel() {
+        ModelNode result = model;
+        if (result == null) {
+            final BasicResource source = modelSource;
+            // If the source is gone our own copy is in place
+            result = source != null ? source.model : model;
+        }
+        return result;
+    }
+
+    @Override
+    public Resource shallowCopy() {
+        final Resource copy = Resource.Factory.create();
+        copy.writeModel(peekModel());
+        for (final String childType : getChildTypes()) {
+            for (final String childName : getChildrenNames(childType)) {
+                copy.registerChild(PathElement.pathElement(childType, childName), PlaceholderResource.INSTANCE);
+            }
+        }
+        return copy;
+    }
+
     @SuppressWarnings({"CloneDoesntCallSuperClone"})
     @Override
     public Resource clone() {
-        final BasicResource clone = new BasicResource(isRuntime(), getOrderedChildTypes(), true);
-        for (;;) {
-            try {
-                clone.writeModel(model);
-                break;
-            } catch (ConcurrentModificationException ignore) {
-                // TODO horrible hack :(
+        final ModelNode current = model;
+        final BasicResource source = current == null ? modelSource : null;
+        final BasicResource clone = new BasicResource(isRuntime(), getOrderedChildTypes(), source);
+        if (source == null) {
+            for (;;) {
+                try {
+                    clone.writeModel(peekModel());
+                    break;
+                } catch (ConcurrentModificationException ignore) {
+                    // Nothing stops extensions or runtime resources from modifying a model being copied, so try again
+                }
             }
         }
         cloneProviders(clone);
         return clone;
     }
 
+    /**
+     * Creates a copy of this resource, which must never be modified again, that shares this resource's model and
+     * children until they are accessed through the copy.
+     *
+     * @return the copy. Will not return {@code null}
+     */
+    BasicResource copyOnWrite() {
+        final BasicResource source = model != null ? this : modelSource;
+        final BasicResource copy = new BasicResource(isRuntime(), getOrderedChildTypes(), source != null ? source : this);
+        copy.copyChildrenOnWrite(this);
+        return copy;
+    }
+
+    /**
+     * Gets the model of a resource for reading only, avoiding taking a copy of a model a {@code BasicResource}
+     * shares with another resource.
+     *
+     * @param resource the resource. Cannot be {@code null}
+     * @return the model. Must not be modified
+     */
+    static ModelNode peekModel(final Resource resource) {
+        Resource target = resource;
+        if (target instanceof DelegateResource) {
+            target = ((DelegateResource) target).delegate;
+        }
+        return target instanceof BasicResource ? ((BasicResource) target).peekModel() : target.getModel();
+    }
 }
@@ -77,6 +77,9 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
 
     private Map<String, RuntimePackageDependency> additionalPackages;
 
+    private final DescriptionCache descriptionCache;
+    private final DescriptionProvider descriptionProvider;
+
     /** Constructor for a root MRR */
     ConcreteResourceRegistration(final ResourceDefinition definition,
                                  final AccessConstraintUtilizationRegistry constraintUtilizationRegistry,
@@ -95,6 +98,8 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
         ReentrantReadWriteLock rwLock = new ReentrantReadWriteLock();
         this.readLock = rwLock.readLock();
         this.writeLock = rwLock.writeLock();
+        this.descriptionCache = new DescriptionCache();
+        this.descriptionProvider = descriptionCache.cache(() -> resourceDefinition.getDescriptionProvider(this));
     }
 
     /** Constructor for a non-root MRR */
@@ -113,6 +118,8 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
         // critical situations, so we want lock/unlock to be as simple and fast as possible
         // So we just use a single non-r/w lock for both reads and writes
         this.readLock = this.writeLock = new ReentrantLock();
+        this.descriptionCache = parent.getDescriptionCache();
+        this.descriptionProvider = descriptionCache.cache(() -> resourceDefinition.getDescriptionProvider(this));
     }
 
     void beginInitialization() {
@@ -120,9 +127,14 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
     }
 
     void initialized() {
+        descriptionCache.invalidate();
         writeLock.unlock();
     }
 
+    DescriptionCache getDescriptionCache() {
+        return descriptionCache;
+    }
+
     @Override
     public int getMaxOccurs() {
         return resourceDefinition.getMaxOccurs();
@@ -231,7 +243,7 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
         checkPermission();
         if (this.enables(definition)) {
             String opName = definition.getName();
-            OperationEntry entry = new OperationEntry(definition, handler, inherited);
+            OperationEntry entry = new OperationEntry(definition, handler, inherited, descriptionCache);
             boolean filterParameters = !Stream.of(definition.getParameters()).allMatch(this::enables);
             boolean filterReplyParameters = !Stream.of(definition.getReplyParameters()).allMatch(this::enables);
             if (filterParameters || filterReplyParameters) {
@@ -242,7 +254,7 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
                 if (filterReplyParameters) {
                     builder.setReplyParameters(Stream.of(definition.getReplyParameters()).filter(this::enables).toArray(AttributeDefinition[]::new));
                 }
-                entry = new OperationEntry(builder.build(), handler, inherited);
+                entry = new OperationEntry(builder.build(), handler, inherited, descriptionCache);
             }
             writeLock.lock();
             try {
@@ -258,6 +270,7 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
                     }
                 }
             } finally {
+                descriptionCache.invalidate();
                 writeLock.unlock();
             }
         }
@@ -297,6 +310,7 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
                 constraintUtilizationRegistry.unregisterAccessConstraintUtilizations(getPathAddress().append(address));
             }
         } finally {
+            descriptionCache.invalidate();
             writeLock.unlock();
         }
     }
@@ -408,6 +422,7 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
                 throw operationNotRegisteredException(operationName, resourceDefinition.getPathElement());
             }
         } finally {
+            descriptionCache.invalidate();
             writeLock.unlock();
         }
     }
@@ -441,6 +456,7 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
         try {
             attributes.remove(attributeName);
         } finally {
+            descriptionCache.invalidate();
             writeLock.unlock();
         }
     }
@@ -465,6 +481,7 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
                     notifications.put(type, entry);
                 }
             } finally {
+                descriptionCache.invalidate();
                 writeLock.unlock();
             }
         }
@@ -484,6 +501,7 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
                 notifications.remove(notificationType);
             }
         } finally {
+            descriptionCache.invalidate();
             writeLock.unlock();
         }
     }
@@ -530,6 +548,7 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
             attributes.put(attributeName, aa);
             registerAttributeAccessConstraints(definition);
         } finally {
+            descriptionCache.invalidate();
             writeLock.unlock();
         }
     }
@@ -706,6 +725,7 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
                     capabilityRegistry.registerPossibleCapability(capability, getPathAddress());
                 }
             } finally {
+                descriptionCache.invalidate();
                 writeLock.unlock();
             }
         }
@@ -723,6 +743,7 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
                 incorporatingCapabilities = capabilities.stream().filter(this::enables).collect(Collectors.toUnmodifiableSet());
             }
         } finally {
+            descriptionCache.invalidate();
             writeLock.unlock();
         }
     }
@@ -737,6 +758,7 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
                 this.requirements = requirements.stream().filter(this::enables).collect(Collectors.toUnmodifiableSet());
             }
         } finally {
+            descriptionCache.invalidate();
             writeLock.unlock();
         }
     }
@@ -782,6 +804,7 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
                 return newRegistry;
             }
         } finally {
+            descriptionCache.invalidate();
             writeLock.unlock();
         }
     }
@@ -797,7 +820,7 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
             return subregistry.getModelDescription(iterator, next.getValue());
         } else {
             checkPermission();
-            return resourceDefinition.getDescriptionProvider(this);
+            return descriptionProvider;
         }
     }
 
@@ -1002,6 +1025,7 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
                 orderedChildTypes.add(type);
             }
         } finally {
+            descriptionCache.invalidate();
             writeLock.unlock();
         }
     }
@@ -1022,6 +1046,7 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
                     }
                 }
             } finally {
+                descriptionCache.invalidate();
                 writeLock.unlock();
             }
         }
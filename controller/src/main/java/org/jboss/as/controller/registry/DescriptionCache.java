@@ -0,0 +1,126 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.jboss.as.controller.registry;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.jboss.as.controller.descriptions.DefaultOperationDescriptionProvider;
+import org.jboss.as.controller.descriptions.DefaultResourceAddDescriptionProvider;
+import org.jboss.as.controller.descriptions.DefaultResourceDescriptionProvider;
+import org.jboss.as.controller.descriptions.DefaultResourceRemoveDescriptionProvider;
+import org.jboss.as.controller.descriptions.DescriptionProvider;
+import org.jboss.dmr.ModelNode;
+
+/**
+ * Caches the resolved resource and operation descriptions of a tree of resource registrations, so that repeated
+ * {@code read-resource-description} requests do not rebuild them from the resource bundles each time.
+ * <p>
+ * A single instance is shared by all the registrations of a tree. Any change to a registration of the tree
+ * invalidates every cached description, as descriptions depend on the attributes, children, capabilities and
+ * parents of the registration. Only descriptions built by the standard description providers are cached, as
+ * those only depend on the registration; custom providers may depend on anything, and are always invoked.
+ */
+public final class DescriptionCache {
+
+    private static final Set<Class<?>> CACHEABLE_PROVIDERS = Set.of(DefaultResourceDescriptionProvider.class,
+            DefaultOperationDescriptionProvider.class, DefaultResourceAddDescriptionProvider.class,
+            DefaultResourceRemoveDescriptionProvider.class);
+
+    private static final LongAdder hits = new LongAdder();
+    private static final LongAdder misses = new LongAdder();
+
+    private final AtomicLong generation = new AtomicLong();
+
+    DescriptionCache() {
+    }
+
+    /**
+     * Gets the number of descriptions served from a cache since the process started.
+     *
+     * @return the number of cache hits
+     */
+    public static long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Gets the number of cacheable descriptions that had to be built since the process started.
+     *
+     * @return the number of cache misses
+     */
+    public static long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Discards all the descriptions cached for the tree. Must be called whenever a registration of the tree changes.
+     */
+    void invalidate() {
+        generation.incrementAndGet();
+    }
+
+    /**
+     * Creates a description provider that caches the descriptions of the provider created by the given factory.
+     *
+     * @param factory supplies the provider to use when a description is not cached. Cannot be {@code null}
+     * @return the caching provider. Will not be {@code null}
+     */
+    DescriptionProvider cache(Supplier<DescriptionProvider> factory) {
+        return new CachingDescriptionProvider(factory);
+    }
+
+    private static final class CachedDescription {
+        private final long generation;
+        private final ModelNode description;
+
+        private CachedDescription(long generation, ModelNode description) {
+            this.generation = generation;
+            this.description = description;
+        }
+    }
+
+    private final class CachingDescriptionProvider implements DescriptionProvider {
+
+        private final Supplier<DescriptionProvider> factory;
+        private final Map<Locale, CachedDescription> descriptions = new ConcurrentHashMap<>();
+        /** The description for a {@code null} locale, which cannot be a key of {@link #descriptions} */
+        private volatile CachedDescription defaultDescription;
+
+        private CachingDescriptionProvider(Supplier<DescriptionProvider> factory) {
+            this.factory = factory;
+        }
+
+        @Override
+        public ModelNode getModelDescription(Locale locale) {
+            // Read the generation first, so a change made while building the description leaves it stale
+            final long current = generation.get();
+            final CachedDescription cached = locale == null ? defaultDescription : descriptions.get(locale);
+            if (cached != null && cached.generation == current) {
+                hits.increment();
+                // Callers are free to modify the description they get
+                return cached.description.clone();
+            }
+            final DescriptionProvider provider = factory.get();
+            final ModelNode description = provider.getModelDescription(locale);
+            if (CACHEABLE_PROVIDERS.contains(provider.getClass())) {
+                misses.increment();
+                final CachedDescription entry = new CachedDescription(current, description.clone());
+                if (locale == null) {
+                    defaultDescription = entry;
+                } else {
+                    descriptions.put(locale, entry);
+                }
+            }
+            return description;
+        }
+    }
+}
@@ -70,6 +70,10 @@ final class NodeSubregistry {
         return parent;
     }
 
+    DescriptionCache getDescriptionCache() {
+        return parent.getDescriptionCache();
+    }
+
     Set<String> getChildNames(){
         final Map<String, AbstractResourceRegistration> snapshot = this.childRegistries;
         if (snapshot == null) {
@@ -125,12 +129,14 @@ final class NodeSubregistry {
             throw ControllerLogger.ROOT_LOGGER.nodeAlreadyRegistered(getLocationString(elementValue));
         }
         //register(elementValue, newRegistry);
+        getDescriptionCache().invalidate();
         return newRegistry;
     }
 
     void unregisterProxyController(final String elementValue) {
         checkPermission();
         childRegistriesUpdater.remove(this, elementValue);
+        getDescriptionCache().invalidate();
     }
 
     public AliasResourceRegistration registerAlias(final String elementValue, AliasEntry aliasEntry, AbstractResourceRegistration target) {
@@ -139,12 +145,14 @@ final class NodeSubregistry {
         if (existingRegistry != null) {
             throw ControllerLogger.ROOT_LOGGER.nodeAlreadyRegistered(getLocationString(elementValue));
         }
+        getDescriptionCache().invalidate();
         return newRegistry;
     }
 
     public void unregisterAlias(final String elementValue) {
         checkPermission();
         childRegistriesUpdater.remove(this, elementValue);
+        getDescriptionCache().invalidate();
     }
 
 
@@ -81,11 +81,18 @@ public class OperationEntry {
     private final OperationDefinition operationDefinition;
     private final OperationStepHandler operationHandler;
     private final boolean inherited;
+    private final DescriptionProvider descriptionProvider;
 
     OperationEntry(final OperationDefinition definition, final OperationStepHandler operationHandler, final boolean inherited) {
+        this(definition, operationHandler, inherited, null);
+    }
+
+    OperationEntry(final OperationDefinition definition, final OperationStepHandler operationHandler, final boolean inherited,
+                   final DescriptionCache descriptionCache) {
         this.operationDefinition = definition;
         this.operationHandler = operationHandler;
         this.inherited = inherited;
+        this.descriptionProvider = descriptionCache == null ? null : descriptionCache.cache(definition::getDescriptionProvider);
     }
 
     public OperationDefinition getOperationDefinition() {
@@ -97,7 +104,7 @@ public class OperationEntry {
     }
 
     public DescriptionProvider getDescriptionProvider() {
-        return operationDefinition.getDescriptionProvider();
+        return descriptionProvider != null ? descriptionProvider : operationDefinition.getDescriptionProvider();
     }
 
     public boolean isInherited() {
@@ -334,7 +334,7 @@ public interface Resource extends Cloneable {
 
         private static ModelNode readModel(final PathAddress address, final Resource resource, final int level,
                                            final ImmutableManagementResourceRegistration mrr, final ResourceFilter filter) {
-            final ModelNode model = resource.getModel().clone();
+            final ModelNode model = BasicResource.peekModel(resource).clone();
             final boolean recursive = level == -1 || level > 0;
             if (recursive) {
                 final int newLevel = level == -1 ? -1 : level - 1;
@@ -367,6 +367,46 @@ public interface Resource extends Cloneable {
             return result;
         }
 
+        /**
+         * Creates a copy of a resource that will never be modified again, e.g. the root resource of a published
+         * management model. Unlike {@link Resource#clone()}, the copy is created in constant time for the standard
+         * resource implementation: it shares the model and children of the original, and resources in the copy
+         * only take their own copy of a model or of their children the first time these are accessed. Modifying
+         * a resource in the copy therefore only copies the resources along its address. Other resource
+         * implementations are {@link Resource#clone() cloned}.
+         *
+         * @param resource the resource to copy. Must not be modified after this call. Cannot be {@code null}
+         * @return the copy. Will not be {@code null}
+         */
+        public static Resource copyOnWrite(final Resource resource) {
+            return resource instanceof BasicResource ? ((BasicResource) resource).copyOnWrite() : resource.clone();
+        }
+
+        /**
+         * Marks a resource tree that will never be modified again, e.g. the root resource of a management model
+         * about to be published, as such. The {@link #copyOnWrite(Resource) copy-on-write copies} in the tree then
+         * present the models and children they share without taking their own copies of them, so reading the tree
+         * from other threads never modifies it. Only the resources that took their own copies of their children
+         * are visited, so freezing a copy costs no more than modifying it did.
+         *
+         * @param resource the root of the tree. Must not be modified after this call. Cannot be {@code null}
+         */
+        public static void freeze(final Resource resource) {
+            AbstractModelResource.freeze(resource);
+        }
+
+        /**
+         * Gets the model of a resource for reading only. Unlike {@link Resource#getModel()}, this does not make a
+         * {@link #copyOnWrite(Resource) copy-on-write copy} take its own copy of the model it shares, so the same
+         * model instance is returned for all the copies of a resource until one of them is modified.
+         *
+         * @param resource the resource. Cannot be {@code null}
+         * @return the model. Must not be modified
+         */
+        public static ModelNode peekModel(final Resource resource) {
+            return BasicResource.peekModel(resource);
+        }
+
         /**
          * Navigate from a parent {@code resource} to the descendant resource at the given relative {@code address}.
          * <p>
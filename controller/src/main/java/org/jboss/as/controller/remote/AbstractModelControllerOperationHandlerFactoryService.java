@@ -18,6 +18,7 @@ import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 
+import org.jboss.as.controller.ManagementOperationLanes;
 import org.jboss.as.controller.ModelController;
 import org.jboss.as.protocol.mgmt.support.ManagementChannelInitialization;
 import org.jboss.msc.service.Service;
@@ -74,8 +75,12 @@ public abstract class AbstractModelControllerOperationHandlerFactoryService impl
                 return new JBossThreadFactory(ThreadGroupHolder.THREAD_GROUP, Boolean.FALSE, null, "%G - %t", null, null);
             }
         });
+        // With priority lanes, there are enough threads for the operations of all the lanes to execute at once
+        final ManagementOperationLanes operationLanes = getOperationLanes();
+        final int coreSize = operationLanes == null ? POOL_CORE_SIZE : Math.max(POOL_CORE_SIZE, operationLanes.getMaxActive());
+        final int maxSize = operationLanes == null ? POOL_MAX_SIZE : Math.max(POOL_MAX_SIZE, operationLanes.getMaxActive());
         if (EnhancedQueueExecutor.DISABLE_HINT) {
-            ThreadPoolExecutor executor = new ThreadPoolExecutor(POOL_CORE_SIZE, POOL_MAX_SIZE,
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(coreSize, maxSize,
                 600L, TimeUnit.SECONDS, new LinkedBlockingDeque<>(WORK_QUEUE_SIZE),
                 threadFactory);
             // Allow the core threads to time out as well
@@ -83,8 +88,8 @@ public abstract class AbstractModelControllerOperationHandlerFactoryService impl
             this.clientRequestExecutor = executor;
         } else {
             this.clientRequestExecutor = new EnhancedQueueExecutor.Builder()
-            .setCorePoolSize(POOL_CORE_SIZE)
-            .setMaximumPoolSize(POOL_MAX_SIZE)
+            .setCorePoolSize(coreSize)
+            .setMaximumPoolSize(maxSize)
             .setKeepAliveTime(600L, TimeUnit.SECONDS)
             .setMaximumQueueSize(WORK_QUEUE_SIZE)
             .setThreadFactory(threadFactory)
@@ -144,6 +149,15 @@ public abstract class AbstractModelControllerOperationHandlerFactoryService impl
         return clientRequestExecutor;
     }
 
+    /**
+     * Gets the priority lanes through which the operations of clients are admitted to the client request executor.
+     *
+     * @return the lanes, or {@code null} if the operations are not admitted through lanes
+     */
+    protected ManagementOperationLanes getOperationLanes() {
+        return null;
+    }
+
     // Wrapper class to delay thread group creation until when it's needed.
     private static class ThreadGroupHolder {
         private static final ThreadGroup THREAD_GROUP = new ThreadGroup("management-handler-thread");
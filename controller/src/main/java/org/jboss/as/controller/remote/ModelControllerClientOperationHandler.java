@@ -39,6 +39,7 @@ import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 
 import org.jboss.as.controller.AccessAuditContext;
+import org.jboss.as.controller.ManagementOperationLanes;
 import org.jboss.as.controller.ModelController;
 import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.PathAddress;
@@ -81,6 +82,7 @@ public class ModelControllerClientOperationHandler implements ManagementRequestH
     private final Executor clientRequestExecutor;
     private final SecurityIdentity connectionIdentity;
     private final ResponseAttachmentInputStreamSupport responseAttachmentSupport;
+    private final ManagementOperationLanes operationLanes;
 
     public ModelControllerClientOperationHandler(final ModelController controller,
                                                  final ManagementChannelAssociation channelAssociation,
@@ -94,11 +96,31 @@ public class ModelControllerClientOperationHandler implements ManagementRequestH
                                                  final ResponseAttachmentInputStreamSupport responseAttachmentSupport,
                                                  final ExecutorService clientRequestExecutor,
                                                  final SecurityIdentity connectionIdentity) {
+        this(controller, channelAssociation, responseAttachmentSupport, clientRequestExecutor, connectionIdentity, null);
+    }
+
+    /**
+     * Creates the handler.
+     *
+     * @param controller the controller executing the operations
+     * @param channelAssociation the channel
+     * @param responseAttachmentSupport the support for the streams of the responses
+     * @param clientRequestExecutor the executor executing the operations
+     * @param connectionIdentity the identity of the connection, or {@code null}
+     * @param operationLanes the priority lanes through which the operations are admitted to the executor, or {@code null}
+     */
+    public ModelControllerClientOperationHandler(final ModelController controller,
+                                                 final ManagementChannelAssociation channelAssociation,
+                                                 final ResponseAttachmentInputStreamSupport responseAttachmentSupport,
+                                                 final ExecutorService clientRequestExecutor,
+                                                 final SecurityIdentity connectionIdentity,
+                                                 final ManagementOperationLanes operationLanes) {
         this.controller = controller;
         this.channelAssociation = channelAssociation;
         this.responseAttachmentSupport = responseAttachmentSupport;
         this.connectionIdentity = connectionIdentity;
         this.clientRequestExecutor = clientRequestExecutor;
+        this.operationLanes = operationLanes;
     }
 
     @Override
@@ -137,7 +159,7 @@ public class ModelControllerClientOperationHandler implements ManagementRequestH
 
             ProtocolUtils.expectHeader(input, ModelControllerProtocol.PARAM_INPUTSTREAMS_LENGTH);
             final int attachmentsLength = input.readInt();
-            context.executeAsync(new ManagementRequestContext.AsyncTask<Void>() {
+            final ManagementRequestContext.AsyncTask<Void> task = new ManagementRequestContext.AsyncTask<Void>() {
                 @Override
                 public void execute(final ManagementRequestContext<Void> context) throws Exception {
                     final ManagementResponseHeader response = ManagementResponseHeader.create(context.getRequestHeader());
@@ -155,7 +177,19 @@ public class ModelControllerClientOperationHandler implements ManagementRequestH
                         throw e.getException();
                     }
                 }
-            }, clientRequestExecutor);
+            };
+            if (operationLanes == null) {
+                context.executeAsync(task, clientRequestExecutor);
+                return;
+            }
+            // Once it is the turn of the operation, the task is executed on the thread of its lane. If the executor
+            // rejects it, leave it to the context to report the rejection, as it does without the lanes
+            final ManagementOperationLanes.Lane lane = ManagementOperationLanes.Lane.of(operation);
+            if (!operationLanes.execute(lane, () -> context.executeAsync(task, Runnable::run), clientRequestExecutor,
+                    () -> context.executeAsync(task, clientRequestExecutor))) {
+                final ManagementResponseHeader response = ManagementResponseHeader.create(context.getRequestHeader());
+                new CompletedCallback(response, context, resultHandler).sendResponse(operationLanes.createRejectedResponse(lane));
+            }
         }
 
         private void doExecute(final ModelNode operation, final int attachmentsLength,
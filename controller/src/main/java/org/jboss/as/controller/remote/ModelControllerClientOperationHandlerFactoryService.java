@@ -4,6 +4,7 @@
  */
 package org.jboss.as.controller.remote;
 
+import org.jboss.as.controller.ManagementOperationLanes;
 import org.jboss.as.controller.ModelController;
 import org.jboss.as.protocol.mgmt.ManagementChannelHandler;
 import org.jboss.as.protocol.mgmt.ManagementClientChannelStrategy;
@@ -22,13 +23,49 @@ import java.util.function.Supplier;
  */
 public class ModelControllerClientOperationHandlerFactoryService extends AbstractModelControllerOperationHandlerFactoryService {
 
+    /** Creates the services of the native management interface, which admit the operations through the lanes they are given */
+    public static final ModelControllerOperationHandlerFactory FACTORY = new ModelControllerOperationHandlerFactory() {
+        @Override
+        public AbstractModelControllerOperationHandlerFactoryService newInstance(
+                final Consumer<AbstractModelControllerOperationHandlerFactoryService> serviceConsumer,
+                final Supplier<ModelController> modelControllerSupplier,
+                final Supplier<ExecutorService> executorSupplier,
+                final Supplier<ScheduledExecutorService> scheduledExecutorSupplier) {
+            return new ModelControllerClientOperationHandlerFactoryService(serviceConsumer, modelControllerSupplier, executorSupplier, scheduledExecutorSupplier);
+        }
+
+        @Override
+        public AbstractModelControllerOperationHandlerFactoryService newInstance(
+                final Consumer<AbstractModelControllerOperationHandlerFactoryService> serviceConsumer,
+                final Supplier<ModelController> modelControllerSupplier,
+                final Supplier<ManagementOperationLanes> operationLanesSupplier,
+                final Supplier<ExecutorService> executorSupplier,
+                final Supplier<ScheduledExecutorService> scheduledExecutorSupplier) {
+            return new ModelControllerClientOperationHandlerFactoryService(serviceConsumer, modelControllerSupplier, operationLanesSupplier,
+                    executorSupplier, scheduledExecutorSupplier);
+        }
+    };
+
+    private final Supplier<ManagementOperationLanes> operationLanesSupplier;
+
+    public ModelControllerClientOperationHandlerFactoryService(
+            final Consumer<AbstractModelControllerOperationHandlerFactoryService> serviceConsumer,
+            final Supplier<ModelController> modelControllerSupplier,
+            final Supplier<ExecutorService> executorSupplier,
+            final Supplier<ScheduledExecutorService> scheduledExecutorSupplier
+    ) {
+        this(serviceConsumer, modelControllerSupplier, null, executorSupplier, scheduledExecutorSupplier);
+    }
+
     public ModelControllerClientOperationHandlerFactoryService(
             final Consumer<AbstractModelControllerOperationHandlerFactoryService> serviceConsumer,
             final Supplier<ModelController> modelControllerSupplier,
+            final Supplier<ManagementOperationLanes> operationLanesSupplier,
             final Supplier<ExecutorService> executorSupplier,
             final Supplier<ScheduledExecutorService> scheduledExecutorSupplier
     ) {
         super(serviceConsumer, modelControllerSupplier, executorSupplier, scheduledExecutorSupplier);
+        this.operationLanesSupplier = operationLanesSupplier;
     }
 
     @Override
@@ -37,9 +74,14 @@ public class ModelControllerClientOperationHandlerFactoryService extends Abstrac
                 getExecutor());
 
         handler.addHandlerFactory(new ModelControllerClientOperationHandler(getController(), handler,
-                getResponseAttachmentSupport(), getClientRequestExecutor(), channel.getConnection().getLocalIdentity()));
+                getResponseAttachmentSupport(), getClientRequestExecutor(), channel.getConnection().getLocalIdentity(), getOperationLanes()));
 
         channel.receiveMessage(handler.getReceiver());
         return handler;
     }
+
+    @Override
+    protected ManagementOperationLanes getOperationLanes() {
+        return operationLanesSupplier != null ? operationLanesSupplier.get() : null;
+    }
 }
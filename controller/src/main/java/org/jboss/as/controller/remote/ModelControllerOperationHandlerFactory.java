@@ -4,6 +4,7 @@
  */
 package org.jboss.as.controller.remote;
 
+import org.jboss.as.controller.ManagementOperationLanes;
 import org.jboss.as.controller.ModelController;
 
 import java.util.concurrent.ExecutorService;
@@ -23,4 +24,18 @@ public interface ModelControllerOperationHandlerFactory {
             final Supplier<ExecutorService> executorSupplier,
             final Supplier<ScheduledExecutorService> scheduledExecutorSupplier
     );
+
+    /**
+     * Creates the service with the priority lanes of the model controller, through which the service may admit the
+     * operations of its clients. This implementation does not use the lanes.
+     */
+    default AbstractModelControllerOperationHandlerFactoryService newInstance(
+            final Consumer<AbstractModelControllerOperationHandlerFactoryService> serviceConsumer,
+            final Supplier<ModelController> modelControllerSupplier,
+            final Supplier<ManagementOperationLanes> operationLanesSupplier,
+            final Supplier<ExecutorService> executorSupplier,
+            final Supplier<ScheduledExecutorService> scheduledExecutorSupplier
+    ) {
+        return newInstance(serviceConsumer, modelControllerSupplier, executorSupplier, scheduledExecutorSupplier);
+    }
 }
@@ -185,6 +185,24 @@ public class TransformationTargetImpl implements TransformationTarget {
         return false;
     }
 
+    /**
+     * Gets whether the transformation of operations only depends on the model versions of this target, and not on
+     * where the target is in the domain, so the transformed operations can be shared with targets of the same versions.
+     */
+    boolean isVersionOnlyTarget() {
+        return placeholderResolver == null;
+    }
+
+    Map<String, ModelVersion> getSubsystemVersions() {
+        synchronized (subsystemVersions) {
+            return new HashMap<>(subsystemVersions);
+        }
+    }
+
+    boolean isOperationExcluded(final PathAddress address, final String operationName) {
+        return operationIgnoredRegistry.isOperationExcluded(address, operationName);
+    }
+
     private boolean ignoreResourceTransformation(ResourceTransformationContext context, PathAddress address) {
         if (context.isResourceTransformationIgnored(address)) {
             return true;
@@ -0,0 +1,166 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.jboss.as.controller.transform;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.COMPOSITE;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.jboss.as.controller.ModelVersion;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.dmr.ModelNode;
+import org.wildfly.security.manager.WildFlySecurityManager;
+
+/**
+ * Operations transformed for the targets of a domain roll out, so an operation is transformed once for all the hosts
+ * of the same model versions. Held by the {@link Transformers.TransformationInputs} of the roll out, whose model
+ * the operations are transformed against.
+ * <p>
+ * Only transformations that do not depend on the host are shared: those that neither reject the operation nor
+ * transform its result, and log no warnings. Composite operations are not shared, as their steps may be excluded
+ * differently for each host.
+ */
+final class TransformedOperationCache {
+
+    /** System property that, when {@code true}, enables the sharing of transformed operations between hosts */
+    static final String PROPERTY = "org.wildfly.management.transformation-cache";
+
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+
+    private TransformedOperationCache() {
+    }
+
+    /**
+     * Creates a cache, if enabled by the {@link #PROPERTY} system property.
+     *
+     * @return the cache, or {@code null} if it is not enabled
+     */
+    static TransformedOperationCache create() {
+        return Boolean.parseBoolean(WildFlySecurityManager.getPropertyPrivileged(PROPERTY, "false")) ? new TransformedOperationCache() : null;
+    }
+
+    /**
+     * Creates the key of the transformation of an operation for a target.
+     *
+     * @param target the target
+     * @param address the address of the operation, with any alias resolved
+     * @param operationName the name of the operation
+     * @param operation the operation, not yet transformed
+     * @return the key, or {@code null} if the transformation cannot be shared
+     */
+    static Key createKey(final TransformationTarget target, final PathAddress address, final String operationName, final ModelNode operation) {
+        if (!(target instanceof TransformationTargetImpl) || (address.size() == 0 && COMPOSITE.equals(operationName))) {
+            return null;
+        }
+        final TransformationTargetImpl targetImpl = (TransformationTargetImpl) target;
+        if (!targetImpl.isVersionOnlyTarget()) {
+            return null;
+        }
+        return new Key(targetImpl.getTargetType(), targetImpl.getVersion(), targetImpl.getSubsystemVersions(),
+                targetImpl.isOperationExcluded(address, operationName), operation.clone());
+    }
+
+    /**
+     * Gets a shared transformation of an operation.
+     *
+     * @param key the key of the transformation
+     * @param operation the operation being transformed, which is updated as the shared transformation updated it
+     * @return the transformed operation, or {@code null} if it has not been shared
+     */
+    OperationTransformer.TransformedOperation get(final Key key, final ModelNode operation) {
+        final Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        // The operation is left as the transformation left it, which at least updates its address
+        operation.set(entry.operation.clone());
+        final ModelNode transformed;
+        if (entry.original) {
+            transformed = operation;
+        } else {
+            transformed = entry.transformed == null ? null : entry.transformed.clone();
+        }
+        return new OperationTransformer.TransformedOperation(transformed, entry.resultTransformer);
+    }
+
+    /**
+     * Shares the transformation of an operation, if it does not depend on the host it was transformed for.
+     *
+     * @param key the key of the transformation
+     * @param operation the operation that was transformed, as the transformation left it
+     * @param transformed the transformation of the operation
+     * @param logged {@code true} if warnings were logged by the transformation
+     */
+    void put(final Key key, final ModelNode operation, final OperationTransformer.TransformedOperation transformed, final boolean logged) {
+        if (logged
+                || transformed.getClass() != OperationTransformer.TransformedOperation.class
+                || transformed.getRejectionPolicy() != OperationTransformer.DEFAULT_REJECTION_POLICY) {
+            return;
+        }
+        final OperationResultTransformer resultTransformer = transformed.getResultTransformer();
+        if (resultTransformer != OperationResultTransformer.ORIGINAL_RESULT && resultTransformer != OperationTransformer.SUCCESSFUL_RESULT) {
+            return;
+        }
+        final ModelNode transformedOperation = transformed.getTransformedOperation();
+        final boolean original = transformedOperation == operation;
+        entries.putIfAbsent(key, new Entry(operation.clone(), original,
+                original || transformedOperation == null ? null : transformedOperation.clone(), resultTransformer));
+    }
+
+    static final class Key {
+        private final TransformationTarget.TransformationTargetType type;
+        private final ModelVersion version;
+        private final Map<String, ModelVersion> subsystemVersions;
+        private final boolean excluded;
+        private final ModelNode operation;
+        private final int hashCode;
+
+        private Key(final TransformationTarget.TransformationTargetType type, final ModelVersion version,
+                    final Map<String, ModelVersion> subsystemVersions, final boolean excluded, final ModelNode operation) {
+            this.type = type;
+            this.version = version;
+            this.subsystemVersions = subsystemVersions;
+            this.excluded = excluded;
+            this.operation = operation;
+            this.hashCode = Objects.hash(type, version, subsystemVersions, excluded, operation);
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            final Key other = (Key) obj;
+            return hashCode == other.hashCode && type == other.type && excluded == other.excluded
+                    && version.equals(other.version) && subsystemVersions.equals(other.subsystemVersions)
+                    && operation.equals(other.operation);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
+    private static final class Entry {
+        private final ModelNode operation;
+        private final boolean original;
+        private final ModelNode transformed;
+        private final OperationResultTransformer resultTransformer;
+
+        private Entry(final ModelNode operation, final boolean original, final ModelNode transformed, final OperationResultTransformer resultTransformer) {
+            this.operation = operation;
+            this.original = original;
+            this.transformed = transformed;
+            this.resultTransformer = resultTransformer;
+        }
+    }
+}
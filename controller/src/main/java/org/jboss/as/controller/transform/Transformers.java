@@ -102,6 +102,7 @@ public interface Transformers {
         private final ProcessType processType;
         private final RunningMode runningMode;
         private final TransformerOperationAttachment transformerOperationAttachment;
+        private final TransformedOperationCache operationCache = TransformedOperationCache.create();
 
         /**
          * Obtains a set of {@code TransformationInputs} from the given operation context. If the
@@ -183,6 +184,14 @@ public interface Transformers {
         public TransformerOperationAttachment getTransformerOperationAttachment() {
             return transformerOperationAttachment;
         }
+
+        /**
+         * Gets the operations already transformed against these inputs for other targets.
+         * @return the cache, or {@code null} if transformed operations are not shared between targets
+         */
+        TransformedOperationCache getOperationCache() {
+            return operationCache;
+        }
     }
 
     /**
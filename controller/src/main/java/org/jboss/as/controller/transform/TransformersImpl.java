@@ -81,6 +81,16 @@ public class TransformersImpl implements Transformers {
 
         final String operationName = operation.require(OP).asString();
 
+        final TransformedOperationCache cache = transformationInputs.getOperationCache();
+        final TransformedOperationCache.Key key = cache == null ? null : TransformedOperationCache.createKey(target, useAddress, operationName, operation);
+        if (key != null) {
+            final OperationTransformer.TransformedOperation shared = cache.get(key, operation);
+            if (shared != null) {
+                ControllerLogger.ROOT_LOGGER.tracef("operation %s was already transformed for a target of the same version", operation);
+                return shared;
+            }
+        }
+
         // Transform the path address
         final PathAddress transformed = transformAddress(useAddress, target);
         // Update the operation using the new path address
@@ -93,6 +103,9 @@ public class TransformersImpl implements Transformers {
             return new OperationTransformer.TransformedOperation(operation, OperationResultTransformer.ORIGINAL_RESULT);
         }
         final OperationTransformer.TransformedOperation op = transformer.transformOperation(context, transformed, operation);
+        if (key != null) {
+            cache.put(key, operation, op, context.getLogger().hasQueuedMessages());
+        }
         context.getLogger().flushLogQueue();
         return op;
     }
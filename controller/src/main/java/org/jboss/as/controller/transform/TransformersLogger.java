@@ -230,6 +230,13 @@ public class TransformersLogger {
         });
     }
 
+    /**
+     * whether there are queued messages that {@link #flushLogQueue()} would log
+     */
+    boolean hasQueuedMessages() {
+        return !messageQueue.isEmpty();
+    }
+
     /**
      * flushes log queue, this actually writes combined log message into system log
      */
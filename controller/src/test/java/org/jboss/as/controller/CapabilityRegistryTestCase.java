@@ -571,6 +571,34 @@ public class CapabilityRegistryTestCase extends AbstractControllerTestBase {
         Assert.assertEquals(expectedCaps(0), capabilityRegistry.getCapabilities().size());
     }
 
+    @Test
+    public void testShadowCopyIsolation() {
+        CapabilityRegistry published = new CapabilityRegistry(true);
+        RuntimeCapability<Void> capability = RuntimeCapability.Builder.of("org.wildfly.test.shadow").setAllowMultipleRegistrations(true).build();
+        PathAddress address1 = PathAddress.pathAddress("shadow", "one");
+        PathAddress address2 = PathAddress.pathAddress("shadow", "two");
+        CapabilityRegistry shadow = published.createShadowCopy();
+        shadow.registerCapability(new RuntimeCapabilityRegistration(capability, CapabilityScope.GLOBAL, new RegistrationPoint(address1, null)));
+        Assert.assertTrue(shadow.hasCapability(capability.getName(), CapabilityScope.GLOBAL));
+        Assert.assertFalse(published.hasCapability(capability.getName(), CapabilityScope.GLOBAL));
+
+        shadow.publish();
+        Assert.assertTrue(published.hasCapability(capability.getName(), CapabilityScope.GLOBAL));
+
+        // Registrations are shared after publishing, so changing one in the shadow must not change the published one
+        CapabilityId id = new CapabilityId(capability.getName(), CapabilityScope.GLOBAL);
+        shadow.registerCapability(new RuntimeCapabilityRegistration(capability, CapabilityScope.GLOBAL, new RegistrationPoint(address2, null)));
+        Assert.assertEquals(2, shadow.getCapability(id).getRegistrationPointCount());
+        Assert.assertEquals(1, published.getCapability(id).getRegistrationPointCount());
+
+        shadow.rollback();
+        Assert.assertEquals(1, shadow.getCapability(id).getRegistrationPointCount());
+        Assert.assertNull(shadow.removeCapability(capability.getName(), CapabilityScope.GLOBAL, address2));
+        Assert.assertNotNull(shadow.removeCapability(capability.getName(), CapabilityScope.GLOBAL, address1));
+        Assert.assertFalse(shadow.hasCapability(capability.getName(), CapabilityScope.GLOBAL));
+        Assert.assertTrue(published.hasCapability(capability.getName(), CapabilityScope.GLOBAL));
+    }
+
     // Check that subsystem=reload requiring reload prevents runtime execution of
     // subsystem=reload/child=test, since it is incorporated by the parent resource cap
     @Test
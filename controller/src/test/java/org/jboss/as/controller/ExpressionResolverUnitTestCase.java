@@ -8,6 +8,8 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.fail;
 
 import java.io.File;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
@@ -450,6 +452,67 @@ public class ExpressionResolverUnitTestCase {
         assertEquals("PROP", node.get("prop").asProperty().getValue().asString());
     }
 
+    @Test
+    public void testCachedResolution() throws OperationFailedException {
+        ExpressionResolver resolver = new ExpressionResolverImpl(false, true);
+        ModelNode expression = new ModelNode(new ValueExpression("${test.prop.cached}-${test.prop.cached.other:x}"));
+        System.setProperty("test.prop.cached", "one");
+        try {
+            long hits = ExpressionResolverImpl.getCacheHitCount();
+            assertEquals("one-x", resolver.resolveExpressions(expression).asString());
+            assertEquals(hits, ExpressionResolverImpl.getCacheHitCount());
+
+            // Changes are not seen until the caches are invalidated
+            System.setProperty("test.prop.cached", "two");
+            assertEquals("one-x", resolver.resolveExpressions(expression).asString());
+            assertEquals(hits + 2, ExpressionResolverImpl.getCacheHitCount());
+
+            ExpressionResolverImpl.invalidateCaches();
+            assertEquals("two-x", resolver.resolveExpressions(expression).asString());
+            assertEquals(hits + 2, ExpressionResolverImpl.getCacheHitCount());
+
+            // Unresolvable expressions are not cached
+            System.clearProperty("test.prop.cached");
+            ExpressionResolverImpl.invalidateCaches();
+            try {
+                resolver.resolveExpressions(expression);
+                fail("Should not have resolved");
+            } catch (ExpressionResolver.ExpressionResolutionUserException expected) {
+                // expected
+            }
+            System.setProperty("test.prop.cached", "three");
+            assertEquals("three-x", resolver.resolveExpressions(expression).asString());
+        } finally {
+            System.clearProperty("test.prop.cached");
+        }
+    }
+
+    @Test
+    public void testPluggableResolutionNotCached() throws OperationFailedException {
+        AtomicReference<String> secret = new AtomicReference<>("secret-1");
+        AtomicInteger resolutions = new AtomicInteger();
+        ExpressionResolver resolver = new ExpressionResolverImpl(false, true) {
+            @Override
+            protected void resolvePluggableExpression(ModelNode node, OperationContext context) {
+                if (node.asString().startsWith("${ENC::")) {
+                    resolutions.incrementAndGet();
+                    node.set(secret.get());
+                }
+            }
+        };
+        ModelNode expression = new ModelNode(new ValueExpression("${ENC::store:alias}"));
+        long hits = ExpressionResolverImpl.getCacheHitCount();
+        assertEquals("secret-1", resolver.resolveExpressions(expression).asString());
+        assertEquals("secret-1", resolver.resolveExpressions(expression).asString());
+        assertEquals(2, resolutions.get());
+
+        // The secret was not retained, so a changed one is seen without invalidating the caches
+        secret.set("secret-2");
+        assertEquals("secret-2", resolver.resolveExpressions(expression).asString());
+        assertEquals(3, resolutions.get());
+        assertEquals(hits, ExpressionResolverImpl.getCacheHitCount());
+    }
+
     private ModelNode createModelNode() {
         ModelNode node = new ModelNode();
         node.get("int").set(1);
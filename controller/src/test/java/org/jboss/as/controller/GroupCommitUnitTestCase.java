@@ -0,0 +1,229 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.jboss.as.controller;
+
+import static org.jboss.as.controller.TestModelControllerService.getOD;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILED;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUTCOME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUCCESS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.as.controller.descriptions.NonResolvingResourceDescriptionResolver;
+import org.jboss.as.controller.operations.common.Util;
+import org.jboss.as.controller.operations.global.GlobalNotifications;
+import org.jboss.as.controller.operations.global.GlobalOperationHandlers;
+import org.jboss.as.controller.persistence.AbstractConfigurationPersister;
+import org.jboss.as.controller.persistence.ConfigurationPersistenceException;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.as.controller.registry.Resource;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceContainer;
+import org.jboss.msc.service.ServiceName;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests of persisting concurrent write operations together when
+ * {@link ModelControllerImpl#GROUP_COMMIT_PROPERTY} is set.
+ */
+public class GroupCommitUnitTestCase {
+
+    private static final int WRITES = 10;
+    private static final String FAILING_PREFIX = "failing-";
+    private static final int FAILING_WRITE = 3;
+
+    private final List<Thread> threads = new CopyOnWriteArrayList<>();
+    private final ExecutorService executor = Executors.newCachedThreadPool(r -> {
+        Thread thread = new Thread(r);
+        threads.add(thread);
+        return thread;
+    });
+    private final CountDownLatch writeStarted = new CountDownLatch(1);
+    private final CountDownLatch releaseWrite = new CountDownLatch(1);
+    private final CountingPersister persister = new CountingPersister();
+    private ServiceContainer container;
+    private ModelController controller;
+
+    @Before
+    public void setupController() throws InterruptedException {
+        System.setProperty(ModelControllerImpl.GROUP_COMMIT_PROPERTY, "true");
+        container = ServiceContainer.Factory.create("test");
+        ModelControllerService svc = new ModelControllerService();
+        container.subTarget().addService(ServiceName.of("ModelController")).setInstance(svc).install();
+        svc.awaitStartup(30, TimeUnit.SECONDS);
+        controller = svc.getValue();
+    }
+
+    @After
+    public void shutdownServiceContainer() throws InterruptedException {
+        System.clearProperty(ModelControllerImpl.GROUP_COMMIT_PROPERTY);
+        releaseWrite.countDown();
+        executor.shutdownNow();
+        if (container != null) {
+            container.shutdown();
+            try {
+                container.awaitTermination(5, TimeUnit.SECONDS);
+            } finally {
+                container = null;
+            }
+        }
+    }
+
+    @Test
+    public void testConcurrentWritesPersistedTogether() throws Exception {
+        Future<ModelNode> blocking = executor.submit(() -> execute(Util.createEmptyOperation("blocking-write", PathAddress.EMPTY_ADDRESS)));
+        assertTrue(writeStarted.await(10, TimeUnit.SECONDS));
+
+        List<Future<ModelNode>> writes = submitWrites("child-");
+        int commitsBefore = persister.commits.get();
+        releaseWrite.countDown();
+
+        assertEquals(SUCCESS, blocking.get(10, TimeUnit.SECONDS).get(OUTCOME).asString());
+        for (int i = 0; i < WRITES; i++) {
+            assertEquals(SUCCESS, writes.get(i).get(10, TimeUnit.SECONDS).get(OUTCOME).asString());
+            assertTrue(persister.committed.get("child").has("child-" + i));
+        }
+        assertTrue(persister.committed.get("attr").asBoolean());
+        int commits = persister.commits.get() - commitsBefore;
+        assertTrue("Expected fewer than " + (WRITES + 1) + " commits but got " + commits, commits < WRITES + 1);
+        // The resources superseded by the committed ones are rolled back
+        assertEquals(persister.stores.get(), persister.commits.get() + persister.rollbacks.get());
+    }
+
+    @Test
+    public void testFailedStoreRollsBackOnlyItsOperation() throws Exception {
+        Future<ModelNode> blocking = executor.submit(() -> execute(Util.createEmptyOperation("blocking-write", PathAddress.EMPTY_ADDRESS)));
+        assertTrue(writeStarted.await(10, TimeUnit.SECONDS));
+
+        List<Future<ModelNode>> writes = submitWrites(FAILING_PREFIX);
+        releaseWrite.countDown();
+
+        assertEquals(SUCCESS, blocking.get(10, TimeUnit.SECONDS).get(OUTCOME).asString());
+        for (int i = 0; i < WRITES; i++) {
+            ModelNode response = writes.get(i).get(10, TimeUnit.SECONDS);
+            String name = FAILING_PREFIX + i;
+            if (i == FAILING_WRITE) {
+                // The client is told, and the change is neither published nor committed by a later write
+                assertEquals(response.toString(), FAILED, response.get(OUTCOME).asString());
+                assertFalse(persister.committed.get("child").has(name));
+                assertEquals(FAILED, execute(Util.getReadResourceOperation(PathAddress.pathAddress("child", name))).get(OUTCOME).asString());
+            } else {
+                assertEquals(response.toString(), SUCCESS, response.get(OUTCOME).asString());
+                assertTrue(persister.committed.get("child").has(name));
+            }
+        }
+    }
+
+    @Test
+    public void testUncontendedWritePersisted() throws Exception {
+        ModelNode operation = Util.createEmptyOperation("add-child", PathAddress.EMPTY_ADDRESS);
+        operation.get(NAME).set("single");
+        int commitsBefore = persister.commits.get();
+        assertEquals(SUCCESS, execute(operation).get(OUTCOME).asString());
+        assertEquals(commitsBefore + 1, persister.commits.get());
+        assertTrue(persister.committed.get("child").has("single"));
+    }
+
+    private List<Future<ModelNode>> submitWrites(String prefix) throws InterruptedException {
+        List<Future<ModelNode>> writes = new ArrayList<>();
+        for (int i = 0; i < WRITES; i++) {
+            ModelNode operation = Util.createEmptyOperation("add-child", PathAddress.EMPTY_ADDRESS);
+            operation.get(NAME).set(prefix + i);
+            writes.add(executor.submit(() -> execute(operation)));
+        }
+        // Wait until all the writes are queued behind the blocking one
+        long end = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10);
+        while (threads.stream().filter(thread -> thread.getState() == Thread.State.WAITING).count() <= WRITES
+                && System.currentTimeMillis() < end) {
+            Thread.sleep(10);
+        }
+        return writes;
+    }
+
+    private ModelNode execute(ModelNode operation) {
+        return controller.execute(operation, null, null, null);
+    }
+
+    private class ModelControllerService extends TestModelControllerService {
+
+        ModelControllerService() {
+            super(ProcessType.EMBEDDED_SERVER, persister, new ControlledProcessState(true));
+        }
+
+        @Override
+        protected void initModel(ManagementModel managementModel, Resource modelControllerResource) {
+            ManagementResourceRegistration rootRegistration = managementModel.getRootResourceRegistration();
+            GlobalOperationHandlers.registerGlobalOperations(rootRegistration, processType);
+            GlobalNotifications.registerGlobalNotifications(rootRegistration, processType);
+            rootRegistration.registerOperationHandler(getOD("blocking-write"), (context, operation) -> {
+                context.readResourceForUpdate(PathAddress.EMPTY_ADDRESS).getModel().get("attr").set(true);
+                writeStarted.countDown();
+                try {
+                    releaseWrite.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new OperationFailedException(e.toString());
+                }
+            });
+            rootRegistration.registerOperationHandler(getOD("add-child"), (context, operation) ->
+                    context.createResource(PathAddress.pathAddress("child", operation.get(NAME).asString())));
+            rootRegistration.registerSubModel(new SimpleResourceDefinition(PathElement.pathElement("child"), NonResolvingResourceDescriptionResolver.INSTANCE));
+        }
+    }
+
+    private static class CountingPersister extends AbstractConfigurationPersister {
+
+        private final AtomicInteger stores = new AtomicInteger();
+        private final AtomicInteger commits = new AtomicInteger();
+        private final AtomicInteger rollbacks = new AtomicInteger();
+        private volatile ModelNode committed = new ModelNode();
+
+        CountingPersister() {
+            super(null);
+        }
+
+        @Override
+        public PersistenceResource store(ModelNode model, Set<PathAddress> affectedAddresses) throws ConfigurationPersistenceException {
+            if (model.get("child").has(FAILING_PREFIX + FAILING_WRITE)) {
+                throw new ConfigurationPersistenceException("Cannot store " + FAILING_PREFIX + FAILING_WRITE);
+            }
+            stores.incrementAndGet();
+            return new PersistenceResource() {
+                @Override
+                public void commit() {
+                    commits.incrementAndGet();
+                    committed = model;
+                }
+
+                @Override
+                public void rollback() {
+                    rollbacks.incrementAndGet();
+                }
+            };
+        }
+
+        @Override
+        public List<ModelNode> load() {
+            return Collections.emptyList();
+        }
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.jboss.as.controller;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUTCOME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUBSYSTEM;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUCCESS;
+import static org.junit.Assert.assertEquals;
+
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.controller.capability.RuntimeCapability;
+import org.jboss.as.controller.descriptions.NonResolvingResourceDescriptionResolver;
+import org.jboss.as.controller.operations.common.Util;
+import org.jboss.as.controller.operations.global.GlobalNotifications;
+import org.jboss.as.controller.operations.global.GlobalOperationHandlers;
+import org.jboss.as.controller.persistence.NullConfigurationPersister;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.as.controller.registry.Resource;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceContainer;
+import org.jboss.msc.service.ServiceController;
+import org.jboss.msc.service.ServiceName;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests of the services of subsystems listed in {@link ModelControllerImpl#LAZY_SUBSYSTEMS_PROPERTY}.
+ */
+public class LazySubsystemsUnitTestCase {
+
+    private static final ServiceName SERVICES = ServiceName.of("lazy-subsystems-test");
+    private static final RuntimeCapability<Void> CAPABILITY = RuntimeCapability.Builder.of("org.wildfly.test.lazy-subsystems", true, Void.class).build();
+    private static final String REQUIRES = "requires";
+    private static final String REQUIRES_CAPABILITY = "requires-capability";
+
+    private ServiceContainer container;
+    private ModelController controller;
+
+    @Before
+    public void setupController() throws InterruptedException {
+        System.setProperty(ModelControllerImpl.LAZY_SUBSYSTEMS_PROPERTY, "lazy, passive,never");
+        try {
+            container = ServiceContainer.Factory.create("test");
+            ModelControllerService svc = new ModelControllerService();
+            container.subTarget().addService(ServiceName.of("ModelController")).setInstance(svc).install();
+            svc.awaitStartup(30, TimeUnit.SECONDS);
+            controller = svc.getValue();
+        } finally {
+            System.clearProperty(ModelControllerImpl.LAZY_SUBSYSTEMS_PROPERTY);
+        }
+    }
+
+    @After
+    public void shutdownServiceContainer() throws InterruptedException {
+        if (container != null) {
+            container.shutdown();
+            try {
+                container.awaitTermination(5, TimeUnit.SECONDS);
+            } finally {
+                container = null;
+            }
+        }
+    }
+
+    @Test
+    public void testLazyServicesStartOnDemand() {
+        add("lazy", null, null);
+        add("passive", null, null);
+        add("never", null, null);
+        assertService("lazy", ServiceController.Mode.ON_DEMAND, ServiceController.State.DOWN);
+        assertService("passive", ServiceController.Mode.ON_DEMAND, ServiceController.State.DOWN);
+        assertService("never", ServiceController.Mode.NEVER, ServiceController.State.DOWN);
+
+        add("eager", REQUIRES, "lazy");
+        assertService("eager", ServiceController.Mode.ACTIVE, ServiceController.State.UP);
+        assertService("lazy", ServiceController.Mode.ON_DEMAND, ServiceController.State.UP);
+        assertService("passive", ServiceController.Mode.ON_DEMAND, ServiceController.State.DOWN);
+    }
+
+    @Test
+    public void testRequiredCapabilityStarts() {
+        add("lazy", null, null);
+        assertService("lazy", ServiceController.Mode.ON_DEMAND, ServiceController.State.DOWN);
+
+        add("eager", REQUIRES_CAPABILITY, "lazy");
+        assertService("eager", ServiceController.Mode.ACTIVE, ServiceController.State.UP);
+        assertService("lazy", ServiceController.Mode.ON_DEMAND, ServiceController.State.UP);
+    }
+
+    private void add(String subsystem, String requirement, String required) {
+        ModelNode add = Util.createAddOperation(PathAddress.pathAddress(SUBSYSTEM, subsystem));
+        if (required != null) {
+            add.get(requirement).set(required);
+        }
+        ModelNode response = controller.execute(add, null, null, null);
+        assertEquals(response.toString(), SUCCESS, response.get(OUTCOME).asString());
+    }
+
+    private void assertService(String subsystem, ServiceController.Mode mode, ServiceController.State state) {
+        ServiceController<?> service = container.getRequiredService(SERVICES.append(subsystem));
+        assertEquals(subsystem, mode, service.getMode());
+        assertEquals(subsystem, state, service.getState());
+    }
+
+    private static class ModelControllerService extends TestModelControllerService {
+
+        ModelControllerService() {
+            super(ProcessType.EMBEDDED_SERVER, new NullConfigurationPersister(), new ControlledProcessState(true));
+        }
+
+        @Override
+        protected void initModel(ManagementModel managementModel, Resource modelControllerResource) {
+            ManagementResourceRegistration rootRegistration = managementModel.getRootResourceRegistration();
+            GlobalOperationHandlers.registerGlobalOperations(rootRegistration, processType);
+            GlobalNotifications.registerGlobalNotifications(rootRegistration, processType);
+            rootRegistration.registerSubModel(new SimpleResourceDefinition(new SimpleResourceDefinition.Parameters(PathElement.pathElement(SUBSYSTEM), NonResolvingResourceDescriptionResolver.INSTANCE)
+                    .setAddHandler((context, operation) -> {
+                        context.createResource(PathAddress.EMPTY_ADDRESS);
+                        RuntimeCapability<Void> capability = CAPABILITY.fromBaseCapability(context.getCurrentAddress());
+                        context.registerCapability(capability);
+                        if (operation.hasDefined(REQUIRES_CAPABILITY)) {
+                            context.registerAdditionalCapabilityRequirement(CAPABILITY.getDynamicName(operation.get(REQUIRES_CAPABILITY).asString()),
+                                    capability.getName(), REQUIRES_CAPABILITY);
+                        }
+                        context.addStep((ctx, op) -> {
+                            String name = ctx.getCurrentAddressValue();
+                            CapabilityServiceBuilder<?> builder = ctx.getCapabilityServiceTarget().addService();
+                            builder.provides(capability, SERVICES.append(name));
+                            if (op.hasDefined(REQUIRES)) {
+                                builder.requires(SERVICES.append(op.get(REQUIRES).asString()));
+                            }
+                            if (op.hasDefined(REQUIRES_CAPABILITY)) {
+                                builder.requiresCapability(CAPABILITY.getName(), Void.class, op.get(REQUIRES_CAPABILITY).asString());
+                            }
+                            if (name.equals("passive")) {
+                                builder.setInitialMode(ServiceController.Mode.PASSIVE);
+                            } else if (name.equals("never")) {
+                                builder.setInitialMode(ServiceController.Mode.NEVER);
+                            }
+                            builder.install();
+                        }, OperationContext.Stage.RUNTIME);
+                    })
+                    .setRemoveHandler(ModelOnlyRemoveStepHandler.INSTANCE)));
+        }
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.jboss.as.controller;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ADD;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.COMPOSITE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.DEPLOYMENT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILED;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.HOST;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUTCOME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_ATTRIBUTE_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_RESOURCE_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RELOAD;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESPONSE_HEADERS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RETRY_AFTER;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.STEPS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUBSYSTEM;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.jboss.as.controller.ManagementOperationLanes.Lane;
+import org.jboss.as.controller.operations.common.Util;
+import org.jboss.dmr.ModelNode;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Unit tests of the priority lanes of management operations.
+ */
+public class ManagementOperationLanesUnitTestCase {
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @After
+    public void shutdownExecutor() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testLaneOfOperation() {
+        assertEquals(Lane.PROBE, Lane.of(readAttribute(PathAddress.EMPTY_ADDRESS, "server-state")));
+        assertEquals(Lane.PROBE, Lane.of(readAttribute(PathAddress.pathAddress(HOST, "primary"), "host-state")));
+        assertEquals(Lane.READ, Lane.of(readAttribute(PathAddress.EMPTY_ADDRESS, "product-name")));
+        assertEquals(Lane.READ, Lane.of(readAttribute(PathAddress.pathAddress(SUBSYSTEM, "a"), "server-state")));
+        assertEquals(Lane.READ, Lane.of(Util.createEmptyOperation(READ_RESOURCE_OPERATION, PathAddress.pathAddress(DEPLOYMENT, "app.war"))));
+        assertEquals(Lane.WRITE, Lane.of(Util.createAddOperation(PathAddress.pathAddress(SUBSYSTEM, "a"))));
+        assertEquals(Lane.DEPLOY, Lane.of(Util.createAddOperation(PathAddress.pathAddress(DEPLOYMENT, "app.war"))));
+        assertEquals(Lane.DEPLOY, Lane.of(Util.createEmptyOperation(RELOAD, PathAddress.EMPTY_ADDRESS)));
+    }
+
+    @Test
+    public void testLaneOfComposite() {
+        ModelNode composite = Util.createEmptyOperation(COMPOSITE, PathAddress.EMPTY_ADDRESS);
+        composite.get(STEPS).add(readAttribute(PathAddress.EMPTY_ADDRESS, "server-state"));
+        assertEquals(Lane.READ, Lane.of(composite));
+        composite.get(STEPS).add(Util.createEmptyOperation(ADD, PathAddress.pathAddress(SUBSYSTEM, "a")));
+        assertEquals(Lane.WRITE, Lane.of(composite));
+        composite.get(STEPS).add(Util.createAddOperation(PathAddress.pathAddress(DEPLOYMENT, "app.war")));
+        assertEquals(Lane.DEPLOY, Lane.of(composite));
+    }
+
+    @Test
+    public void testAcquireRejectedWhenSaturated() throws Exception {
+        ManagementOperationLanes lanes = createLanes(1, 1);
+        long rejections = ManagementOperationLanes.getRejectedOperationCount();
+        assertTrue(lanes.acquire(Lane.WRITE));
+
+        Future<Boolean> waiting = executor.submit(() -> lanes.acquire(Lane.WRITE));
+        assertBlocked(waiting);
+        // Other lanes are not affected
+        assertTrue(lanes.acquire(Lane.PROBE));
+        lanes.release(Lane.PROBE, 0);
+
+        assertFalse(lanes.acquire(Lane.WRITE));
+        assertEquals(1, ManagementOperationLanes.getRejectedOperationCount() - rejections);
+        ModelNode response = lanes.createRejectedResponse(Lane.WRITE);
+        assertEquals(FAILED, response.get(OUTCOME).asString());
+        assertTrue(response.get(RESPONSE_HEADERS, RETRY_AFTER).asInt() >= 1);
+
+        lanes.release(Lane.WRITE, TimeUnit.SECONDS.toNanos(3));
+        assertTrue(waiting.get(10, TimeUnit.SECONDS));
+        // One operation taking three seconds on average is active
+        assertEquals(3, lanes.getRetryAfter(Lane.WRITE));
+        lanes.release(Lane.WRITE, TimeUnit.SECONDS.toNanos(3));
+        assertTrue(lanes.acquire(Lane.WRITE));
+        lanes.release(Lane.WRITE, 0);
+    }
+
+    @Test
+    public void testQueuedTaskExecutedByItsOwnExecutor() throws Exception {
+        ManagementOperationLanes lanes = createLanes(1, 1);
+        ExecutorService other = Executors.newSingleThreadExecutor();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(2);
+        List<Thread> threads = new CopyOnWriteArrayList<>();
+        try {
+            assertTrue(lanes.execute(Lane.READ, () -> {
+                threads.add(Thread.currentThread());
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                done.countDown();
+            }, executor, ManagementOperationLanesUnitTestCase::failRejected));
+            assertTrue(started.await(10, TimeUnit.SECONDS));
+
+            // Queued without being handed to its executor until the first task completes
+            assertTrue(lanes.execute(Lane.READ, () -> {
+                threads.add(Thread.currentThread());
+                done.countDown();
+            }, task -> {
+                assertEquals(0, release.getCount());
+                other.execute(task);
+            }, ManagementOperationLanesUnitTestCase::failRejected));
+            assertFalse(lanes.execute(Lane.READ, () -> { }, executor, ManagementOperationLanesUnitTestCase::failRejected));
+
+            release.countDown();
+            assertTrue(done.await(10, TimeUnit.SECONDS));
+            assertEquals(2, threads.size());
+            Thread otherThread = other.submit(Thread::currentThread).get(10, TimeUnit.SECONDS);
+            assertEquals(otherThread, threads.get(1));
+        } finally {
+            other.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testQueuedTaskHandedToExecutorOnRelease() throws Exception {
+        ManagementOperationLanes lanes = createLanes(1, 2);
+        assertTrue(lanes.acquire(Lane.DEPLOY));
+        assertTrue(ManagementOperationLanes.isAdmitted());
+        List<Thread> threads = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(1);
+        CountDownLatch rejected = new CountDownLatch(1);
+
+        assertTrue(lanes.execute(Lane.DEPLOY, () -> {
+            throw new AssertionError("The executor rejected the task");
+        }, task -> {
+            throw new RejectedExecutionException();
+        }, rejected::countDown));
+        assertTrue(lanes.execute(Lane.DEPLOY, () -> {
+            threads.add(Thread.currentThread());
+            if (ManagementOperationLanes.isAdmitted()) {
+                done.countDown();
+            }
+        }, executor, ManagementOperationLanesUnitTestCase::failRejected));
+
+        // The turn goes to the next task once the executor rejects the first one, which the releasing thread runs neither
+        lanes.release(Lane.DEPLOY, 0);
+        assertFalse(ManagementOperationLanes.isAdmitted());
+        assertTrue(rejected.await(10, TimeUnit.SECONDS));
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertFalse(threads.contains(Thread.currentThread()));
+    }
+
+    private static void failRejected() {
+        throw new AssertionError("The executor should not reject the task");
+    }
+
+    private static ManagementOperationLanes createLanes(int maxActive, int maxQueued) {
+        int[] active = new int[Lane.values().length];
+        int[] queued = new int[Lane.values().length];
+        Arrays.fill(active, maxActive);
+        Arrays.fill(queued, maxQueued);
+        return new ManagementOperationLanes(active, queued);
+    }
+
+    private static ModelNode readAttribute(PathAddress address, String name) {
+        ModelNode operation = Util.createEmptyOperation(READ_ATTRIBUTE_OPERATION, address);
+        operation.get(NAME).set(name);
+        return operation;
+    }
+
+    private static void assertBlocked(Future<?> future) throws Exception {
+        try {
+            future.get(200, TimeUnit.MILLISECONDS);
+            throw new AssertionError("The operation should wait for its turn");
+        } catch (TimeoutException expected) {
+            // expected
+        }
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.jboss.as.controller;
+
+import static org.jboss.as.controller.TestModelControllerService.getOD;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ACCESS_MECHANISM;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.DEPLOYMENT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OPERATION_HEADERS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUTCOME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESULT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUCCESS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.controller.ManagementOperationLanes.Lane;
+import org.jboss.as.controller.descriptions.NonResolvingResourceDescriptionResolver;
+import org.jboss.as.controller.operations.common.Util;
+import org.jboss.as.controller.operations.global.GlobalNotifications;
+import org.jboss.as.controller.operations.global.GlobalOperationHandlers;
+import org.jboss.as.controller.persistence.NullConfigurationPersister;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.as.controller.registry.Resource;
+import org.jboss.as.core.security.AccessMechanism;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceContainer;
+import org.jboss.msc.service.ServiceName;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests of the admission of operations through the priority lanes of the model controller, when
+ * {@link ManagementOperationLanes#ENABLED_PROPERTY} is set and a single deploy operation can execute at once.
+ */
+public class ModelControllerOperationLanesTestCase {
+
+    private static final PathAddress DEPLOYMENT_ADDRESS = PathAddress.pathAddress(DEPLOYMENT, "app.war");
+    private static final String DEPLOY_LANE_PROPERTY = ManagementOperationLanes.ENABLED_PROPERTY + "." + Lane.DEPLOY;
+    private static final ServiceName CONTROLLER_NAME = ServiceName.of("ModelController");
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private ServiceContainer container;
+    private volatile ModelController controller;
+
+    @Before
+    public void setupController() throws InterruptedException {
+        System.setProperty(ManagementOperationLanes.ENABLED_PROPERTY, "true");
+        System.setProperty(DEPLOY_LANE_PROPERTY, "1,8");
+        container = ServiceContainer.Factory.create("test");
+        ModelControllerService svc = new ModelControllerService();
+        container.subTarget().addService(CONTROLLER_NAME).setInstance(svc).install();
+        svc.awaitStartup(30, TimeUnit.SECONDS);
+        controller = svc.getValue();
+        ModelNode result = controller.execute(Util.createEmptyOperation("setup", PathAddress.EMPTY_ADDRESS), null, null, null);
+        assertEquals(result.toString(), SUCCESS, result.get(OUTCOME).asString());
+    }
+
+    @After
+    public void shutdownServiceContainer() throws InterruptedException {
+        System.clearProperty(ManagementOperationLanes.ENABLED_PROPERTY);
+        System.clearProperty(DEPLOY_LANE_PROPERTY);
+        executor.shutdownNow();
+        if (container != null) {
+            container.shutdown();
+            try {
+                container.awaitTermination(5, TimeUnit.SECONDS);
+            } finally {
+                container = null;
+            }
+        }
+    }
+
+    @Test
+    public void testNestedOperationNotAdmittedAgain() throws Exception {
+        assertEquals(Lane.DEPLOY, Lane.of(nativeOperation("nest")));
+        // The nested operation waits for the turn of the operation executing it if admitted through the lane again
+        ModelNode result = executor.submit(() -> controller.execute(nativeOperation("nest"), null, null, null)).get(10, TimeUnit.SECONDS);
+        assertEquals(result.toString(), SUCCESS, result.get(OUTCOME).asString());
+        assertEquals(SUCCESS, result.get(RESULT, OUTCOME).asString());
+    }
+
+    @Test
+    public void testOperationAdmittedByInterfaceNotAdmittedAgain() throws Exception {
+        // The lanes are provided to the management interfaces by a service installed with the controller
+        ServiceName lanesName = ManagementOperationLanes.getServiceName(container, CONTROLLER_NAME);
+        assertNotNull(lanesName);
+        ManagementOperationLanes lanes = (ManagementOperationLanes) container.getRequiredService(lanesName).awaitValue(10, TimeUnit.SECONDS);
+        assertNotNull(lanes);
+        CompletableFuture<ModelNode> result = new CompletableFuture<>();
+        // As the management interfaces do, the operation is admitted before it is handed to the controller
+        assertTrue(lanes.execute(Lane.DEPLOY, () -> result.complete(controller.execute(nativeOperation("leaf"), null, null, null)),
+                executor, () -> result.completeExceptionally(new AssertionError("The executor should not reject the task"))));
+        ModelNode response = result.get(10, TimeUnit.SECONDS);
+        assertEquals(response.toString(), SUCCESS, response.get(OUTCOME).asString());
+    }
+
+    /** Creates an operation of the deploy lane, as the native management interface would pass it to the controller */
+    private static ModelNode nativeOperation(String name) {
+        ModelNode operation = Util.createEmptyOperation(name, DEPLOYMENT_ADDRESS);
+        operation.get(OPERATION_HEADERS, ACCESS_MECHANISM).set(AccessMechanism.NATIVE.toString());
+        return operation;
+    }
+
+    private class ModelControllerService extends TestModelControllerService {
+
+        ModelControllerService() {
+            super(ProcessType.EMBEDDED_SERVER, new NullConfigurationPersister(), new ControlledProcessState(true));
+        }
+
+        @Override
+        protected void initModel(ManagementModel managementModel, Resource modelControllerResource) {
+            ManagementResourceRegistration rootRegistration = managementModel.getRootResourceRegistration();
+            GlobalOperationHandlers.registerGlobalOperations(rootRegistration, processType);
+            GlobalNotifications.registerGlobalNotifications(rootRegistration, processType);
+            rootRegistration.registerOperationHandler(getOD("setup"), (context, operation) -> context.createResource(DEPLOYMENT_ADDRESS));
+            ManagementResourceRegistration deployment = rootRegistration.registerSubModel(
+                    new SimpleResourceDefinition(PathElement.pathElement(DEPLOYMENT), NonResolvingResourceDescriptionResolver.INSTANCE));
+            // Executes an operation of the same lane on the same thread, as a caller in the same VM could
+            deployment.registerOperationHandler(getOD("nest"),
+                    (context, operation) -> context.getResult().set(controller.execute(nativeOperation("leaf"), null, null, null)));
+            deployment.registerOperationHandler(getOD("leaf"), (context, operation) -> context.getResult().set(true));
+        }
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.jboss.as.controller;
+
+import static org.jboss.as.controller.TestModelControllerService.getOD;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OPERATION_HEADERS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OPERATION_PROFILE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUTCOME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.PROFILE_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESPONSE_HEADERS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUCCESS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.controller.operations.common.Util;
+import org.jboss.as.controller.operations.global.GlobalNotifications;
+import org.jboss.as.controller.operations.global.GlobalOperationHandlers;
+import org.jboss.as.controller.persistence.NullConfigurationPersister;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.as.controller.registry.Resource;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceContainer;
+import org.jboss.msc.service.ServiceName;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests of the {@link OperationProfile profiling} of operations.
+ */
+public class OperationProfileUnitTestCase {
+
+    private ServiceContainer container;
+    private ModelController controller;
+
+    @Before
+    public void setupController() throws InterruptedException {
+        container = ServiceContainer.Factory.create("test");
+        ModelControllerService svc = new ModelControllerService();
+        container.subTarget().addService(ServiceName.of("ModelController")).setInstance(svc).install();
+        svc.awaitStartup(30, TimeUnit.SECONDS);
+        controller = svc.getValue();
+    }
+
+    @After
+    public void shutdownServiceContainer() throws InterruptedException {
+        if (container != null) {
+            container.shutdown();
+            try {
+                container.awaitTermination(5, TimeUnit.SECONDS);
+            } finally {
+                container = null;
+            }
+        }
+    }
+
+    @Test
+    public void testProfileHeader() {
+        ModelNode operation = Util.createEmptyOperation("profiled-write", PathAddress.EMPTY_ADDRESS);
+        operation.get(OPERATION_HEADERS, PROFILE_OPERATION).set(true);
+        ModelNode profile = execute(operation).get(RESPONSE_HEADERS, OPERATION_PROFILE);
+
+        assertTrue(profile.toString(), profile.get(OperationProfile.EXECUTION_TIME).asLong() > 0);
+        assertTrue(profile.toString(), profile.get(OperationProfile.LOCK_WAIT_TIME).asLong() >= 0);
+        assertTrue(profile.toString(), profile.hasDefined("stages", OperationContext.Stage.MODEL.toString()));
+        List<ModelNode> steps = profile.get("steps").asList();
+        // The controller's prepare step, the operation and the step it added
+        assertEquals(profile.toString(), 3, steps.size());
+        for (ModelNode step : steps) {
+            assertEquals(step.toString(), OperationContext.Stage.MODEL.toString(), step.get("stage").asString());
+            assertEquals(step.toString(), PathAddress.EMPTY_ADDRESS.toModelNode(), step.get(OP_ADDR));
+            assertTrue(step.toString(), step.hasDefined(OperationProfile.EXECUTION_TIME));
+        }
+    }
+
+    @Test
+    public void testNoProfileHeaderByDefault() {
+        ModelNode response = execute(Util.createEmptyOperation("profiled-write", PathAddress.EMPTY_ADDRESS));
+        assertFalse(response.toString(), response.hasDefined(RESPONSE_HEADERS, OPERATION_PROFILE));
+    }
+
+    @Test
+    public void testSlowOperationLogDoesNotAddProfileHeader() {
+        SlowOperationLog.INSTANCE.setThreshold(0);
+        try {
+            ModelNode response = execute(Util.createEmptyOperation("profiled-write", PathAddress.EMPTY_ADDRESS));
+            assertFalse(response.toString(), response.hasDefined(RESPONSE_HEADERS, OPERATION_PROFILE));
+        } finally {
+            SlowOperationLog.INSTANCE.deactivate();
+        }
+    }
+
+    @Test
+    public void testStepsRecordedOnceOverThreshold() throws InterruptedException {
+        OperationProfile profile = new OperationProfile(TimeUnit.MILLISECONDS.toNanos(50));
+        profile.stepStarted();
+        profile.stepCompleted(OperationContext.Stage.MODEL, this, PathAddress.EMPTY_ADDRESS);
+        assertEquals(0, profile.toModelNode().get("steps").asList().size());
+
+        Thread.sleep(100);
+        profile.stepStarted();
+        profile.stepCompleted(OperationContext.Stage.RUNTIME, this, PathAddress.EMPTY_ADDRESS);
+        ModelNode result = profile.toModelNode();
+        List<ModelNode> steps = result.get("steps").asList();
+        assertEquals(result.toString(), 1, steps.size());
+        assertEquals(result.toString(), OperationContext.Stage.RUNTIME.toString(), steps.get(0).get("stage").asString());
+        assertFalse(result.toString(), result.hasDefined("stages", OperationContext.Stage.MODEL.toString()));
+        assertTrue(result.toString(), result.hasDefined("stages", OperationContext.Stage.RUNTIME.toString()));
+    }
+
+    @Test
+    public void testNoStepsRecorded() {
+        OperationProfile profile = new OperationProfile(OperationProfile.NO_STEPS);
+        profile.stepStarted();
+        profile.stepCompleted(OperationContext.Stage.MODEL, this, PathAddress.EMPTY_ADDRESS);
+        ModelNode result = profile.toModelNode();
+        assertFalse(result.toString(), result.has("steps"));
+        assertTrue(result.toString(), result.hasDefined(OperationProfile.EXECUTION_TIME));
+    }
+
+    @Test
+    public void testStatistics() {
+        long count = getCount();
+        execute(Util.createEmptyOperation("profiled-write", PathAddress.EMPTY_ADDRESS));
+        execute(Util.createEmptyOperation("profiled-write", PathAddress.EMPTY_ADDRESS));
+        assertEquals(count + 2, getCount());
+
+        ModelNode statistics = OperationProfileStatistics.getStatistics().get("profiled-write");
+        long histogramCount = 0;
+        for (String bucket : statistics.get(OperationProfileStatistics.HISTOGRAM).keys()) {
+            histogramCount += statistics.get(OperationProfileStatistics.HISTOGRAM, bucket).asLong();
+        }
+        assertEquals(statistics.toString(), count + 2, histogramCount);
+    }
+
+    private static long getCount() {
+        ModelNode statistics = OperationProfileStatistics.getStatistics();
+        return statistics.has("profiled-write") ? statistics.get("profiled-write", OperationProfileStatistics.COUNT).asLong() : 0;
+    }
+
+    private ModelNode execute(ModelNode operation) {
+        ModelNode response = controller.execute(operation, null, null, null);
+        assertEquals(response.toString(), SUCCESS, response.get(OUTCOME).asString());
+        return response;
+    }
+
+    private static class ModelControllerService extends TestModelControllerService {
+
+        ModelControllerService() {
+            super(ProcessType.EMBEDDED_SERVER, new NullConfigurationPersister(), new ControlledProcessState(true));
+        }
+
+        @Override
+        protected void initModel(ManagementModel managementModel, Resource modelControllerResource) {
+            ManagementResourceRegistration rootRegistration = managementModel.getRootResourceRegistration();
+            GlobalOperationHandlers.registerGlobalOperations(rootRegistration, processType);
+            GlobalNotifications.registerGlobalNotifications(rootRegistration, processType);
+            rootRegistration.registerOperationHandler(getOD("profiled-write"), (context, operation) -> {
+                context.readResourceForUpdate(PathAddress.EMPTY_ADDRESS).getModel().get("attr").set(1);
+                context.addStep((ctx, op) -> ctx.getResult().set(true), OperationContext.Stage.MODEL);
+            });
+        }
+    }
+}
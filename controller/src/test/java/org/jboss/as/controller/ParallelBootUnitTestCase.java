@@ -0,0 +1,181 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.jboss.as.controller;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.EXTENSION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.INTERFACE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUBSYSTEM;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.controller.capability.RuntimeCapability;
+import org.jboss.as.controller.descriptions.NonResolvingResourceDescriptionResolver;
+import org.jboss.as.controller.extension.NoOpExtensionAddHandler;
+import org.jboss.as.controller.operations.common.Util;
+import org.jboss.as.controller.operations.global.GlobalNotifications;
+import org.jboss.as.controller.operations.global.GlobalOperationHandlers;
+import org.jboss.as.controller.persistence.ConfigurationPersistenceException;
+import org.jboss.as.controller.persistence.NullConfigurationPersister;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.as.controller.registry.Resource;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+import org.jboss.msc.service.ServiceContainer;
+import org.jboss.msc.service.ServiceName;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests of the execution of boot operations in waves by a dependency ordered
+ * {@link ParallelBootOperationStepHandler}.
+ */
+public class ParallelBootUnitTestCase {
+
+    private static final RuntimeCapability<Void> INTERFACE_CAPABILITY = RuntimeCapability.Builder.of("test.interface", true).build();
+    private static final RuntimeCapability<Void> WEB_CAPABILITY = RuntimeCapability.Builder.of("test.web").build();
+    private static final SimpleAttributeDefinition INTERFACE_REF = new SimpleAttributeDefinitionBuilder(INTERFACE, ModelType.STRING)
+            .setCapabilityReference(INTERFACE_CAPABILITY.getName(), WEB_CAPABILITY)
+            .build();
+    private static final PathAddress INTERFACE_ADDRESS = PathAddress.pathAddress(INTERFACE, "public");
+    private static final PathAddress WEB_ADDRESS = PathAddress.pathAddress(SUBSYSTEM, "web");
+    /** How long the operations of the required resource take, so the other would overtake them if they ran together */
+    private static final long DELAY = 200;
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final List<String> events = new CopyOnWriteArrayList<>();
+    private ServiceContainer container;
+
+    @Before
+    public void setDependencyOrdered() {
+        System.setProperty(ModelControllerImpl.DEPENDENCY_ORDERED_BOOT_PROPERTY, "true");
+    }
+
+    @After
+    public void shutdown() throws InterruptedException {
+        System.clearProperty(ModelControllerImpl.DEPENDENCY_ORDERED_BOOT_PROPERTY);
+        if (container != null) {
+            container.shutdown();
+            try {
+                container.awaitTermination(5, TimeUnit.SECONDS);
+            } finally {
+                container = null;
+            }
+        }
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testWavesRunInOrder() throws InterruptedException {
+        assertTrue(boot(false));
+        assertEquals(List.of(
+                event("model", INTERFACE_ADDRESS), event("model", WEB_ADDRESS),
+                event("runtime", INTERFACE_ADDRESS), event("runtime", WEB_ADDRESS)), events);
+    }
+
+    @Test
+    public void testFailureInLaterWaveRollsBackEarlierWaves() throws InterruptedException {
+        assertFalse(boot(true));
+        assertEquals(List.of(event("model", INTERFACE_ADDRESS), event("rolled-back", INTERFACE_ADDRESS)), events);
+    }
+
+    private boolean boot(boolean failWeb) throws InterruptedException {
+        container = ServiceContainer.Factory.create("test");
+        ModelControllerService svc = new ModelControllerService(failWeb);
+        container.subTarget().addService(ServiceName.of("ModelController")).setInstance(svc).install();
+        svc.awaitStartup(30, TimeUnit.SECONDS);
+        return svc.booted;
+    }
+
+    private static String event(String event, PathAddress address) {
+        return event + " " + address.toCLIStyleString();
+    }
+
+    private class ModelControllerService extends TestModelControllerService {
+
+        private final boolean failWeb;
+        private volatile boolean booted;
+
+        ModelControllerService(boolean failWeb) {
+            super(ProcessType.EMBEDDED_SERVER, new RunningModeControl(RunningMode.NORMAL), () -> executor, new NullConfigurationPersister(),
+                    new ControlledProcessState(true), ResourceBuilder.Factory.create(PathElement.pathElement("root"), NonResolvingResourceDescriptionResolver.INSTANCE).build());
+            this.failWeb = failWeb;
+        }
+
+        @Override
+        protected void boot(BootContext context) throws ConfigurationPersistenceException {
+            ModelNode addWeb = Util.createAddOperation(WEB_ADDRESS);
+            addWeb.get(INTERFACE_REF.getName()).set("public");
+            // The subsystem comes first, so only its requirement can make it wait for the interface
+            booted = boot(List.of(Util.createAddOperation(PathAddress.pathAddress(EXTENSION, "test")), addWeb,
+                    Util.createAddOperation(INTERFACE_ADDRESS)), false);
+            finishBoot();
+        }
+
+        @Override
+        protected void initModel(ManagementModel managementModel, Resource modelControllerResource) {
+            ManagementResourceRegistration rootRegistration = managementModel.getRootResourceRegistration();
+            GlobalOperationHandlers.registerGlobalOperations(rootRegistration, processType);
+            GlobalNotifications.registerGlobalNotifications(rootRegistration, processType);
+            rootRegistration.registerSubModel(new SimpleResourceDefinition(PathElement.pathElement(EXTENSION),
+                    NonResolvingResourceDescriptionResolver.INSTANCE,
+                    new NoOpExtensionAddHandler(getMutableRootResourceRegistrationProvider()), ReloadRequiredRemoveStepHandler.INSTANCE));
+            rootRegistration.registerSubModel(new SimpleResourceDefinition(PathElement.pathElement(INTERFACE),
+                    NonResolvingResourceDescriptionResolver.INSTANCE, new RecordingAddHandler(DELAY, false), ReloadRequiredRemoveStepHandler.INSTANCE))
+                    .registerCapability(INTERFACE_CAPABILITY);
+            ManagementResourceRegistration web = rootRegistration.registerSubModel(new SimpleResourceDefinition(WEB_ADDRESS.getLastElement(),
+                    NonResolvingResourceDescriptionResolver.INSTANCE, new RecordingAddHandler(0, failWeb), ReloadRequiredRemoveStepHandler.INSTANCE));
+            web.registerCapability(WEB_CAPABILITY);
+            web.registerReadOnlyAttribute(INTERFACE_REF, null);
+        }
+    }
+
+    private class RecordingAddHandler implements OperationStepHandler {
+
+        private final long delay;
+        private final boolean fail;
+
+        RecordingAddHandler(long delay, boolean fail) {
+            this.delay = delay;
+            this.fail = fail;
+        }
+
+        @Override
+        public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+            if (fail) {
+                throw new OperationFailedException("Failed to add " + context.getCurrentAddress());
+            }
+            Resource resource = context.createResource(PathAddress.EMPTY_ADDRESS);
+            if (operation.hasDefined(INTERFACE_REF.getName())) {
+                INTERFACE_REF.validateAndSet(operation, resource.getModel());
+            }
+            record("model", context.getCurrentAddress());
+            context.addStep((ctx, op) -> record("runtime", ctx.getCurrentAddress()), OperationContext.Stage.RUNTIME);
+            context.completeStep((resultAction, ctx, op) -> {
+                if (resultAction == OperationContext.ResultAction.ROLLBACK) {
+                    events.add(event("rolled-back", ctx.getCurrentAddress()));
+                }
+            });
+        }
+
+        private void record(String event, PathAddress address) throws OperationFailedException {
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new OperationFailedException(e.toString());
+            }
+            events.add(event(event, address));
+        }
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.jboss.as.controller;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.CORE_SERVICE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.INTERFACE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.PATH;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SOCKET_BINDING_GROUP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUBSYSTEM;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.jboss.as.controller.capability.RuntimeCapability;
+import org.jboss.as.controller.descriptions.NonResolvingResourceDescriptionResolver;
+import org.jboss.as.controller.operations.common.Util;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+import org.jboss.dmr.ValueExpression;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests of the waves a dependency ordered {@link ParallelBootOperationStepHandler} runs boot operations in.
+ */
+public class ParallelBootWavesUnitTestCase {
+
+    private static final RuntimeCapability<Void> INTERFACE_CAPABILITY = RuntimeCapability.Builder.of("test.interface", true).build();
+    private static final RuntimeCapability<Void> SOCKET_BINDING_CAPABILITY = RuntimeCapability.Builder.of("test.socket-binding", true).build();
+    private static final RuntimeCapability<Void> PATH_CAPABILITY = RuntimeCapability.Builder.of("test.path", true).build();
+    private static final RuntimeCapability<Void> WEB_CAPABILITY = RuntimeCapability.Builder.of("test.web").build();
+    private static final RuntimeCapability<Void> APP_CAPABILITY = RuntimeCapability.Builder.of("test.app")
+            .addRequirements(WEB_CAPABILITY.getName())
+            .build();
+    private static final RuntimeCapability<Void> FIRST_CAPABILITY = RuntimeCapability.Builder.of("test.first")
+            .addRequirements("test.second")
+            .build();
+    private static final RuntimeCapability<Void> SECOND_CAPABILITY = RuntimeCapability.Builder.of("test.second")
+            .addRequirements(FIRST_CAPABILITY.getName())
+            .build();
+
+    private static final SimpleAttributeDefinition INTERFACE_REF = new SimpleAttributeDefinitionBuilder(INTERFACE, ModelType.STRING)
+            .setCapabilityReference(INTERFACE_CAPABILITY.getName(), SOCKET_BINDING_CAPABILITY)
+            .build();
+    private static final SimpleAttributeDefinition SOCKET_BINDING_REF = new SimpleAttributeDefinitionBuilder("socket-binding", ModelType.STRING)
+            .setAllowExpression(true)
+            .setCapabilityReference(SOCKET_BINDING_CAPABILITY.getName(), WEB_CAPABILITY)
+            .build();
+
+    private ManagementResourceRegistration rootRegistration;
+
+    @Before
+    public void setupRegistration() {
+        rootRegistration = ManagementResourceRegistration.Factory.forProcessType(ProcessType.EMBEDDED_SERVER)
+                .createRegistration(new SimpleResourceDefinition(null, NonResolvingResourceDescriptionResolver.INSTANCE));
+        register(rootRegistration, PathElement.pathElement(INTERFACE), INTERFACE_CAPABILITY);
+        register(rootRegistration, PathElement.pathElement(PATH), PATH_CAPABILITY);
+        ManagementResourceRegistration group = register(rootRegistration, PathElement.pathElement(SOCKET_BINDING_GROUP), null);
+        register(group, PathElement.pathElement("socket-binding"), SOCKET_BINDING_CAPABILITY)
+                .registerReadWriteAttribute(INTERFACE_REF, null, ModelOnlyWriteAttributeHandler.INSTANCE);
+        register(rootRegistration, PathElement.pathElement(SUBSYSTEM, "web"), WEB_CAPABILITY)
+                .registerReadWriteAttribute(SOCKET_BINDING_REF, null, ModelOnlyWriteAttributeHandler.INSTANCE);
+        register(rootRegistration, PathElement.pathElement(SUBSYSTEM, "app"), APP_CAPABILITY);
+        register(rootRegistration, PathElement.pathElement(SUBSYSTEM, "other"), null);
+        register(rootRegistration, PathElement.pathElement(SUBSYSTEM, "first"), FIRST_CAPABILITY);
+        register(rootRegistration, PathElement.pathElement(SUBSYSTEM, "second"), SECOND_CAPABILITY);
+        register(rootRegistration, PathElement.pathElement(CORE_SERVICE, "management"), null)
+                .registerReadWriteAttribute(SOCKET_BINDING_REF, null, ModelOnlyWriteAttributeHandler.INSTANCE);
+    }
+
+    @Test
+    public void testSubsystemsOnlyByDefault() {
+        ParallelBootOperationStepHandler handler = createHandler(false);
+        assertFalse(handler.addSubsystemOperation(add(INTERFACE, "public")));
+        assertTrue(handler.addSubsystemOperation(add(SUBSYSTEM, "app")));
+        assertTrue(handler.addSubsystemOperation(add(SUBSYSTEM, "web")));
+        assertEquals(List.of(List.of(element(SUBSYSTEM, "app"), element(SUBSYSTEM, "web"))), handler.getWaves());
+    }
+
+    @Test
+    public void testCapabilityRequirementsOrderWaves() {
+        ParallelBootOperationStepHandler handler = createHandler(true);
+        assertTrue(handler.addSubsystemOperation(add(SUBSYSTEM, "app")));
+        ParsedBootOp web = add(SUBSYSTEM, "web");
+        web.operation.get(SOCKET_BINDING_REF.getName()).set("http");
+        assertTrue(handler.addSubsystemOperation(web));
+        assertTrue(handler.addSubsystemOperation(add(SUBSYSTEM, "other")));
+        assertTrue(handler.addSubsystemOperation(add(INTERFACE, "public")));
+        assertTrue(handler.addSubsystemOperation(add(SOCKET_BINDING_GROUP, "standard-sockets")));
+        ParsedBootOp binding = new ParsedBootOp(Util.createAddOperation(PathAddress.pathAddress(element(SOCKET_BINDING_GROUP, "standard-sockets"), element("socket-binding", "http"))));
+        binding.operation.get(INTERFACE_REF.getName()).set("public");
+        assertTrue(handler.addSubsystemOperation(binding));
+        assertTrue(handler.addSubsystemOperation(add(INTERFACE, "unused")));
+
+        assertEquals(List.of(
+                List.of(element(SUBSYSTEM, "other"), element(INTERFACE, "public"), element(INTERFACE, "unused")),
+                List.of(element(SOCKET_BINDING_GROUP, "standard-sockets")),
+                List.of(element(SUBSYSTEM, "web")),
+                List.of(element(SUBSYSTEM, "app"))), handler.getWaves());
+    }
+
+    @Test
+    public void testPathsAndUnresolvedRequirements() {
+        ParallelBootOperationStepHandler handler = createHandler(true);
+        assertTrue(handler.addSubsystemOperation(add(SUBSYSTEM, "other")));
+        assertTrue(handler.addSubsystemOperation(add(SOCKET_BINDING_GROUP, "standard-sockets")));
+        assertTrue(handler.addSubsystemOperation(new ParsedBootOp(Util.createAddOperation(PathAddress.pathAddress(element(SOCKET_BINDING_GROUP, "standard-sockets"), element("socket-binding", "http"))))));
+        // An expression could resolve to any socket binding
+        assertTrue(handler.addSubsystemOperation(new ParsedBootOp(Util.getWriteAttributeOperation(PathAddress.pathAddress(element(CORE_SERVICE, "management")),
+                SOCKET_BINDING_REF.getName(), new ModelNode(new ValueExpression("${binding:http}"))))));
+        assertTrue(handler.addSubsystemOperation(add(PATH, "data")));
+
+        assertEquals(List.of(
+                List.of(element(PATH, "data")),
+                List.of(element(SUBSYSTEM, "other"), element(SOCKET_BINDING_GROUP, "standard-sockets")),
+                List.of(element(CORE_SERVICE, "management"))), handler.getWaves());
+    }
+
+    @Test
+    public void testCycleRunsInOneWave() {
+        ParallelBootOperationStepHandler handler = createHandler(true);
+        assertTrue(handler.addSubsystemOperation(add(SUBSYSTEM, "first")));
+        assertTrue(handler.addSubsystemOperation(add(SUBSYSTEM, "second")));
+        assertTrue(handler.addSubsystemOperation(add(INTERFACE, "public")));
+
+        assertEquals(List.of(
+                List.of(element(INTERFACE, "public")),
+                List.of(element(SUBSYSTEM, "first"), element(SUBSYSTEM, "second"))), handler.getWaves());
+    }
+
+    private ParallelBootOperationStepHandler createHandler(boolean dependencyOrdered) {
+        return new ParallelBootOperationStepHandler(null, rootRegistration,
+                new ControlledProcessState(true), null, 0, null, dependencyOrdered);
+    }
+
+    private static ManagementResourceRegistration register(ManagementResourceRegistration parent, PathElement element, RuntimeCapability<?> capability) {
+        ManagementResourceRegistration registration = parent.registerSubModel(new SimpleResourceDefinition(element, NonResolvingResourceDescriptionResolver.INSTANCE));
+        if (capability != null) {
+            registration.registerCapability(capability);
+        }
+        return registration;
+    }
+
+    private static PathElement element(String key, String value) {
+        return PathElement.pathElement(key, value);
+    }
+
+    private static ParsedBootOp add(String key, String value) {
+        return new ParsedBootOp(Util.createAddOperation(PathAddress.pathAddress(key, value)));
+    }
+}
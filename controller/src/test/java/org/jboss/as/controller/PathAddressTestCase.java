@@ -11,6 +11,8 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SER
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.Assert.fail;
 
+import java.util.ListIterator;
+
 import org.jboss.as.controller._private.OperationFailedRuntimeException;
 import org.jboss.dmr.ModelNode;
 import org.junit.Assert;
@@ -196,4 +198,39 @@ public class PathAddressTestCase {
         Assert.assertFalse(PathAddress.parseCLIStyleAddress("/subsystem=[toto1,toto2]/ext=[foo1,foo2]").matches(
                 PathAddress.parseCLIStyleAddress("/subsystem=toto2/ext=foo3")));
     }
+
+    @Test
+    public void testSubAddresses() {
+        PathAddress address = PathAddress.pathAddress("subsystem", "test").append("child", "a").append("grandchild", "b");
+        PathAddress parent = address.getParent();
+        Assert.assertEquals(PathAddress.pathAddress("subsystem", "test").append("child", "a"), parent);
+        Assert.assertEquals(parent.hashCode(), PathAddress.pathAddress("subsystem", "test").append("child", "a").hashCode());
+        Assert.assertEquals(PathAddress.pathAddress("child", "a"), parent.subAddress(1));
+        Assert.assertEquals(PathAddress.EMPTY_ADDRESS, address.subAddress(3));
+        Assert.assertEquals(address, parent.append(address.getLastElement()));
+        Assert.assertNotEquals(address, parent.append("grandchild", "c"));
+        Assert.assertEquals(PathElement.pathElement("grandchild", "b"), address.getElement(2));
+        try {
+            parent.getElement(2);
+            fail("Expected IndexOutOfBoundsException");
+        } catch (IndexOutOfBoundsException expected) {
+            // expected
+        }
+        try {
+            address.append("child", "b");
+            fail("Expected OperationFailedRuntimeException");
+        } catch (OperationFailedRuntimeException expected) {
+            // expected
+        }
+
+        ListIterator<PathElement> iterator = parent.subAddress(1).iterator();
+        Assert.assertEquals(PathElement.pathElement("child", "a"), iterator.next());
+        Assert.assertFalse(iterator.hasNext());
+        try {
+            iterator.remove();
+            fail("Expected UnsupportedOperationException");
+        } catch (UnsupportedOperationException expected) {
+            // expected
+        }
+    }
 }
@@ -5,6 +5,7 @@
 package org.jboss.as.controller;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import org.junit.Test;
@@ -75,4 +76,15 @@ public class PathElementTestCase {
             }
         }
     }
+
+    @Test
+    public void testEqualElementsHaveEqualHashes() {
+        PathElement bracketed = PathElement.pathElement("key", "[value]");
+        PathElement plain = PathElement.pathElement("key", "value");
+        assertEquals(plain, bracketed);
+        assertEquals(plain.hashCode(), bracketed.hashCode());
+        assertEquals(plain, PathElement.pathElement("key", "value"));
+        assertEquals("[value]", PathElement.pathElement("key", "[[value]]").getValue());
+        assertTrue(PathElement.pathElement("key").isWildcard());
+    }
 }
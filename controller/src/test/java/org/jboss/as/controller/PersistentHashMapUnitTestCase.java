@@ -0,0 +1,100 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.jboss.as.controller;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Unit tests of {@link PersistentHashMap}.
+ */
+public class PersistentHashMapUnitTestCase {
+
+    @Test
+    public void testAgainstHashMap() {
+        Random random = new Random(42);
+        Map<Integer, String> expected = new HashMap<>();
+        PersistentHashMap<Integer, String> map = PersistentHashMap.empty();
+        for (int i = 0; i < 20000; i++) {
+            // Negative keys spread over the high bits too
+            Integer key = random.nextInt(4000) * (random.nextBoolean() ? 1 : -65537);
+            if (random.nextInt(3) == 0) {
+                expected.remove(key);
+                map = map.minus(key);
+            } else {
+                String value = Integer.toString(i);
+                expected.put(key, value);
+                map = map.plus(key, value);
+            }
+        }
+        assertEquals(expected, map);
+        assertEquals(expected.size(), map.entrySet().size());
+        for (Map.Entry<Integer, String> entry : expected.entrySet()) {
+            assertEquals(entry.getValue(), map.get(entry.getKey()));
+        }
+    }
+
+    @Test
+    public void testCollisions() {
+        PersistentHashMap<Collider, String> map = PersistentHashMap.empty();
+        Collider a = new Collider("a", 7);
+        Collider b = new Collider("b", 7);
+        Collider c = new Collider("c", 7 | (1 << 20));
+        map = map.plus(a, "a").plus(b, "b").plus(c, "c");
+        assertEquals(3, map.size());
+        assertEquals("a", map.get(a));
+        assertEquals("b", map.get(b));
+        assertEquals("c", map.get(c));
+        assertNull(map.get(new Collider("d", 7)));
+
+        map = map.minus(a);
+        assertEquals(2, map.size());
+        assertFalse(map.containsKey(a));
+        assertEquals("b", map.get(b));
+        map = map.minus(b).minus(c);
+        assertTrue(map.isEmpty());
+        assertFalse(map.entrySet().iterator().hasNext());
+    }
+
+    @Test
+    public void testUpdatesDoNotChangeOriginal() {
+        PersistentHashMap<String, String> original = PersistentHashMap.<String, String>empty().plus("a", "1").plus("b", "2");
+        PersistentHashMap<String, String> updated = original.plus("a", "3").minus("b").plus("c", "4");
+        assertEquals(Map.of("a", "1", "b", "2"), original);
+        assertEquals(Map.of("a", "3", "c", "4"), updated);
+        assertSame(original, original.minus("x"));
+        assertSame(original, original.plus("a", original.get("a")));
+    }
+
+    private static final class Collider {
+        private final String name;
+        private final int hash;
+
+        private Collider(String name, int hash) {
+            this.name = name;
+            this.hash = hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Collider && ((Collider) o).name.equals(name);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
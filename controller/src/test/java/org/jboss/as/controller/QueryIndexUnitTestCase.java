@@ -0,0 +1,193 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.jboss.as.controller;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUTCOME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.QUERY;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESULT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUCCESS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.WHERE;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.as.controller.descriptions.NonResolvingResourceDescriptionResolver;
+import org.jboss.as.controller.operations.common.Util;
+import org.jboss.as.controller.operations.global.GlobalNotifications;
+import org.jboss.as.controller.operations.global.GlobalOperationHandlers;
+import org.jboss.as.controller.persistence.NullConfigurationPersister;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.as.controller.registry.Resource;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+import org.jboss.dmr.ValueExpression;
+import org.jboss.msc.service.ServiceContainer;
+import org.jboss.msc.service.ServiceName;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests of the {@link QueryIndex} use by the {@code query} operation.
+ */
+public class QueryIndexUnitTestCase {
+
+    private static final PathAddress CHILDREN = PathAddress.pathAddress("child", "*");
+
+    private static final SimpleAttributeDefinition STATUS = new SimpleAttributeDefinitionBuilder("status", ModelType.STRING, true)
+            .setAllowExpression(true)
+            .setDefaultValue(new ModelNode("OK"))
+            .build();
+    private static final SimpleAttributeDefinition COUNT = new SimpleAttributeDefinitionBuilder("count", ModelType.INT, true)
+            .build();
+    private static final SimpleAttributeDefinition READS = new SimpleAttributeDefinitionBuilder("reads", ModelType.INT)
+            .setStorageRuntime()
+            .build();
+
+    private final AtomicInteger reads = new AtomicInteger();
+    private ServiceContainer container;
+    private ModelController controller;
+
+    @Before
+    public void setupController() throws InterruptedException {
+        QueryIndex.INSTANCE.setIndexedAttributes("/child=*:status, /child=*:count");
+        container = ServiceContainer.Factory.create("test");
+        ModelControllerService svc = new ModelControllerService();
+        container.subTarget().addService(ServiceName.of("ModelController")).setInstance(svc).install();
+        svc.awaitStartup(30, TimeUnit.SECONDS);
+        controller = svc.getValue();
+
+        for (int i = 0; i < 10; i++) {
+            ModelNode add = Util.createAddOperation(PathAddress.pathAddress("child", "c" + i));
+            if (i % 3 == 0) {
+                add.get(STATUS.getName()).set("FAILED");
+            } else if (i % 3 == 1) {
+                add.get(STATUS.getName()).set("OK");
+            } // else undefined, so the default
+            add.get(COUNT.getName()).set(i % 4);
+            execute(add);
+        }
+        ModelNode add = Util.createAddOperation(PathAddress.pathAddress("child", "expression"));
+        add.get(STATUS.getName()).set(new ValueExpression("${status:FAILED}"));
+        execute(add);
+    }
+
+    @After
+    public void shutdownServiceContainer() throws InterruptedException {
+        QueryIndex.INSTANCE.setIndexedAttributes(null);
+        if (container != null) {
+            container.shutdown();
+            try {
+                container.awaitTermination(5, TimeUnit.SECONDS);
+            } finally {
+                container = null;
+            }
+        }
+    }
+
+    @Test
+    public void testIndexedQueryMatchesFullScan() {
+        List<ModelNode> wheres = new ArrayList<>();
+        wheres.add(where("status", new ModelNode("FAILED")));
+        wheres.add(where("status", new ModelNode("OK")));
+        wheres.add(where("status", new ModelNode("undefined")));
+        wheres.add(where("status", new ModelNode(new ValueExpression("${status:FAILED}"))));
+        wheres.add(where("count", new ModelNode(2)));
+        wheres.add(where("count", new ModelNode("3")));
+        wheres.add(where("count", new ModelNode()));
+        ModelNode both = where("status", new ModelNode("FAILED"));
+        both.get("count").set(3);
+        wheres.add(both);
+        wheres.add(where("status", new ModelNode("missing")));
+        wheres.add(where("count", new ModelNode("many")));
+
+        for (ModelNode where : wheres) {
+            QueryIndex.INSTANCE.setIndexedAttributes("/child=*:status, /child=*:count");
+            ModelNode indexed = query(where);
+            QueryIndex.INSTANCE.setIndexedAttributes(null);
+            assertEquals(where.toString(), query(where), indexed);
+        }
+    }
+
+    @Test
+    public void testOnlyCandidatesAreRead() {
+        reads.set(0);
+        ModelNode result = query(where("status", new ModelNode("FAILED"))).get(RESULT);
+        // c0, c3, c6 and c9; the filter compares the expression rather than what it resolves to
+        assertEquals(result.toString(), 4, result.asInt());
+        assertEquals(4, reads.get());
+
+        reads.set(0);
+        result = query(where("status", new ModelNode("missing"))).get(RESULT);
+        assertEquals(result.toString(), 0, result.asInt());
+        assertEquals(0, reads.get());
+    }
+
+    @Test
+    public void testIndexFollowsPublishedModel() {
+        ModelNode where = where("status", new ModelNode("FAILED"));
+        assertEquals(4, query(where).get(RESULT).asInt());
+
+        execute(Util.getWriteAttributeOperation(PathAddress.pathAddress("child", "c1"), STATUS.getName(), "FAILED"));
+        execute(Util.createRemoveOperation(PathAddress.pathAddress("child", "c3")));
+        ModelNode add = Util.createAddOperation(PathAddress.pathAddress("child", "c10"));
+        add.get(STATUS.getName()).set("FAILED");
+        execute(add);
+
+        List<String> names = new ArrayList<>();
+        for (ModelNode item : query(where).get(RESULT).asList()) {
+            names.add(PathAddress.pathAddress(item.get("address")).getLastElement().getValue());
+        }
+        assertEquals(List.of("c0", "c1", "c6", "c9", "c10"), names);
+    }
+
+    private static ModelNode where(String attribute, ModelNode value) {
+        ModelNode where = new ModelNode();
+        where.get(attribute).set(value);
+        return where;
+    }
+
+    private ModelNode query(ModelNode where) {
+        ModelNode query = Util.createEmptyOperation(QUERY, CHILDREN);
+        query.get(WHERE).set(where);
+        return controller.execute(query, null, null, null);
+    }
+
+    private void execute(ModelNode operation) {
+        ModelNode response = controller.execute(operation, null, null, null);
+        assertEquals(response.toString(), SUCCESS, response.get(OUTCOME).asString());
+    }
+
+    private class ModelControllerService extends TestModelControllerService {
+
+        ModelControllerService() {
+            super(ProcessType.EMBEDDED_SERVER, new NullConfigurationPersister(), new ControlledProcessState(true));
+        }
+
+        @Override
+        protected void initModel(ManagementModel managementModel, Resource modelControllerResource) {
+            ManagementResourceRegistration rootRegistration = managementModel.getRootResourceRegistration();
+            GlobalOperationHandlers.registerGlobalOperations(rootRegistration, processType);
+            GlobalNotifications.registerGlobalNotifications(rootRegistration, processType);
+            rootRegistration.registerSubModel(new SimpleResourceDefinition(new SimpleResourceDefinition.Parameters(CHILDREN.getLastElement(), NonResolvingResourceDescriptionResolver.INSTANCE)
+                    .setAddHandler(ModelOnlyAddStepHandler.INSTANCE)
+                    .setRemoveHandler(ModelOnlyRemoveStepHandler.INSTANCE)) {
+                @Override
+                public void registerAttributes(ManagementResourceRegistration registration) {
+                    registration.registerReadWriteAttribute(STATUS, null, ModelOnlyWriteAttributeHandler.INSTANCE);
+                    registration.registerReadWriteAttribute(COUNT, null, ModelOnlyWriteAttributeHandler.INSTANCE);
+                    registration.registerReadOnlyAttribute(READS, (context, operation) -> {
+                        reads.incrementAndGet();
+                        context.getResult().set(0);
+                    });
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.jboss.as.controller;
+
+import static org.jboss.as.controller.TestModelControllerService.getOD;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.CHILD_TYPE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUTCOME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_CHILDREN_NAMES_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESULT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUCCESS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.jboss.as.controller.descriptions.NonResolvingResourceDescriptionResolver;
+import org.jboss.as.controller.operations.common.Util;
+import org.jboss.as.controller.operations.global.GlobalNotifications;
+import org.jboss.as.controller.operations.global.GlobalOperationHandlers;
+import org.jboss.as.controller.persistence.NullConfigurationPersister;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.as.controller.registry.Resource;
+import org.jboss.as.controller.test.TestUtils;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+import org.jboss.msc.service.ServiceContainer;
+import org.jboss.msc.service.ServiceName;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests of read-only operations, which execute against the published model without the controller lock unless
+ * one of their steps asks for it.
+ */
+public class ReadWithoutLockUnitTestCase {
+
+    private static final PathAddress CHILD_ONE = PathAddress.pathAddress(PathElement.pathElement("child", "one"));
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final CountDownLatch writeStarted = new CountDownLatch(1);
+    private final CountDownLatch releaseWrite = new CountDownLatch(1);
+    private ServiceContainer container;
+    private ModelController controller;
+
+    @Before
+    public void setupController() throws InterruptedException {
+        container = ServiceContainer.Factory.create("test");
+        ModelControllerService svc = new ModelControllerService();
+        container.subTarget().addService(ServiceName.of("ModelController")).setInstance(svc).install();
+        svc.awaitStartup(30, TimeUnit.SECONDS);
+        controller = svc.getValue();
+        ModelNode result = controller.execute(Util.createEmptyOperation("setup", PathAddress.EMPTY_ADDRESS), null, null, null);
+        assertEquals(result.toString(), SUCCESS, result.get(OUTCOME).asString());
+    }
+
+    @After
+    public void shutdownServiceContainer() throws InterruptedException {
+        releaseWrite.countDown();
+        executor.shutdownNow();
+        if (container != null) {
+            container.shutdown();
+            try {
+                container.awaitTermination(5, TimeUnit.SECONDS);
+            } finally {
+                container = null;
+            }
+        }
+    }
+
+    @Test
+    public void testReadsDoNotWaitForWrite() throws Exception {
+        Future<ModelNode> write = executor.submit(() -> controller.execute(Util.createEmptyOperation("blocking-write", PathAddress.EMPTY_ADDRESS), null, null, null));
+        assertTrue(writeStarted.await(10, TimeUnit.SECONDS));
+
+        // The write holds the controller lock, so these only complete if they never ask for it
+        ModelNode readAttribute = Util.getReadAttributeOperation(PathAddress.EMPTY_ADDRESS, "attr");
+        ModelNode readChildren = Util.createEmptyOperation(READ_CHILDREN_NAMES_OPERATION, PathAddress.EMPTY_ADDRESS);
+        readChildren.get(CHILD_TYPE).set("child");
+        ModelNode composite = Util.createCompositeOperation(List.of(readAttribute, Util.getReadResourceOperation(CHILD_ONE)));
+
+        assertEquals(1, executeInBackground(readAttribute).get(RESULT).asInt());
+        assertEquals(List.of(new ModelNode("one")), executeInBackground(readChildren).get(RESULT).asList());
+        assertEquals(SUCCESS, executeInBackground(composite).get(OUTCOME).asString());
+
+        releaseWrite.countDown();
+        assertEquals(SUCCESS, write.get(10, TimeUnit.SECONDS).get(OUTCOME).asString());
+        assertEquals(2, executeInBackground(readAttribute).get(RESULT).asInt());
+    }
+
+    @Test
+    public void testReadAskingForLockWaitsForWrite() throws Exception {
+        Future<ModelNode> write = executor.submit(() -> controller.execute(Util.createEmptyOperation("blocking-write", PathAddress.EMPTY_ADDRESS), null, null, null));
+        assertTrue(writeStarted.await(10, TimeUnit.SECONDS));
+
+        Future<ModelNode> read = executor.submit(() -> controller.execute(Util.getReadAttributeOperation(PathAddress.EMPTY_ADDRESS, "escalating"), null, null, null));
+        try {
+            read.get(200, TimeUnit.MILLISECONDS);
+            throw new AssertionError("The read should wait for the write to release the lock");
+        } catch (TimeoutException expected) {
+            // expected
+        }
+
+        releaseWrite.countDown();
+        assertEquals(SUCCESS, write.get(10, TimeUnit.SECONDS).get(OUTCOME).asString());
+        ModelNode result = read.get(10, TimeUnit.SECONDS);
+        assertEquals(result.toString(), SUCCESS, result.get(OUTCOME).asString());
+        assertEquals(2, result.get(RESULT).asInt());
+    }
+
+    private ModelNode executeInBackground(ModelNode operation) throws Exception {
+        ModelNode result = executor.submit(() -> controller.execute(operation, null, null, null)).get(10, TimeUnit.SECONDS);
+        assertEquals(result.toString(), SUCCESS, result.get(OUTCOME).asString());
+        return result;
+    }
+
+    private class ModelControllerService extends TestModelControllerService {
+
+        ModelControllerService() {
+            super(ProcessType.EMBEDDED_SERVER, new NullConfigurationPersister(), new ControlledProcessState(true));
+        }
+
+        @Override
+        protected void initModel(ManagementModel managementModel, Resource modelControllerResource) {
+            ManagementResourceRegistration rootRegistration = managementModel.getRootResourceRegistration();
+            GlobalOperationHandlers.registerGlobalOperations(rootRegistration, processType);
+            GlobalNotifications.registerGlobalNotifications(rootRegistration, processType);
+            rootRegistration.registerOperationHandler(getOD("composite"), CompositeOperationHandler.INSTANCE);
+            rootRegistration.registerOperationHandler(getOD("setup"), (context, operation) -> {
+                context.readResourceForUpdate(PathAddress.EMPTY_ADDRESS).getModel().get("attr").set(1);
+                context.createResource(CHILD_ONE);
+            });
+            rootRegistration.registerOperationHandler(getOD("blocking-write"), (context, operation) -> {
+                context.readResourceForUpdate(PathAddress.EMPTY_ADDRESS).getModel().get("attr").set(2);
+                writeStarted.countDown();
+                try {
+                    releaseWrite.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new OperationFailedException(e.toString());
+                }
+            });
+            rootRegistration.registerReadOnlyAttribute(TestUtils.createNillableAttribute("attr", ModelType.INT), null);
+            rootRegistration.registerReadOnlyAttribute(TestUtils.createNillableAttribute("escalating", ModelType.INT),
+                    (context, operation) -> context.getResult().set(context.readResourceForUpdate(PathAddress.EMPTY_ADDRESS).getModel().get("attr")));
+            rootRegistration.registerSubModel(new SimpleResourceDefinition(PathElement.pathElement("child"), NonResolvingResourceDescriptionResolver.INSTANCE));
+        }
+    }
+}
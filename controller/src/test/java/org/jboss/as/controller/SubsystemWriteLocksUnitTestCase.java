@@ -0,0 +1,236 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.jboss.as.controller;
+
+import static org.jboss.as.controller.TestModelControllerService.getOD;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUTCOME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_RESOURCE_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RECURSIVE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESULT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUBSYSTEM;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUCCESS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.VALUE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.jboss.as.controller.descriptions.NonResolvingResourceDescriptionResolver;
+import org.jboss.as.controller.operations.common.Util;
+import org.jboss.as.controller.operations.global.GlobalNotifications;
+import org.jboss.as.controller.operations.global.GlobalOperationHandlers;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.as.controller.registry.Resource;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+import org.jboss.msc.service.ServiceContainer;
+import org.jboss.msc.service.ServiceName;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests of the write locks of subsystems taken in place of the exclusive controller lock when
+ * {@link ModelControllerImpl#SUBSYSTEM_WRITE_LOCKS_PROPERTY} is set.
+ */
+public class SubsystemWriteLocksUnitTestCase {
+
+    private static final PathAddress SUBSYSTEM_A = PathAddress.pathAddress(SUBSYSTEM, "a");
+    private static final PathAddress SUBSYSTEM_B = PathAddress.pathAddress(SUBSYSTEM, "b");
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final CountDownLatch writeStarted = new CountDownLatch(1);
+    private final CountDownLatch releaseWrite = new CountDownLatch(1);
+    private ServiceContainer container;
+    private ModelController controller;
+
+    @Before
+    public void setupController() throws InterruptedException {
+        System.setProperty(ModelControllerImpl.SUBSYSTEM_WRITE_LOCKS_PROPERTY, "true");
+        container = ServiceContainer.Factory.create("test");
+        ModelControllerService svc = new ModelControllerService();
+        container.subTarget().addService(ServiceName.of("ModelController")).setInstance(svc).install();
+        svc.awaitStartup(30, TimeUnit.SECONDS);
+        controller = svc.getValue();
+    }
+
+    @After
+    public void shutdownServiceContainer() throws InterruptedException {
+        System.clearProperty(ModelControllerImpl.SUBSYSTEM_WRITE_LOCKS_PROPERTY);
+        releaseWrite.countDown();
+        executor.shutdownNow();
+        if (container != null) {
+            container.shutdown();
+            try {
+                container.awaitTermination(5, TimeUnit.SECONDS);
+            } finally {
+                container = null;
+            }
+        }
+    }
+
+    @Test
+    public void testWriteToOtherSubsystemNotBlocked() throws Exception {
+        Future<ModelNode> blocking = executor.submit(() -> execute(write("blocking-write", SUBSYSTEM_A, "first")));
+        assertTrue(writeStarted.await(10, TimeUnit.SECONDS));
+
+        assertEquals(SUCCESS, executor.submit(() -> execute(write("write", SUBSYSTEM_B, "other"))).get(10, TimeUnit.SECONDS).get(OUTCOME).asString());
+        assertFalse(blocking.isDone());
+        releaseWrite.countDown();
+        assertEquals(SUCCESS, blocking.get(10, TimeUnit.SECONDS).get(OUTCOME).asString());
+
+        // Neither operation lost the changes of the other
+        ModelNode model = readModel();
+        assertEquals("first", model.get(SUBSYSTEM, "a", "attr").asString());
+        assertEquals("other", model.get(SUBSYSTEM, "b", "attr").asString());
+    }
+
+    @Test
+    public void testWriteToSameSubsystemBlocked() throws Exception {
+        Future<ModelNode> blocking = executor.submit(() -> execute(write("blocking-write", SUBSYSTEM_A, "first")));
+        assertTrue(writeStarted.await(10, TimeUnit.SECONDS));
+
+        Future<ModelNode> write = executor.submit(() -> execute(write("write", SUBSYSTEM_A, "second")));
+        assertBlocked(write);
+        releaseWrite.countDown();
+        assertEquals(SUCCESS, blocking.get(10, TimeUnit.SECONDS).get(OUTCOME).asString());
+        assertEquals(SUCCESS, write.get(10, TimeUnit.SECONDS).get(OUTCOME).asString());
+        assertEquals("second", readModel().get(SUBSYSTEM, "a", "attr").asString());
+    }
+
+    @Test
+    public void testRootOperationBlocked() throws Exception {
+        Future<ModelNode> blocking = executor.submit(() -> execute(write("blocking-write", SUBSYSTEM_A, "first")));
+        assertTrue(writeStarted.await(10, TimeUnit.SECONDS));
+
+        Future<ModelNode> write = executor.submit(() -> execute(write("write-subsystem-b", PathAddress.EMPTY_ADDRESS, "root")));
+        assertBlocked(write);
+        releaseWrite.countDown();
+        assertEquals(SUCCESS, blocking.get(10, TimeUnit.SECONDS).get(OUTCOME).asString());
+        assertEquals(SUCCESS, write.get(10, TimeUnit.SECONDS).get(OUTCOME).asString());
+
+        ModelNode model = readModel();
+        assertEquals("first", model.get(SUBSYSTEM, "a", "attr").asString());
+        assertEquals("root", model.get(SUBSYSTEM, "b", "attr").asString());
+    }
+
+    @Test
+    public void testWriteToOtherSubsystemTakesExclusiveLock() throws Exception {
+        Future<ModelNode> blocking = executor.submit(() -> execute(write("blocking-write", SUBSYSTEM_A, "first")));
+        assertTrue(writeStarted.await(10, TimeUnit.SECONDS));
+
+        Future<ModelNode> write = executor.submit(() -> execute(write("write-subsystem-a", SUBSYSTEM_B, "other")));
+        assertBlocked(write);
+        releaseWrite.countDown();
+        assertEquals(SUCCESS, blocking.get(10, TimeUnit.SECONDS).get(OUTCOME).asString());
+        assertEquals(SUCCESS, write.get(10, TimeUnit.SECONDS).get(OUTCOME).asString());
+
+        ModelNode model = readModel();
+        assertEquals("other", model.get(SUBSYSTEM, "a", "attr").asString());
+        assertEquals("other", model.get(SUBSYSTEM, "b", "attr").asString());
+    }
+
+    @Test
+    public void testConcurrentModificationDetected() throws Exception {
+        SubsystemWriteLocks locks = new SubsystemWriteLocks(new ModelControllerLock());
+        PathElement subsystem = SUBSYSTEM_A.getLastElement();
+
+        SubsystemWriteLocks.Lock lock = locks.acquire(1, subsystem, false);
+        locks.published(Set.of(SUBSYSTEM_B, PathAddress.pathAddress("interface", "public")));
+        assertTrue(lock.escalate(false));
+        lock.release();
+
+        lock = locks.acquire(2, subsystem, false);
+        locks.published(Set.of(SUBSYSTEM_A.append("child", "one")));
+        assertFalse(lock.escalate(false));
+        lock.release();
+    }
+
+    @Test
+    public void testExclusiveControllerLockKept() throws Exception {
+        ModelControllerLock controllerLock = new ModelControllerLock();
+        SubsystemWriteLocks locks = new SubsystemWriteLocks(controllerLock);
+        assertTrue(controllerLock.detectDeadlockAndGetLock(1));
+        assertNull(locks.acquire(1, SUBSYSTEM_A.getLastElement(), false));
+        controllerLock.unlock(1);
+    }
+
+    private static ModelNode write(String name, PathAddress address, String value) {
+        ModelNode operation = Util.createEmptyOperation(name, address);
+        operation.get(VALUE).set(value);
+        return operation;
+    }
+
+    private static void assertBlocked(Future<ModelNode> future) throws Exception {
+        try {
+            future.get(200, TimeUnit.MILLISECONDS);
+            throw new AssertionError("The operation should wait for the lock");
+        } catch (TimeoutException expected) {
+            // expected
+        }
+    }
+
+    private ModelNode readModel() {
+        ModelNode operation = Util.createEmptyOperation(READ_RESOURCE_OPERATION, PathAddress.EMPTY_ADDRESS);
+        operation.get(RECURSIVE).set(true);
+        ModelNode response = execute(operation);
+        assertEquals(response.toString(), SUCCESS, response.get(OUTCOME).asString());
+        return response.get(RESULT);
+    }
+
+    private ModelNode execute(ModelNode operation) {
+        return controller.execute(operation, null, null, null);
+    }
+
+    private class ModelControllerService extends TestModelControllerService {
+
+        ModelControllerService() {
+            super(ProcessType.EMBEDDED_SERVER);
+        }
+
+        @Override
+        protected void initModel(ManagementModel managementModel, Resource modelControllerResource) {
+            ManagementResourceRegistration rootRegistration = managementModel.getRootResourceRegistration();
+            GlobalOperationHandlers.registerGlobalOperations(rootRegistration, processType);
+            GlobalNotifications.registerGlobalNotifications(rootRegistration, processType);
+            rootRegistration.registerOperationHandler(getOD("write-subsystem-b"), (context, operation) ->
+                    context.readResourceForUpdate(SUBSYSTEM_B).getModel().get("attr").set(operation.get(VALUE)));
+
+            ManagementResourceRegistration subsystemRegistration = rootRegistration.registerSubModel(
+                    new SimpleResourceDefinition(PathElement.pathElement(SUBSYSTEM), NonResolvingResourceDescriptionResolver.INSTANCE));
+            subsystemRegistration.registerReadOnlyAttribute(new SimpleAttributeDefinitionBuilder("attr", ModelType.STRING, true).build(), null);
+            OperationStepHandler write = (context, operation) ->
+                    context.readResourceForUpdate(PathAddress.EMPTY_ADDRESS).getModel().get("attr").set(operation.get(VALUE));
+            subsystemRegistration.registerOperationHandler(getOD("write"), write);
+            subsystemRegistration.registerOperationHandler(getOD("write-subsystem-a"), (context, operation) -> {
+                write.execute(context, operation);
+                context.addStep(write("write", SUBSYSTEM_A, operation.get(VALUE).asString()), write, OperationContext.Stage.MODEL);
+            });
+            subsystemRegistration.registerOperationHandler(getOD("blocking-write"), (context, operation) -> {
+                context.readResourceForUpdate(PathAddress.EMPTY_ADDRESS).getModel().get("attr").set(operation.get(VALUE));
+                writeStarted.countDown();
+                try {
+                    releaseWrite.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new OperationFailedException(e.toString());
+                }
+            });
+
+            Resource root = managementModel.getRootResource();
+            root.registerChild(SUBSYSTEM_A.getLastElement(), Resource.Factory.create());
+            root.registerChild(SUBSYSTEM_B.getLastElement(), Resource.Factory.create());
+        }
+    }
+}
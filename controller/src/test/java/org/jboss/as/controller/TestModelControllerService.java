@@ -15,6 +15,7 @@ import org.jboss.as.controller.ControlledProcessState.State;
 import org.jboss.as.controller.access.management.DelegatingConfigurableAuthorizer;
 import org.jboss.as.controller.access.management.ManagementSecurityIdentitySupplier;
 import org.jboss.as.controller.audit.AuditLogger;
+import org.jboss.as.controller.audit.ManagedAuditLogger;
 import org.jboss.as.controller.descriptions.NonResolvingResourceDescriptionResolver;
 import org.jboss.as.controller.notification.NotificationHandlerRegistry;
 import org.jboss.as.controller.persistence.ConfigurationExtension;
@@ -73,8 +74,22 @@ public abstract class TestModelControllerService extends AbstractControllerServi
     protected TestModelControllerService(final ProcessType processType, final RunningModeControl runningModeControl, Supplier<ExecutorService> executorService,
                                          final ConfigurationPersister configurationPersister, final ControlledProcessState processState,
                                          final ResourceDefinition rootResourceDefinition, final CapabilityRegistry capabilityRegistry, final ConfigurationExtension configExtension) {
+        this(processType, runningModeControl, executorService, configurationPersister, processState, rootResourceDefinition, capabilityRegistry, configExtension,
+                AuditLogger.NO_OP_LOGGER);
+    }
+
+    protected TestModelControllerService(final ProcessType processType, final ManagedAuditLogger auditLogger) {
+        this(processType, new RunningModeControl(RunningMode.NORMAL), null, new NullConfigurationPersister(), new ControlledProcessState(true),
+                ResourceBuilder.Factory.create(PathElement.pathElement("root"), NonResolvingResourceDescriptionResolver.INSTANCE).build(),
+                new CapabilityRegistry(processType.isServer()), null, auditLogger);
+    }
+
+    private TestModelControllerService(final ProcessType processType, final RunningModeControl runningModeControl, Supplier<ExecutorService> executorService,
+                                       final ConfigurationPersister configurationPersister, final ControlledProcessState processState,
+                                       final ResourceDefinition rootResourceDefinition, final CapabilityRegistry capabilityRegistry, final ConfigurationExtension configExtension,
+                                       final ManagedAuditLogger auditLogger) {
         super(executorService, null, processType, Stability.DEFAULT, runningModeControl, configurationPersister, processState, rootResourceDefinition, null, ExpressionResolver.TEST_RESOLVER,
-                AuditLogger.NO_OP_LOGGER, new DelegatingConfigurableAuthorizer(), new ManagementSecurityIdentitySupplier(), capabilityRegistry, configExtension);
+                auditLogger, new DelegatingConfigurableAuthorizer(), new ManagementSecurityIdentitySupplier(), capabilityRegistry, configExtension);
         this.processState = processState;
         this.capabilityRegistry = capabilityRegistry;
     }
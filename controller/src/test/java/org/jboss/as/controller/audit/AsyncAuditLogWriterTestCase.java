@@ -0,0 +1,188 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.jboss.as.controller.audit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Unit tests of {@link AsyncAuditLogWriter}.
+ */
+public class AsyncAuditLogWriterTestCase {
+
+    @After
+    public void cleanup() {
+        System.clearProperty(ManagedAuditLoggerImpl.ASYNC_PROPERTY);
+        System.clearProperty(ManagedAuditLoggerImpl.QUEUE_SIZE_PROPERTY);
+        System.clearProperty(ManagedAuditLoggerImpl.OVERFLOW_POLICY_PROPERTY);
+    }
+
+    @Test
+    public void testDisabled() {
+        TestHandler handler = new TestHandler();
+        handler.start();
+        assertNull(handler.getAsyncWriter());
+        System.setProperty(ManagedAuditLoggerImpl.ASYNC_PROPERTY, "true");
+        InMemoryAuditLogHandler inMemory = new InMemoryAuditLogHandler("memory", 10);
+        inMemory.start();
+        assertNull(inMemory.getAsyncWriter());
+    }
+
+    @Test
+    public void testRecordsWrittenBeforeStop() throws Exception {
+        System.setProperty(ManagedAuditLoggerImpl.ASYNC_PROPERTY, "true");
+        TestHandler handler = new TestHandler();
+        assertNull(handler.getAsyncWriter());
+        handler.start();
+        AsyncAuditLogWriter writer = handler.getAsyncWriter();
+        assertNotNull(writer);
+
+        int queued = AsyncAuditLogWriter.QUEUED.get();
+        long written = AsyncAuditLogWriter.WRITTEN.get();
+        for (int i = 0; i < 100; i++) {
+            writer.write(String.valueOf(i));
+        }
+        handler.shutdown();
+        assertNull(handler.getAsyncWriter());
+        assertTrue(writer.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(101, handler.written.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(String.valueOf(i), handler.written.get(i));
+        }
+        assertEquals("stop", handler.written.get(100));
+        assertNotEquals(Thread.currentThread(), handler.thread);
+        assertEquals(100, AsyncAuditLogWriter.WRITTEN.get() - written);
+        assertEquals(queued, AsyncAuditLogWriter.QUEUED.get());
+    }
+
+    @Test
+    public void testFailuresCountedByWriter() throws Exception {
+        System.setProperty(ManagedAuditLoggerImpl.ASYNC_PROPERTY, "true");
+        TestHandler handler = new TestHandler();
+        handler.fail = true;
+        handler.start();
+        AsyncAuditLogWriter writer = handler.getAsyncWriter();
+
+        for (int i = 0; i < 3; i++) {
+            writer.write(String.valueOf(i));
+        }
+        handler.recycle();
+        writer.write("3");
+        handler.shutdown();
+        assertTrue(writer.awaitTermination(10, TimeUnit.SECONDS));
+        // Reset when recycled, after the first three records were written
+        assertEquals(1, handler.getFailureCount());
+    }
+
+    @Test
+    public void testDiscardWhenFull() throws Exception {
+        System.setProperty(ManagedAuditLoggerImpl.ASYNC_PROPERTY, "true");
+        System.setProperty(ManagedAuditLoggerImpl.QUEUE_SIZE_PROPERTY, "2");
+        System.setProperty(ManagedAuditLoggerImpl.OVERFLOW_POLICY_PROPERTY, "DISCARD");
+        TestHandler handler = new TestHandler();
+        handler.blocked = new CountDownLatch(1);
+        handler.start();
+        AsyncAuditLogWriter writer = handler.getAsyncWriter();
+
+        int queued = AsyncAuditLogWriter.QUEUED.get();
+        long discarded = AsyncAuditLogWriter.DISCARDED.get();
+        writer.write("0");
+        assertTrue(handler.writing.await(10, TimeUnit.SECONDS));
+        // "0" is being written, so "1" and "2" fill the queue
+        for (int i = 1; i < 5; i++) {
+            writer.write(String.valueOf(i));
+        }
+        // The one being written, and the two waiting
+        assertEquals(3, AsyncAuditLogWriter.QUEUED.get() - queued);
+        assertEquals(2, AsyncAuditLogWriter.DISCARDED.get() - discarded);
+
+        handler.blocked.countDown();
+        handler.shutdown();
+        assertTrue(writer.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(List.of("0", "1", "2", "stop"), handler.written);
+    }
+
+    @Test
+    public void testBlockWhenFull() throws Exception {
+        System.setProperty(ManagedAuditLoggerImpl.ASYNC_PROPERTY, "true");
+        System.setProperty(ManagedAuditLoggerImpl.QUEUE_SIZE_PROPERTY, "1");
+        TestHandler handler = new TestHandler();
+        handler.blocked = new CountDownLatch(1);
+        handler.start();
+        AsyncAuditLogWriter writer = handler.getAsyncWriter();
+
+        writer.write("0");
+        assertTrue(handler.writing.await(10, TimeUnit.SECONDS));
+        writer.write("1");
+        Thread logging = new Thread(() -> writer.write("2"));
+        logging.start();
+        logging.join(100);
+        assertTrue(logging.isAlive());
+
+        handler.blocked.countDown();
+        logging.join(10000);
+        handler.shutdown();
+        assertTrue(writer.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(List.of("0", "1", "2", "stop"), handler.written);
+    }
+
+    private static class TestHandler extends AuditLogHandler {
+        final List<String> written = new CopyOnWriteArrayList<>();
+        final CountDownLatch writing = new CountDownLatch(1);
+        volatile CountDownLatch blocked;
+        volatile boolean fail;
+        volatile Thread thread;
+
+        TestHandler() {
+            super("test", "formatter", 10);
+        }
+
+        @Override
+        boolean isDifferent(AuditLogHandler other) {
+            return true;
+        }
+
+        @Override
+        void initialize() {
+        }
+
+        @Override
+        void stop() {
+            written.add("stop");
+        }
+
+        @Override
+        void writeLogItem(String formattedItem) throws IOException {
+            thread = Thread.currentThread();
+            writing.countDown();
+            if (fail) {
+                throw new IOException(formattedItem);
+            }
+            CountDownLatch blocked = this.blocked;
+            if (blocked != null) {
+                try {
+                    blocked.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            written.add(formattedItem);
+        }
+    }
+}
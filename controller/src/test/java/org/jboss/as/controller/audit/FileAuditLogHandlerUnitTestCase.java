@@ -6,7 +6,14 @@
 package org.jboss.as.controller.audit;
 
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
 
 import org.jboss.as.controller.services.path.PathManagerService;
 import org.junit.After;
@@ -24,6 +31,8 @@ public class FileAuditLogHandlerUnitTestCase {
 
     @After
     public void cleanup() {
+        System.clearProperty(AbstractFileAuditLogHandler.BUFFER_SIZE_PROPERTY);
+        System.clearProperty(AbstractFileAuditLogHandler.COMPRESS_BACKUPS_PROPERTY);
         for (String fileName : confDir.list()) {
             File file = new File(confDir, fileName);
             file.delete();
@@ -47,6 +56,41 @@ public class FileAuditLogHandlerUnitTestCase {
         Assert.assertEquals("Log file was rotated but shouldn't have been", 1, confDir.list().length);
     }
 
+    @Test
+    public void testBufferedRecords() throws IOException {
+        System.setProperty(AbstractFileAuditLogHandler.BUFFER_SIZE_PROPERTY, "64");
+        FileAuditLogHandler handler = new FileAuditLogHandler("name", "formatter", 0, pathManager, logFile.getPath(), null, false);
+        char[] chars = new char[100];
+        Arrays.fill(chars, '\u00e9');
+        String large = new String(chars);
+        handler.writeLogItems(List.of("first", large, "\ud83d\ude00 last"));
+
+        Assert.assertEquals(List.of("first", large, "\ud83d\ude00 last"), Files.readAllLines(logFile.toPath(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testSizeRotationWithCompressedBackups() throws Exception {
+        System.setProperty(AbstractFileAuditLogHandler.COMPRESS_BACKUPS_PROPERTY, "true");
+        SizeRotatingFileAuditLogHandler handler = new SizeRotatingFileAuditLogHandler("name", "formatter", 0, pathManager, logFile.getPath(), null, 10, 2);
+        handler.writeLogItems(List.of("record-1", "record-2"));
+        handler.writeLogItems(List.of("record-3", "record-4"));
+        handler.writeLogItems(List.of("record-5"));
+        // Waits for the compression of the backups before shutting down the thread compressing them
+        handler.stop();
+
+        Assert.assertEquals(List.of("record-5"), Files.readAllLines(logFile.toPath(), StandardCharsets.UTF_8));
+        Assert.assertEquals("record-3" + System.lineSeparator() + "record-4" + System.lineSeparator(), decompress(new File(logFile.getPath() + ".1.gz")));
+        Assert.assertEquals("record-1" + System.lineSeparator() + "record-2" + System.lineSeparator(), decompress(new File(logFile.getPath() + ".2.gz")));
+        Assert.assertFalse(new File(logFile.getPath() + ".1").exists());
+        Assert.assertEquals(3, confDir.list().length);
+    }
+
+    private static String decompress(File file) throws IOException {
+        try (InputStream in = new GZIPInputStream(new FileInputStream(file))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
     private void initializeHandler(boolean rotateAtStartup) {
         FileAuditLogHandler auditLogHandler =
                 new FileAuditLogHandler("name", "formatter", 0, pathManager, logFile.getPath(), null, rotateAtStartup);
@@ -0,0 +1,140 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.jboss.as.controller.audit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.controller.ManagementModel;
+import org.jboss.as.controller.OperationContext.ResultAction;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.ProcessType;
+import org.jboss.as.controller.TestModelControllerService;
+import org.jboss.as.controller.operations.common.Util;
+import org.jboss.as.controller.registry.Resource;
+import org.jboss.as.core.security.AccessMechanism;
+import org.jboss.msc.service.ServiceContainer;
+import org.jboss.msc.service.ServiceName;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Tests that the records queued for the handlers of an asynchronous {@link ManagedAuditLoggerImpl} are written when
+ * the controller stops.
+ */
+public class ManagedAuditLoggerShutdownTestCase {
+
+    private static final int RECORDS = 20;
+
+    private ServiceContainer container;
+
+    @After
+    public void cleanup() throws InterruptedException {
+        System.clearProperty(ManagedAuditLoggerImpl.ASYNC_PROPERTY);
+        if (container != null) {
+            container.shutdown();
+            container.awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void testQueuedRecordsWrittenWhenControllerStops() throws Exception {
+        System.setProperty(ManagedAuditLoggerImpl.ASYNC_PROPERTY, "true");
+        ManagedAuditLoggerImpl auditLogger = new ManagedAuditLoggerImpl("test", true);
+        auditLogger.addFormatter(new JsonAuditLogItemFormatter("json", false, " - ", "yyyy-MM-dd HH:mm:ss", true, false, false));
+        BlockingHandler handler = new BlockingHandler();
+        auditLogger.getUpdater().addHandler(handler);
+        auditLogger.getUpdater().addHandlerReference(PathAddress.pathAddress("logger", "audit-log").append("handler", handler.getName()));
+
+        container = ServiceContainer.Factory.create("test");
+        ModelControllerService svc = new ModelControllerService(auditLogger);
+        container.subTarget().addService(ServiceName.of("ModelController")).setInstance(svc).install();
+        svc.awaitStartup(30, TimeUnit.SECONDS);
+        auditLogger.setLoggerStatus(AuditLogger.Status.LOGGING);
+        AsyncAuditLogWriter writer = handler.getAsyncWriter();
+        assertNotNull(writer);
+
+        for (int i = 0; i < RECORDS; i++) {
+            auditLogger.log(false, ResultAction.KEEP, "user", null, AccessMechanism.NATIVE, null, null,
+                    List.of(Util.createEmptyOperation("queued-" + i, PathAddress.EMPTY_ADDRESS)));
+        }
+        // The first record is being written while the others are still queued when the controller stops
+        assertTrue(handler.writing.await(10, TimeUnit.SECONDS));
+        container.shutdown();
+        handler.blocked.countDown();
+        container.awaitTermination(10, TimeUnit.SECONDS);
+        container = null;
+
+        assertTrue(writer.awaitTermination(10, TimeUnit.SECONDS));
+        int queued = 0;
+        for (String record : handler.written) {
+            if (record.contains("queued-" + queued)) {
+                queued++;
+            }
+        }
+        assertEquals(handler.written.toString(), RECORDS, queued);
+        List<String> last = handler.written.subList(handler.written.size() - 2, handler.written.size());
+        assertEquals(List.of("drain", "stop"), last);
+    }
+
+    private static class BlockingHandler extends AuditLogHandler {
+        final List<String> written = new CopyOnWriteArrayList<>();
+        final CountDownLatch writing = new CountDownLatch(1);
+        final CountDownLatch blocked = new CountDownLatch(1);
+
+        BlockingHandler() {
+            super("blocking", "json", 10);
+        }
+
+        @Override
+        boolean isDifferent(AuditLogHandler other) {
+            return true;
+        }
+
+        @Override
+        void initialize() {
+        }
+
+        @Override
+        void stop() {
+            written.add("stop");
+        }
+
+        @Override
+        void drain(long deadline) {
+            written.add("drain");
+        }
+
+        @Override
+        void writeLogItem(String formattedItem) throws IOException {
+            writing.countDown();
+            try {
+                blocked.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            written.add(formattedItem);
+        }
+    }
+
+    private static class ModelControllerService extends TestModelControllerService {
+
+        ModelControllerService(ManagedAuditLogger auditLogger) {
+            super(ProcessType.EMBEDDED_SERVER, auditLogger);
+        }
+
+        @Override
+        protected void initModel(ManagementModel managementModel, Resource modelControllerResource) {
+        }
+    }
+}
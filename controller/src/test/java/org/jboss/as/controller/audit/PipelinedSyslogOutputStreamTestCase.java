@@ -0,0 +1,222 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.jboss.as.controller.audit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import javax.net.SocketFactory;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of pipelined syslog audit logging against a local TCP syslog server stand-in.
+ */
+public class PipelinedSyslogOutputStreamTestCase {
+
+    private final InetAddress address = InetAddress.getLoopbackAddress();
+    private ServerSocket server;
+    private Socket accepted;
+
+    @Before
+    public void setup() throws IOException {
+        server = new ServerSocket(0, 50, address);
+        server.setSoTimeout(10000);
+    }
+
+    @After
+    public void cleanup() throws IOException {
+        System.clearProperty(SyslogAuditLogHandler.PIPELINING_PROPERTY);
+        if (accepted != null) {
+            accepted.close();
+        }
+        server.close();
+    }
+
+    @Test
+    public void testHandlerSendsFrames() throws Exception {
+        System.setProperty(SyslogAuditLogHandler.PIPELINING_PROPERTY, "true");
+        SyslogAuditLogHandler handler = new SyslogAuditLogHandler("syslog", "formatter", 10, null, null);
+        handler.setSyslogServerAddress(address);
+        handler.setPort(server.getLocalPort());
+        handler.setTransport(SyslogAuditLogHandler.Transport.TCP);
+        handler.setFacility(SyslogAuditLogHandler.Facility.LOCAL_USE_0);
+        handler.setAppName("test");
+        handler.setHostName("localhost");
+        try {
+            handler.writeLogItems(List.of("first", "second", "third"));
+            BufferedReader reader = accept();
+            for (String record : List.of("first", "second", "third")) {
+                String frame = reader.readLine();
+                assertTrue(frame, frame.startsWith("<132>1 "));
+                assertTrue(frame, frame.endsWith(record));
+            }
+            assertEquals(0, handler.getFailureCount());
+        } finally {
+            handler.stop();
+        }
+    }
+
+    @Test
+    public void testFramesSentOnceConnected() throws Exception {
+        int port = server.getLocalPort();
+        server.close();
+        long sends = PipelinedSyslogOutputStream.SENDS.get();
+        PipelinedSyslogOutputStream output = new PipelinedSyslogOutputStream("syslog", SocketFactory.getDefault(), address, port, 1024);
+        try {
+            output.write(frame("1"));
+            output.write(frame("2"));
+            output.send();
+            assertEquals(2, output.getBacklog());
+
+            server = new ServerSocket();
+            server.setReuseAddress(true);
+            server.bind(new InetSocketAddress(address, port));
+            server.setSoTimeout(10000);
+            BufferedReader reader = accept();
+            assertEquals("1", reader.readLine());
+            assertEquals("2", reader.readLine());
+            assertEquals(0, output.getBacklog());
+
+            // Both frames, and then the third one, are sent together
+            output.write(frame("3"));
+            output.send();
+            assertEquals("3", reader.readLine());
+            assertEquals(2, PipelinedSyslogOutputStream.SENDS.get() - sends);
+        } finally {
+            output.close();
+        }
+    }
+
+    @Test
+    public void testOnlyUnsentFramesSentAgain() throws Exception {
+        FailingSocketFactory socketFactory = new FailingSocketFactory(5);
+        PipelinedSyslogOutputStream output = new PipelinedSyslogOutputStream("syslog", socketFactory, address, 514, 1024);
+        try {
+            socketFactory.awaitConnections(1);
+            output.write(frame("1"));
+            output.write(frame("2"));
+            output.write(frame("3"));
+            // The connection fails within the third frame, which is not reported
+            output.send();
+
+            socketFactory.awaitConnections(2);
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (output.getBacklog() > 0 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(0, output.getBacklog());
+            assertEquals("1\n2\n3", socketFactory.sent.get(0).toString(StandardCharsets.UTF_8));
+            // Sent again whole on the new connection, without the frames already written
+            assertEquals("3\n", socketFactory.sent.get(1).toString(StandardCharsets.UTF_8));
+        } finally {
+            output.close();
+        }
+    }
+
+    @Test
+    public void testSendBufferFull() throws Exception {
+        int port = server.getLocalPort();
+        server.close();
+        PipelinedSyslogOutputStream output = new PipelinedSyslogOutputStream("syslog", SocketFactory.getDefault(), address, port, 4);
+        try {
+            output.write(frame("12"));
+            try {
+                output.write(frame("34"));
+                fail("The send buffer should be full");
+            } catch (IOException expected) {
+                // expected
+            }
+            assertEquals(1, output.getBacklog());
+        } finally {
+            output.close();
+        }
+    }
+
+    private BufferedReader accept() throws IOException {
+        accepted = server.accept();
+        accepted.setSoTimeout(10000);
+        return new BufferedReader(new InputStreamReader(accepted.getInputStream(), StandardCharsets.UTF_8));
+    }
+
+    private static byte[] frame(String message) {
+        return (message + "\n").getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Creates sockets recording what is written to them, the first of which fails once a number of bytes were written.
+     */
+    private static class FailingSocketFactory extends SocketFactory {
+        private final int failAfter;
+        final List<ByteArrayOutputStream> sent = new CopyOnWriteArrayList<>();
+
+        FailingSocketFactory(int failAfter) {
+            this.failAfter = failAfter;
+        }
+
+        void awaitConnections(int connections) throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (sent.size() < connections && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(connections, sent.size());
+        }
+
+        @Override
+        public Socket createSocket(InetAddress host, int port) {
+            ByteArrayOutputStream recorded = new ByteArrayOutputStream();
+            int limit = sent.isEmpty() ? failAfter : Integer.MAX_VALUE;
+            sent.add(recorded);
+            OutputStream stream = new OutputStream() {
+                @Override
+                public void write(int b) throws IOException {
+                    if (recorded.size() == limit) {
+                        throw new IOException("Connection reset");
+                    }
+                    recorded.write(b);
+                }
+            };
+            return new Socket() {
+                @Override
+                public OutputStream getOutputStream() {
+                    return stream;
+                }
+            };
+        }
+
+        @Override
+        public Socket createSocket(String host, int port) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Socket createSocket(String host, int port, InetAddress localHost, int localPort) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Socket createSocket(InetAddress address, int port, InetAddress localAddress, int localPort) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,33 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.jboss.as.controller.extension;
+
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.ProcessType;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.as.controller.registry.Resource;
+import org.jboss.dmr.ModelNode;
+
+/**
+ * {@link ExtensionAddHandler} for tests that register the resources of their extensions themselves, so no module is
+ * loaded, even when extensions are initialized in parallel during boot.
+ */
+public class NoOpExtensionAddHandler extends ExtensionAddHandler {
+
+    public NoOpExtensionAddHandler(MutableRootResourceRegistrationProvider rootResourceRegistrationProvider) {
+        super(ExtensionRegistry.builder(ProcessType.EMBEDDED_SERVER).build(), true, ExtensionRegistryType.SERVER, rootResourceRegistrationProvider);
+    }
+
+    @Override
+    public void execute(OperationContext context, ModelNode operation) {
+        context.addResource(PathAddress.EMPTY_ADDRESS, Resource.Factory.create());
+    }
+
+    @Override
+    void initializeExtension(String module, ManagementResourceRegistration rootRegistration, PathAddress address) {
+    }
+}
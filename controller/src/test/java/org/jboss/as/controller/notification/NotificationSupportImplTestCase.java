@@ -13,7 +13,9 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -90,4 +92,139 @@ public class NotificationSupportImplTestCase {
         // handled the 2nd notifications2 that were emitted
         assertEquals(notifications2, handler.getNotifications().subList(9, 12));
     }
+
+    @Test
+    public void testBoundedQueueDiscardOldest() throws Exception {
+        doBoundedQueue(NotificationSupports.OverflowPolicy.DISCARD_OLDEST, "3", "4");
+    }
+
+    @Test
+    public void testBoundedQueueDiscardNewest() throws Exception {
+        doBoundedQueue(NotificationSupports.OverflowPolicy.DISCARD_NEWEST, "0", "1");
+    }
+
+    @Test
+    public void testBoundedQueueBlock() throws Exception {
+        doBoundedQueue(NotificationSupports.OverflowPolicy.BLOCK, "0", "1", "2", "3", "4");
+    }
+
+    private void doBoundedQueue(NotificationSupports.OverflowPolicy policy, String... expected) throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final CountDownLatch blocked = new CountDownLatch(1);
+            final CountDownLatch release = new CountDownLatch(1);
+            final List<String> delivered = new CopyOnWriteArrayList<>();
+            NotificationSupports.NonBlockingNotificationSupport notificationSupport =
+                    new NotificationSupports.NonBlockingNotificationSupport(NotificationHandlerRegistration.Factory.create(), executor, 2, policy);
+            notificationSupport.getNotificationRegistry().registerNotificationHandler(NotificationHandlerRegistration.ANY_ADDRESS, notification -> {
+                if (notification.getMessage().equals("block")) {
+                    blocked.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                } else {
+                    delivered.add(notification.getMessage());
+                }
+            }, ALL);
+
+            notificationSupport.emit(new Notification("foo", pathAddress("resource", "foo"), "block"));
+            assertTrue(blocked.await(5, SECONDS));
+            long discarded = NotificationSupports.getDiscardedNotificationCount();
+            Thread emitter = new Thread(() -> {
+                for (int i = 0; i < 5; i++) {
+                    notificationSupport.emit(new Notification("foo", pathAddress("resource", "foo"), Integer.toString(i)));
+                }
+            });
+            emitter.start();
+            if (policy == NotificationSupports.OverflowPolicy.BLOCK) {
+                // The emitter waits for room in the queue
+                emitter.join(200);
+                assertTrue(emitter.isAlive());
+            } else {
+                emitter.join(5000);
+                assertEquals(3, NotificationSupports.getDiscardedNotificationCount() - discarded);
+            }
+            assertEquals(2, notificationSupport.getQueueDepth());
+            release.countDown();
+            emitter.join(5000);
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(5, SECONDS));
+            assertEquals(Arrays.asList(expected), delivered);
+            assertEquals(0, notificationSupport.getQueueDepth());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testInterruptedBlockedEmitterCountsDroppedNotifications() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final CountDownLatch blocked = new CountDownLatch(1);
+            final CountDownLatch release = new CountDownLatch(1);
+            NotificationSupports.NonBlockingNotificationSupport notificationSupport = new NotificationSupports.NonBlockingNotificationSupport(
+                    NotificationHandlerRegistration.Factory.create(), executor, 2, NotificationSupports.OverflowPolicy.BLOCK);
+            notificationSupport.getNotificationRegistry().registerNotificationHandler(NotificationHandlerRegistration.ANY_ADDRESS, notification -> {
+                if (notification.getMessage().equals("block")) {
+                    blocked.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }, ALL);
+
+            notificationSupport.emit(new Notification("foo", pathAddress("resource", "foo"), "block"));
+            assertTrue(blocked.await(5, SECONDS));
+            long discarded = NotificationSupports.getDiscardedNotificationCount();
+            Notification[] notifications = new Notification[5];
+            for (int i = 0; i < notifications.length; i++) {
+                notifications[i] = new Notification("foo", pathAddress("resource", "foo"), Integer.toString(i));
+            }
+            // The emitter queues two notifications, then waits for room in the queue for the third
+            Thread emitter = new Thread(() -> notificationSupport.emit(notifications));
+            emitter.start();
+            emitter.join(200);
+            assertTrue(emitter.isAlive());
+            emitter.interrupt();
+            emitter.join(5000);
+            assertEquals(3, NotificationSupports.getDiscardedNotificationCount() - discarded);
+            assertEquals(2, notificationSupport.getQueueDepth());
+            release.countDown();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testBatchedDeliveryPerHandler() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final List<String> delivered = new CopyOnWriteArrayList<>();
+            NotificationSupport notificationSupport = NotificationSupport.Factory.create(executor);
+            NotificationHandlerRegistration registry = notificationSupport.getNotificationRegistry();
+            registry.registerNotificationHandler(pathAddress("resource", "foo"), notification -> delivered.add("foo:" + notification.getMessage()), ALL);
+            registry.registerNotificationHandler(NotificationHandlerRegistration.ANY_ADDRESS, notification -> delivered.add("any:" + notification.getMessage()), ALL);
+
+            notificationSupport.emit(new Notification("foo", pathAddress("resource", "foo"), "1"),
+                    new Notification("bar", pathAddress("resource", "bar"), "2"),
+                    new Notification("foo", pathAddress("resource", "foo"), "3"));
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(5, SECONDS));
+
+            // Each handler is delivered the notifications in the order they were emitted
+            List<String> foo = new ArrayList<>();
+            List<String> any = new ArrayList<>();
+            for (String notification : delivered) {
+                (notification.startsWith("foo:") ? foo : any).add(notification.substring(4));
+            }
+            assertEquals(Arrays.asList("1", "3"), foo);
+            assertEquals(Arrays.asList("1", "2", "3"), any);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
 }
@@ -0,0 +1,218 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.jboss.as.controller.parsing;
+
+import static javax.xml.stream.XMLStreamConstants.END_ELEMENT;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.fail;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.operations.common.Util;
+import org.jboss.dmr.ModelNode;
+import org.jboss.staxmapper.XMLElementReader;
+import org.jboss.staxmapper.XMLExtendedStreamReader;
+import org.jboss.staxmapper.XMLMapper;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests of {@link ParallelSubsystemParser}.
+ */
+public class ParallelSubsystemParserTestCase {
+
+    private static final String DOCUMENT = "<server xmlns=\"urn:test:server\" xmlns:t=\"urn:test:other\">\n" +
+            "  <profile>\n" +
+            "    <subsystem xmlns=\"urn:test:a:1.0\" name=\"a\">\n" +
+            "      <child t:value=\"x\">text<!-- comment --> &amp; more</child>\n" +
+            "      <child t:value=\"y\"><![CDATA[<cdata>]]></child>\n" +
+            "    </subsystem>\n" +
+            "    <subsystem xmlns=\"urn:test:b:1.0\" name=\"b\">\n" +
+            "      <t:nested value=\"z\"/>\n" +
+            "    </subsystem>\n" +
+            "    <subsystem xmlns=\"urn:test:a:1.0\" name=\"c\">\n" +
+            "      <child t:value=\"w\"/>\n" +
+            "    </subsystem>\n" +
+            "  </profile>\n" +
+            "</server>";
+
+    private static final String FAILING_DOCUMENT = "<server xmlns=\"urn:test:server\">\n" +
+            "  <profile>\n" +
+            "    <subsystem xmlns=\"urn:test:a:1.0\" name=\"a\"/>\n" +
+            "    <subsystem xmlns=\"urn:test:b:1.0\" name=\"b\">\n" +
+            "      <unknown/>\n" +
+            "    </subsystem>\n" +
+            "    <subsystem xmlns=\"urn:test:a:1.0\" name=\"c\"/>\n" +
+            "  </profile>\n" +
+            "</server>";
+
+    private final Map<String, Thread> threads = new ConcurrentHashMap<>();
+    private ExecutorService executor;
+
+    @Before
+    public void setup() {
+        executor = Executors.newFixedThreadPool(2);
+    }
+
+    @After
+    public void cleanup() {
+        executor.shutdownNow();
+        System.clearProperty(ParallelSubsystemParser.PROPERTY);
+    }
+
+    @Test
+    public void testParallelParsingMatchesSequentialParsing() throws Exception {
+        List<ModelNode> sequential = parse(DOCUMENT, false);
+        assertEquals(Thread.currentThread(), threads.get("a"));
+        assertEquals(Thread.currentThread(), threads.get("b"));
+        assertEquals(7, sequential.size());
+
+        threads.clear();
+        List<ModelNode> parallel = parse(DOCUMENT, true);
+        assertNotEquals(Thread.currentThread(), threads.get("a"));
+        assertNotEquals(Thread.currentThread(), threads.get("b"));
+        assertEquals(sequential, parallel);
+    }
+
+    @Test
+    public void testFailureLocation() throws Exception {
+        for (boolean parallel : new boolean[] {false, true}) {
+            try {
+                parse(FAILING_DOCUMENT, parallel);
+                fail("Parsing should have failed");
+            } catch (XMLStreamException e) {
+                assertEquals(5, e.getLocation().getLineNumber());
+            }
+        }
+    }
+
+    @Test
+    public void testIgnoreFailures() throws Exception {
+        System.setProperty(ParallelSubsystemParser.PROPERTY, "true");
+        XMLMapper mapper = ParallelSubsystemParser.createXMLMapper();
+        mapper.registerRootElement(new QName("urn:test:server", "server"), new ServerParser(true));
+        List<ModelNode> operations = new ArrayList<>();
+        mapper.parseDocument(operations, XMLInputFactory.newInstance().createXMLStreamReader(new StringReader(FAILING_DOCUMENT)));
+        // As when parsed sequentially, the operations parsed before the failure are kept
+        assertEquals(List.of("a", "b", "c"), subsystems(operations));
+    }
+
+    private List<ModelNode> parse(String document, boolean parallel) throws XMLStreamException {
+        if (parallel) {
+            System.setProperty(ParallelSubsystemParser.PROPERTY, "true");
+        } else {
+            System.clearProperty(ParallelSubsystemParser.PROPERTY);
+        }
+        XMLMapper mapper = ParallelSubsystemParser.createXMLMapper();
+        mapper.registerRootElement(new QName("urn:test:server", "server"), new ServerParser(false));
+        List<ModelNode> operations = new ArrayList<>();
+        mapper.parseDocument(operations, XMLInputFactory.newInstance().createXMLStreamReader(new StringReader(document)));
+        return operations;
+    }
+
+    private static List<String> subsystems(List<ModelNode> operations) {
+        List<String> subsystems = new ArrayList<>();
+        for (ModelNode operation : operations) {
+            subsystems.add(PathAddress.pathAddress(operation.get("address")).getElement(0).getValue());
+        }
+        return subsystems;
+    }
+
+    private class ServerParser implements XMLElementReader<List<ModelNode>> {
+        private final boolean ignoreFailures;
+
+        ServerParser(boolean ignoreFailures) {
+            this.ignoreFailures = ignoreFailures;
+        }
+
+        @Override
+        public void readElement(XMLExtendedStreamReader reader, List<ModelNode> operations) throws XMLStreamException {
+            // Registered as extensions register their parsers
+            XMLMapper mapper = reader.getXMLMapper();
+            mapper.registerRootElement(new QName("urn:test:a:1.0", "subsystem"), new SubsystemParser());
+            mapper.registerRootElement(new QName("urn:test:b:1.0", "subsystem"), SubsystemParser::new);
+            mapper.registerRootElement(new QName("urn:test:other", "nested"), new NestedParser());
+
+            reader.nextTag();
+            ParallelSubsystemParser parser = ParallelSubsystemParser.create(reader, executor);
+            List<List<ModelNode>> subsystems = new ArrayList<>();
+            while (reader.nextTag() != END_ELEMENT) {
+                List<ModelNode> subsystem = new ArrayList<>();
+                try {
+                    parser.parse(reader, subsystem);
+                } catch (XMLStreamException e) {
+                    if (!ignoreFailures) {
+                        throw e;
+                    }
+                    reader.discardRemainder();
+                }
+                subsystems.add(subsystem);
+            }
+            parser.complete(ignoreFailures);
+            for (List<ModelNode> subsystem : subsystems) {
+                operations.addAll(subsystem);
+            }
+            reader.nextTag();
+        }
+    }
+
+    private class SubsystemParser implements XMLElementReader<List<ModelNode>> {
+        @Override
+        public void readElement(XMLExtendedStreamReader reader, List<ModelNode> operations) throws XMLStreamException {
+            String name = reader.getAttributeValue(null, "name");
+            threads.put(name, Thread.currentThread());
+            PathAddress address = PathAddress.pathAddress("subsystem", name);
+            ModelNode add = Util.createAddOperation(address);
+            add.get("namespace").set(reader.getNamespaceURI());
+            String other = reader.getNamespaceURI("t");
+            if (other != null) {
+                add.get("other").set(other);
+            }
+            add.get("location").set(reader.getLocation().getLineNumber());
+            operations.add(add);
+            while (reader.nextTag() != END_ELEMENT) {
+                if (reader.getLocalName().equals("child")) {
+                    ModelNode child = Util.createAddOperation(address.append("child", reader.getAttributeValue("urn:test:other", "value")));
+                    child.get("location").set(reader.getLocation().getLineNumber());
+                    child.get("text").set(reader.getElementText());
+                    operations.add(child);
+                } else if (reader.getLocalName().equals("nested")) {
+                    List<ModelNode> nested = new ArrayList<>();
+                    reader.handleAny(nested);
+                    for (ModelNode operation : nested) {
+                        operation.get("address").set(address.append(PathAddress.pathAddress(operation.get("address"))).toModelNode());
+                        operations.add(operation);
+                    }
+                } else {
+                    throw ParseUtils.unexpectedElement(reader);
+                }
+            }
+        }
+    }
+
+    private static class NestedParser implements XMLElementReader<List<ModelNode>> {
+        @Override
+        public void readElement(XMLExtendedStreamReader reader, List<ModelNode> operations) throws XMLStreamException {
+            ModelNode add = Util.createAddOperation(PathAddress.pathAddress("nested", reader.getAttributeValue(null, "value")));
+            add.get("prefix").set(reader.getPrefix());
+            operations.add(add);
+            ParseUtils.requireNoContent(reader);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.jboss.as.controller.persistence;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.operations.common.Util;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ValueExpression;
+import org.jboss.staxmapper.XMLElementReader;
+import org.jboss.staxmapper.XMLExtendedStreamReader;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests of loading boot operations through a {@link BootOperationCache}.
+ */
+public class BootOperationCacheTestCase {
+
+    private static final QName ROOT = new QName("urn:test:boot-operation-cache:1.0", "server");
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final AtomicInteger parses = new AtomicInteger();
+
+    @Test
+    public void testUnchangedConfigurationIsNotParsed() throws Exception {
+        File config = writeConfiguration("a", "${b:c}");
+        File cacheFile = new File(temporaryFolder.getRoot(), "data/standalone.xml.boot-operations");
+
+        List<ModelNode> parsed = createPersister(config, new BootOperationCache(cacheFile, "v1")).load();
+        assertEquals(1, parses.get());
+        assertTrue(cacheFile.isFile());
+
+        List<ModelNode> cached = createPersister(config, new BootOperationCache(cacheFile, "v1")).load();
+        assertEquals(1, parses.get());
+        assertEquals(parsed, cached);
+        assertEquals(new ModelNode(new ValueExpression("${b:c}")), cached.get(1).get("value"));
+    }
+
+    @Test
+    public void testChangesInvalidateCache() throws Exception {
+        File config = writeConfiguration("a");
+        File cacheFile = new File(temporaryFolder.getRoot(), "standalone.xml.boot-operations");
+
+        createPersister(config, new BootOperationCache(cacheFile, "v1")).load();
+        assertEquals(1, parses.get());
+
+        // Different parsers
+        createPersister(config, new BootOperationCache(cacheFile, "v2")).load();
+        assertEquals(2, parses.get());
+
+        // Different configuration
+        writeConfiguration("a", "b");
+        List<ModelNode> operations = createPersister(config, new BootOperationCache(cacheFile, "v2")).load();
+        assertEquals(3, parses.get());
+        assertEquals(2, operations.size());
+        createPersister(config, new BootOperationCache(cacheFile, "v2")).load();
+        assertEquals(3, parses.get());
+
+        // A corrupt cache is ignored and replaced
+        Files.write(cacheFile.toPath(), new byte[] {1, 2, 3});
+        assertEquals(operations, createPersister(config, new BootOperationCache(cacheFile, "v2")).load());
+        assertEquals(4, parses.get());
+        assertEquals(operations, createPersister(config, new BootOperationCache(cacheFile, "v2")).load());
+        assertEquals(4, parses.get());
+    }
+
+    @Test
+    public void testNoCache() throws Exception {
+        File config = writeConfiguration("a");
+        createPersister(config, null).load();
+        createPersister(config, null).load();
+        assertEquals(2, parses.get());
+    }
+
+    private File writeConfiguration(String... values) throws Exception {
+        StringBuilder sb = new StringBuilder("<server xmlns=\"").append(ROOT.getNamespaceURI()).append("\">");
+        for (String value : values) {
+            sb.append("<property value=\"").append(value).append("\"/>");
+        }
+        sb.append("</server>");
+        File config = new File(temporaryFolder.getRoot(), "standalone.xml");
+        Files.write(config.toPath(), sb.toString().getBytes(StandardCharsets.UTF_8));
+        return config;
+    }
+
+    private XmlConfigurationPersister createPersister(File config, BootOperationCache cache) {
+        XmlConfigurationPersister persister = new XmlConfigurationPersister(config, ROOT, new Parser(), null);
+        persister.setBootOperationCache(cache);
+        return persister;
+    }
+
+    private class Parser implements XMLElementReader<List<ModelNode>> {
+        @Override
+        public void readElement(XMLExtendedStreamReader reader, List<ModelNode> operations) throws XMLStreamException {
+            parses.incrementAndGet();
+            while (reader.nextTag() != XMLStreamConstants.END_ELEMENT) {
+                String value = reader.getAttributeValue(null, "value");
+                ModelNode operation = Util.createAddOperation(PathAddress.pathAddress("property", Integer.toString(operations.size())));
+                operation.get("value").set(value.startsWith("${") ? new ModelNode(new ValueExpression(value)) : new ModelNode(value));
+                operations.add(operation);
+                reader.nextTag();
+            }
+        }
+    }
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.jboss.as.controller.persistence;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUBSYSTEM;
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.xml.stream.XMLStreamException;
+
+import org.jboss.as.controller.PathAddress;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.Property;
+import org.jboss.staxmapper.XMLElementWriter;
+import org.jboss.staxmapper.XMLExtendedStreamWriter;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of the incremental marshalling of subsystems when storing a configuration.
+ */
+public class SubsystemXmlCacheTestCase {
+
+    private static final PathAddress FOO = PathAddress.pathAddress(SUBSYSTEM, "foo");
+    private static final PathAddress BAR = PathAddress.pathAddress(SUBSYSTEM, "bar");
+
+    private final Map<String, AtomicInteger> invocations = new ConcurrentHashMap<>();
+    private TestPersister persister;
+    private ModelNode model;
+
+    @Before
+    public void setup() {
+        persister = new TestPersister();
+        persister.registerSubsystemWriter("foo", () -> new TestSubsystemWriter("foo"));
+        persister.registerSubsystemWriter("bar", () -> new TestSubsystemWriter("bar"));
+        model = new ModelNode();
+        model.get(SUBSYSTEM, "foo", "value").set("one");
+        model.get(SUBSYSTEM, "foo", "item").add("a").add("b");
+        model.get(SUBSYSTEM, "bar", "value").set("two");
+    }
+
+    @Test
+    public void testUnaffectedSubsystemsNotMarshalled() throws Exception {
+        assertMarshalledAsXml(null);
+        assertInvocations(1, 1);
+
+        assertMarshalledAsXml(Collections.emptySet());
+        assertInvocations(1, 1);
+
+        model.get(SUBSYSTEM, "foo", "value").set("three");
+        assertMarshalledAsXml(Set.of(FOO));
+        assertInvocations(2, 1);
+
+        // Changes to resources within a subsystem also invalidate it
+        model.get(SUBSYSTEM, "bar", "child", "x", "value").set("four");
+        assertMarshalledAsXml(Set.of(BAR.append("child", "x")));
+        assertInvocations(2, 2);
+
+        // Changes to the root invalidate everything
+        assertMarshalledAsXml(Set.of(PathAddress.EMPTY_ADDRESS));
+        assertInvocations(3, 3);
+
+        // Changes to resources outside of subsystems do not
+        assertMarshalledAsXml(Set.of(PathAddress.pathAddress("system-property", "x")));
+        assertInvocations(3, 3);
+    }
+
+    @Test
+    public void testWriterRegistrationInvalidates() throws Exception {
+        assertMarshalledAsXml(null);
+        persister.unregisterSubsystemWriter("bar");
+        assertMarshalledAsXml(Collections.emptySet());
+        persister.registerSubsystemWriter("bar", () -> new TestSubsystemWriter("bar"));
+        assertMarshalledAsXml(Collections.emptySet());
+        assertInvocations(1, 2);
+    }
+
+    @Test
+    public void testRollbackInvalidates() throws Exception {
+        assertMarshalledAsXml(null);
+        ModelNode original = model.clone();
+
+        model.get(SUBSYSTEM, "foo", "value").set("three");
+        store(Set.of(FOO)).rollback();
+        assertInvocations(2, 1);
+
+        // The rolled back change must not be written when storing a change to another subsystem
+        model = original;
+        model.get(SUBSYSTEM, "bar", "value").set("four");
+        assertMarshalledAsXml(Set.of(BAR));
+        assertInvocations(3, 2);
+    }
+
+    private ConfigurationPersister.PersistenceResource store(Set<PathAddress> affectedAddresses) throws Exception {
+        return new AbstractFilePersistenceResource(model, affectedAddresses, persister) {
+            @Override
+            protected void doCommit(InputStream marshalled) {
+            }
+        };
+    }
+
+    private void assertMarshalledAsXml(Set<PathAddress> affectedAddresses) throws Exception {
+        ByteArrayOutputStream incremental = new ByteArrayOutputStream();
+        persister.marshallAsXml(model, affectedAddresses, incremental);
+        // Marshalling without the cache runs all the writers, so do not count it
+        Map<String, Integer> counts = Map.of("foo", getInvocations("foo"), "bar", getInvocations("bar"));
+        ByteArrayOutputStream full = new ByteArrayOutputStream();
+        persister.marshallAsXml(model, full);
+        counts.forEach((name, count) -> invocations.get(name).set(count));
+        assertEquals(full.toString(StandardCharsets.UTF_8), incremental.toString(StandardCharsets.UTF_8));
+    }
+
+    private void assertInvocations(int foo, int bar) {
+        assertEquals(foo, getInvocations("foo"));
+        assertEquals(bar, getInvocations("bar"));
+    }
+
+    private int getInvocations(String name) {
+        return invocations.computeIfAbsent(name, k -> new AtomicInteger()).get();
+    }
+
+    private class TestSubsystemWriter implements XMLElementWriter<SubsystemMarshallingContext> {
+
+        private final String name;
+
+        private TestSubsystemWriter(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public void writeContent(XMLExtendedStreamWriter writer, SubsystemMarshallingContext context) throws XMLStreamException {
+            invocations.computeIfAbsent(name, k -> new AtomicInteger()).incrementAndGet();
+            ModelNode subsystem = context.getModelNode();
+            context.startSubsystemElement("urn:test:" + name + ":1.0", false);
+            writer.writeAttribute("value", subsystem.get("value").asString());
+            if (subsystem.hasDefined("item")) {
+                writer.writeAttribute("items", subsystem.get("item").asList().stream().map(ModelNode::asString).toArray(String[]::new));
+            }
+            if (subsystem.hasDefined("child")) {
+                for (Property child : subsystem.get("child").asPropertyList()) {
+                    writer.writeEmptyElement("child");
+                    writer.writeAttribute("name", child.getName());
+                    writer.writeAttribute("value", child.getValue().get("value").asString());
+                }
+            }
+            writer.writeComment(" " + name + " ");
+            writer.writeEndElement();
+        }
+    }
+
+    private static class TestPersister extends AbstractConfigurationPersister {
+
+        TestPersister() {
+            super((writer, context) -> {
+                writer.writeStartDocument();
+                writer.writeStartElement("server");
+                writer.writeDefaultNamespace("urn:test:server:1.0");
+                writer.writeStartElement("profile");
+                for (String name : context.getModelNode().get(SUBSYSTEM).keys()) {
+                    String defaultNamespace = writer.getNamespaceContext().getNamespaceURI("");
+                    try {
+                        context.writeSubsystem(PathAddress.pathAddress(SUBSYSTEM, name), context.getModelNode().get(SUBSYSTEM, name), writer);
+                    } finally {
+                        writer.setDefaultNamespace(defaultNamespace);
+                    }
+                }
+                writer.writeEndElement();
+                writer.writeEndElement();
+                writer.writeEndDocument();
+            });
+        }
+
+        @Override
+        public PersistenceResource store(ModelNode model, Set<PathAddress> affectedAddresses) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<ModelNode> load() {
+            return Collections.emptyList();
+        }
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.jboss.as.controller.persistence;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.controller.PathAddress;
+import org.jboss.dmr.ModelNode;
+import org.junit.Test;
+
+/**
+ * Tests of writing committed configuration changes behind with {@link WriteBehindPersistence}.
+ */
+public class WriteBehindPersistenceTestCase {
+
+    @Test
+    public void testSyncWritesInline() {
+        WriteBehindPersistence writeBehind = new WriteBehindPersistence(WriteBehindPersistence.Mode.SYNC);
+        Thread[] writer = new Thread[1];
+        writeBehind.write(this, () -> writer[0] = Thread.currentThread());
+        assertEquals(Thread.currentThread(), writer[0]);
+        assertEquals(0, writeBehind.getPendingWriteCount());
+        assertFalse(writeBehind.isForcingWrites());
+    }
+
+    @Test
+    public void testQueuedWritesCoalesced() throws Exception {
+        WriteBehindPersistence writeBehind = new WriteBehindPersistence(WriteBehindPersistence.Mode.ASYNC_RELAXED);
+        assertFalse(writeBehind.isForcingWrites());
+        Queue<String> written = new ConcurrentLinkedQueue<>();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Object target = new Object();
+        Object other = new Object();
+
+        writeBehind.write(target, () -> {
+            started.countDown();
+            await(release);
+            written.add("one");
+        });
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+
+        // While the first write is being made, later ones to the same target replace each other
+        writeBehind.write(target, () -> written.add("two"));
+        writeBehind.write(other, () -> written.add("other"));
+        writeBehind.write(target, () -> written.add("three"));
+        assertEquals(3, writeBehind.getPendingWriteCount());
+        assertEquals(1, writeBehind.getCoalescedWriteCount());
+        Thread.sleep(5);
+        assertTrue(writeBehind.getLag() > 0);
+
+        release.countDown();
+        writeBehind.flush(target);
+        writeBehind.flush(other);
+        assertEquals(List.of("one", "three", "other"), List.copyOf(written));
+        assertEquals(0, writeBehind.getPendingWriteCount());
+        assertEquals(0, writeBehind.getLag());
+    }
+
+    @Test
+    public void testResourceWrittenBehind() throws Exception {
+        WriteBehindPersistence writeBehind = new WriteBehindPersistence(WriteBehindPersistence.Mode.ASYNC);
+        assertTrue(writeBehind.isForcingWrites());
+        TestPersister persister = new TestPersister(writeBehind);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        // Keep the writer busy
+        writeBehind.write(new Object(), () -> {
+            started.countDown();
+            await(release);
+        });
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+
+        new TestResource(new ModelNode("one"), persister).commit();
+        new TestResource(new ModelNode("two"), persister).commit();
+        assertEquals("", persister.stored.toString(StandardCharsets.UTF_8));
+        assertEquals(1, writeBehind.getCoalescedWriteCount());
+
+        release.countDown();
+        persister.flush();
+        assertEquals("two", persister.stored.toString(StandardCharsets.UTF_8));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static class TestResource extends AbstractFilePersistenceResource {
+        private final TestPersister persister;
+
+        TestResource(ModelNode model, TestPersister persister) throws ConfigurationPersistenceException {
+            super(model, persister);
+            this.persister = persister;
+        }
+
+        @Override
+        protected boolean isWriteBehind() {
+            return true;
+        }
+
+        @Override
+        protected void doCommit(InputStream marshalled) {
+            try {
+                persister.stored.reset();
+                marshalled.transferTo(persister.stored);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
+    private static class TestPersister extends AbstractConfigurationPersister {
+        private final WriteBehindPersistence writeBehind;
+        private final ByteArrayOutputStream stored = new ByteArrayOutputStream();
+
+        TestPersister(WriteBehindPersistence writeBehind) {
+            super(null);
+            this.writeBehind = writeBehind;
+        }
+
+        @Override
+        WriteBehindPersistence getWriteBehindPersistence() {
+            return writeBehind;
+        }
+
+        @Override
+        public void marshallAsXml(ModelNode model, OutputStream output) throws ConfigurationPersistenceException {
+            try {
+                output.write(model.asString().getBytes(StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                throw new ConfigurationPersistenceException(e);
+            }
+        }
+
+        @Override
+        public PersistenceResource store(ModelNode model, Set<PathAddress> affectedAddresses) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<ModelNode> load() {
+            return Collections.emptyList();
+        }
+    }
+}
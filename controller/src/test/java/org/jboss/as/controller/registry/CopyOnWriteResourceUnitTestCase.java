@@ -0,0 +1,181 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.jboss.as.controller.registry;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.dmr.ModelNode;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests of {@link Resource.Tools#copyOnWrite(Resource)} and of cloning resources.
+ */
+public class CopyOnWriteResourceUnitTestCase {
+
+    private static final PathElement CHILD_A = PathElement.pathElement("child", "a");
+    private static final PathElement CHILD_B = PathElement.pathElement("child", "b");
+    private static final PathElement GRANDCHILD = PathElement.pathElement("grandchild", "x");
+
+    private Resource original;
+    private ModelNode originalModel;
+
+    @Before
+    public void setUp() {
+        original = Resource.Factory.create();
+        original.getModel().get("attr").set("root");
+        for (PathElement element : new PathElement[] {CHILD_A, CHILD_B}) {
+            Resource child = Resource.Factory.create();
+            child.getModel().get("attr").set(element.getValue());
+            Resource grandchild = Resource.Factory.create();
+            grandchild.getModel().get("attr").set(element.getValue() + "-x");
+            child.registerChild(GRANDCHILD, grandchild);
+            original.registerChild(element, child);
+        }
+        originalModel = Resource.Tools.readModel(original);
+    }
+
+    @Test
+    public void testCopyPresentsOriginal() {
+        Resource copy = Resource.Tools.copyOnWrite(original);
+        assertEquals(originalModel, Resource.Tools.readModel(copy));
+        assertTrue(copy.hasChild(CHILD_A));
+        assertEquals(original.getChildrenNames("child"), copy.getChildrenNames("child"));
+    }
+
+    @Test
+    public void testModifyDescendant() {
+        Resource copy = Resource.Tools.copyOnWrite(original);
+        copy.navigate(PathAddress.pathAddress(CHILD_A, GRANDCHILD)).getModel().get("attr").set("changed");
+
+        assertEquals(originalModel, Resource.Tools.readModel(original));
+        assertEquals("changed", copy.navigate(PathAddress.pathAddress(CHILD_A, GRANDCHILD)).getModel().get("attr").asString());
+        assertEquals("b-x", copy.navigate(PathAddress.pathAddress(CHILD_B, GRANDCHILD)).getModel().get("attr").asString());
+    }
+
+    @Test
+    public void testUntouchedModelIsShared() {
+        BasicResource copy = (BasicResource) Resource.Tools.copyOnWrite(original);
+        assertSame(((BasicResource) original).peekModel(), copy.peekModel());
+        copy.getModel().get("attr").set("changed");
+        assertNotSame(((BasicResource) original).peekModel(), copy.peekModel());
+        assertEquals("root", original.getModel().get("attr").asString());
+    }
+
+    @Test
+    public void testAddAndRemoveChildren() {
+        Resource copy = Resource.Tools.copyOnWrite(original);
+        copy.removeChild(CHILD_A);
+        copy.registerChild(PathElement.pathElement("child", "c"), Resource.Factory.create());
+
+        assertEquals(originalModel, Resource.Tools.readModel(original));
+        assertTrue(original.hasChild(CHILD_A));
+        assertFalse(copy.hasChild(CHILD_A));
+        assertTrue(copy.hasChild(PathElement.pathElement("child", "c")));
+        assertFalse(original.hasChild(PathElement.pathElement("child", "c")));
+    }
+
+    @Test
+    public void testWriteModel() {
+        Resource copy = Resource.Tools.copyOnWrite(original);
+        ModelNode replacement = new ModelNode();
+        replacement.get("other").set(true);
+        copy.writeModel(replacement);
+        replacement.get("other").set(false);
+
+        assertTrue(copy.getModel().get("other").asBoolean());
+        assertEquals("root", original.getModel().get("attr").asString());
+        assertFalse(original.getModel().has("other"));
+    }
+
+    @Test
+    public void testCloneOfCopyIsIndependent() {
+        Resource copy = Resource.Tools.copyOnWrite(original);
+        Resource clone = copy.clone();
+        copy.requireChild(CHILD_B).getModel().get("attr").set("changed");
+        clone.requireChild(CHILD_A).getModel().get("attr").set("other");
+
+        assertEquals("b", clone.requireChild(CHILD_B).getModel().get("attr").asString());
+        assertEquals("a", copy.requireChild(CHILD_A).getModel().get("attr").asString());
+        assertEquals(originalModel, Resource.Tools.readModel(original));
+    }
+
+    @Test
+    public void testCopyOfCopy() {
+        Resource first = Resource.Tools.copyOnWrite(original);
+        first.requireChild(CHILD_A).getModel().get("attr").set("first");
+        Resource second = Resource.Tools.copyOnWrite(first);
+        second.requireChild(CHILD_A).getModel().get("attr").set("second");
+
+        assertEquals("a", original.requireChild(CHILD_A).getModel().get("attr").asString());
+        assertEquals("first", first.requireChild(CHILD_A).getModel().get("attr").asString());
+        assertEquals("second", second.requireChild(CHILD_A).getModel().get("attr").asString());
+        assertNotEquals(Resource.Tools.readModel(first), Resource.Tools.readModel(second));
+    }
+
+    @Test
+    public void testFrozenCopyNotModifiedByReads() {
+        BasicResource copy = (BasicResource) Resource.Tools.copyOnWrite(original);
+        copy.requireChild(CHILD_A).getModel().get("attr").set("changed");
+        Resource.Tools.freeze(copy);
+
+        // Reading the untouched parts of a frozen copy hands out the shared models and children
+        BasicResource child = (BasicResource) copy.requireChild(CHILD_B);
+        assertSame(((BasicResource) original.requireChild(CHILD_B)).peekModel(), child.getModel());
+        assertSame(original.requireChild(CHILD_B).requireChild(GRANDCHILD), child.requireChild(GRANDCHILD));
+        assertSame(((BasicResource) original).peekModel(), copy.getModel());
+        assertEquals("changed", copy.requireChild(CHILD_A).getModel().get("attr").asString());
+
+        // Copies of the frozen copy are still independent
+        Resource next = Resource.Tools.copyOnWrite(copy);
+        next.requireChild(CHILD_B).requireChild(GRANDCHILD).getModel().get("attr").set("next");
+        Resource clone = copy.clone();
+        clone.requireChild(CHILD_B).getModel().get("attr").set("clone");
+        assertEquals("b-x", copy.navigate(PathAddress.pathAddress(CHILD_B, GRANDCHILD)).getModel().get("attr").asString());
+        assertEquals("b", copy.requireChild(CHILD_B).getModel().get("attr").asString());
+        assertEquals(originalModel, Resource.Tools.readModel(original));
+    }
+
+    @Test
+    public void testCloneWhileModelModified() throws Exception {
+        // Nothing stops the model of a runtime or extension provided resource from being modified while it is cloned
+        AtomicBoolean done = new AtomicBoolean();
+        Thread writer = new Thread(() -> {
+            ModelNode model = original.getModel();
+            for (int i = 0; !done.get(); i++) {
+                model.get("attr-" + (i % 64)).set(i);
+                model.remove("attr-" + ((i + 32) % 64));
+            }
+        });
+        writer.start();
+        try {
+            for (int i = 0; i < 10000; i++) {
+                assertEquals("root", original.clone().getModel().get("attr").asString());
+            }
+        } finally {
+            done.set(true);
+            writer.join();
+        }
+    }
+
+    @Test
+    public void testShallowCopy() {
+        Resource copy = Resource.Tools.copyOnWrite(original);
+        Resource shallow = copy.shallowCopy();
+        assertEquals(original.getModel(), shallow.getModel());
+        assertTrue(shallow.hasChild(CHILD_A));
+        assertFalse(shallow.requireChild(CHILD_A).getModel().isDefined());
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.jboss.as.controller.registry;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ADD;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ATTRIBUTES;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.CHILDREN;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.DESCRIPTION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.REQUEST_PROPERTIES;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.as.controller.ModelOnlyAddStepHandler;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.ProcessType;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.SimpleOperationDefinitionBuilder;
+import org.jboss.as.controller.SimpleResourceDefinition;
+import org.jboss.as.controller.SimpleResourceDefinition.Parameters;
+import org.jboss.as.controller.descriptions.DescriptionProvider;
+import org.jboss.as.controller.descriptions.NonResolvingResourceDescriptionResolver;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests of the caching of resource and operation descriptions by {@link DescriptionCache}.
+ */
+public class DescriptionCacheUnitTestCase {
+
+    private static final PathAddress CHILD_ADDRESS = PathAddress.pathAddress(PathElement.pathElement("child"));
+
+    private ManagementResourceRegistration rootRegistration;
+    private ManagementResourceRegistration childRegistration;
+
+    @Before
+    public void setup() {
+        rootRegistration = ManagementResourceRegistration.Factory.forProcessType(ProcessType.EMBEDDED_SERVER).createRegistration(new SimpleResourceDefinition(null, NonResolvingResourceDescriptionResolver.INSTANCE));
+        childRegistration = rootRegistration.registerSubModel(new SimpleResourceDefinition(new Parameters(CHILD_ADDRESS.getLastElement(), NonResolvingResourceDescriptionResolver.INSTANCE)
+                .setAddHandler(ModelOnlyAddStepHandler.INSTANCE)));
+    }
+
+    @Test
+    public void testDescriptionCached() {
+        ModelNode first = getChildDescription(null);
+        long hits = DescriptionCache.getHitCount();
+        ModelNode second = getChildDescription(null);
+        assertEquals(hits + 1, DescriptionCache.getHitCount());
+        assertEquals(first, second);
+        assertNotSame(first, second);
+
+        // Callers may modify what they are given without affecting the cache
+        second.get(DESCRIPTION).set("modified");
+        assertEquals(first, getChildDescription(null));
+
+        // Each locale has its own description
+        long misses = DescriptionCache.getMissCount();
+        assertEquals(first, getChildDescription(Locale.FRENCH));
+        assertEquals(misses + 1, DescriptionCache.getMissCount());
+    }
+
+    @Test
+    public void testAttributeRegistrationInvalidates() {
+        assertFalse(getChildDescription(null).get(ATTRIBUTES).has("attr"));
+        assertFalse(getChildAddDescription().get(REQUEST_PROPERTIES).has("attr"));
+
+        childRegistration.registerReadOnlyAttribute(SimpleAttributeDefinitionBuilder.create("attr", ModelType.STRING).build(), null);
+
+        assertTrue(getChildDescription(null).get(ATTRIBUTES).has("attr"));
+        assertTrue(getChildAddDescription().get(REQUEST_PROPERTIES).has("attr"));
+
+        childRegistration.unregisterAttribute("attr");
+
+        assertFalse(getChildDescription(null).get(ATTRIBUTES).has("attr"));
+    }
+
+    @Test
+    public void testChildRegistrationInvalidates() {
+        assertFalse(getChildDescription(null).get(CHILDREN).has("grandchild"));
+
+        ManagementResourceRegistration grandchild = childRegistration.registerSubModel(new SimpleResourceDefinition(PathElement.pathElement("grandchild"), NonResolvingResourceDescriptionResolver.INSTANCE));
+        assertTrue(getChildDescription(null).get(CHILDREN).has("grandchild"));
+
+        // A change deeper in the tree also invalidates the description
+        ModelNode root = rootRegistration.getModelDescription(PathAddress.EMPTY_ADDRESS).getModelDescription(null);
+        grandchild.registerReadOnlyAttribute(SimpleAttributeDefinitionBuilder.create("attr", ModelType.STRING).build(), null);
+        long misses = DescriptionCache.getMissCount();
+        assertEquals(root, rootRegistration.getModelDescription(PathAddress.EMPTY_ADDRESS).getModelDescription(null));
+        assertEquals(misses + 1, DescriptionCache.getMissCount());
+
+        rootRegistration.unregisterSubModel(CHILD_ADDRESS.getLastElement());
+        assertFalse(rootRegistration.getModelDescription(PathAddress.EMPTY_ADDRESS).getModelDescription(null).get(CHILDREN).has("child"));
+    }
+
+    @Test
+    public void testCustomDescriptionNotCached() {
+        AtomicInteger invocations = new AtomicInteger();
+        DescriptionProvider provider = locale -> new ModelNode(invocations.incrementAndGet());
+        childRegistration.registerOperationHandler(new SimpleOperationDefinitionBuilder("custom", NonResolvingResourceDescriptionResolver.INSTANCE)
+                .setDescriptionProvider(provider)
+                .build(), (context, operation) -> {});
+
+        long hits = DescriptionCache.getHitCount();
+        long misses = DescriptionCache.getMissCount();
+        assertEquals(new ModelNode(1), getChildOperationDescription("custom"));
+        assertEquals(new ModelNode(2), getChildOperationDescription("custom"));
+        assertEquals(hits, DescriptionCache.getHitCount());
+        assertEquals(misses, DescriptionCache.getMissCount());
+    }
+
+    private ModelNode getChildDescription(Locale locale) {
+        return rootRegistration.getModelDescription(CHILD_ADDRESS).getModelDescription(locale);
+    }
+
+    private ModelNode getChildAddDescription() {
+        return getChildOperationDescription(ADD);
+    }
+
+    private ModelNode getChildOperationDescription(String operationName) {
+        return rootRegistration.getOperationDescription(CHILD_ADDRESS, operationName).getModelDescription(null);
+    }
+}
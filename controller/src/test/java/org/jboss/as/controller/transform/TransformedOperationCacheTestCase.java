@@ -0,0 +1,149 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.jboss.as.controller.transform;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.as.controller.ModelVersion;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.ProcessType;
+import org.jboss.as.controller.RunningMode;
+import org.jboss.as.controller.SimpleResourceDefinition;
+import org.jboss.as.controller.descriptions.NonResolvingResourceDescriptionResolver;
+import org.jboss.as.controller.operations.common.Util;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.as.controller.registry.Resource;
+import org.jboss.as.controller.transform.description.AttributeConverter;
+import org.jboss.as.controller.transform.description.RejectAttributeChecker;
+import org.jboss.as.controller.transform.description.ResourceTransformationDescriptionBuilder;
+import org.jboss.as.controller.transform.description.TransformationDescription;
+import org.jboss.as.controller.transform.description.TransformationDescriptionBuilder;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ValueExpression;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of sharing transformed operations between targets through a {@link TransformedOperationCache}.
+ */
+public class TransformedOperationCacheTestCase {
+
+    private static final PathElement SUBSYSTEM = PathElement.pathElement("subsystem", "test");
+
+    private final AtomicInteger conversions = new AtomicInteger();
+    private final TransformerRegistry registry = TransformerRegistry.Factory.create();
+    private OperationContext context;
+
+    @Before
+    public void setup() {
+        ResourceTransformationDescriptionBuilder builder = TransformationDescriptionBuilder.Factory.createInstance(SUBSYSTEM);
+        builder.getAttributeBuilder()
+                .addRejectCheck(RejectAttributeChecker.SIMPLE_EXPRESSIONS, "rejected")
+                .setValueConverter(new AttributeConverter.DefaultAttributeConverter() {
+                    @Override
+                    protected void convertAttribute(PathAddress address, String attributeName, ModelNode attributeValue, TransformationContext context) {
+                        conversions.incrementAndGet();
+                        attributeValue.set(attributeValue.asString().toUpperCase(Locale.ENGLISH));
+                    }
+                }, "converted")
+                .end();
+        TransformationDescription.Tools.register(builder.build(), registry.getServerRegistration(ModelVersion.create(1)));
+
+        Resource root = Resource.Factory.create();
+        root.registerChild(SUBSYSTEM, Resource.Factory.create());
+        ManagementResourceRegistration registration = ManagementResourceRegistration.Factory.forProcessType(ProcessType.HOST_CONTROLLER)
+                .createRegistration(new SimpleResourceDefinition(null, NonResolvingResourceDescriptionResolver.INSTANCE));
+        context = mock(OperationContext.class);
+        when(context.readResourceFromRoot(PathAddress.EMPTY_ADDRESS, true)).thenReturn(root);
+        when(context.getRootResourceRegistration()).thenReturn(registration);
+        when(context.getProcessType()).thenReturn(ProcessType.HOST_CONTROLLER);
+        when(context.getRunningMode()).thenReturn(RunningMode.NORMAL);
+    }
+
+    @After
+    public void cleanup() {
+        System.clearProperty(TransformedOperationCache.PROPERTY);
+    }
+
+    @Test
+    public void testTransformedOncePerVersion() throws Exception {
+        System.setProperty(TransformedOperationCache.PROPERTY, "true");
+        Transformers.TransformationInputs inputs = new Transformers.TransformationInputs(context);
+
+        OperationTransformer.TransformedOperation a = transform(inputs, "a", ModelVersion.create(1), "value");
+        OperationTransformer.TransformedOperation b = transform(inputs, "b", ModelVersion.create(1), "value");
+        assertEquals(1, conversions.get());
+        assertEquals("VALUE", a.getTransformedOperation().get("converted").asString());
+        assertEquals(a.getTransformedOperation(), b.getTransformedOperation());
+        assertNotSame(a.getTransformedOperation(), b.getTransformedOperation());
+        assertEquals(OperationResultTransformer.ORIGINAL_RESULT, b.getResultTransformer());
+        assertFalse(b.rejectOperation(new ModelNode()));
+
+        // Callers may change the operation they are given
+        a.getTransformedOperation().get("converted").set("changed");
+        assertEquals("VALUE", transform(inputs, "c", ModelVersion.create(1), "value").getTransformedOperation().get("converted").asString());
+        assertEquals(1, conversions.get());
+
+        // Other operations and versions are transformed
+        transform(inputs, "a", ModelVersion.create(1), "other");
+        assertEquals(2, conversions.get());
+        OperationTransformer.TransformedOperation current = transform(inputs, "a", ModelVersion.create(2), "value");
+        assertEquals("value", current.getTransformedOperation().get("converted").asString());
+        transform(inputs, "b", ModelVersion.create(2), "value");
+        assertEquals(2, conversions.get());
+    }
+
+    @Test
+    public void testRejectionsAreNotShared() throws Exception {
+        System.setProperty(TransformedOperationCache.PROPERTY, "true");
+        Transformers.TransformationInputs inputs = new Transformers.TransformationInputs(context);
+        ModelNode operation = createOperation("value");
+        operation.get("rejected").set(new ValueExpression("${rejected}"));
+
+        OperationTransformer.TransformedOperation a = transform(inputs, "a", ModelVersion.create(1), operation.clone());
+        OperationTransformer.TransformedOperation b = transform(inputs, "b", ModelVersion.create(1), operation.clone());
+        assertEquals(2, conversions.get());
+        assertTrue(a.rejectOperation(new ModelNode()));
+        assertTrue(b.rejectOperation(new ModelNode()));
+    }
+
+    @Test
+    public void testDisabled() throws Exception {
+        Transformers.TransformationInputs inputs = new Transformers.TransformationInputs(context);
+        assertNull(inputs.getOperationCache());
+        transform(inputs, "a", ModelVersion.create(1), "value");
+        transform(inputs, "b", ModelVersion.create(1), "value");
+        assertEquals(2, conversions.get());
+    }
+
+    private OperationTransformer.TransformedOperation transform(Transformers.TransformationInputs inputs, String host, ModelVersion version, String value) throws Exception {
+        return transform(inputs, host, version, createOperation(value));
+    }
+
+    private OperationTransformer.TransformedOperation transform(Transformers.TransformationInputs inputs, String host, ModelVersion version, ModelNode operation) throws Exception {
+        TransformationTarget target = TransformationTargetImpl.create(host, registry, version, Collections.emptyMap(), TransformationTarget.TransformationTargetType.SERVER);
+        return Transformers.Factory.create(target).transformOperation(inputs, operation);
+    }
+
+    private static ModelNode createOperation(String value) {
+        ModelNode operation = Util.createAddOperation(PathAddress.pathAddress(SUBSYSTEM));
+        operation.get("converted").set(value);
+        return operation;
+    }
+}
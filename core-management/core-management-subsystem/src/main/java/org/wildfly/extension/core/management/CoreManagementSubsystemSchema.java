@@ -58,6 +58,10 @@ public enum CoreManagementSubsystemSchema implements PersistentSubsystemSchema<C
                 factory.builder(UnstableApiAnnotationResourceDefinition.RESOURCE_REGISTRATION)
                         .addAttribute(UnstableApiAnnotationResourceDefinition.LEVEL)
                         .build());
+        builder.addChild(
+                factory.builder(SlowOperationLogResourceDefinition.RESOURCE_REGISTRATION)
+                        .addAttribute(SlowOperationLogResourceDefinition.THRESHOLD)
+                        .build());
         builder.addChild(
                 factory.builder(CoreManagementExtension.PROCESS_STATE_LISTENER_PATH)
 
@@ -0,0 +1,124 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.wildfly.extension.core.management;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SERVICE;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import org.jboss.as.controller.AbstractAddStepHandler;
+import org.jboss.as.controller.AbstractRemoveStepHandler;
+import org.jboss.as.controller.AbstractWriteAttributeHandler;
+import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.PersistentResourceDefinition;
+import org.jboss.as.controller.ResourceRegistration;
+import org.jboss.as.controller.SimpleAttributeDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.SlowOperationLog;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
+import org.jboss.as.controller.operations.validation.LongRangeValidator;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.as.controller.registry.Resource;
+import org.jboss.as.version.Stability;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+
+/**
+ * Resource to log the management operations that take longer than a threshold.
+ */
+public class SlowOperationLogResourceDefinition extends PersistentResourceDefinition {
+
+    static final String SLOW_OPERATION_LOG = "slow-operation-log";
+
+    public static final Stability STABILITY = Stability.PREVIEW;
+    public static final SimpleAttributeDefinition THRESHOLD = SimpleAttributeDefinitionBuilder.create("threshold", ModelType.LONG, true)
+            .setAllowExpression(true)
+            .setDefaultValue(new ModelNode(1000L))
+            .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+            .setValidator(new LongRangeValidator(0, true))
+            .build();
+    public static final PathElement PATH = PathElement.pathElement(SERVICE, SLOW_OPERATION_LOG);
+    static final ResourceRegistration RESOURCE_REGISTRATION = ResourceRegistration.of(PATH, STABILITY);
+    static final SlowOperationLogResourceDefinition INSTANCE = new SlowOperationLogResourceDefinition();
+
+    private static final List<AttributeDefinition> ATTRIBUTES = Collections.singletonList(THRESHOLD);
+
+    private SlowOperationLogResourceDefinition() {
+        super(new Parameters(RESOURCE_REGISTRATION, CoreManagementExtension.getResourceDescriptionResolver(SLOW_OPERATION_LOG))
+                .setAddHandler(new SlowOperationLogAddHandler())
+                .setRemoveHandler(new SlowOperationLogRemoveHandler()));
+    }
+
+    @Override
+    public void registerAttributes(ManagementResourceRegistration resourceRegistration) {
+        // Changes to the threshold apply at runtime, so the reload-required handlers of the superclass are not used
+        ThresholdWriteHandler writeHandler = new ThresholdWriteHandler();
+        for (AttributeDefinition attribute : getAttributes()) {
+            resourceRegistration.registerReadWriteAttribute(attribute, null, writeHandler);
+        }
+    }
+
+    @Override
+    public Collection<AttributeDefinition> getAttributes() {
+        return ATTRIBUTES;
+    }
+
+    private static class SlowOperationLogAddHandler extends AbstractAddStepHandler {
+
+        @Override
+        protected void performRuntime(OperationContext context, ModelNode operation, Resource resource) throws OperationFailedException {
+            super.performRuntime(context, operation, resource);
+            SlowOperationLog.INSTANCE.setThreshold(THRESHOLD.resolveModelAttribute(context, resource.getModel()).asLong());
+        }
+
+        @Override
+        protected void rollbackRuntime(OperationContext context, ModelNode operation, Resource resource) {
+            SlowOperationLog.INSTANCE.deactivate();
+        }
+
+        @Override
+        protected boolean requiresRuntime(OperationContext context) {
+            return context.isDefaultRequiresRuntime();
+        }
+    }
+
+    private static class SlowOperationLogRemoveHandler extends AbstractRemoveStepHandler {
+
+        @Override
+        protected void performRuntime(OperationContext context, ModelNode operation, ModelNode model) throws OperationFailedException {
+            super.performRuntime(context, operation, model);
+            SlowOperationLog.INSTANCE.deactivate();
+        }
+
+        @Override
+        protected void recoverServices(OperationContext context, ModelNode operation, ModelNode model) throws OperationFailedException {
+            SlowOperationLog.INSTANCE.setThreshold(THRESHOLD.resolveModelAttribute(context, model).asLong());
+        }
+
+        @Override
+        protected boolean requiresRuntime(OperationContext context) {
+            return context.isDefaultRequiresRuntime();
+        }
+    }
+
+    private static class ThresholdWriteHandler extends AbstractWriteAttributeHandler<Void> {
+
+        @Override
+        protected boolean applyUpdateToRuntime(OperationContext context, ModelNode operation, String attributeName, ModelNode resolvedValue, ModelNode currentValue, HandbackHolder<Void> handbackHolder) {
+            SlowOperationLog.INSTANCE.setThreshold(resolvedValue.asLong());
+            return false;
+        }
+
+        @Override
+        protected void revertUpdateToRuntime(OperationContext context, ModelNode operation, String attributeName, ModelNode valueToRestore, ModelNode valueToRevert, Void handback) {
+            SlowOperationLog.INSTANCE.setThreshold(valueToRestore.asLong());
+        }
+    }
+}
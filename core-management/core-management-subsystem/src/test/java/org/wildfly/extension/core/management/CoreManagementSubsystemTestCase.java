@@ -11,8 +11,10 @@ import org.jboss.as.subsystem.test.AbstractSubsystemSchemaTest;
 import org.jboss.as.subsystem.test.AdditionalInitialization;
 import org.jboss.as.subsystem.test.KernelServices;
 import org.jboss.as.subsystem.test.KernelServicesBuilder;
+import org.jboss.as.version.Stability;
 import org.jboss.dmr.ModelNode;
 import org.junit.Assert;
+import org.junit.Assume;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
@@ -63,6 +65,26 @@ public class CoreManagementSubsystemTestCase extends AbstractSubsystemSchemaTest
         assertEquals("2", getValue(processStateListenerProperties, "bar"));
     }
 
+    @Test
+    public void testSlowOperationLogThreshold() throws Exception {
+        Assume.assumeTrue(getSubsystemSchema().getStability() == Stability.PREVIEW);
+        KernelServicesBuilder builder = createKernelServicesBuilder(createAdditionalInitialization()).setSubsystemXml(getSubsystemXml());
+        KernelServices kernelServices = builder.build();
+        Assert.assertTrue("Subsystem boot failed!", kernelServices.isSuccessfulBoot());
+
+        ModelNode address = Operations.createAddress("subsystem", "core-management", "service", "slow-operation-log");
+        ModelNode read = Operations.createReadAttributeOperation(address, "threshold");
+        read.get(ModelDescriptionConstants.RESOLVE_EXPRESSIONS).set(true);
+        assertEquals(500L, kernelServices.executeOperation(read).get("result").asLong());
+
+        ModelNode write = Operations.createWriteAttributeOperation(address, "threshold", 2000L);
+        Assert.assertTrue(Operations.isSuccessfulOutcome(kernelServices.executeOperation(write)));
+        assertEquals(2000L, kernelServices.executeOperation(read).get("result").asLong());
+
+        write = Operations.createWriteAttributeOperation(address, "threshold", -1L);
+        Assert.assertFalse(Operations.isSuccessfulOutcome(kernelServices.executeOperation(write)));
+    }
+
     private Object getValue(ModelNode node, String attributeName) {
         return node.get(attributeName).asString();
     }
@@ -5,6 +5,8 @@
 package org.jboss.as.domain.http.server;
 
 import static io.undertow.server.handlers.ResponseCodeHandler.HANDLE_404;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESPONSE_HEADERS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RETRY_AFTER;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
@@ -46,6 +48,12 @@ public class Common {
     }
 
     static void sendError(HttpServerExchange exchange, boolean encode, ModelNode msg) {
+        if (msg.hasDefined(RESPONSE_HEADERS) && msg.get(RESPONSE_HEADERS).hasDefined(RETRY_AFTER)) {
+            // Rejected as the lane of management operations of the operation was saturated
+            exchange.getResponseHeaders().put(Headers.RETRY_AFTER, msg.get(RESPONSE_HEADERS, RETRY_AFTER).asString());
+            sendError(exchange, encode, msg, 503);
+            return;
+        }
         int errorCode = getErrorResponseCode(msg.asString());
         sendError(exchange, encode, msg, errorCode);
     }
@@ -11,9 +11,13 @@ import static io.undertow.util.Headers.HOST;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESULT;
 
 import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.util.Deque;
@@ -33,6 +37,7 @@ import io.undertow.util.Headers;
 import io.undertow.util.HttpString;
 import org.jboss.as.controller.client.OperationResponse;
 import org.jboss.dmr.ModelNode;
+import org.wildfly.security.manager.WildFlySecurityManager;
 import org.xnio.IoUtils;
 
 
@@ -50,8 +55,23 @@ public class DomainUtil {
     private static final String USE_STREAM_AS_RESPONSE = "useStreamAsResponse";
     private static final HttpString USE_STREAM_AS_RESPONSE_HEADER = new HttpString("org.wildfly.useStreamAsResponse");
 
+    /**
+     * System property that, if {@code true}, makes the serialization of operation responses be written to the client
+     * in chunks, using chunked transfer encoding, rather than serialized in full into a buffer first to compute its
+     * length. The response {@link ModelNode} is still built in full before it is serialized, so this only saves the
+     * buffer holding the serialized form of large responses, such as a recursive {@code read-resource} of a large
+     * domain.
+     */
+    public static final String CHUNKED_RESPONSES_PROPERTY = "org.wildfly.management.http.chunked-responses";
+    private static final boolean CHUNKED_RESPONSES = Boolean.parseBoolean(WildFlySecurityManager.getPropertyPrivileged(CHUNKED_RESPONSES_PROPERTY, "false"));
+
     public static void writeResponse(final HttpServerExchange exchange, final int status, ModelNode response,
             OperationParameter operationParameter) {
+        writeResponse(exchange, status, response, operationParameter, CHUNKED_RESPONSES && !exchange.isInIoThread());
+    }
+
+    static void writeResponse(final HttpServerExchange exchange, final int status, ModelNode response,
+            OperationParameter operationParameter, boolean chunked) {
 
         exchange.setStatusCode(status);
 
@@ -67,9 +87,20 @@ public class DomainUtil {
             response = response.get(RESULT);
         }
         try {
-            byte[] data = getResponseBytes(response, operationParameter);
-            responseHeaders.put(Headers.CONTENT_LENGTH, data.length);
-            exchange.getResponseSender().send(ByteBuffer.wrap(data));
+            if (chunked) {
+                // The serialized response is written in chunks as the output stream's buffer fills
+                if (!exchange.isBlocking()) {
+                    exchange.startBlocking();
+                }
+                try (OutputStream out = exchange.getOutputStream()) {
+                    writeResponseBody(response, operationParameter, out);
+                }
+            } else {
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                writeResponseBody(response, operationParameter, out);
+                responseHeaders.put(Headers.CONTENT_LENGTH, out.size());
+                exchange.getResponseSender().send(ByteBuffer.wrap(out.toByteArray()));
+            }
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
@@ -152,16 +183,16 @@ public class DomainUtil {
         return "application/octet-stream";
     }
 
-    private static byte[] getResponseBytes(final ModelNode modelNode, final OperationParameter operationParameter) throws IOException {
+    private static void writeResponseBody(final ModelNode modelNode, final OperationParameter operationParameter, final OutputStream out) throws IOException {
         if (operationParameter.isEncode()) {
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            BufferedOutputStream out = new BufferedOutputStream(baos);
-            modelNode.writeBase64(out);
-            out.flush();
-            return baos.toByteArray();
+            BufferedOutputStream buffered = new BufferedOutputStream(out);
+            modelNode.writeBase64(buffered);
+            buffered.flush();
         } else {
-            String json = modelNode.toJSONString(!operationParameter.isPretty());
-            return json.getBytes(StandardCharsets.UTF_8);
+            // Serialize straight to the stream rather than building the whole JSON string first
+            PrintWriter writer = new PrintWriter(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)));
+            modelNode.writeJSONString(writer, !operationParameter.isPretty());
+            writer.flush();
         }
     }
 
@@ -18,12 +18,14 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import javax.net.ssl.SSLContext;
 
+import org.jboss.as.controller.ManagementOperationLanes;
 import org.jboss.as.controller.ModelController;
 import org.jboss.as.controller.management.HttpInterfaceCommonPolicy.Header;
 import org.jboss.as.domain.http.server.cors.CorsHttpHandler;
@@ -112,12 +114,14 @@ public class ManagementHttpServer {
     private final HttpAuthenticationFactory httpAuthenticationFactory;
     private final ExtensionHandlers extensionHandlers;
     private final Executor managementExecutor;
+    private final ExecutorService probeExecutor;
     private final Integer backlog;
     private final Integer connectionHighWater;
     private final Integer connectionLowWater;
 
     private ManagementHttpServer(HttpOpenListener openListener, Builder builder, SSLContext sslContext,
-                                 SslClientAuthMode sslClientAuthMode, ExtensionHandlers extensionExtensionHandlers) {
+                                 SslClientAuthMode sslClientAuthMode, ExtensionHandlers extensionExtensionHandlers,
+                                 ExecutorService probeExecutor) {
         this.openListener = openListener;
         this.httpAddress = builder.bindAddress;
         this.secureAddress = builder.secureBindAddress;
@@ -127,6 +131,7 @@ public class ManagementHttpServer {
         this.httpAuthenticationFactory = builder.httpAuthenticationFactory;
         this.extensionHandlers = extensionExtensionHandlers;
         this.managementExecutor = builder.executor;
+        this.probeExecutor = probeExecutor;
         this.backlog = builder.backlog;
         this.connectionHighWater = builder.connectionHighWater;
         this.connectionLowWater = builder.connectionLowWater;
@@ -170,6 +175,9 @@ public class ManagementHttpServer {
     public void stop() {
         IoUtils.safeClose(normalServer);
         IoUtils.safeClose(secureServer);
+        if (probeExecutor != null) {
+            probeExecutor.shutdown();
+        }
     }
 
     public synchronized void addStaticContext(String contextName, ResourceManager resourceManager) {
@@ -272,8 +280,10 @@ public class ManagementHttpServer {
             secureRedirectPort = -1;
         }
 
-        final ExtensionHandlers extensionHandlers = setupOpenListener(openListener, secureRedirectPort, builder);
-        return new ManagementHttpServer(openListener, builder, sslContext, sslClientAuthMode, extensionHandlers);
+        final ManagementOperationLanes operationLanes = builder.operationLanes;
+        final ExecutorService probeExecutor = operationLanes == null ? null : OperationLaneHandler.createProbeExecutor(operationLanes);
+        final ExtensionHandlers extensionHandlers = setupOpenListener(openListener, secureRedirectPort, builder, operationLanes, probeExecutor);
+        return new ManagementHttpServer(openListener, builder, sslContext, sslClientAuthMode, extensionHandlers, probeExecutor);
     }
 
     private static Function<HttpServerExchange, Boolean> createReadyFunction(Builder builder) {
@@ -326,7 +336,8 @@ public class ManagementHttpServer {
         }
     }
 
-    private static ExtensionHandlers setupOpenListener(HttpOpenListener listener, int secureRedirectPort, Builder builder) {
+    private static ExtensionHandlers setupOpenListener(HttpOpenListener listener, int secureRedirectPort, Builder builder,
+                                                       ManagementOperationLanes operationLanes, Executor probeExecutor) {
         CanonicalPathHandler canonicalPathHandler = new CanonicalPathHandler();
 
         ManagementHttpRequestHandler managementHttpRequestHandler = new ManagementHttpRequestHandler(builder.managementHttpRequestProcessor, canonicalPathHandler);
@@ -381,8 +392,8 @@ public class ManagementHttpServer {
 
         ManagementRootConsoleRedirectHandler rootConsoleRedirectHandler = new ManagementRootConsoleRedirectHandler(consoleHandler);
         HttpHandler domainApiHandler = StreamReadLimitHandler.wrap(CorrelationHandler.wrap(
-                InExecutorHandler.wrap(
-                    builder.executor,
+                OperationLaneHandler.wrap(operationLanes,
+                    builder.executor, probeExecutor,
                     associateIdentity(new DomainApiCheckHandler(builder.modelController,
                         builder.allowedOrigins, builder.consoleAvailability))
                 )));
@@ -470,6 +481,7 @@ public class ManagementHttpServer {
         private InetSocketAddress bindAddress;
         private InetSocketAddress secureBindAddress;
         private ModelController modelController;
+        private ManagementOperationLanes operationLanes;
         private SSLContext sslContext;
         private SslClientAuthMode sslClientAuthMode;
         private HttpAuthenticationFactory httpAuthenticationFactory;
@@ -511,6 +523,17 @@ public class ManagementHttpServer {
             return this;
         }
 
+        /**
+         * Set the priority lanes of the model controller, through which the operations are admitted before they are handed
+         * to the executor, or {@code null} if the operations are not admitted through lanes.
+         */
+        public Builder setOperationLanes(ManagementOperationLanes operationLanes) {
+            assertNotBuilt();
+            this.operationLanes = operationLanes;
+
+            return this;
+        }
+
         public Builder setSSLContext(SSLContext sslContext) {
             assertNotBuilt();
             this.sslContext = sslContext;
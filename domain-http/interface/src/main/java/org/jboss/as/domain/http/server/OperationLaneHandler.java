@@ -0,0 +1,138 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.jboss.as.domain.http.server;
+
+import static java.security.AccessController.doPrivileged;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+
+import java.security.PrivilegedAction;
+import java.util.Deque;
+import java.util.Locale;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import io.undertow.server.Connectors;
+import io.undertow.server.HttpHandler;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.util.Methods;
+import io.undertow.util.SameThreadExecutor;
+import org.jboss.as.controller.ManagementOperationLanes;
+import org.jboss.as.controller.ManagementOperationLanes.Lane;
+import org.jboss.dmr.ModelNode;
+import org.jboss.threads.JBossThreadFactory;
+
+/**
+ * Handler dispatching the GET requests of the HTTP management interface through the priority lanes of management
+ * operations, in place of an {@link InExecutorHandler}, when {@link ManagementOperationLanes#ENABLED_PROPERTY} is set.
+ * <p>
+ * A GET request, which is how health checks usually poll the state of the process, is dispatched through the
+ * {@link Lane#PROBE} lane or the {@link Lane#READ} lane, and is rejected with a {@code 503} response and a
+ * {@code Retry-After} header if the lane is saturated. The requests of the probe lane are executed by threads of their
+ * own, so they do not wait behind the other requests for a thread of the management executor. Other requests are
+ * dispatched to the management executor right away, as their operation is only known once their body has been read,
+ * and are admitted through the lanes by the controller. The lanes are those of the controller, which does not admit
+ * the operations of the requests admitted here again.
+ */
+final class OperationLaneHandler implements HttpHandler {
+
+    private final ManagementOperationLanes lanes;
+    private final Executor executor;
+    private final Executor probeExecutor;
+    private final HttpHandler next;
+
+    private OperationLaneHandler(ManagementOperationLanes lanes, Executor executor, Executor probeExecutor, HttpHandler next) {
+        this.lanes = lanes;
+        this.executor = executor;
+        this.probeExecutor = probeExecutor;
+        this.next = next;
+    }
+
+    @Override
+    public void handleRequest(HttpServerExchange exchange) {
+        final Lane lane = getLane(exchange);
+        if (lane == null) {
+            exchange.dispatch(executor, next);
+            return;
+        }
+        exchange.dispatch(SameThreadExecutor.INSTANCE, () -> {
+            if (!lanes.execute(lane, () -> Connectors.executeRootHandler(next, exchange),
+                    lane == Lane.PROBE ? probeExecutor : executor, () -> {
+                        exchange.setStatusCode(503);
+                        exchange.endExchange();
+                    })) {
+                Common.sendError(exchange, false, lanes.createRejectedResponse(lane));
+            }
+        });
+    }
+
+    /**
+     * Gets the lane of a GET request, from the operation, the address and the name of the attribute it asks for.
+     *
+     * @return the lane, or {@code null} if the request is not a GET request
+     */
+    private static Lane getLane(HttpServerExchange exchange) {
+        if (!Methods.GET.equals(exchange.getRequestMethod())) {
+            return null;
+        }
+        final ModelNode operation = new ModelNode();
+        final Deque<String> op = exchange.getQueryParameters().get(OP);
+        final Deque<String> name = exchange.getQueryParameters().get(NAME);
+        try {
+            operation.get(OP).set(op == null ? DomainApiHandler.GetOperation.RESOURCE.realOperation()
+                    : DomainApiHandler.GetOperation.valueOf(op.getFirst().toUpperCase(Locale.ENGLISH).replace('-', '_')).realOperation());
+        } catch (IllegalArgumentException e) {
+            // Left for DomainApiHandler to reject
+            return Lane.READ;
+        }
+        if (name != null) {
+            operation.get(NAME).set(name.getFirst());
+        }
+        final ModelNode address = operation.get(OP_ADDR).setEmptyList();
+        final String[] segments = exchange.getRelativePath().split("/");
+        int i = segments.length > 0 && segments[0].isEmpty() ? 1 : 0;
+        for (; i + 1 < segments.length; i += 2) {
+            address.add(segments[i], segments[i + 1]);
+        }
+        // Only read-only operations can be executed with a GET request
+        return Lane.of(operation) == Lane.PROBE ? Lane.PROBE : Lane.READ;
+    }
+
+    /**
+     * Creates the executor of the requests of the {@link Lane#PROBE} lane, which must be shut down with the server.
+     * It never uses more threads than the lane executes requests at once.
+     *
+     * @param lanes the lanes of the controller
+     * @return the executor
+     */
+    static ExecutorService createProbeExecutor(ManagementOperationLanes lanes) {
+        final ThreadFactory threadFactory = doPrivileged(new PrivilegedAction<JBossThreadFactory>() {
+            public JBossThreadFactory run() {
+                return new JBossThreadFactory(ThreadGroupHolder.THREAD_GROUP, Boolean.FALSE, null, "%G - %t", null, null);
+            }
+        });
+        final int size = lanes.getMaxActive(Lane.PROBE);
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(size, size, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), threadFactory);
+        // Allow the core threads to time out as well
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    static HttpHandler wrap(ManagementOperationLanes lanes, Executor executor, Executor probeExecutor, HttpHandler next) {
+        return lanes == null ? InExecutorHandler.wrap(executor, next) : new OperationLaneHandler(lanes, executor, probeExecutor, next);
+    }
+
+    // Wrapper class to delay thread group creation until when it's needed.
+    private static class ThreadGroupHolder {
+        private static final ThreadGroup THREAD_GROUP = new ThreadGroup("management-probe-thread");
+    }
+}
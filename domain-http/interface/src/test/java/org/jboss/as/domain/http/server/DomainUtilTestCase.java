@@ -0,0 +1,133 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.jboss.as.domain.http.server;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUTCOME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESULT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUCCESS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+
+import io.undertow.Undertow;
+import io.undertow.server.HttpHandler;
+import io.undertow.server.HttpServerExchange;
+import org.jboss.dmr.ModelNode;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of the operation responses written by {@link DomainUtil}, both buffered and serialized in chunks.
+ */
+public class DomainUtilTestCase {
+
+    private static final ModelNode RESPONSE = createResponse();
+
+    private Undertow server;
+    private int port;
+    private volatile boolean chunked;
+    private volatile boolean encode;
+
+    @Before
+    public void startServer() {
+        server = Undertow.builder()
+                .addHttpListener(0, "localhost")
+                .setHandler(new ResponseHandler())
+                .build();
+        server.start();
+        port = ((InetSocketAddress) server.getListenerInfo().get(0).getAddress()).getPort();
+    }
+
+    @After
+    public void stopServer() {
+        if (server != null) {
+            server.stop();
+        }
+    }
+
+    @Test
+    public void testBufferedResponse() throws IOException {
+        HttpURLConnection connection = get();
+        assertEquals(200, connection.getResponseCode());
+        assertNull(connection.getHeaderField("Transfer-Encoding"));
+        byte[] body = readBody(connection);
+        assertEquals(body.length, connection.getContentLengthLong());
+        assertEquals(RESPONSE.get(RESULT), ModelNode.fromJSONString(new String(body, StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    public void testChunkedResponse() throws IOException {
+        chunked = true;
+        HttpURLConnection connection = get();
+        assertEquals(200, connection.getResponseCode());
+        assertEquals("chunked", connection.getHeaderField("Transfer-Encoding"));
+        assertNull(connection.getHeaderField("Content-Length"));
+        assertEquals(RESPONSE.get(RESULT), ModelNode.fromJSONString(new String(readBody(connection), StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    public void testChunkedEncodedResponse() throws IOException {
+        chunked = true;
+        encode = true;
+        HttpURLConnection connection = get();
+        assertEquals(200, connection.getResponseCode());
+        assertEquals("chunked", connection.getHeaderField("Transfer-Encoding"));
+        try (InputStream in = connection.getInputStream()) {
+            assertEquals(RESPONSE.get(RESULT), ModelNode.fromBase64(in));
+        }
+    }
+
+    private HttpURLConnection get() throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL("http", "localhost", port, "/management").openConnection();
+        connection.setRequestMethod("GET");
+        return connection;
+    }
+
+    private static byte[] readBody(HttpURLConnection connection) throws IOException {
+        try (InputStream in = connection.getInputStream()) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        }
+    }
+
+    private static ModelNode createResponse() {
+        ModelNode response = new ModelNode();
+        response.get(OUTCOME).set(SUCCESS);
+        ModelNode result = response.get(RESULT);
+        // Well beyond the output buffer, so the chunked response cannot be sent with a Content-Length
+        for (int i = 0; i < 10000; i++) {
+            result.get("attribute-" + i).set("value-" + i);
+        }
+        return response;
+    }
+
+    private class ResponseHandler implements HttpHandler {
+
+        @Override
+        public void handleRequest(HttpServerExchange exchange) {
+            if (exchange.isInIoThread()) {
+                // As DomainApiHandler does, operation responses are written from a worker thread
+                exchange.dispatch(this);
+                return;
+            }
+            OperationParameter operationParameter = new OperationParameter.Builder(true).encode(encode).build();
+            DomainUtil.writeResponse(exchange, 200, RESPONSE.clone(), operationParameter, chunked);
+        }
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.jboss.as.domain.http.server;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILED;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUTCOME;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import io.undertow.Undertow;
+import io.undertow.server.HttpHandler;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.server.handlers.PathHandler;
+import org.jboss.as.controller.ManagementOperationLanes;
+import org.jboss.as.controller.ManagementOperationLanes.Lane;
+import org.jboss.dmr.ModelNode;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of the dispatching of GET requests through the priority lanes of management operations by
+ * {@link OperationLaneHandler}, and of the {@code 503} responses of the requests it rejects.
+ */
+public class OperationLaneHandlerTestCase {
+
+    private static final String PROBE_LANE_PROPERTY = ManagementOperationLanes.ENABLED_PROPERTY + "." + Lane.PROBE;
+    private static final String PROBE_QUERY = "?operation=attribute&name=server-state";
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private ManagementOperationLanes lanes;
+    private ExecutorService probeExecutor;
+    private Undertow server;
+    private int port;
+    private volatile boolean blocking;
+
+    @Before
+    public void createLanes() {
+        System.setProperty(ManagementOperationLanes.ENABLED_PROPERTY, "true");
+        System.setProperty(PROBE_LANE_PROPERTY, "1,0");
+        try {
+            lanes = ManagementOperationLanes.create();
+        } finally {
+            System.clearProperty(ManagementOperationLanes.ENABLED_PROPERTY);
+            System.clearProperty(PROBE_LANE_PROPERTY);
+        }
+        assertNotNull(lanes);
+        probeExecutor = OperationLaneHandler.createProbeExecutor(lanes);
+    }
+
+    @After
+    public void stopServer() {
+        release.countDown();
+        if (server != null) {
+            server.stop();
+        }
+        probeExecutor.shutdownNow();
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testProbeExecutedByProbeThread() throws IOException {
+        startServer(probeExecutor);
+        HttpURLConnection connection = get(PROBE_QUERY);
+        assertEquals(200, connection.getResponseCode());
+        String thread = readBody(connection);
+        assertTrue(thread, thread.startsWith("management-probe-thread"));
+
+        // Other reads are executed by the management executor
+        connection = get("?operation=resource");
+        assertEquals(200, connection.getResponseCode());
+        assertTrue(readBody(connection).startsWith("pool-"));
+    }
+
+    @Test
+    public void testProbeRejectedWhenLaneSaturated() throws Exception {
+        blocking = true;
+        startServer(probeExecutor);
+        Future<Integer> first = executor.submit(() -> get(PROBE_QUERY).getResponseCode());
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+
+        HttpURLConnection connection = get(PROBE_QUERY);
+        assertEquals(503, connection.getResponseCode());
+        assertTrue(Integer.parseInt(connection.getHeaderField("Retry-After")) >= 1);
+        assertEquals(FAILED, ModelNode.fromJSONString(readError(connection)).get(OUTCOME).asString());
+
+        release.countDown();
+        assertEquals(200, first.get(10, TimeUnit.SECONDS).intValue());
+    }
+
+    @Test
+    public void testProbeRejectedByExecutor() throws IOException {
+        startServer(task -> {
+            throw new RejectedExecutionException();
+        });
+        HttpURLConnection connection = get(PROBE_QUERY);
+        assertEquals(503, connection.getResponseCode());
+        assertNull(connection.getHeaderField("Retry-After"));
+
+        // The turn of the rejected request was released, so the lane is not saturated
+        connection = get(PROBE_QUERY);
+        assertEquals(503, connection.getResponseCode());
+        assertNull(connection.getHeaderField("Retry-After"));
+    }
+
+    private void startServer(Executor probeExecutor) {
+        PathHandler pathHandler = new PathHandler();
+        pathHandler.addPrefixPath("/management", OperationLaneHandler.wrap(lanes, executor, probeExecutor, new ThreadNameHandler()));
+        server = Undertow.builder()
+                .addHttpListener(0, "localhost")
+                .setHandler(pathHandler)
+                .build();
+        server.start();
+        port = ((InetSocketAddress) server.getListenerInfo().get(0).getAddress()).getPort();
+    }
+
+    private HttpURLConnection get(String query) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL("http", "localhost", port, "/management" + query).openConnection();
+        connection.setRequestMethod("GET");
+        return connection;
+    }
+
+    private static String readBody(HttpURLConnection connection) throws IOException {
+        try (InputStream in = connection.getInputStream()) {
+            return read(in);
+        }
+    }
+
+    private static String readError(HttpURLConnection connection) throws IOException {
+        try (InputStream in = connection.getErrorStream()) {
+            return read(in);
+        }
+    }
+
+    private static String read(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Responds with the name of the thread handling the request, once released if blocking.
+     */
+    private class ThreadNameHandler implements HttpHandler {
+
+        @Override
+        public void handleRequest(HttpServerExchange exchange) throws InterruptedException {
+            if (blocking) {
+                started.countDown();
+                release.await();
+            }
+            exchange.getResponseSender().send(Thread.currentThread().getName());
+        }
+    }
+}
@@ -12,13 +12,28 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RUN
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RUNTIME_MODIFICATION_COMPLETE;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SERVICE;
 
+import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.ExpressionResolverImpl;
+import org.jboss.as.controller.ManagementOperationLanes;
 import org.jboss.as.controller.NotificationDefinition;
+import org.jboss.as.controller.ObjectMapAttributeDefinition;
+import org.jboss.as.controller.ObjectTypeAttributeDefinition;
+import org.jboss.as.controller.OperationProfileStatistics;
 import org.jboss.as.controller.PathElement;
 import org.jboss.as.controller.ResourceDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.SimpleMapAttributeDefinition;
 import org.jboss.as.controller.SimpleResourceDefinition;
+import org.jboss.as.controller.audit.ManagedAuditLoggerImpl;
+import org.jboss.as.controller.audit.SyslogAuditLogHandler;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
 import org.jboss.as.controller.descriptions.ResourceDescriptionResolver;
+import org.jboss.as.controller.notification.NotificationMetricHandlers;
+import org.jboss.as.controller.persistence.WriteBehindPersistence;
+import org.jboss.as.controller.registry.DescriptionCache;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.domain.management._private.DomainManagementResolver;
+import org.jboss.dmr.ModelType;
 
 /**
  * {@code ResourceDefinition} for the management of operation execution.
@@ -35,6 +50,103 @@ public class ManagementControllerResourceDefinition extends SimpleResourceDefini
     private static final NotificationDefinition NOTIFICATION_COMPLETE_RUNTIME_MODIFICATION = NotificationDefinition.Builder.create(RUNTIME_MODIFICATION_COMPLETE, RESOLVER).build();
     private static final NotificationDefinition NOTIFICATION_BOOT_COMPLETE = NotificationDefinition.Builder.create(BOOT_COMPLETE_NOTIFICATION, RESOLVER).build();
 
+    private static final AttributeDefinition DESCRIPTION_CACHE_HITS =
+            SimpleAttributeDefinitionBuilder.create("description-cache-hits", ModelType.LONG)
+                    .setStorageRuntime()
+                    .build();
+    private static final AttributeDefinition DESCRIPTION_CACHE_MISSES =
+            SimpleAttributeDefinitionBuilder.create("description-cache-misses", ModelType.LONG)
+                    .setStorageRuntime()
+                    .build();
+
+    private static final AttributeDefinition PERSISTENCE_PENDING_WRITES =
+            SimpleAttributeDefinitionBuilder.create("persistence-pending-writes", ModelType.INT)
+                    .setStorageRuntime()
+                    .build();
+    private static final AttributeDefinition PERSISTENCE_LAG =
+            SimpleAttributeDefinitionBuilder.create("persistence-lag", ModelType.LONG)
+                    .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+                    .setStorageRuntime()
+                    .build();
+    private static final AttributeDefinition PERSISTENCE_COALESCED_WRITES =
+            SimpleAttributeDefinitionBuilder.create("persistence-coalesced-writes", ModelType.LONG)
+                    .setStorageRuntime()
+                    .build();
+
+    private static final AttributeDefinition EXPRESSION_RESOLUTIONS =
+            SimpleAttributeDefinitionBuilder.create("expression-resolutions", ModelType.LONG)
+                    .setStorageRuntime()
+                    .build();
+    private static final AttributeDefinition EXPRESSION_CACHE_HITS =
+            SimpleAttributeDefinitionBuilder.create("expression-cache-hits", ModelType.LONG)
+                    .setStorageRuntime()
+                    .build();
+    private static final AttributeDefinition EXPRESSION_RESOLUTION_TIME =
+            SimpleAttributeDefinitionBuilder.create("expression-resolution-time", ModelType.LONG)
+                    .setMeasurementUnit(MeasurementUnit.NANOSECONDS)
+                    .setStorageRuntime()
+                    .build();
+
+    private static final AttributeDefinition OPERATION_PROFILES =
+            ObjectMapAttributeDefinition.create("operation-profiles", ObjectTypeAttributeDefinition.create("operation-profile",
+                            SimpleAttributeDefinitionBuilder.create("count", ModelType.LONG).build(),
+                            SimpleAttributeDefinitionBuilder.create("execution-time", ModelType.LONG)
+                                    .setMeasurementUnit(MeasurementUnit.MILLISECONDS).build(),
+                            SimpleAttributeDefinitionBuilder.create("max-time", ModelType.LONG)
+                                    .setMeasurementUnit(MeasurementUnit.MILLISECONDS).build(),
+                            SimpleAttributeDefinitionBuilder.create("lock-wait-time", ModelType.LONG)
+                                    .setMeasurementUnit(MeasurementUnit.MILLISECONDS).build(),
+                            SimpleAttributeDefinitionBuilder.create("container-wait-time", ModelType.LONG)
+                                    .setMeasurementUnit(MeasurementUnit.MILLISECONDS).build(),
+                            new SimpleMapAttributeDefinition.Builder("histogram", ModelType.LONG, false).build()).build())
+                    .setStorageRuntime()
+                    .build();
+
+    private static final AttributeDefinition QUEUED_NOTIFICATIONS =
+            SimpleAttributeDefinitionBuilder.create("queued-notifications", ModelType.INT)
+                    .setStorageRuntime()
+                    .build();
+    private static final AttributeDefinition DISCARDED_NOTIFICATIONS =
+            SimpleAttributeDefinitionBuilder.create("discarded-notifications", ModelType.LONG)
+                    .setStorageRuntime()
+                    .build();
+
+    private static final AttributeDefinition QUEUED_AUDIT_LOG_RECORDS =
+            SimpleAttributeDefinitionBuilder.create("queued-audit-log-records", ModelType.INT)
+                    .setStorageRuntime()
+                    .build();
+    private static final AttributeDefinition DISCARDED_AUDIT_LOG_RECORDS =
+            SimpleAttributeDefinitionBuilder.create("discarded-audit-log-records", ModelType.LONG)
+                    .setStorageRuntime()
+                    .build();
+    private static final AttributeDefinition WRITTEN_AUDIT_LOG_RECORDS =
+            SimpleAttributeDefinitionBuilder.create("written-audit-log-records", ModelType.LONG)
+                    .setStorageRuntime()
+                    .build();
+    private static final AttributeDefinition AUDIT_LOG_WRITE_TIME =
+            SimpleAttributeDefinitionBuilder.create("audit-log-write-time", ModelType.LONG)
+                    .setMeasurementUnit(MeasurementUnit.NANOSECONDS)
+                    .setStorageRuntime()
+                    .build();
+
+    private static final AttributeDefinition SYSLOG_AUDIT_LOG_SENDS =
+            SimpleAttributeDefinitionBuilder.create("syslog-audit-log-sends", ModelType.LONG)
+                    .setStorageRuntime()
+                    .build();
+    private static final AttributeDefinition SYSLOG_AUDIT_LOG_SEND_TIME =
+            SimpleAttributeDefinitionBuilder.create("syslog-audit-log-send-time", ModelType.LONG)
+                    .setMeasurementUnit(MeasurementUnit.NANOSECONDS)
+                    .setStorageRuntime()
+                    .build();
+    private static final AttributeDefinition SYSLOG_AUDIT_LOG_BACKLOG =
+            SimpleAttributeDefinitionBuilder.create("syslog-audit-log-backlog", ModelType.INT)
+                    .setStorageRuntime()
+                    .build();
+    private static final AttributeDefinition REJECTED_OPERATIONS =
+            SimpleAttributeDefinitionBuilder.create("rejected-operations", ModelType.LONG)
+                    .setStorageRuntime()
+                    .build();
+
     public static final ResourceDefinition INSTANCE = new ManagementControllerResourceDefinition();
 
     private ManagementControllerResourceDefinition() {
@@ -50,6 +162,30 @@ public class ManagementControllerResourceDefinition extends SimpleResourceDefini
         resourceRegistration.registerOperationHandler(CancelNonProgressingOperationHandler.DEFINITION, CancelNonProgressingOperationHandler.INSTANCE);
     }
 
+    @Override
+    public void registerAttributes(ManagementResourceRegistration resourceRegistration) {
+        super.registerAttributes(resourceRegistration);
+        resourceRegistration.registerMetric(DESCRIPTION_CACHE_HITS, (context, operation) -> context.getResult().set(DescriptionCache.getHitCount()));
+        resourceRegistration.registerMetric(DESCRIPTION_CACHE_MISSES, (context, operation) -> context.getResult().set(DescriptionCache.getMissCount()));
+        resourceRegistration.registerMetric(PERSISTENCE_PENDING_WRITES, (context, operation) -> context.getResult().set(WriteBehindPersistence.INSTANCE.getPendingWriteCount()));
+        resourceRegistration.registerMetric(PERSISTENCE_LAG, (context, operation) -> context.getResult().set(WriteBehindPersistence.INSTANCE.getLag()));
+        resourceRegistration.registerMetric(PERSISTENCE_COALESCED_WRITES, (context, operation) -> context.getResult().set(WriteBehindPersistence.INSTANCE.getCoalescedWriteCount()));
+        resourceRegistration.registerMetric(EXPRESSION_RESOLUTIONS, (context, operation) -> context.getResult().set(ExpressionResolverImpl.getResolutionCount()));
+        resourceRegistration.registerMetric(EXPRESSION_CACHE_HITS, (context, operation) -> context.getResult().set(ExpressionResolverImpl.getCacheHitCount()));
+        resourceRegistration.registerMetric(EXPRESSION_RESOLUTION_TIME, (context, operation) -> context.getResult().set(ExpressionResolverImpl.getResolutionTime()));
+        resourceRegistration.registerMetric(OPERATION_PROFILES, (context, operation) -> context.getResult().set(OperationProfileStatistics.getStatistics()));
+        resourceRegistration.registerMetric(QUEUED_NOTIFICATIONS, NotificationMetricHandlers.QUEUED_NOTIFICATIONS);
+        resourceRegistration.registerMetric(DISCARDED_NOTIFICATIONS, NotificationMetricHandlers.DISCARDED_NOTIFICATIONS);
+        resourceRegistration.registerMetric(QUEUED_AUDIT_LOG_RECORDS, (context, operation) -> context.getResult().set(ManagedAuditLoggerImpl.getQueuedRecordCount()));
+        resourceRegistration.registerMetric(DISCARDED_AUDIT_LOG_RECORDS, (context, operation) -> context.getResult().set(ManagedAuditLoggerImpl.getDiscardedRecordCount()));
+        resourceRegistration.registerMetric(WRITTEN_AUDIT_LOG_RECORDS, (context, operation) -> context.getResult().set(ManagedAuditLoggerImpl.getWrittenRecordCount()));
+        resourceRegistration.registerMetric(AUDIT_LOG_WRITE_TIME, (context, operation) -> context.getResult().set(ManagedAuditLoggerImpl.getRecordWriteTime()));
+        resourceRegistration.registerMetric(SYSLOG_AUDIT_LOG_SENDS, (context, operation) -> context.getResult().set(SyslogAuditLogHandler.getPipelinedSendCount()));
+        resourceRegistration.registerMetric(SYSLOG_AUDIT_LOG_SEND_TIME, (context, operation) -> context.getResult().set(SyslogAuditLogHandler.getPipelinedSendTime()));
+        resourceRegistration.registerMetric(SYSLOG_AUDIT_LOG_BACKLOG, (context, operation) -> context.getResult().set(SyslogAuditLogHandler.getPipelinedBacklog()));
+        resourceRegistration.registerMetric(REJECTED_OPERATIONS, (context, operation) -> context.getResult().set(ManagementOperationLanes.getRejectedOperationCount()));
+    }
+
     @Override
     public void registerNotifications(ManagementResourceRegistration resourceRegistration) {
         super.registerNotifications(resourceRegistration);
@@ -178,6 +178,7 @@ public class ConfigurationPersisterFactory {
         @Override
         public void successfulBoot() throws ConfigurationPersistenceException {
             if (successfulBoot.compareAndSet(false, true)) {
+                bootWriter.flush();
                 try {
                     Files.move(bootFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
                 } catch (IOException e) {
@@ -187,6 +188,12 @@ public class ConfigurationPersisterFactory {
             }
         }
 
+        @Override
+        public void flush() {
+            bootWriter.flush();
+            super.flush();
+        }
+
         public PersistenceResource store(final ModelNode model, Set<PathAddress> affectedAddresses) throws ConfigurationPersistenceException {
             if (!successfulBoot.get()) {
                 return bootWriter.store(model, affectedAddresses);
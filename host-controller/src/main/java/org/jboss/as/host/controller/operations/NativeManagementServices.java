@@ -5,10 +5,8 @@
 
 package org.jboss.as.host.controller.operations;
 
-import org.jboss.as.controller.ModelController;
-import org.jboss.as.controller.remote.AbstractModelControllerOperationHandlerFactoryService;
+import org.jboss.as.controller.ManagementOperationLanes;
 import org.jboss.as.controller.remote.ModelControllerClientOperationHandlerFactoryService;
-import org.jboss.as.controller.remote.ModelControllerOperationHandlerFactory;
 import org.jboss.as.host.controller.DomainModelControllerService;
 import org.jboss.as.host.controller.HostControllerService;
 import org.jboss.as.host.controller.mgmt.ServerToHostOperationHandlerFactoryService;
@@ -22,11 +20,6 @@ import org.jboss.remoting3.RemotingOptions;
 import org.xnio.OptionMap;
 import org.xnio.Options;
 
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.function.Consumer;
-import java.util.function.Supplier;
-
 /**
  * Utility class that installs remoting services needed by both the native and HTTP upgrade
  * based connector.
@@ -68,17 +61,10 @@ public class NativeManagementServices {
                     ServerToHostOperationHandlerFactoryService.SERVICE_NAME, SERVICE_OPTIONS, onDemand);
 
             ManagementRemotingServices.installManagementChannelServices(serviceTarget, ManagementRemotingServices.MANAGEMENT_ENDPOINT,
-                    new ModelControllerOperationHandlerFactory() {
-                        @Override
-                        public AbstractModelControllerOperationHandlerFactoryService newInstance(
-                                final Consumer<AbstractModelControllerOperationHandlerFactoryService> serviceConsumer,
-                                final Supplier<ModelController> modelControllerSupplier,
-                                final Supplier<ExecutorService> executorSupplier,
-                                final Supplier<ScheduledExecutorService> scheduledExecutorSupplier) {
-                            return new ModelControllerClientOperationHandlerFactoryService(serviceConsumer, modelControllerSupplier, executorSupplier, scheduledExecutorSupplier);
-                        }
-                    },
-                    DomainModelControllerService.SERVICE_NAME, ManagementRemotingServices.MANAGEMENT_CHANNEL,
+                    ModelControllerClientOperationHandlerFactoryService.FACTORY,
+                    DomainModelControllerService.SERVICE_NAME,
+                    ManagementOperationLanes.getServiceName(serviceContainer, DomainModelControllerService.SERVICE_NAME),
+                    ManagementRemotingServices.MANAGEMENT_CHANNEL,
                     DomainModelControllerService.EXECUTOR_CAPABILITY.getCapabilityServiceName(), HostControllerService.HC_SCHEDULED_EXECUTOR_SERVICE_NAME);
         }
     }
@@ -67,6 +67,7 @@ import org.jboss.as.controller.operations.common.Util;
 import org.jboss.as.controller.parsing.Attribute;
 import org.jboss.as.controller.parsing.Element;
 import org.jboss.as.controller.parsing.ExtensionXml;
+import org.jboss.as.controller.parsing.ParallelSubsystemParser;
 import org.jboss.as.controller.parsing.ParseUtils;
 import org.jboss.as.controller.parsing.ProfileParsingCompletionHandler;
 import org.jboss.as.controller.parsing.WriteUtils;
@@ -589,6 +590,7 @@ final class DomainXml_16 extends CommonXml implements ManagementXmlDelegate {
 
 
             final Map<String, List<ModelNode>> profileOps = new LinkedHashMap<String, List<ModelNode>>();
+            final ParallelSubsystemParser subsystemParser = ParallelSubsystemParser.create(reader, extensionXml.getBootExecutor());
             while (reader.nextTag() != END_ELEMENT) {
                 String readerNamespace = reader.getNamespaceURI();
                 if (readerNamespace != null && !XML_SCHEMA_NAMESPACE.equals(readerNamespace) && !namespace.equals(readerNamespace)) {
@@ -601,13 +603,14 @@ final class DomainXml_16 extends CommonXml implements ManagementXmlDelegate {
                     }
                     // parse content
                     final List<ModelNode> subsystems = new ArrayList<ModelNode>();
-                    reader.handleAny(subsystems);
+                    subsystemParser.parse(reader, subsystems);
 
                     profileOps.put(namespace, subsystems);
                 } else {
                     throw unexpectedElement(reader);
                 }
             }
+            subsystemParser.complete(false);
 
             // Let extensions modify the profile
             Set<ProfileParsingCompletionHandler> completionHandlers = extensionRegistry.getProfileParsingCompletionHandlers();
@@ -682,7 +685,7 @@ final class DomainXml_16 extends CommonXml implements ManagementXmlDelegate {
         writer.writeAttribute(Attribute.NAME.getLocalName(), profileName);
         ProfileResourceDefinition.INCLUDES.getMarshaller().marshallAsAttribute(ProfileResourceDefinition.INCLUDES, profileNode, false, writer);
 
-        writeSubsystems(profileNode, writer, context);
+        writeSubsystems(PathAddress.pathAddress(PROFILE, profileName), profileNode, writer, context);
 
         writer.writeEndElement();
     }
@@ -16,6 +16,7 @@ import java.util.concurrent.ScheduledExecutorService;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 
+import org.jboss.as.controller.ManagementOperationLanes;
 import org.jboss.as.controller.ModelController;
 import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.OperationFailedException;
@@ -135,14 +136,38 @@ public final class ManagementRemotingServices extends RemotingServices {
             final String channelName,
             final ServiceName executorServiceName,
             final ServiceName scheduledExecutorServiceName) {
+        installManagementChannelServices(serviceTarget, endpointName, operationHandlerServiceFactory, modelControllerName, null,
+                channelName, executorServiceName, scheduledExecutorServiceName);
+    }
+
+    /**
+     * Set up the services to create a channel listener and operation handler service, whose operations may be admitted
+     * through the priority lanes of the model controller.
+     * @param serviceTarget the service target to install the services into
+     * @param endpointName the endpoint name to install the services into
+     * @param operationLanesName service name of the lanes of the model controller, or {@code null} if the operations are not admitted through lanes
+     * @param channelName the name of the channel
+     * @param executorServiceName service name of the executor service to use in the operation handler service
+     * @param scheduledExecutorServiceName  service name of the scheduled executor service to use in the operation handler service
+     */
+    public static void installManagementChannelServices(
+            final ServiceTarget serviceTarget,
+            final ServiceName endpointName,
+            final ModelControllerOperationHandlerFactory operationHandlerServiceFactory,
+            final ServiceName modelControllerName,
+            final ServiceName operationLanesName,
+            final String channelName,
+            final ServiceName executorServiceName,
+            final ServiceName scheduledExecutorServiceName) {
         final OptionMap options = OptionMap.EMPTY;
         final ServiceName operationHandlerName = endpointName.append(channelName).append(ModelControllerClientOperationHandlerFactoryService.OPERATION_HANDLER_NAME_SUFFIX);
         final ServiceBuilder<?> builder = serviceTarget.addService(operationHandlerName);
         final Consumer<AbstractModelControllerOperationHandlerFactoryService> serviceConsumer = builder.provides(operationHandlerName);
         final Supplier<ModelController> mcSupplier = builder.requires(modelControllerName);
+        final Supplier<ManagementOperationLanes> olSupplier = operationLanesName != null ? builder.requires(operationLanesName) : null;
         final Supplier<ExecutorService> eSupplier = builder.requires(executorServiceName);
         final Supplier<ScheduledExecutorService> seSupplier = builder.requires(scheduledExecutorServiceName);
-        builder.setInstance(operationHandlerServiceFactory.newInstance(serviceConsumer, mcSupplier, eSupplier, seSupplier));
+        builder.setInstance(operationHandlerServiceFactory.newInstance(serviceConsumer, mcSupplier, olSupplier, eSupplier, seSupplier));
         builder.install();
 
         installManagementChannelOpenListenerService(serviceTarget, endpointName, channelName, operationHandlerName, options, false);
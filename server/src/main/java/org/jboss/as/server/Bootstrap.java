@@ -5,6 +5,7 @@
 
 package org.jboss.as.server;
 
+import java.io.File;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
 
@@ -18,6 +19,7 @@ import org.jboss.as.controller.audit.ManagedAuditLogger;
 import org.jboss.as.controller.extension.ExtensionRegistry;
 import org.jboss.as.controller.parsing.ManagementXmlSchema;
 import org.jboss.as.controller.persistence.BackupXmlConfigurationPersister;
+import org.jboss.as.controller.persistence.BootOperationCache;
 import org.jboss.as.controller.persistence.ConfigurationFile;
 import org.jboss.as.controller.persistence.ExtensibleConfigurationPersister;
 import org.jboss.as.controller.persistence.XmlConfigurationPersister;
@@ -210,9 +212,14 @@ public interface Bootstrap {
                             persister = new BackupXmlConfigurationPersister(configurationFile, rootElement, current, current,
                                     runningModeControl.isReloaded(), serverEnvironment.getLaunchType() == ServerEnvironment.LaunchType.EMBEDDED);
                         }
+                        StringBuilder parsers = new StringBuilder(rootElement.toString());
                         for (ManagementXmlSchema schema : standaloneXmlSchemas.getAdditional()) {
                             persister.registerAdditionalRootElement(schema.getQualifiedName(), schema);
+                            parsers.append(',').append(schema.getQualifiedName());
                         }
+                        parsers.append(',').append(stability).append(',').append(serverEnvironment.getProductConfig().getPrettyVersionString());
+                        persister.setBootOperationCache(BootOperationCache.create(
+                                new File(serverEnvironment.getServerDataDir(), configurationFile.getMainFile().getName() + ".boot-operations"), parsers.toString()));
                         extensionRegistry.setWriterRegistry(persister);
                         return persister;
                     }
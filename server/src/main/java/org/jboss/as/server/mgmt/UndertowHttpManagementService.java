@@ -17,6 +17,7 @@ import java.util.function.Supplier;
 
 import javax.net.ssl.SSLContext;
 
+import org.jboss.as.controller.ManagementOperationLanes;
 import org.jboss.as.controller.ModelController;
 import org.jboss.as.controller.capability.RuntimeCapability;
 import org.jboss.as.controller.management.HttpInterfaceCommonPolicy.Header;
@@ -75,6 +76,7 @@ public class UndertowHttpManagementService implements Service<HttpManagement> {
     private final Consumer<HttpManagement> httpManagementConsumer;
     private final Supplier<ListenerRegistry> listenerRegistrySupplier;
     private final Supplier<ModelController> modelControllerSupplier;
+    private final Supplier<ManagementOperationLanes> operationLanesSupplier;
     private final Supplier<SocketBinding> socketBindingSupplier;
     private final Supplier<SocketBinding> secureSocketBindingSupplier;
     private final Supplier<NetworkInterfaceBinding> interfaceBindingSupplier;
@@ -197,6 +199,7 @@ public class UndertowHttpManagementService implements Service<HttpManagement> {
     public UndertowHttpManagementService(final Consumer<HttpManagement> httpManagementConsumer,
                                          final Supplier<ListenerRegistry> listenerRegistrySupplier,
                                          final Supplier<ModelController> modelControllerSupplier,
+                                         final Supplier<ManagementOperationLanes> operationLanesSupplier,
                                          final Supplier<SocketBinding> socketBindingSupplier,
                                          final Supplier<SocketBinding> secureSocketBindingSupplier,
                                          final Supplier<SocketBindingManager> socketBindingManagerSupplier,
@@ -218,7 +221,7 @@ public class UndertowHttpManagementService implements Service<HttpManagement> {
                                          final Integer noRequestTimeout,
                                          final Integer connectionHighWater,
                                          final Integer connectionLowWater) {
-        this(httpManagementConsumer, listenerRegistrySupplier, modelControllerSupplier, socketBindingSupplier,
+        this(httpManagementConsumer, listenerRegistrySupplier, modelControllerSupplier, operationLanesSupplier, socketBindingSupplier,
                 secureSocketBindingSupplier, socketBindingManagerSupplier, interfaceBindingSupplier, secureInterfaceBindingSupplier,
                 requestProcessorSupplier, workerSupplier, executorSupplier, httpAuthFactorySupplier, sslContextSupplier, port, securePort,
                 allowedOrigins, consoleMode, consoleSlot, constantHeaders, consoleAvailabilitySupplier, null, null,
@@ -228,6 +231,7 @@ public class UndertowHttpManagementService implements Service<HttpManagement> {
     public UndertowHttpManagementService(final Consumer<HttpManagement> httpManagementConsumer,
                                          final Supplier<ListenerRegistry> listenerRegistrySupplier,
                                          final Supplier<ModelController> modelControllerSupplier,
+                                         final Supplier<ManagementOperationLanes> operationLanesSupplier,
                                          final Supplier<SocketBinding> socketBindingSupplier,
                                          final Supplier<SocketBinding> secureSocketBindingSupplier,
                                          final Supplier<SocketBindingManager> socketBindingManagerSupplier,
@@ -254,6 +258,7 @@ public class UndertowHttpManagementService implements Service<HttpManagement> {
         this.httpManagementConsumer = httpManagementConsumer;
         this.listenerRegistrySupplier = listenerRegistrySupplier;
         this.modelControllerSupplier = modelControllerSupplier;
+        this.operationLanesSupplier = operationLanesSupplier;
         this.socketBindingSupplier = socketBindingSupplier;
         this.secureSocketBindingSupplier = secureSocketBindingSupplier;
         this.socketBindingManagerSupplier = socketBindingManagerSupplier;
@@ -365,6 +370,7 @@ public class UndertowHttpManagementService implements Service<HttpManagement> {
                     .setBindAddress(bindAddress)
                     .setSecureBindAddress(secureBindAddress)
                     .setModelController(modelController)
+                    .setOperationLanes(operationLanesSupplier != null ? operationLanesSupplier.get() : null)
                     .setSSLContext(sslContext)
                     .setConsoleMode(consoleMode)
                     .setConsoleSlot(consoleSlot.get())
@@ -21,6 +21,7 @@ import javax.net.ssl.SSLContext;
 
 import org.jboss.as.controller.CapabilityServiceBuilder;
 import org.jboss.as.controller.CapabilityServiceTarget;
+import org.jboss.as.controller.ManagementOperationLanes;
 import org.jboss.as.controller.ModelController;
 import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.OperationFailedException;
@@ -129,6 +130,8 @@ public class HttpManagementAddHandler extends BaseHttpInterfaceAddStepHandler {
         final Consumer<HttpManagement> hmConsumer = builder.provides(EXTENSIBLE_HTTP_MANAGEMENT_CAPABILITY);
         final Supplier<ListenerRegistry> lrSupplier = builder.requires(RemotingServices.HTTP_LISTENER_REGISTRY);
         final Supplier<ModelController> mcSupplier = builder.requires(Services.JBOSS_SERVER_CONTROLLER);
+        final ServiceName operationLanesName = ManagementOperationLanes.getServiceName(context.getServiceRegistry(false), Services.JBOSS_SERVER_CONTROLLER);
+        final Supplier<ManagementOperationLanes> olSupplier = operationLanesName != null ? builder.requires(operationLanesName) : null;
         final Supplier<SocketBinding> sbSupplier = socketBindingName != null ? builder.requires(SocketBinding.SERVICE_DESCRIPTOR, socketBindingName) : null;
         final Supplier<SocketBinding> ssbSupplier = secureSocketBindingName != null ? builder.requires(SocketBinding.SERVICE_DESCRIPTOR, secureSocketBindingName) : null;
         final Supplier<SocketBindingManager> sbmSupplier = builder.requires(SocketBindingManager.SERVICE_DESCRIPTOR);
@@ -154,7 +157,7 @@ public class HttpManagementAddHandler extends BaseHttpInterfaceAddStepHandler {
             }
         }
         final Supplier<SSLContext> scSupplier = sslContext != null ? builder.requiresCapability(SSL_CONTEXT_CAPABILITY, SSLContext.class, sslContext) : null;
-        final UndertowHttpManagementService undertowService = new UndertowHttpManagementService(hmConsumer, lrSupplier, mcSupplier, sbSupplier, ssbSupplier, sbmSupplier,
+        final UndertowHttpManagementService undertowService = new UndertowHttpManagementService(hmConsumer, lrSupplier, mcSupplier, olSupplier, sbSupplier, ssbSupplier, sbmSupplier,
                 null, null, rpSupplier, xwSupplier, eSupplier, hafSupplier, scSupplier, null, null, commonPolicy.getAllowedOrigins(), consoleMode,
                 consoleSlot, commonPolicy.getConstantHeaders(), caSupplier, virtualSecurityDomainSupplier, virtualMechanismFactorySupplier,
                 commonPolicy.getBacklog(), commonPolicy.getNoRequestTimeoutMs(), commonPolicy.getConnectionHighWater(), commonPolicy.getConnectionLowWater());
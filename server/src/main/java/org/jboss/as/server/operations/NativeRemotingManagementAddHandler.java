@@ -7,21 +7,15 @@ package org.jboss.as.server.operations;
 
 import java.util.Collections;
 import java.util.List;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.function.Consumer;
-import java.util.function.Supplier;
 
+import org.jboss.as.controller.ManagementOperationLanes;
 import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.OperationFailedException;
-import org.jboss.as.controller.ModelController;
 import org.jboss.as.controller.ProcessType;
 import org.jboss.as.controller.RunningMode;
 import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
 import org.jboss.as.controller.management.ManagementInterfaceAddStepHandler;
-import org.jboss.as.controller.remote.AbstractModelControllerOperationHandlerFactoryService;
 import org.jboss.as.controller.remote.ModelControllerClientOperationHandlerFactoryService;
-import org.jboss.as.controller.remote.ModelControllerOperationHandlerFactory;
 import org.jboss.as.remoting.RemotingServices;
 import org.jboss.as.remoting.management.ManagementChannelRegistryService;
 import org.jboss.as.remoting.management.ManagementRemotingServices;
@@ -62,17 +56,9 @@ public class NativeRemotingManagementAddHandler extends ManagementInterfaceAddSt
         ManagementChannelRegistryService.addService(serviceTarget, endpointName);
         ManagementRemotingServices.installManagementChannelServices(serviceTarget,
                 endpointName,
-                new ModelControllerOperationHandlerFactory() {
-                    @Override
-                    public AbstractModelControllerOperationHandlerFactoryService newInstance(
-                            final Consumer<AbstractModelControllerOperationHandlerFactoryService> serviceConsumer,
-                            final Supplier<ModelController> modelControllerSupplier,
-                            final Supplier<ExecutorService> executorSupplier,
-                            final Supplier<ScheduledExecutorService> scheduledExecutorSupplier) {
-                        return new ModelControllerClientOperationHandlerFactoryService(serviceConsumer, modelControllerSupplier, executorSupplier, scheduledExecutorSupplier);
-                    }
-                },
+                ModelControllerClientOperationHandlerFactoryService.FACTORY,
                 Services.JBOSS_SERVER_CONTROLLER,
+                ManagementOperationLanes.getServiceName(context.getServiceRegistry(false), Services.JBOSS_SERVER_CONTROLLER),
                 ManagementRemotingServices.MANAGEMENT_CHANNEL,
                 ServerService.EXECUTOR_CAPABILITY.getCapabilityServiceName(),
                 ServerService.JBOSS_SERVER_SCHEDULED_EXECUTOR);
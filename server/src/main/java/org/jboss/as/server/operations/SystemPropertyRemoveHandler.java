@@ -10,6 +10,7 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.REMOVE;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.VALUE;
 
+import org.jboss.as.controller.ExpressionResolverImpl;
 import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.OperationFailedException;
 import org.jboss.as.controller.OperationStepHandler;
@@ -62,6 +63,7 @@ public class SystemPropertyRemoveHandler implements OperationStepHandler {
 
         if (applyToRuntime) {
             WildFlySecurityManager.clearPropertyPrivileged(name);
+            ExpressionResolverImpl.invalidateCaches();
             if (systemPropertyUpdater != null) {
                 systemPropertyUpdater.systemPropertyUpdated(name, null);
             }
@@ -74,6 +76,7 @@ public class SystemPropertyRemoveHandler implements OperationStepHandler {
             public void handleRollback(OperationContext context, ModelNode operation) {
                 if (applyToRuntime) {
                     WildFlySecurityManager.setPropertyPrivileged(name, oldValue);
+                    ExpressionResolverImpl.invalidateCaches();
                     if (systemPropertyUpdater != null) {
                         systemPropertyUpdater.systemPropertyUpdated(name, oldValue);
                     }
@@ -8,6 +8,7 @@ package org.jboss.as.server.operations;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
 
 import org.jboss.as.controller.AbstractWriteAttributeHandler;
+import org.jboss.as.controller.ExpressionResolverImpl;
 import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.OperationFailedException;
 import org.jboss.as.controller.PathAddress;
@@ -49,6 +50,7 @@ public class SystemPropertyValueWriteAttributeHandler extends AbstractWriteAttri
             } else {
                 WildFlySecurityManager.clearPropertyPrivileged(name);
             }
+            ExpressionResolverImpl.invalidateCaches();
             systemPropertyUpdater.systemPropertyUpdated(name, setValue);
 
             handbackHolder.setHandback(new SysPropValue(name, oldValue));
@@ -67,6 +69,7 @@ public class SystemPropertyValueWriteAttributeHandler extends AbstractWriteAttri
                 WildFlySecurityManager.clearPropertyPrivileged(handback.name);
             }
 
+            ExpressionResolverImpl.invalidateCaches();
             systemPropertyUpdater.systemPropertyUpdated(handback.name, handback.value);
 
         }
@@ -22,18 +22,17 @@ import javax.xml.XMLConstants;
 import javax.xml.stream.XMLStreamException;
 
 import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.SimpleAttributeDefinition;
 import org.jboss.as.controller.operations.common.NamespaceAddHandler;
 import org.jboss.as.controller.operations.common.SchemaLocationAddHandler;
 import org.jboss.as.controller.parsing.Attribute;
 import org.jboss.as.controller.parsing.Element;
 import org.jboss.as.controller.persistence.ModelMarshallingContext;
-import org.jboss.as.controller.persistence.SubsystemMarshallingContext;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.Property;
 import org.jboss.staxmapper.IntVersion;
 import org.jboss.staxmapper.XMLElementReader;
-import org.jboss.staxmapper.XMLElementWriter;
 import org.jboss.staxmapper.XMLExtendedStreamReader;
 import org.jboss.staxmapper.XMLExtendedStreamWriter;
 
@@ -215,6 +214,20 @@ public abstract class CommonXml implements XMLElementReader<List<ModelNode>> {
 
     protected static void writeSubsystems(final ModelNode profileNode, final XMLExtendedStreamWriter writer,
                                           final ModelMarshallingContext context) throws XMLStreamException {
+        writeSubsystems(PathAddress.EMPTY_ADDRESS, profileNode, writer, context);
+    }
+
+    /**
+     * Writes the subsystems of a profile.
+     *
+     * @param profileAddress the address of the profile, relative to the model being marshalled
+     * @param profileNode the model of the profile
+     * @param writer the stream writer
+     * @param context the marshalling context
+     * @throws XMLStreamException if a problem occurs writing the subsystems
+     */
+    protected static void writeSubsystems(final PathAddress profileAddress, final ModelNode profileNode, final XMLExtendedStreamWriter writer,
+                                          final ModelMarshallingContext context) throws XMLStreamException {
 
         if (profileNode.hasDefined(SUBSYSTEM)) {
             Set<String> subsystemNames = profileNode.get(SUBSYSTEM).keys();
@@ -234,10 +247,7 @@ public abstract class CommonXml implements XMLElementReader<List<ModelNode>> {
                 for (String subsystemName : subsystemNames) {
                     try {
                         ModelNode subsystem = profileNode.get(SUBSYSTEM, subsystemName);
-                        XMLElementWriter<SubsystemMarshallingContext> subsystemWriter = context.getSubsystemWriter(subsystemName);
-                        if (subsystemWriter != null) { // FIXME -- remove when extensions are doing the registration
-                            subsystemWriter.writeContent(writer, new SubsystemMarshallingContext(subsystem, writer));
-                        }
+                        context.writeSubsystem(profileAddress.append(SUBSYSTEM, subsystemName), subsystem, writer);
                     } finally {
                         writer.setDefaultNamespace(defaultNamespace);
                     }
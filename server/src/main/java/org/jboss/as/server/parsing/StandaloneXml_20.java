@@ -66,6 +66,7 @@ import org.jboss.as.controller.parsing.Attribute;
 import org.jboss.as.controller.parsing.DeferredExtensionContext;
 import org.jboss.as.controller.parsing.Element;
 import org.jboss.as.controller.parsing.ManagementXmlSchema;
+import org.jboss.as.controller.parsing.ParallelSubsystemParser;
 import org.jboss.as.controller.parsing.ParseUtils;
 import org.jboss.as.controller.parsing.ProfileParsingCompletionHandler;
 import org.jboss.as.controller.parsing.WriteUtils;
@@ -666,6 +667,8 @@ final class StandaloneXml_20 extends CommonXml implements ManagementXmlDelegate
 
         // Content
         final Map<String, List<ModelNode>> profileOps = new LinkedHashMap<String, List<ModelNode>>();
+        final ParallelSubsystemParser subsystemParser = ParallelSubsystemParser.create(reader, deferredExtensionContext.getBootExecutor());
+        final boolean ignoreSubsystemFailures = StandaloneXml.ParsingOption.IGNORE_SUBSYSTEM_FAILURES.isSet(this.parsingOptions);
         while (reader.hasNext() && reader.nextTag() != END_ELEMENT) {
             if (Element.forName(reader.getLocalName()) != Element.SUBSYSTEM) {
                 throw unexpectedElement(reader);
@@ -677,9 +680,9 @@ final class StandaloneXml_20 extends CommonXml implements ManagementXmlDelegate
             // parse subsystem
             final List<ModelNode> subsystems = new ArrayList<ModelNode>();
             try {
-                reader.handleAny(subsystems);
+                subsystemParser.parse(reader, subsystems);
             } catch (XMLStreamException e) {
-                if(StandaloneXml.ParsingOption.IGNORE_SUBSYSTEM_FAILURES.isSet(this.parsingOptions)) {
+                if (ignoreSubsystemFailures) {
                     QName element = new QName(reader.getNamespaceURI(), reader.getLocalName());
                     ControllerLogger.ROOT_LOGGER.failedToParseElementLenient(e, element.toString());
                     reader.discardRemainder();
@@ -691,6 +694,7 @@ final class StandaloneXml_20 extends CommonXml implements ManagementXmlDelegate
 
             profileOps.put(namespace, subsystems);
         }
+        subsystemParser.complete(ignoreSubsystemFailures);
 
         // Let extensions modify the profile
         Set<ProfileParsingCompletionHandler> completionHandlers = extensionHandler.getProfileParsingCompletionHandlers();